@@ -0,0 +1,109 @@
+package org.infinispan.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.remoting.transport.jgroups.JGroupsTransport;
+import org.infinispan.statetransfer.StateTransferManager;
+
+/**
+ * Starts and stops the cache managers used by the benchmarks. Clustered benchmarks run all their nodes in the
+ * benchmark JVM, connected through the in-memory JGroups stack in {@code benchmark-jgroups.xml}.
+ *
+ * @since 7.2
+ */
+final class BenchmarkSupport {
+
+   static final String CACHE_NAME = "benchmark";
+
+   private static final String JGROUPS_CONFIGURATION = "benchmark-jgroups.xml";
+   private static final long TIMEOUT_MILLIS = 60000;
+
+   private BenchmarkSupport() {
+   }
+
+   static EmbeddedCacheManager startCacheManager(boolean clustered) {
+      GlobalConfigurationBuilder global = clustered ? GlobalConfigurationBuilder.defaultClusteredBuilder() : new GlobalConfigurationBuilder();
+      global.globalJmxStatistics().allowDuplicateDomains(true);
+      if (clustered) {
+         Properties properties = new Properties();
+         properties.setProperty(JGroupsTransport.CONFIGURATION_FILE, JGROUPS_CONFIGURATION);
+         global.transport().clusterName("infinispan-benchmarks").withProperties(properties);
+      }
+      return new DefaultCacheManager(global.build());
+   }
+
+   /**
+    * Starts {@code numNodes} cache managers defining {@link #CACHE_NAME} with the given configuration, or a single one
+    * if the configuration is not clustered, and waits until all of them own their share of the data.
+    */
+   static List<EmbeddedCacheManager> startCluster(int numNodes, Configuration configuration) {
+      boolean clustered = configuration.clustering().cacheMode().isClustered();
+      int size = clustered ? numNodes : 1;
+      List<EmbeddedCacheManager> managers = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+         EmbeddedCacheManager manager = startCacheManager(clustered);
+         manager.defineConfiguration(CACHE_NAME, configuration);
+         manager.getCache(CACHE_NAME);
+         managers.add(manager);
+      }
+      if (clustered) {
+         waitForRebalance(managers);
+      }
+      return managers;
+   }
+
+   private static void waitForRebalance(List<EmbeddedCacheManager> managers) {
+      long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+      for (EmbeddedCacheManager manager : managers) {
+         StateTransferManager stateTransferManager = manager.getCache(CACHE_NAME).getAdvancedCache()
+               .getComponentRegistry().getStateTransferManager();
+         while (stateTransferManager.isStateTransferInProgress()
+               || stateTransferManager.getCacheTopology().getMembers().size() != managers.size()) {
+            if (System.currentTimeMillis() > deadline) {
+               throw new IllegalStateException("Timed out waiting for " + managers.size() + " nodes to join the cluster");
+            }
+            try {
+               Thread.sleep(50);
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+               throw new IllegalStateException(e);
+            }
+         }
+      }
+   }
+
+   static void stop(List<EmbeddedCacheManager> managers) {
+      if (managers == null) {
+         return;
+      }
+      // stop the coordinator last to avoid needless view changes
+      for (int i = managers.size() - 1; i >= 0; i--) {
+         managers.get(i).stop();
+      }
+   }
+
+   static File createTempDirectory(String prefix) {
+      File directory = new File(System.getProperty("java.io.tmpdir"), prefix + "-" + System.nanoTime());
+      if (!directory.mkdirs()) {
+         throw new IllegalStateException("Cannot create directory " + directory);
+      }
+      return directory;
+   }
+
+   static void delete(File file) {
+      File[] children = file.listFiles();
+      if (children != null) {
+         for (File child : children) {
+            delete(child);
+         }
+      }
+      file.delete();
+   }
+}
@@ -0,0 +1,97 @@
+package org.infinispan.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Cache#get(Object)} and {@link Cache#put(Object, Object)} on local, replicated and distributed
+ * caches. Clustered caches run {@code numNodes} nodes in the benchmark JVM and the operations are invoked on the
+ * first one, so a share of them are remote for distributed caches.
+ *
+ * @since 7.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+
+   @Param({"LOCAL", "REPL_SYNC", "DIST_SYNC"})
+   public CacheMode cacheMode;
+
+   @Param("3")
+   public int numNodes;
+
+   @Param("1000")
+   public int numKeys;
+
+   @Param("100")
+   public int valueSize;
+
+   private List<EmbeddedCacheManager> managers;
+   private Cache<String, byte[]> cache;
+   private AdvancedCache<String, byte[]> ignoreReturnValuesCache;
+   private String[] keys;
+   private byte[] value;
+
+   @Setup
+   public void setup() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.clustering().cacheMode(cacheMode);
+      managers = BenchmarkSupport.startCluster(numNodes, builder.build());
+      cache = managers.get(0).getCache(BenchmarkSupport.CACHE_NAME);
+      ignoreReturnValuesCache = cache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES);
+      keys = new String[numKeys];
+      value = new byte[valueSize];
+      for (int i = 0; i < numKeys; i++) {
+         keys[i] = "key" + i;
+         cache.put(keys[i], value);
+      }
+   }
+
+   @TearDown
+   public void tearDown() {
+      BenchmarkSupport.stop(managers);
+   }
+
+   @Benchmark
+   public byte[] get() {
+      return cache.get(nextKey());
+   }
+
+   @Benchmark
+   public byte[] put() {
+      return cache.put(nextKey(), value);
+   }
+
+   @Benchmark
+   public byte[] putIgnoreReturnValue() {
+      return ignoreReturnValuesCache.put(nextKey(), value);
+   }
+
+   private String nextKey() {
+      return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+   }
+}
@@ -0,0 +1,92 @@
+package org.infinispan.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reads and writes on the data container, unbounded and with eviction. With eviction enabled the key space
+ * is twice the maximum number of entries, so about half of the writes evict an entry.
+ *
+ * @since 7.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DataContainerBenchmark {
+
+   @Param({"NONE", "LRU", "LIRS"})
+   public EvictionStrategy eviction;
+
+   @Param("10000")
+   public int maxEntries;
+
+   private List<EmbeddedCacheManager> managers;
+   private DataContainer<String, String> dataContainer;
+   private Metadata metadata;
+   private String[] keys;
+
+   @Setup
+   public void setup() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      if (eviction.isEnabled()) {
+         builder.eviction().strategy(eviction).maxEntries(maxEntries);
+      }
+      managers = BenchmarkSupport.startCluster(1, builder.build());
+      dataContainer = managers.get(0).<String, String>getCache(BenchmarkSupport.CACHE_NAME)
+            .getAdvancedCache().getDataContainer();
+      metadata = new EmbeddedMetadata.Builder().build();
+      keys = new String[eviction.isEnabled() ? 2 * maxEntries : maxEntries];
+      for (int i = 0; i < keys.length; i++) {
+         keys[i] = "key" + i;
+         dataContainer.put(keys[i], keys[i], metadata);
+      }
+   }
+
+   @TearDown
+   public void tearDown() {
+      BenchmarkSupport.stop(managers);
+   }
+
+   @Benchmark
+   public Object get() {
+      return dataContainer.get(nextKey());
+   }
+
+   @Benchmark
+   public Object peek() {
+      return dataContainer.peek(nextKey());
+   }
+
+   @Benchmark
+   public void put() {
+      String key = nextKey();
+      dataContainer.put(key, key, metadata);
+   }
+
+   private String nextKey() {
+      return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+   }
+}
@@ -0,0 +1,115 @@
+package org.infinispan.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.context.InvocationContextFactory;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.interceptors.InterceptorChain;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of the interceptor chain of a local cache, by comparing a read from the data container with the
+ * same read going through the interceptor chain and through the {@link org.infinispan.Cache} API.
+ *
+ * @since 7.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class InterceptorChainBenchmark {
+
+   @Param("1000")
+   public int numKeys;
+
+   @Param({"false", "true"})
+   public boolean statistics;
+
+   private List<EmbeddedCacheManager> managers;
+   private AdvancedCache<String, String> cache;
+   private DataContainer<String, String> dataContainer;
+   private InterceptorChain interceptorChain;
+   private CommandsFactory commandsFactory;
+   private InvocationContextFactory invocationContextFactory;
+   private Metadata metadata;
+   private String[] keys;
+
+   @Setup
+   public void setup() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.jmxStatistics().enabled(statistics);
+      managers = BenchmarkSupport.startCluster(1, builder.build());
+      cache = managers.get(0).<String, String>getCache(BenchmarkSupport.CACHE_NAME).getAdvancedCache();
+      ComponentRegistry registry = cache.getComponentRegistry();
+      dataContainer = cache.getDataContainer();
+      interceptorChain = registry.getComponent(InterceptorChain.class);
+      commandsFactory = registry.getCommandsFactory();
+      invocationContextFactory = registry.getComponent(InvocationContextFactory.class);
+      metadata = new EmbeddedMetadata.Builder().build();
+      keys = new String[numKeys];
+      for (int i = 0; i < numKeys; i++) {
+         keys[i] = "key" + i;
+         cache.put(keys[i], "value" + i);
+      }
+   }
+
+   @TearDown
+   public void tearDown() {
+      BenchmarkSupport.stop(managers);
+   }
+
+   @Benchmark
+   public Object dataContainerGet() {
+      return dataContainer.get(nextKey());
+   }
+
+   @Benchmark
+   public Object interceptorChainGet() {
+      return interceptorChain.invoke(invocationContextFactory.createInvocationContext(false, 1),
+            commandsFactory.buildGetKeyValueCommand(nextKey(), null));
+   }
+
+   @Benchmark
+   public Object cacheGet() {
+      return cache.get(nextKey());
+   }
+
+   @Benchmark
+   public Object interceptorChainPut() {
+      String key = nextKey();
+      return interceptorChain.invoke(invocationContextFactory.createInvocationContext(true, 1),
+            commandsFactory.buildPutKeyValueCommand(key, key, metadata, null));
+   }
+
+   @Benchmark
+   public Object cachePut() {
+      String key = nextKey();
+      return cache.put(key, key);
+   }
+
+   private String nextKey() {
+      return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+   }
+}
@@ -0,0 +1,93 @@
+package org.infinispan.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.container.entries.TransientMortalCacheEntry;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures round-trips of typical payloads through the global marshaller.
+ *
+ * @since 7.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class MarshallerBenchmark {
+
+   @Param({"string", "bytes", "immortalEntry", "mortalEntry"})
+   public String payload;
+
+   @Param("100")
+   public int valueSize;
+
+   private List<EmbeddedCacheManager> managers;
+   private StreamingMarshaller marshaller;
+   private Object object;
+   private byte[] bytes;
+
+   @Setup
+   public void setup() throws Exception {
+      managers = BenchmarkSupport.startCluster(1, new ConfigurationBuilder().build());
+      marshaller = managers.get(0).getGlobalComponentRegistry()
+            .getComponent(StreamingMarshaller.class, KnownComponentNames.GLOBAL_MARSHALLER);
+      byte[] value = new byte[valueSize];
+      switch (payload) {
+         case "string":
+            object = new String(new char[valueSize]).replace('\0', 'x');
+            break;
+         case "bytes":
+            object = value;
+            break;
+         case "immortalEntry":
+            object = new ImmortalCacheEntry("key", value);
+            break;
+         case "mortalEntry":
+            object = new TransientMortalCacheEntry("key", value, 60000, 120000, System.currentTimeMillis());
+            break;
+         default:
+            throw new IllegalArgumentException("Unknown payload: " + payload);
+      }
+      bytes = marshaller.objectToByteBuffer(object);
+   }
+
+   @TearDown
+   public void tearDown() {
+      BenchmarkSupport.stop(managers);
+   }
+
+   @Benchmark
+   public byte[] marshall() throws Exception {
+      return marshaller.objectToByteBuffer(object);
+   }
+
+   @Benchmark
+   public Object unmarshall() throws Exception {
+      return marshaller.objectFromByteBuffer(bytes);
+   }
+
+   @Benchmark
+   public Object roundTrip() throws Exception {
+      return marshaller.objectFromByteBuffer(marshaller.objectToByteBuffer(object));
+   }
+}
@@ -0,0 +1,105 @@
+package org.infinispan.benchmarks;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.marshall.core.MarshalledEntryFactory;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfigurationBuilder;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reads and writes going straight to the file based stores, bypassing the cache.
+ *
+ * @since 7.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class StoreBenchmark {
+
+   @Param({"SingleFileStore", "SoftIndexFileStore"})
+   public String store;
+
+   @Param("10000")
+   public int numKeys;
+
+   @Param("100")
+   public int valueSize;
+
+   private File location;
+   private List<EmbeddedCacheManager> managers;
+   private AdvancedLoadWriteStore<String, byte[]> loadWriteStore;
+   private MarshalledEntry<String, byte[]>[] entries;
+
+   @Setup
+   @SuppressWarnings("unchecked")
+   public void setup() {
+      location = BenchmarkSupport.createTempDirectory("infinispan-store-benchmark");
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      switch (store) {
+         case "SingleFileStore":
+            builder.persistence().addSingleFileStore().location(location.getAbsolutePath());
+            break;
+         case "SoftIndexFileStore":
+            builder.persistence().addStore(SoftIndexFileStoreConfigurationBuilder.class)
+                  .dataLocation(new File(location, "data").getAbsolutePath())
+                  .indexLocation(new File(location, "index").getAbsolutePath());
+            break;
+         default:
+            throw new IllegalArgumentException("Unknown store: " + store);
+      }
+      managers = BenchmarkSupport.startCluster(1, builder.build());
+      ComponentRegistry registry = managers.get(0).getCache(BenchmarkSupport.CACHE_NAME).getAdvancedCache()
+            .getComponentRegistry();
+      loadWriteStore = registry.getComponent(PersistenceManager.class).getStores(AdvancedLoadWriteStore.class)
+            .iterator().next();
+      MarshalledEntryFactory<String, byte[]> entryFactory = registry.getComponent(MarshalledEntryFactory.class);
+      entries = new MarshalledEntry[numKeys];
+      for (int i = 0; i < numKeys; i++) {
+         entries[i] = entryFactory.newMarshalledEntry("key" + i, new byte[valueSize], null);
+         loadWriteStore.write(entries[i]);
+      }
+   }
+
+   @TearDown
+   public void tearDown() {
+      BenchmarkSupport.stop(managers);
+      BenchmarkSupport.delete(location);
+   }
+
+   @Benchmark
+   public Object load() {
+      return loadWriteStore.load(nextEntry().getKey());
+   }
+
+   @Benchmark
+   public void write() {
+      loadWriteStore.write(nextEntry());
+   }
+
+   private MarshalledEntry<String, byte[]> nextEntry() {
+      return entries[ThreadLocalRandom.current().nextInt(entries.length)];
+   }
+}
@@ -270,6 +270,17 @@
     */
    Map<K, V> getBulk(int size);
 
+   /**
+    * Retrieves all of the entries for the provided keys. The keys are grouped by the server owning them and a single
+    * request is sent to each of those servers, in parallel, instead of one request per key.
+    *
+    * @param keys the keys whose associated values are to be returned
+    * @return the entries found for the given keys; keys which are not mapped to a value are not in the returned Map,
+    *         which is unmodifiable
+    * @since 7.2
+    */
+   Map<K, V> getAll(Set<? extends K> keys);
+
 
    /**
     * Returns the HotRod protocol version supported by this RemoteCache implementation
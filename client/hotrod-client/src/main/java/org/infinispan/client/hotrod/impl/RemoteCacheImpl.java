@@ -8,7 +8,7 @@
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -28,8 +28,9 @@
 import org.infinispan.client.hotrod.logging.LogFactory;
 import org.infinispan.client.hotrod.marshall.MarshallerUtil;
 import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.commons.util.concurrent.FutureListener;
 import org.infinispan.commons.util.concurrent.NotifyingFuture;
-import org.infinispan.commons.util.concurrent.NotifyingFutureImpl;
 
 /**
  * @author Mircea.Markus@jboss.com
@@ -83,30 +84,8 @@ public boolean removeWithVersion(K key, long version) {
    @Override
    public NotifyingFuture<Boolean> removeWithVersionAsync(final K key, final long version) {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<Boolean> result = new NotifyingFutureImpl<Boolean>();
-      Future<Boolean> future = executorService.submit(new Callable<Boolean>() {
-         @Override
-         public Boolean call() throws Exception {
-            try {
-               boolean removed = removeWithVersion(key, version);
-               try {
-                  result.notifyDone(removed);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               return removed;
-            } catch (Exception e) {
-               try {
-                  result.notifyException(e);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               throw e;
-            }
-         }
-      });
-      result.setFuture(future);
-      return result;
+      RemoveIfUnmodifiedOperation op = operationsFactory.newRemoveIfUnmodifiedOperation(obj2bytes(key, true), version);
+      return isUpdatedAsync(op.executeAsync(executorService));
    }
 
    @Override
@@ -120,30 +99,8 @@ public boolean replaceWithVersion(K key, V newValue, long version, int lifespanS
    @Override
    public NotifyingFuture<Boolean> replaceWithVersionAsync(final K key, final V newValue, final long version, final int lifespanSeconds, final int maxIdleSeconds) {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<Boolean> result = new NotifyingFutureImpl<Boolean>();
-      Future<Boolean> future = executorService.submit(new Callable<Boolean>() {
-         @Override
-         public Boolean call() throws Exception {
-            try {
-               boolean removed = replaceWithVersion(key, newValue, version, lifespanSeconds, maxIdleSeconds);
-               try {
-                  result.notifyDone(removed);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               return removed;
-            } catch (Exception e) {
-               try {
-                  result.notifyException(e);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               throw e;
-            }
-         }
-      });
-      result.setFuture(future);
-      return result;
+      ReplaceIfUnmodifiedOperation op = operationsFactory.newReplaceIfUnmodifiedOperation(obj2bytes(key, true), obj2bytes(newValue, false), lifespanSeconds, maxIdleSeconds, version);
+      return isUpdatedAsync(op.executeAsync(executorService));
    }
 
    @Override
@@ -165,6 +122,11 @@ public MetadataValue<V> getWithMetadata(K key) {
    @Override
    public void putAll(Map<? extends K, ? extends V> map, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       assertRemoteCacheManagerIsStarted();
+      PutAllOperation op = newPutAllOperation(map, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+      op.execute();
+   }
+
+   private PutAllOperation newPutAllOperation(Map<? extends K, ? extends V> map, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       int lifespanSecs = toSeconds(lifespan, lifespanUnit);
       int maxIdleSecs = toSeconds(maxIdleTime, maxIdleTimeUnit);
       applyDefaultExpirationFlags(lifespan, maxIdleTime);
@@ -175,38 +137,14 @@ public void putAll(Map<? extends K, ? extends V> map, long lifespan, TimeUnit li
       for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
          byteMap.put(obj2bytes(entry.getKey(),  true), obj2bytes(entry.getValue(), false));
       }
-      PutAllOperation op = operationsFactory.newPutAllOperation(byteMap, lifespanSecs, maxIdleSecs);
-      op.execute();
+      return operationsFactory.newPutAllOperation(byteMap, lifespanSecs, maxIdleSecs);
    }
 
    @Override
    public NotifyingFuture<Void> putAllAsync(final Map<? extends K, ? extends V> data, final long lifespan, final TimeUnit lifespanUnit, final long maxIdle, final TimeUnit maxIdleUnit) {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<Void> result = new NotifyingFutureImpl<Void>();
-      Future<Void> future = executorService.submit(new Callable<Void>() {
-         @Override
-         public Void call() throws Exception {
-            try {
-               putAll(data, lifespan, lifespanUnit, maxIdle, maxIdleUnit);
-               try {
-                  result.notifyDone(null);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               return null;
-            } catch (Exception e) {
-               try {
-                  result.notifyException(e);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               throw e;
-            }
-         }
-      });
-      result.setFuture(future);
-      return result;
-
+      PutAllOperation op = newPutAllOperation(data, lifespan, lifespanUnit, maxIdle, maxIdleUnit);
+      return op.executeAsync(executorService);
    }
 
    @Override
@@ -236,183 +174,85 @@ public ServerStatistics stats() {
    @Override
    public V put(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       assertRemoteCacheManagerIsStarted();
+      PutOperation op = newPutOperation(key, value, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+      byte[] result = op.execute();
+      return MarshallerUtil.bytes2obj(marshaller, result);
+   }
+
+   private PutOperation newPutOperation(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       int lifespanSecs = toSeconds(lifespan, lifespanUnit);
       int maxIdleSecs = toSeconds(maxIdleTime, maxIdleTimeUnit);
       applyDefaultExpirationFlags(lifespan, maxIdleTime);
       if (log.isTraceEnabled()) {
          log.tracef("About to add (K,V): (%s, %s) lifespanSecs:%d, maxIdleSecs:%d", key, value, lifespanSecs, maxIdleSecs);
       }
-      PutOperation op = operationsFactory.newPutKeyValueOperation(obj2bytes(key, true), obj2bytes(value, false), lifespanSecs, maxIdleSecs);
-      byte[] result = op.execute();
-      return MarshallerUtil.bytes2obj(marshaller, result);
+      return operationsFactory.newPutKeyValueOperation(obj2bytes(key, true), obj2bytes(value, false), lifespanSecs, maxIdleSecs);
    }
 
 
    @Override
    public V putIfAbsent(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       assertRemoteCacheManagerIsStarted();
+      PutIfAbsentOperation op = newPutIfAbsentOperation(key, value, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+      byte[] bytes = op.execute();
+      return MarshallerUtil.bytes2obj(marshaller, bytes);
+   }
+
+   private PutIfAbsentOperation newPutIfAbsentOperation(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       int lifespanSecs = toSeconds(lifespan, lifespanUnit);
       int maxIdleSecs = toSeconds(maxIdleTime, maxIdleTimeUnit);
       applyDefaultExpirationFlags(lifespan, maxIdleTime);
-      PutIfAbsentOperation op = operationsFactory.newPutIfAbsentOperation(obj2bytes(key, true), obj2bytes(value, false), lifespanSecs, maxIdleSecs);
-      byte[] bytes = op.execute();
-      return MarshallerUtil.bytes2obj(marshaller, bytes);
+      return operationsFactory.newPutIfAbsentOperation(obj2bytes(key, true), obj2bytes(value, false), lifespanSecs, maxIdleSecs);
    }
 
    @Override
    public V replace(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       assertRemoteCacheManagerIsStarted();
+      ReplaceOperation op = newReplaceOperation(key, value, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+      byte[] bytes = op.execute();
+      return MarshallerUtil.bytes2obj(marshaller, bytes);
+   }
+
+   private ReplaceOperation newReplaceOperation(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       int lifespanSecs = toSeconds(lifespan, lifespanUnit);
       int maxIdleSecs = toSeconds(maxIdleTime, maxIdleTimeUnit);
       applyDefaultExpirationFlags(lifespan, maxIdleTime);
-      ReplaceOperation op = operationsFactory.newReplaceOperation(obj2bytes(key, true), obj2bytes(value, false), lifespanSecs, maxIdleSecs);
-      byte[] bytes = op.execute();
-      return MarshallerUtil.bytes2obj(marshaller, bytes);
+      return operationsFactory.newReplaceOperation(obj2bytes(key, true), obj2bytes(value, false), lifespanSecs, maxIdleSecs);
    }
 
    @Override
    public NotifyingFuture<V> putAsync(final K key, final V value, final long lifespan, final TimeUnit lifespanUnit, final long maxIdle, final TimeUnit maxIdleUnit) {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
-      Future<V> future = executorService.submit(new Callable<V>() {
-         @Override
-         public V call() throws Exception {
-            try {
-               V prevValue = put(key, value, lifespan, lifespanUnit, maxIdle, maxIdleUnit);
-               try {
-                  result.notifyDone(prevValue);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               return prevValue;
-            } catch (Exception e) {
-               try {
-                  result.notifyException(e);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               throw e;
-            }
-         }
-      });
-      result.setFuture(future);
-      return result;
+      PutOperation op = newPutOperation(key, value, lifespan, lifespanUnit, maxIdle, maxIdleUnit);
+      return unmarshallAsync(op.executeAsync(executorService));
    }
 
    @Override
    public NotifyingFuture<Void> clearAsync() {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<Void> result = new NotifyingFutureImpl<Void>();
-      Future<Void> future = executorService.submit(new Callable<Void>() {
-         @Override
-         public Void call() throws Exception {
-            try {
-               clear();
-               try {
-                  result.notifyDone(null);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               return null;
-            } catch (Exception e) {
-               try {
-                  result.notifyException(e);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               throw e;
-            }
-         }
-      });
-      result.setFuture(future);
-      return result;
+      ClearOperation op = operationsFactory.newClearOperation();
+      return op.executeAsync(executorService);
    }
 
    @Override
    public NotifyingFuture<V> putIfAbsentAsync(final K key,final V value,final long lifespan,final TimeUnit lifespanUnit,final long maxIdle,final TimeUnit maxIdleUnit) {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
-      Future<V> future = executorService.submit(new Callable<V>() {
-         @Override
-         public V call() throws Exception {
-            try {
-               V prevValue = putIfAbsent(key, value, lifespan, lifespanUnit, maxIdle, maxIdleUnit);
-               try {
-                  result.notifyDone(prevValue);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               return prevValue;
-            } catch (Exception e) {
-               try {
-                  result.notifyException(e);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               throw e;
-            }
-         }
-      });
-      result.setFuture(future);
-      return result;
+      PutIfAbsentOperation op = newPutIfAbsentOperation(key, value, lifespan, lifespanUnit, maxIdle, maxIdleUnit);
+      return unmarshallAsync(op.executeAsync(executorService));
    }
 
    @Override
    public NotifyingFuture<V> removeAsync(final Object key) {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
-      Future<V> future = executorService.submit(new Callable<V>() {
-         @Override
-         public V call() throws Exception {
-            try {
-               V toReturn = remove(key);
-               try {
-                  result.notifyDone(toReturn);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               return toReturn;
-            } catch (Exception e) {
-               try {
-                  result.notifyException(e);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               throw e;
-            }
-         }
-      });
-      result.setFuture(future);
-      return result;
+      RemoveOperation op = operationsFactory.newRemoveOperation(obj2bytes(key, true));
+      return unmarshallAsync(op.executeAsync(executorService));
    }
 
    @Override
    public NotifyingFuture<V> replaceAsync(final K key,final V value,final long lifespan,final TimeUnit lifespanUnit,final long maxIdle,final TimeUnit maxIdleUnit) {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
-      Future<V> future = executorService.submit(new Callable<V>() {
-         @Override
-         public V call() throws Exception {
-            try {
-               V old = replace(key, value, lifespan, lifespanUnit, maxIdle, maxIdleUnit);
-               try {
-                  result.notifyDone(old);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               return old;
-            } catch (Exception e) {
-               try {
-                  result.notifyException(e);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               throw e;
-            }
-         }
-      });
-      result.setFuture(future);
-      return result;
+      ReplaceOperation op = newReplaceOperation(key, value, lifespan, lifespanUnit, maxIdle, maxIdleUnit);
+      return unmarshallAsync(op.executeAsync(executorService));
    }
 
    @Override
@@ -454,6 +294,27 @@ public Map<K, V> getBulk(int size) {
       return Collections.unmodifiableMap(toReturn);
    }
 
+   @Override
+   public Map<K, V> getAll(Set<? extends K> keys) {
+      assertRemoteCacheManagerIsStarted();
+      if (log.isTraceEnabled()) {
+         log.tracef("About to getAll entries (%s)", keys);
+      }
+      Set<byte[]> byteKeys = new HashSet<byte[]>(keys.size());
+      for (K key : keys) {
+         byteKeys.add(obj2bytes(key, true));
+      }
+      GetAllParallelOperation op = operationsFactory.newGetAllOperation(byteKeys, executorService);
+      Map<byte[], byte[]> result = op.execute();
+      Map<K, V> toReturn = new HashMap<K, V>(result.size());
+      for (Map.Entry<byte[], byte[]> entry : result.entrySet()) {
+         V value = MarshallerUtil.bytes2obj(marshaller, entry.getValue());
+         K key = MarshallerUtil.bytes2obj(marshaller, entry.getKey());
+         toReturn.put(key, value);
+      }
+      return Collections.unmodifiableMap(toReturn);
+   }
+
    @Override
    public V remove(Object key) {
       assertRemoteCacheManagerIsStarted();
@@ -552,30 +413,8 @@ public RemoteCache<K, V> withFlags(Flag... flags) {
    @Override
    public NotifyingFuture<V> getAsync(final K key) {
       assertRemoteCacheManagerIsStarted();
-      final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
-      Future<V> future = executorService.submit(new Callable<V>() {
-         @Override
-         public V call() throws Exception {
-            try {
-               V toReturn = get(key);
-               try {
-                  result.notifyDone(toReturn);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               return toReturn;
-            } catch (Exception e) {
-               try {
-                  result.notifyException(e);
-               } catch (Throwable t) {
-                  log.trace("Error when notifying", t);
-               }
-               throw e;
-            }
-         }
-      });
-      result.setFuture(future);
-      return result;
+      GetOperation op = operationsFactory.newGetKeyOperation(obj2bytes(key, true));
+      return unmarshallAsync(op.executeAsync(executorService));
    }
 
    public PingOperation.PingResult ping() {
@@ -594,6 +433,28 @@ private byte[] obj2bytes(Object o, boolean isKey) {
       }
    }
 
+   private NotifyingFuture<V> unmarshallAsync(NotifyingFuture<byte[]> bytes) {
+      AsyncResult<byte[], V> result = new AsyncResult<byte[], V>() {
+         @Override
+         V convert(byte[] value) {
+            return MarshallerUtil.bytes2obj(marshaller, value);
+         }
+      };
+      bytes.attachListener(result);
+      return result;
+   }
+
+   private NotifyingFuture<Boolean> isUpdatedAsync(NotifyingFuture<VersionedOperationResponse> response) {
+      AsyncResult<VersionedOperationResponse, Boolean> result = new AsyncResult<VersionedOperationResponse, Boolean>() {
+         @Override
+         Boolean convert(VersionedOperationResponse value) {
+            return value.getCode().isUpdated();
+         }
+      };
+      response.attachListener(result);
+      return result;
+   }
+
    private VersionedValue<V> binary2VersionedValue(VersionedValue<byte[]> value) {
       if (value == null)
          return null;
@@ -672,4 +533,25 @@ public <T> T execute(String taskName, Map<String, ?> params) {
 		ExecuteOperation op = operationsFactory.newExecuteOperation(taskName, marshalledParams);
 		return MarshallerUtil.bytes2obj(marshaller, op.execute());
 	} 
+
+   /**
+    * Completes with the converted result of the future it listens to, in the thread completing that future.
+    */
+   private abstract static class AsyncResult<S, R> extends CompletableNotifyingFuture<R> implements FutureListener<S> {
+      @Override
+      public void futureDone(Future<S> future) {
+         try {
+            complete(convert(future.get()));
+         } catch (ExecutionException e) {
+            completeExceptionally(e.getCause());
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            completeExceptionally(e);
+         } catch (Throwable t) {
+            completeExceptionally(t);
+         }
+      }
+
+      abstract R convert(S value);
+   }
 }
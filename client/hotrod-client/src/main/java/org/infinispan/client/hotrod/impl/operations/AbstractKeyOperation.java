@@ -44,13 +44,18 @@ protected Transport getTransport(int retryCount, Set<SocketAddress> failedServer
    }
 
    protected short sendKeyOperation(byte[] key, Transport transport, byte opCode, byte opRespCode) {
+      HeaderParams params = writeKeyRequest(key, transport, opCode);
+
+      // 2) now read the header
+      return readHeaderAndValidate(transport, params);
+   }
+
+   protected HeaderParams writeKeyRequest(byte[] key, Transport transport, byte opCode) {
       // 1) write [header][key length][key]
       HeaderParams params = writeHeader(transport, opCode);
       transport.writeArray(key);
       transport.flush();
-
-      // 2) now read the header
-      return readHeaderAndValidate(transport, params);
+      return params;
    }
 
    protected byte[] returnPossiblePrevValue(Transport transport, short status) {
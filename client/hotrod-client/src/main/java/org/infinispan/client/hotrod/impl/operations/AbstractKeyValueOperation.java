@@ -34,6 +34,15 @@ protected AbstractKeyValueOperation(Codec codec, TransportFactory transportFacto
 
    //[header][key length][key][lifespan][max idle][value length][value]
    protected short sendPutOperation(Transport transport, short opCode, byte opRespCode) {
+      HeaderParams params = writePutRequest(transport, opCode);
+
+      // 3) now read header
+
+      //return status (not error status for sure)
+      return readHeaderAndValidate(transport, params);
+   }
+
+   protected HeaderParams writePutRequest(Transport transport, short opCode) {
       // 1) write header
       HeaderParams params = writeHeader(transport, opCode);
 
@@ -43,10 +52,6 @@ protected short sendPutOperation(Transport transport, short opCode, byte opRespC
       transport.writeVInt(maxIdle);
       transport.writeArray(value);
       transport.flush();
-
-      // 3) now read header
-
-      //return status (not error status for sure)
-      return readHeaderAndValidate(transport, params);
+      return params;
    }
 }
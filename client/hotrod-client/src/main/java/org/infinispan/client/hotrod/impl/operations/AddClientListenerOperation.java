@@ -63,7 +63,7 @@ private byte[] generateListenerId() {
 
    @Override
    protected Transport getTransport(int retryCount, Set<SocketAddress> failedServers) {
-      this.dedicatedTransport = transportFactory.getTransport(failedServers, cacheName);
+      this.dedicatedTransport = transportFactory.getDedicatedTransport(failedServers, cacheName);
       return dedicatedTransport;
    }
 
@@ -32,9 +32,18 @@ protected Transport getTransport(int retryCount, Set<SocketAddress> failedServer
 
    @Override
    protected Void executeOperation(Transport transport) {
+      return readResponse(transport, writeRequest(transport));
+   }
+
+   @Override
+   protected HeaderParams writeRequest(Transport transport) {
       HeaderParams params = writeHeader(transport, CLEAR_REQUEST);
       transport.flush();
+      return params;
+   }
 
+   @Override
+   protected Void readResponse(Transport transport, HeaderParams params) {
       readHeaderAndValidate(transport, params);
       return null;
    }
@@ -0,0 +1,85 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import java.net.SocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.jcip.annotations.Immutable;
+
+import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.exceptions.InvalidResponseException;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.Codec20;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
+import org.infinispan.client.hotrod.impl.transport.Transport;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+
+/**
+ * Implements "getAll" as defined by <a href="http://community.jboss.org/wiki/HotRodProtocol">Hot Rod protocol specification</a>.
+ * The request is sent to the owner of the first key, so all the keys are expected to be owned by the same server.
+ * Hot Rod 1.x servers don't support it, so with the 1.x protocol a "get" is sent for each key instead, on the same
+ * connection.
+ *
+ * @since 7.2
+ */
+@Immutable
+public class GetAllOperation extends RetryOnFailureOperation<Map<byte[], byte[]>> {
+
+   public GetAllOperation(Codec codec, TransportFactory transportFactory,
+                          Set<byte[]> keys, byte[] cacheName, AtomicInteger topologyId,
+                          Flag[] flags) {
+      super(codec, transportFactory, cacheName, topologyId, flags);
+      this.keys = keys;
+      // the 2.x codecs all extend Codec20
+      this.getAllSupported = codec instanceof Codec20;
+   }
+
+   protected final Set<byte[]> keys;
+   private final boolean getAllSupported;
+
+   @Override
+   protected Map<byte[], byte[]> executeOperation(Transport transport) {
+      if (!getAllSupported) {
+         return executeGets(transport);
+      }
+      HeaderParams params = writeHeader(transport, GET_ALL_REQUEST);
+      transport.writeVInt(keys.size());
+      for (byte[] key : keys) {
+         transport.writeArray(key);
+      }
+      transport.flush();
+
+      short status = readHeaderAndValidate(transport, params);
+      if (status != NO_ERROR_STATUS) {
+         throw new InvalidResponseException("Unexpected response status: " + Integer.toHexString(status));
+      }
+      int size = transport.readVInt();
+      Map<byte[], byte[]> result = new HashMap<byte[], byte[]>(size);
+      for (int i = 0; i < size; i++) {
+         result.put(transport.readArray(), transport.readArray());
+      }
+      return result;
+   }
+
+   private Map<byte[], byte[]> executeGets(Transport transport) {
+      Map<byte[], byte[]> result = new HashMap<byte[], byte[]>(keys.size());
+      for (byte[] key : keys) {
+         HeaderParams params = writeHeader(transport, GET_REQUEST);
+         transport.writeArray(key);
+         transport.flush();
+
+         short status = readHeaderAndValidate(transport, params);
+         if (status == NO_ERROR_STATUS) {
+            result.put(key, transport.readArray());
+         }
+      }
+      return result;
+   }
+
+   @Override
+   protected Transport getTransport(int retryCount, Set<SocketAddress> failedServers) {
+      return transportFactory.getTransport(keys.iterator().next(), failedServers, cacheName);
+   }
+}
@@ -0,0 +1,108 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.exceptions.HotRodClientException;
+import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHash;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+
+/**
+ * Splits the keys of a "getAll" by the server owning them according to the consistent hash, and sends a
+ * {@link GetAllOperation} to each of those servers in parallel. The last request is executed by the calling thread.
+ *
+ * @since 7.2
+ */
+public class GetAllParallelOperation {
+
+   private final Codec codec;
+   private final TransportFactory transportFactory;
+   private final Set<byte[]> keys;
+   private final byte[] cacheName;
+   private final AtomicInteger topologyId;
+   private final Flag[] flags;
+   private final ExecutorService executorService;
+
+   public GetAllParallelOperation(Codec codec, TransportFactory transportFactory, Set<byte[]> keys, byte[] cacheName,
+                                  AtomicInteger topologyId, Flag[] flags, ExecutorService executorService) {
+      this.codec = codec;
+      this.transportFactory = transportFactory;
+      this.keys = keys;
+      this.cacheName = cacheName;
+      this.topologyId = topologyId;
+      this.flags = flags;
+      this.executorService = executorService;
+   }
+
+   public Map<byte[], byte[]> execute() {
+      if (keys.isEmpty()) {
+         return Collections.emptyMap();
+      }
+      List<GetAllOperation> operations = splitByServer();
+      List<Future<Map<byte[], byte[]>>> futures = new ArrayList<Future<Map<byte[], byte[]>>>(operations.size() - 1);
+      for (final GetAllOperation operation : operations.subList(0, operations.size() - 1)) {
+         futures.add(executorService.submit(new Callable<Map<byte[], byte[]>>() {
+            @Override
+            public Map<byte[], byte[]> call() {
+               return operation.execute();
+            }
+         }));
+      }
+      Map<byte[], byte[]> result = new HashMap<byte[], byte[]>(keys.size());
+      result.putAll(operations.get(operations.size() - 1).execute());
+      for (Future<Map<byte[], byte[]>> future : futures) {
+         try {
+            result.putAll(future.get());
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HotRodClientException(e);
+         } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+               throw (RuntimeException) cause;
+            }
+            throw new HotRodClientException(cause);
+         }
+      }
+      return result;
+   }
+
+   private List<GetAllOperation> splitByServer() {
+      ConsistentHash consistentHash = transportFactory.getConsistentHash(cacheName);
+      if (consistentHash == null) {
+         return Collections.singletonList(newGetAllOperation(keys));
+      }
+      Map<SocketAddress, Set<byte[]>> keysByServer = new HashMap<SocketAddress, Set<byte[]>>();
+      for (byte[] key : keys) {
+         SocketAddress server = consistentHash.getServer(key);
+         Set<byte[]> serverKeys = keysByServer.get(server);
+         if (serverKeys == null) {
+            serverKeys = new HashSet<byte[]>();
+            keysByServer.put(server, serverKeys);
+         }
+         serverKeys.add(key);
+      }
+      List<GetAllOperation> operations = new ArrayList<GetAllOperation>(keysByServer.size());
+      for (Set<byte[]> serverKeys : keysByServer.values()) {
+         operations.add(newGetAllOperation(serverKeys));
+      }
+      return operations;
+   }
+
+   private GetAllOperation newGetAllOperation(Set<byte[]> serverKeys) {
+      return new GetAllOperation(codec, transportFactory, serverKeys, cacheName, topologyId, flags);
+   }
+}
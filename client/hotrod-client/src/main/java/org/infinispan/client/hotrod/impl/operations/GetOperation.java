@@ -3,6 +3,7 @@
 import net.jcip.annotations.Immutable;
 import org.infinispan.client.hotrod.Flag;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
 
@@ -24,8 +25,18 @@ public GetOperation(Codec codec, TransportFactory transportFactory,
 
    @Override
    public byte[] executeOperation(Transport transport) {
+      return readResponse(transport, writeRequest(transport));
+   }
+
+   @Override
+   protected HeaderParams writeRequest(Transport transport) {
+      return writeKeyRequest(key, transport, GET_REQUEST);
+   }
+
+   @Override
+   protected byte[] readResponse(Transport transport, HeaderParams params) {
       byte[] result = null;
-      short status = sendKeyOperation(key, transport, GET_REQUEST, GET_RESPONSE);
+      short status = readHeaderAndValidate(transport, params);
       if (status == KEY_DOES_NOT_EXIST_STATUS) {
          result = null;
       } else {
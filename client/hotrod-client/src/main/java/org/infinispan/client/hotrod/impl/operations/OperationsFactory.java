@@ -18,7 +18,9 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -116,6 +118,11 @@ codec, transportFactory, map, cacheNameBytes, topologyId, flags(),
             lifespanSecs, maxIdleSecs);
    }
 
+   public GetAllParallelOperation newGetAllOperation(Set<byte[]> keys, ExecutorService executorService) {
+      return new GetAllParallelOperation(
+            codec, transportFactory, keys, cacheNameBytes, topologyId, flags(), executorService);
+   }
+
    public PutIfAbsentOperation newPutIfAbsentOperation(byte[] key, byte[] value,
             int lifespanSecs, int maxIdleSecs) {
       return new PutIfAbsentOperation(
@@ -39,6 +39,11 @@ public PutAllOperation(Codec codec, TransportFactory transportFactory,
 
    @Override
    protected Void executeOperation(Transport transport) {
+      return readResponse(transport, writeRequest(transport));
+   }
+
+   @Override
+   protected HeaderParams writeRequest(Transport transport) {
       HeaderParams params = writeHeader(transport, PUT_ALL_REQUEST);
       transport.writeVInt(lifespan);
       transport.writeVInt(maxIdle);
@@ -48,7 +53,11 @@ protected Void executeOperation(Transport transport) {
          transport.writeArray(entry.getValue());
       }
       transport.flush();
+      return params;
+   }
 
+   @Override
+   protected Void readResponse(Transport transport, HeaderParams params) {
       short status = readHeaderAndValidate(transport, params);
       if (status != NO_ERROR_STATUS) {
          throw new InvalidResponseException("Unexpected response status: " + Integer.toHexString(status));
@@ -7,6 +7,7 @@
 import org.infinispan.client.hotrod.Flag;
 import org.infinispan.client.hotrod.exceptions.InvalidResponseException;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
 
@@ -27,7 +28,17 @@ public PutOperation(Codec codec, TransportFactory transportFactory,
 
    @Override
    protected byte[] executeOperation(Transport transport) {
-      short status = sendPutOperation(transport, PUT_REQUEST, PUT_RESPONSE);
+      return readResponse(transport, writeRequest(transport));
+   }
+
+   @Override
+   protected HeaderParams writeRequest(Transport transport) {
+      return writePutRequest(transport, PUT_REQUEST);
+   }
+
+   @Override
+   protected byte[] readResponse(Transport transport, HeaderParams params) {
+      short status = readHeaderAndValidate(transport, params);
       if (status != NO_ERROR_STATUS && status != SUCCESS_WITH_PREVIOUS) {
          throw new InvalidResponseException("Unexpected response status: " + Integer.toHexString(status));
       }
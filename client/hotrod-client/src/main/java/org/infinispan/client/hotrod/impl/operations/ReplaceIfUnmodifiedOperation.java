@@ -28,6 +28,11 @@ public ReplaceIfUnmodifiedOperation(Codec codec, TransportFactory transportFacto
 
    @Override
    protected VersionedOperationResponse executeOperation(Transport transport) {
+      return readResponse(transport, writeRequest(transport));
+   }
+
+   @Override
+   protected HeaderParams writeRequest(Transport transport) {
       // 1) write header
       HeaderParams params = writeHeader(transport, REPLACE_IF_UNMODIFIED_REQUEST);
 
@@ -38,7 +43,11 @@ protected VersionedOperationResponse executeOperation(Transport transport) {
       transport.writeLong(version);
       transport.writeArray(value);
       transport.flush();
+      return params;
+   }
 
+   @Override
+   protected VersionedOperationResponse readResponse(Transport transport, HeaderParams params) {
       return returnVersionedOperationResponse(transport, params);
    }
 }
@@ -7,14 +7,20 @@
 import org.infinispan.client.hotrod.exceptions.RemoteNodeSuspectException;
 import org.infinispan.client.hotrod.exceptions.TransportException;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
+import org.infinispan.client.hotrod.impl.transport.AsyncTransport;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
 import org.infinispan.client.hotrod.logging.Log;
 import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 
 import java.net.SocketAddress;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -80,6 +86,51 @@ public T execute() {
       throw new IllegalStateException("We should not reach here!");
    }
 
+   /**
+    * Executes the operation without holding a thread while waiting for the response, if the transport factory
+    * {@link TransportFactory#isAsync() supports it}: the request is sent by the calling thread, and the response is read
+    * by {@code executor} once received. Retries are sent by {@code executor} too. Otherwise the whole operation is
+    * executed by {@code executor}. Either way, the returned future is never completed by an I/O thread, unless
+    * {@code executor} rejects the task reading the response, so its listeners may block.
+    * <p>
+    * Only the operations implementing {@link #writeRequest(Transport)} and
+    * {@link #readResponse(Transport, HeaderParams)} can be executed asynchronously.
+    */
+   public NotifyingFuture<T> executeAsync(ExecutorService executor) {
+      final CompletableNotifyingFuture<T> result = new CompletableNotifyingFuture<T>();
+      if (transportFactory.isAsync()) {
+         new AsyncExecution(result, executor).send();
+      } else {
+         executor.execute(new Runnable() {
+            @Override
+            public void run() {
+               try {
+                  result.complete(execute());
+               } catch (Throwable t) {
+                  result.completeExceptionally(t);
+               }
+            }
+         });
+      }
+      return result;
+   }
+
+   /**
+    * Writes and flushes the request of the operation.
+    *
+    * @return the parameters needed to read the response
+    */
+   protected HeaderParams writeRequest(Transport transport) {
+      throw new UnsupportedOperationException(getClass().getSimpleName() + " can't be executed asynchronously");
+   }
+
+   /**
+    * Reads the response to the request written by {@link #writeRequest(Transport)}.
+    */
+   protected T readResponse(Transport transport, HeaderParams params) {
+      throw new UnsupportedOperationException(getClass().getSimpleName() + " can't be executed asynchronously");
+   }
+
    protected boolean shouldRetry(int retryCount) {
       return retryCount <= transportFactory.getMaxRetries();
    }
@@ -120,4 +171,106 @@ protected void releaseTransport(Transport transport) {
    protected abstract Transport getTransport(int retryCount, Set<SocketAddress> failedServers);
 
    protected abstract T executeOperation(Transport transport);
+
+   /**
+    * Executes the operation with the same retry logic as {@link #execute()}, but hands it over from the thread sending
+    * the request to the thread reading the response instead of blocking. Only one thread accesses it at a time.
+    */
+   private class AsyncExecution implements Runnable {
+      private final CompletableNotifyingFuture<T> result;
+      private final ExecutorService executor;
+      private int retryCount;
+      private Set<SocketAddress> failedServers;
+      private Transport transport;
+      private HeaderParams params;
+
+      AsyncExecution(CompletableNotifyingFuture<T> result, ExecutorService executor) {
+         this.result = result;
+         this.executor = executor;
+      }
+
+      void send() {
+         while (shouldRetry(retryCount)) {
+            transport = null;
+            try {
+               // Transport retrieval should be retried
+               transport = getTransport(retryCount, failedServers);
+               params = writeRequest(transport);
+               ((AsyncTransport) transport).whenResponseReceived(new Runnable() {
+                  @Override
+                  public void run() {
+                     responseReceived();
+                  }
+               });
+               return;
+            } catch (Throwable t) {
+               boolean retry = handleFailure(t);
+               releaseTransport(transport);
+               if (!retry) {
+                  return;
+               }
+            }
+         }
+         result.completeExceptionally(new IllegalStateException("We should not reach here!"));
+      }
+
+      // invoked by an I/O thread, which must not read the response as it may update the topology
+      private void responseReceived() {
+         try {
+            executor.execute(this);
+         } catch (RejectedExecutionException e) {
+            releaseTransport(transport);
+            result.completeExceptionally(e);
+         }
+      }
+
+      @Override
+      public void run() {
+         T value;
+         try {
+            value = readResponse(transport, params);
+         } catch (Throwable t) {
+            boolean retry = handleFailure(t);
+            releaseTransport(transport);
+            if (retry) {
+               send();
+            }
+            return;
+         }
+         releaseTransport(transport);
+         result.complete(value);
+      }
+
+      /**
+       * @return {@code true} if the operation should be retried, {@code false} if {@code result} was failed instead
+       */
+      private boolean handleFailure(Throwable t) {
+         try {
+            if (t instanceof TransportException) {
+               TransportException te = (TransportException) t;
+               if (failedServers == null) {
+                  failedServers = new HashSet<SocketAddress>();
+               }
+               failedServers.add(te.getServerAddress());
+               if (transport != null) {
+                  if (log.isTraceEnabled())
+                     log.tracef("Invalidating transport %s as a result of transport exception", transport);
+
+                  transportFactory.invalidateTransport(te.getServerAddress(), transport);
+               }
+               retryCount = logTransportErrorAndThrowExceptionIfNeeded(retryCount, te);
+            } else if (t instanceof RemoteNodeSuspectException || t instanceof RemoteIllegalLifecycleStateException) {
+               logErrorAndThrowExceptionIfNeeded(retryCount, (HotRodClientException) t);
+            } else {
+               result.completeExceptionally(t);
+               return false;
+            }
+         } catch (Throwable noMoreRetries) {
+            result.completeExceptionally(noMoreRetries);
+            return false;
+         }
+         retryCount++;
+         return true;
+      }
+   }
 }
@@ -0,0 +1,20 @@
+package org.infinispan.client.hotrod.impl.transport;
+
+/**
+ * A {@link Transport} which receives responses in the background, so that an operation can flush its request and let
+ * another thread read the response once it is available, instead of blocking until then.
+ *
+ * @since 7.2
+ */
+public interface AsyncTransport extends Transport {
+
+   /**
+    * Registers a callback invoked once the response to the request flushed last has been received, or can't be
+    * received anymore, e.g. because it timed out. Reading the response never blocks after that; it throws a
+    * {@link org.infinispan.client.hotrod.exceptions.TransportException} if it wasn't received.
+    * <p>
+    * The callback is invoked by an I/O thread, or by the calling thread if the response was already received, so it
+    * must not block.
+    */
+   void whenResponseReceived(Runnable callback);
+}
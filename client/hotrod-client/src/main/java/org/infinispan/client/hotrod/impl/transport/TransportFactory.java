@@ -9,6 +9,7 @@
 
 import org.infinispan.client.hotrod.configuration.Configuration;
 import org.infinispan.client.hotrod.event.ClientListenerNotifier;
+import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHash;
 import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHashFactory;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
 
@@ -24,6 +25,18 @@ public interface TransportFactory {
 
    Transport getAddressTransport(SocketAddress server);
 
+   /**
+    * Returns a transport which is not shared with any other operation until it is released, for operations which keep
+    * reading from the connection after their response, like client listeners waiting for events.
+    */
+   Transport getDedicatedTransport(Set<SocketAddress> failedServers, byte[] cacheName);
+
+   /**
+    * @return {@code true} if the transports returned by {@link #getTransport(byte[], Set, byte[])} and
+    *         {@link #getTransport(Set, byte[])} are {@link AsyncTransport}s
+    */
+   boolean isAsync();
+
    void releaseTransport(Transport transport);
 
    void start(Codec codec, Configuration configuration, AtomicInteger topologyId, ClientListenerNotifier listenerNotifier);
@@ -42,6 +55,12 @@ public interface TransportFactory {
 
    ConsistentHashFactory getConsistentHashFactory();
 
+   /**
+    * @return the consistent hash used to route the keys of the given cache, or {@code null} if the servers haven't
+    *         sent one, e.g. for local or replicated caches
+    */
+   ConsistentHash getConsistentHash(byte[] cacheName);
+
    Transport getTransport(byte[] key, Set<SocketAddress> failedServers, byte[] cacheName);
 
    boolean isTcpNoDelay();
@@ -0,0 +1,297 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+
+import java.net.SocketAddress;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import net.jcip.annotations.ThreadSafe;
+
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+
+/**
+ * A connection to a server shared by many concurrent requests.
+ * <p>
+ * Requests are written as soon as they are flushed, without waiting for the responses of the previous ones. Every
+ * request is registered by its message id, and the {@link ResponseFrameDecoder} splits the received bytes into
+ * complete responses, which the Netty event loop hands over to the matching requests by completing their futures. A
+ * slow request therefore doesn't delay the responses of the requests sent after it.
+ * <p>
+ * A request which doesn't get its response in time fails on its own, the connection and the other requests are not
+ * affected. It is unregistered right away, and its response is skipped if it arrives later. The connection is only
+ * closed when the stream can't be parsed anymore or can't be written to, failing all the requests waiting on it.
+ *
+ * @since 7.2
+ */
+@ThreadSafe
+class MultiplexedChannel extends ChannelInboundHandlerAdapter {
+
+   private static final Log log = LogFactory.getLog(MultiplexedChannel.class, Log.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final SocketAddress serverAddress;
+   private final ConcurrentMap<Long, PendingRequest> pending = new ConcurrentHashMap<Long, PendingRequest>();
+   private final CompletableNotifyingFuture<Channel> connection = new CompletableNotifyingFuture<Channel>();
+
+   private volatile Channel channel;
+   private volatile boolean closed;
+   private volatile byte version;
+
+   MultiplexedChannel(SocketAddress serverAddress) {
+      this.serverAddress = serverAddress;
+   }
+
+   void connected(Channel channel) {
+      this.channel = channel;
+      connection.complete(channel);
+      if (closed) {
+         // closed while connecting
+         channel.close();
+      }
+   }
+
+   void connectFailed(Throwable cause) {
+      closed = true;
+      connection.completeExceptionally(cause);
+   }
+
+   /**
+    * @return whether the connection is established, it is still being opened otherwise
+    */
+   boolean isConnected() {
+      return channel != null;
+   }
+
+   /**
+    * Waits for the connection to be established.
+    *
+    * @throws TransportException if the connection couldn't be opened
+    */
+   void awaitConnected() {
+      try {
+         connection.get();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new TransportException("Interrupted while connecting", e, serverAddress);
+      } catch (ExecutionException e) {
+         throw new TransportException(String.format("Could not connect to server: %s", serverAddress), e.getCause(),
+               serverAddress);
+      }
+   }
+
+   SocketAddress getServerAddress() {
+      return serverAddress;
+   }
+
+   SocketAddress getRemoteSocketAddress() {
+      Channel ch = channel;
+      return ch == null ? null : ch.remoteAddress();
+   }
+
+   /**
+    * @return the number of requests written and still waiting for their response
+    */
+   int getPending() {
+      return pending.size();
+   }
+
+   PendingRequest getPendingRequest(long messageId) {
+      return pending.get(messageId);
+   }
+
+   /**
+    * @return the protocol version of the last request written, used to skip the responses to the requests which timed
+    *         out
+    */
+   byte getVersion() {
+      return version;
+   }
+
+   boolean isOpen() {
+      return !closed;
+   }
+
+   /**
+    * Writes a request on the connection.
+    *
+    * @param request the request, released once written
+    * @param messageId the message id of the request, echoed by the server in the response
+    * @param version the protocol version of the request
+    * @param forceReturnValue whether the request has the {@link org.infinispan.client.hotrod.Flag#FORCE_RETURN_VALUE}
+    *                         flag, which changes the format of some responses in protocol 1.x
+    * @param timeoutMillis how long to wait for the response, forever if not positive
+    * @return the request, whose future is completed with the response once received
+    */
+   PendingRequest send(ByteBuf request, long messageId, byte version, boolean forceReturnValue, long timeoutMillis) {
+      final PendingRequest pendingRequest = new PendingRequest(messageId, version, forceReturnValue);
+      if (closed) {
+         request.release();
+         throw new TransportException("Connection closed", serverAddress);
+      }
+      this.version = version;
+      if (pending.putIfAbsent(messageId, pendingRequest) != null) {
+         request.release();
+         throw new IllegalStateException("A request with message id " + messageId + " is already in flight on " + this);
+      }
+      // the requests registered after the connection was closed would otherwise wait forever
+      if (closed) {
+         pending.remove(messageId, pendingRequest);
+         request.release();
+         throw new TransportException("Connection closed", serverAddress);
+      }
+      Channel ch = channel;
+      if (timeoutMillis > 0) {
+         pendingRequest.timeout = ch.eventLoop().schedule(new Runnable() {
+            @Override
+            public void run() {
+               timedOut(pendingRequest);
+            }
+         }, timeoutMillis, TimeUnit.MILLISECONDS);
+      }
+      ch.writeAndFlush(request).addListener(new ChannelFutureListener() {
+         @Override
+         public void operationComplete(ChannelFuture future) {
+            if (!future.isSuccess()) {
+               log.tracef(future.cause(), "Failed writing request to %s", serverAddress);
+               close();
+            }
+         }
+      });
+      if (trace)
+         log.tracef("Sent request with message id %d to %s", messageId, serverAddress);
+      return pendingRequest;
+   }
+
+   private void timedOut(PendingRequest request) {
+      pending.remove(request.messageId, request);
+      boolean failed = request.response.completeExceptionally(new TransportException(String.format(
+            "Timed out waiting for the response to message id %d", request.messageId), serverAddress));
+      if (failed && trace)
+         log.tracef("Request with message id %d to %s timed out", request.messageId, serverAddress);
+   }
+
+   void close() {
+      closed = true;
+      Channel ch = channel;
+      if (ch != null) {
+         ch.close();
+      }
+   }
+
+   @Override
+   public void channelRead(ChannelHandlerContext ctx, Object msg) {
+      ResponseFrameDecoder.Frame frame = (ResponseFrameDecoder.Frame) msg;
+      PendingRequest request = pending.remove(frame.messageId);
+      if (request == null) {
+         // the request timed out
+         frame.content.release();
+         return;
+      }
+      request.cancelTimeout();
+      if (!request.response.complete(frame.content)) {
+         if (trace)
+            log.tracef("Discarding response to message id %d, the request timed out or was cancelled", frame.messageId);
+         frame.content.release();
+      }
+   }
+
+   @Override
+   public void channelInactive(ChannelHandlerContext ctx) {
+      if (trace)
+         log.tracef("Connection to %s closed, failing %d pending requests", serverAddress, pending.size());
+      closed = true;
+      for (Iterator<PendingRequest> it = pending.values().iterator(); it.hasNext(); ) {
+         PendingRequest request = it.next();
+         it.remove();
+         request.cancelTimeout();
+         request.response.completeExceptionally(new TransportException("Connection closed", serverAddress));
+      }
+   }
+
+   @Override
+   public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+      log.tracef(cause, "Closing connection to %s", serverAddress);
+      close();
+   }
+
+   @Override
+   public String toString() {
+      return "MultiplexedChannel{" +
+            "channel=" + channel +
+            ", serverAddress=" + serverAddress +
+            ", pending=" + pending.size() +
+            "}";
+   }
+
+   /**
+    * A request written on the connection and waiting for its response.
+    */
+   static final class PendingRequest {
+      private final long messageId;
+      private final byte version;
+      private final boolean forceReturnValue;
+      private final CompletableNotifyingFuture<ByteBuf> response = new CompletableNotifyingFuture<ByteBuf>();
+      private volatile ScheduledFuture<?> timeout;
+
+      private PendingRequest(long messageId, byte version, boolean forceReturnValue) {
+         this.messageId = messageId;
+         this.version = version;
+         this.forceReturnValue = forceReturnValue;
+      }
+
+      byte getVersion() {
+         return version;
+      }
+
+      boolean isForceReturnValue() {
+         return forceReturnValue;
+      }
+
+      /**
+       * @return a future completed with the response, or failed if the request timed out or the connection was closed
+       */
+      CompletableNotifyingFuture<ByteBuf> getResponse() {
+         return response;
+      }
+
+      /**
+       * Gives up on the response, which is then released when received. If it was already received, it is released
+       * right away, unless it was read.
+       *
+       * @param read whether the response was read, in which case it is released by the reader
+       */
+      void discard(boolean read) {
+         if (response.cancel(false) || read) {
+            return;
+         }
+         try {
+            ByteBuf received = response.get();
+            received.release();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         } catch (ExecutionException e) {
+            // failed, nothing to release
+         }
+      }
+
+      private void cancelTimeout() {
+         ScheduledFuture<?> t = timeout;
+         if (t != null) {
+            t.cancel(false);
+         }
+      }
+   }
+}
@@ -0,0 +1,276 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import static org.infinispan.commons.io.UnsignedNumeric.readUnsignedInt;
+import static org.infinispan.commons.io.UnsignedNumeric.readUnsignedLong;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketAddress;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.transport.AbstractTransport;
+import org.infinispan.client.hotrod.impl.transport.AsyncTransport;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.util.concurrent.FutureListener;
+
+/**
+ * Transport used by a single operation to send its request over a {@link MultiplexedChannel} and read the response.
+ * The request is buffered until {@link #flush()}, and the reads wait until the response to that request has been
+ * received as a whole, whatever the state of the other requests sent on the same connection. Instances are cheap and
+ * are discarded once released.
+ *
+ * @since 7.2
+ */
+public class NettyTransport extends AbstractTransport implements AsyncTransport {
+
+   //needed for debugging
+   private static final AtomicLong ID_COUNTER = new AtomicLong(0);
+
+   private static final Log log = LogFactory.getLog(NettyTransport.class, Log.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final MultiplexedChannel channel;
+   private final long timeout;
+   private final long id = ID_COUNTER.incrementAndGet();
+   private final InputStream input = new InputStream() {
+      @Override
+      public int read() {
+         return readByte();
+      }
+   };
+
+   private ByteBuf request;
+   // the request flushed last, null if none is waiting for its response to be read
+   private MultiplexedChannel.PendingRequest pending;
+   // the response to the pending request, once received
+   private ByteBuf response;
+   private volatile boolean invalid;
+
+   NettyTransport(MultiplexedChannel channel, TransportFactory transportFactory) {
+      super(transportFactory);
+      this.channel = channel;
+      this.timeout = transportFactory.getSoTimeout();
+   }
+
+   MultiplexedChannel getChannel() {
+      return channel;
+   }
+
+   public SocketAddress getServerAddress() {
+      return channel.getServerAddress();
+   }
+
+   private ByteBuf request() {
+      if (request == null) {
+         request = Unpooled.buffer();
+      }
+      return request;
+   }
+
+   @Override
+   public void writeVInt(int vInt) {
+      ByteBuf out = request();
+      while ((vInt & ~0x7F) != 0) {
+         out.writeByte((byte) ((vInt & 0x7f) | 0x80));
+         vInt >>>= 7;
+      }
+      out.writeByte((byte) vInt);
+   }
+
+   @Override
+   public void writeVLong(long l) {
+      ByteBuf out = request();
+      while ((l & ~0x7F) != 0) {
+         out.writeByte((byte) ((l & 0x7f) | 0x80));
+         l >>>= 7;
+      }
+      out.writeByte((byte) l);
+   }
+
+   @Override
+   protected void writeBytes(byte[] toAppend) {
+      request().writeBytes(toAppend);
+   }
+
+   @Override
+   public void writeByte(short toWrite) {
+      request().writeByte(toWrite);
+   }
+
+   @Override
+   public void flush() {
+      if (request == null) {
+         return;
+      }
+      ByteBuf toSend = request;
+      request = null;
+      discardResponse();
+
+      // [magic][message id][version][op code][cache name][flags]..., written by the codec
+      toSend.markReaderIndex();
+      toSend.skipBytes(1);
+      long messageId = ResponseFrameDecoder.readVLong(toSend);
+      byte version = toSend.readByte();
+      toSend.skipBytes(1);
+      toSend.skipBytes(ResponseFrameDecoder.readVInt(toSend));
+      int flags = ResponseFrameDecoder.readVInt(toSend);
+      toSend.resetReaderIndex();
+
+      boolean forceReturnValue = (flags & Flag.FORCE_RETURN_VALUE.getFlagInt()) != 0;
+      try {
+         pending = channel.send(toSend, messageId, version, forceReturnValue, timeout);
+      } catch (TransportException e) {
+         invalid = true;
+         throw e;
+      }
+      if (trace)
+         log.tracef("Flushed request of %s", this);
+   }
+
+   @Override
+   public void whenResponseReceived(final Runnable callback) {
+      if (pending == null) {
+         throw new IllegalStateException("No request was sent on " + this);
+      }
+      pending.getResponse().attachListener(new FutureListener<ByteBuf>() {
+         @Override
+         public void futureDone(Future<ByteBuf> future) {
+            callback.run();
+         }
+      });
+   }
+
+   private ByteBuf response(int length) {
+      if (response == null) {
+         if (pending == null) {
+            throw new IllegalStateException("No request was sent on " + this);
+         }
+         try {
+            // the channel fails the future if the response doesn't arrive in time
+            response = pending.getResponse().get();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            invalid = true;
+            throw new TransportException(e, getServerAddress());
+         } catch (ExecutionException e) {
+            invalid = true;
+            if (e.getCause() instanceof TransportException) {
+               throw (TransportException) e.getCause();
+            }
+            throw new TransportException(e.getCause(), getServerAddress());
+         }
+      }
+      if (response.readableBytes() < length) {
+         invalid = true;
+         throw new TransportException(String.format("Tried to read %d bytes past the end of the response",
+               length - response.readableBytes()), getServerAddress());
+      }
+      return response;
+   }
+
+   @Override
+   public long readVLong() {
+      try {
+         return readUnsignedLong(input);
+      } catch (IOException e) {
+         invalid = true;
+         throw new TransportException(e, getServerAddress());
+      }
+   }
+
+   @Override
+   public int readVInt() {
+      try {
+         return readUnsignedInt(input);
+      } catch (IOException e) {
+         invalid = true;
+         throw new TransportException(e, getServerAddress());
+      }
+   }
+
+   @Override
+   public short readByte() {
+      return response(1).readUnsignedByte();
+   }
+
+   @Override
+   public byte[] readByteArray(int size) {
+      byte[] result = new byte[size];
+      response(size).readBytes(result);
+      if (trace) {
+         log.tracef("Successfully read array with size: %d", size);
+      }
+      return result;
+   }
+
+   /**
+    * Discards the response to the request flushed last, whether it was read or not. Since every response is received
+    * separately, skipping one leaves the connection usable.
+    */
+   void discardResponse() {
+      if (pending == null) {
+         return;
+      }
+      pending.discard(response != null);
+      if (response != null) {
+         response.release();
+      }
+      pending = null;
+      response = null;
+   }
+
+   @Override
+   public void release() {
+      discardResponse();
+   }
+
+   @Override
+   public byte[] dumpStream() {
+      if (response == null) {
+         return new byte[0];
+      }
+      byte[] unread = new byte[response.readableBytes()];
+      response.getBytes(response.readerIndex(), unread);
+      return unread;
+   }
+
+   @Override
+   public SocketAddress getRemoteSocketAddress() {
+      return channel.getRemoteSocketAddress();
+   }
+
+   /**
+    * Only affects this transport: the connection is shared with other requests, and a failed request doesn't mean that
+    * it is broken. The connection closes itself when it can't be used anymore.
+    */
+   @Override
+   public void invalidate() {
+      invalid = true;
+   }
+
+   @Override
+   public boolean isValid() {
+      return !invalid && channel.isOpen();
+   }
+
+   public long getId() {
+      return id;
+   }
+
+   @Override
+   public String toString() {
+      return "NettyTransport{" +
+            "channel=" + channel +
+            ", id =" + id +
+            "} ";
+   }
+}
@@ -0,0 +1,221 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+import java.net.SocketAddress;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+
+import net.jcip.annotations.ThreadSafe;
+
+import org.infinispan.client.hotrod.configuration.Configuration;
+import org.infinispan.client.hotrod.event.ClientListenerNotifier;
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.transport.Transport;
+import org.infinispan.client.hotrod.impl.transport.tcp.TcpTransportFactory;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+
+/**
+ * Transport factory which sends the requests of all the operations over a few non-blocking Netty connections per
+ * server, instead of borrowing a blocking connection from the pool for each operation. Many requests can be outstanding
+ * on a connection at the same time, and their responses are matched to them by message id, as soon as they are
+ * received. The transports are {@link org.infinispan.client.hotrod.impl.transport.AsyncTransport}s, so the asynchronous
+ * operations of {@link org.infinispan.client.hotrod.RemoteCache} don't hold a thread while waiting for their responses.
+ * <p>
+ * The number of connections opened to each server is {@link org.infinispan.client.hotrod.configuration.ConnectionPoolConfiguration#maxActive()}
+ * if positive, or the number of available processors otherwise; they are opened lazily, when all the existing ones
+ * have requests in flight. Transports returned by {@link #getDedicatedTransport(java.util.Set, byte[])}, e.g. for
+ * client listeners, are still taken from the connection pool, as are all the transports when authentication is
+ * enabled.
+ * <p>
+ * It can be enabled with {@link org.infinispan.client.hotrod.configuration.ConfigurationBuilder#transportFactory(Class)}.
+ *
+ * @since 7.2
+ */
+@ThreadSafe
+public class NettyTransportFactory extends TcpTransportFactory {
+
+   private static final Log log = LogFactory.getLog(NettyTransportFactory.class, Log.class);
+
+   private final ConcurrentMap<SocketAddress, MultiplexedChannel[]> channels = new ConcurrentHashMap<SocketAddress, MultiplexedChannel[]>();
+   private volatile EventLoopGroup eventLoopGroup;
+   private volatile int connectionsPerServer;
+   private volatile boolean multiplexing;
+
+   @Override
+   public void start(Codec codec, Configuration configuration, AtomicInteger defaultCacheTopologyId, ClientListenerNotifier listenerNotifier) {
+      multiplexing = !configuration.security().authentication().enabled();
+      if (multiplexing) {
+         int maxActive = configuration.connectionPool().maxActive();
+         connectionsPerServer = maxActive > 0 ? maxActive : Runtime.getRuntime().availableProcessors();
+         eventLoopGroup = new NioEventLoopGroup(0, new DefaultThreadFactory("HotRod-client-netty", true));
+      } else {
+         log.multiplexedTransportAuthenticationNotSupported();
+      }
+      super.start(codec, configuration, defaultCacheTopologyId, listenerNotifier);
+   }
+
+   @Override
+   protected Transport borrowTransport(SocketAddress server) {
+      if (!multiplexing) {
+         return super.borrowTransport(server);
+      }
+      return new NettyTransport(getChannel(server), this);
+   }
+
+   private MultiplexedChannel getChannel(SocketAddress server) {
+      MultiplexedChannel[] serverChannels = channels.get(server);
+      if (serverChannels == null) {
+         serverChannels = new MultiplexedChannel[connectionsPerServer];
+         MultiplexedChannel[] existing = channels.putIfAbsent(server, serverChannels);
+         if (existing != null) {
+            serverChannels = existing;
+         }
+      }
+      MultiplexedChannel channel;
+      synchronized (serverChannels) {
+         MultiplexedChannel leastLoaded = null;
+         MultiplexedChannel connecting = null;
+         int free = -1;
+         for (int i = 0; i < serverChannels.length; i++) {
+            MultiplexedChannel c = serverChannels[i];
+            if (c == null || !c.isOpen()) {
+               if (free < 0) free = i;
+            } else if (!c.isConnected()) {
+               connecting = c;
+            } else if (leastLoaded == null || c.getPending() < leastLoaded.getPending()) {
+               leastLoaded = c;
+            }
+         }
+         if (leastLoaded != null && (leastLoaded.getPending() == 0 || free < 0)) {
+            return leastLoaded;
+         }
+         if (free < 0) {
+            // all the connections are being opened
+            channel = connecting;
+         } else {
+            // all the open connections are busy, reserve the slot of a new one
+            channel = new MultiplexedChannel(server);
+            serverChannels[free] = channel;
+            connecting = null;
+         }
+      }
+      // connect outside of the lock, so that a slow server doesn't block the callers reusing an open connection
+      if (connecting == null) {
+         connect(channel);
+      } else {
+         channel.awaitConnected();
+      }
+      return channel;
+   }
+
+   private void connect(final MultiplexedChannel channel) {
+      SocketAddress server = channel.getServerAddress();
+      final SSLContext sslContext = getSSLContext();
+      Bootstrap bootstrap = new Bootstrap()
+            .group(eventLoopGroup)
+            .channel(NioSocketChannel.class)
+            .option(ChannelOption.TCP_NODELAY, isTcpNoDelay())
+            .option(ChannelOption.SO_KEEPALIVE, isTcpKeepAlive())
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, getConnectTimeout())
+            .option(ChannelOption.ALLOCATOR, new UnpooledByteBufAllocator(false))
+            .handler(new ChannelInitializer<Channel>() {
+               @Override
+               protected void initChannel(Channel ch) {
+                  if (sslContext != null) {
+                     SSLEngine engine = sslContext.createSSLEngine();
+                     engine.setUseClientMode(true);
+                     ch.pipeline().addLast("ssl", new SslHandler(engine));
+                  }
+                  ch.pipeline().addLast("decoder", new ResponseFrameDecoder(channel));
+                  ch.pipeline().addLast("multiplexer", channel);
+               }
+            });
+      ChannelFuture future = bootstrap.connect(server).awaitUninterruptibly();
+      if (!future.isSuccess()) {
+         log.tracef(future.cause(), "Could not connect to server: %s", server);
+         // frees the slot, and fails the callers waiting for the connection
+         channel.connectFailed(future.cause());
+         throw new TransportException(String.format("Could not connect to server: %s", server), future.cause(), server);
+      }
+      channel.connected(future.channel());
+      if (log.isTraceEnabled())
+         log.tracef("Created multiplexed connection: %s", channel);
+   }
+
+   @Override
+   public void releaseTransport(Transport transport) {
+      if (transport instanceof NettyTransport) {
+         ((NettyTransport) transport).discardResponse();
+      } else {
+         super.releaseTransport(transport);
+      }
+   }
+
+   @Override
+   public boolean isAsync() {
+      return multiplexing;
+   }
+
+   @Override
+   public void invalidateTransport(SocketAddress serverAddress, Transport transport) {
+      if (transport instanceof NettyTransport) {
+         // the connection is shared, it is closed by the channel itself if broken
+         transport.invalidate();
+      } else if (transport == null && multiplexing) {
+         closeChannels(serverAddress);
+         super.invalidateTransport(serverAddress, null);
+      } else {
+         super.invalidateTransport(serverAddress, transport);
+      }
+   }
+
+   @Override
+   public void updateServers(Collection<SocketAddress> newServers, byte[] cacheName, boolean quiet) {
+      super.updateServers(newServers, cacheName, quiet);
+      for (SocketAddress server : channels.keySet()) {
+         if (!newServers.contains(server)) {
+            closeChannels(server);
+         }
+      }
+   }
+
+   private void closeChannels(SocketAddress server) {
+      MultiplexedChannel[] serverChannels = channels.remove(server);
+      if (serverChannels != null) {
+         synchronized (serverChannels) {
+            for (MultiplexedChannel channel : serverChannels) {
+               if (channel != null) channel.close();
+            }
+         }
+      }
+   }
+
+   @Override
+   public void destroy() {
+      super.destroy();
+      if (multiplexing) {
+         for (SocketAddress server : channels.keySet()) {
+            closeChannels(server);
+         }
+         eventLoopGroup.shutdownGracefully();
+      }
+   }
+}
@@ -0,0 +1,221 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ReplayingDecoder;
+
+import java.util.List;
+
+import org.infinispan.client.hotrod.exceptions.InvalidResponseException;
+import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
+
+/**
+ * Splits the bytes received on a {@link MultiplexedChannel} into complete responses, so that each of them can be
+ * handed over to the request it answers, in whatever order they arrive.
+ * <p>
+ * Hot Rod responses aren't length-prefixed, so every response is parsed just enough to find where it ends, using the
+ * protocol version and the flags of the matching request. The contents are only decoded later, by the operation
+ * reading the response. The responses to the requests which timed out are parsed with the version of the other
+ * requests and skipped. Client listener events are never received here, since listeners use dedicated connections.
+ *
+ * @since 7.2
+ */
+class ResponseFrameDecoder extends ReplayingDecoder<Void> implements HotRodConstants {
+
+   private final MultiplexedChannel channel;
+
+   ResponseFrameDecoder(MultiplexedChannel channel) {
+      this.channel = channel;
+   }
+
+   @Override
+   protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+      int start = in.readerIndex();
+      short magic = in.readUnsignedByte();
+      if (magic != RESPONSE_MAGIC) {
+         throw new InvalidResponseException(String.format(
+               "Invalid magic number. Expected %#x and received %#x", RESPONSE_MAGIC, magic));
+      }
+      long messageId = readVLong(in);
+      // null if the request timed out, its response is then skipped by MultiplexedChannel
+      MultiplexedChannel.PendingRequest request = channel.getPendingRequest(messageId);
+      byte version = request != null ? request.getVersion() : channel.getVersion();
+      short opCode = in.readUnsignedByte();
+      short status = in.readUnsignedByte();
+      skipTopology(in, version);
+      skipBody(in, opCode, status, version, messageId, request);
+
+      int length = in.readerIndex() - start;
+      in.readerIndex(start);
+      out.add(new Frame(messageId, in.readBytes(length)));
+   }
+
+   private static void skipTopology(ByteBuf in, byte version) {
+      if (in.readUnsignedByte() != 1) {
+         return;
+      }
+      readVInt(in); // topology id
+      if (version >= VERSION_20) {
+         int clusterSize = readVInt(in);
+         for (int i = 0; i < clusterSize; i++) {
+            skipArray(in); // host
+            in.skipBytes(2); // port
+         }
+         in.skipBytes(1); // hash function version
+         int numSegments = readVInt(in);
+         for (int i = 0; i < numSegments; i++) {
+            short numOwners = in.readUnsignedByte();
+            for (int j = 0; j < numOwners; j++) {
+               readVInt(in); // member index
+            }
+         }
+      } else {
+         in.skipBytes(3); // num key owners, hash function version
+         readVInt(in); // hash space
+         int clusterSize = readVInt(in);
+         if (version >= VERSION_11) {
+            readVInt(in); // num virtual nodes
+         }
+         for (int i = 0; i < clusterSize; i++) {
+            skipArray(in); // host
+            in.skipBytes(6); // port, hash code
+         }
+      }
+   }
+
+   private static void skipBody(ByteBuf in, short opCode, short status, byte version, long messageId,
+                                MultiplexedChannel.PendingRequest request) {
+      switch (opCode) {
+         case ERROR_RESPONSE:
+         case QUERY_RESPONSE:
+         case EXEC_RESPONSE:
+            skipArray(in);
+            break;
+         case GET_RESPONSE:
+            if (status == NO_ERROR_STATUS) {
+               skipArray(in);
+            }
+            break;
+         case GET_WITH_VERSION_RESPONSE:
+            if (status == NO_ERROR_STATUS) {
+               in.skipBytes(8);
+               skipArray(in);
+            }
+            break;
+         case GET_WITH_METADATA_RESPONSE:
+            if (status == NO_ERROR_STATUS) {
+               short flags = in.readUnsignedByte();
+               if ((flags & INFINITE_LIFESPAN) != INFINITE_LIFESPAN) {
+                  in.skipBytes(8);
+                  readVInt(in);
+               }
+               if ((flags & INFINITE_MAXIDLE) != INFINITE_MAXIDLE) {
+                  in.skipBytes(8);
+                  readVInt(in);
+               }
+               in.skipBytes(8);
+               skipArray(in);
+            }
+            break;
+         case PUT_RESPONSE:
+         case PUT_IF_ABSENT_RESPONSE:
+         case REPLACE_RESPONSE:
+         case REPLACE_IF_UNMODIFIED_RESPONSE:
+         case REMOVE_RESPONSE:
+         case REMOVE_IF_UNMODIFIED_RESPONSE:
+            if (version >= VERSION_20) {
+               if (status == SUCCESS_WITH_PREVIOUS || status == NOT_EXECUTED_WITH_PREVIOUS) {
+                  skipArray(in);
+               }
+            } else if (request == null) {
+               // the body depends on the flags of the request, which are forgotten once it timed out
+               throw new InvalidResponseException(
+                     "Can't skip the response to message id " + messageId + ", whose request timed out");
+            } else if (request.isForceReturnValue()) {
+               skipArray(in);
+            }
+            break;
+         case STATS_RESPONSE: {
+            int count = readVInt(in);
+            for (int i = 0; i < count; i++) {
+               skipArray(in); // name
+               skipArray(in); // value
+            }
+            break;
+         }
+         case BULK_GET_RESPONSE:
+            while (in.readUnsignedByte() == 1) {
+               skipArray(in); // key
+               skipArray(in); // value
+            }
+            break;
+         case BULK_GET_KEYS_RESPONSE:
+            while (in.readUnsignedByte() == 1) {
+               skipArray(in);
+            }
+            break;
+         case AUTH_MECH_LIST_RESPONSE: {
+            int count = readVInt(in);
+            for (int i = 0; i < count; i++) {
+               skipArray(in);
+            }
+            break;
+         }
+         case AUTH_RESPONSE:
+            in.skipBytes(1); // complete
+            skipArray(in); // challenge
+            break;
+         case SIZE_RESPONSE:
+            readVLong(in);
+            break;
+         case GET_ALL_RESPONSE: {
+            int count = readVInt(in);
+            for (int i = 0; i < count; i++) {
+               skipArray(in); // key
+               skipArray(in); // value
+            }
+            break;
+         }
+         default:
+            // no body: contains key, clear, ping, put all, client listener registration
+            break;
+      }
+   }
+
+   private static void skipArray(ByteBuf in) {
+      in.skipBytes(readVInt(in));
+   }
+
+   static int readVInt(ByteBuf in) {
+      byte b = in.readByte();
+      int i = b & 0x7F;
+      for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+         b = in.readByte();
+         i |= (b & 0x7F) << shift;
+      }
+      return i;
+   }
+
+   static long readVLong(ByteBuf in) {
+      byte b = in.readByte();
+      long i = b & 0x7F;
+      for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+         b = in.readByte();
+         i |= (b & 0x7FL) << shift;
+      }
+      return i;
+   }
+
+   /**
+    * A complete response and the id of the message it answers.
+    */
+   static final class Frame {
+      final long messageId;
+      final ByteBuf content;
+
+      Frame(long messageId, ByteBuf content) {
+         this.messageId = messageId;
+         this.content = content;
+      }
+   }
+}
@@ -213,6 +213,16 @@ public Transport getTransport(Set<SocketAddress> failedServers, byte[] cacheName
       synchronized (lock) {
          server = getNextServer(failedServers, cacheName);
       }
+      return borrowTransport(server);
+   }
+
+   @Override
+   public Transport getDedicatedTransport(Set<SocketAddress> failedServers, byte[] cacheName) {
+      SocketAddress server;
+      synchronized (lock) {
+         server = getNextServer(failedServers, cacheName);
+      }
+      // pooled connections are never shared while borrowed
       return borrowTransportFromPool(server);
    }
 
@@ -236,7 +246,7 @@ private FailoverRequestBalancingStrategy getOrCreateIfAbsentBalancer(byte[] cach
 
    @Override
    public Transport getAddressTransport(SocketAddress server) {
-      return borrowTransportFromPool(server);
+      return borrowTransport(server);
    }
 
    public Transport getTransport(byte[] key, Set<SocketAddress> failedServers, byte[] cacheName) {
@@ -252,7 +262,7 @@ public Transport getTransport(byte[] key, Set<SocketAddress> failedServers, byte
             server = getNextServer(failedServers, cacheName);
          }
       }
-      return borrowTransportFromPool(server);
+      return borrowTransport(server);
    }
 
    @Override
@@ -352,6 +362,14 @@ private void logConnectionInfo(SocketAddress server) {
       }
    }
 
+   /**
+    * Obtains a transport to the given server for the execution of a single operation. Subclasses may override it to
+    * provide transports which don't rely on the connection pool.
+    */
+   protected Transport borrowTransport(SocketAddress server) {
+      return borrowTransportFromPool(server);
+   }
+
    private Transport borrowTransportFromPool(SocketAddress server) {
       // The borrowObject() call could take a long time, so we hold the lock only until we get the connection pool reference
       KeyedObjectPool<SocketAddress, TcpTransport> pool = getConnectionPool();
@@ -369,6 +387,7 @@ private Transport borrowTransportFromPool(SocketAddress server) {
    /**
     * Note that the returned <code>ConsistentHash</code> may not be thread-safe.
     */
+   @Override
    public ConsistentHash getConsistentHash(byte[] cacheName) {
       synchronized (lock) {
          return consistentHashes.get(cacheName);
@@ -398,6 +417,11 @@ public int getMaxRetries() {
       return maxRetries;
    }
 
+   @Override
+   public boolean isAsync() {
+      return false;
+   }
+
    @Override
    public int getSoTimeout() {
       return soTimeout;
@@ -186,4 +186,8 @@ public interface Log extends BasicLogger {
 
    @Message(value = "When enabling near caching, number of max entries must be configured", id = 4045)
    CacheConfigurationException nearCacheMaxEntriesUndefined();
+
+   @LogMessage(level = WARN)
+   @Message(value = "Authentication is not supported by the multiplexed transport, falling back to pooled connections", id = 4046)
+   void multiplexedTransportAuthenticationNotSupported();
 }
@@ -95,6 +95,22 @@ public void testBulkGetWithSize() {
       }
    }
 
+   public void testGetAll() {
+      populateCacheManager();
+      Set<Object> keys = new HashSet<>();
+      for (int i = 0; i < 50; i++) {
+         keys.add(i);
+      }
+      keys.add(200);
+      keys.add(201);
+      Map<Object, Object> map = remoteCache.getAll(keys);
+      assertEquals(50, map.size());
+      for (int i = 0; i < 50; i++) {
+         assertEquals(i, map.get(i));
+      }
+      assertEquals(0, remoteCache.getAll(new HashSet<>()).size());
+   }
+
    public void testBulkGetAfterLifespanExpire() throws InterruptedException {
       Map dataIn = new HashMap();
       dataIn.put("aKey", "aValue");
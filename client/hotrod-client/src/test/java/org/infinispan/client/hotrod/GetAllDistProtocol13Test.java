@@ -0,0 +1,30 @@
+package org.infinispan.client.hotrod;
+
+import java.util.Map;
+
+import org.infinispan.client.hotrod.impl.ConfigurationProperties;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that getAll falls back to a get per key with the Hot Rod 1.x protocol, which has no getAll request.
+ *
+ * @since 7.2
+ */
+@Test(groups = "functional", testName = "client.hotrod.GetAllDistProtocol13Test")
+public class GetAllDistProtocol13Test extends GetAllDistTest {
+
+   @Override
+   protected org.infinispan.client.hotrod.configuration.ConfigurationBuilder createHotRodClientConfigurationBuilder(int serverPort) {
+      org.infinispan.client.hotrod.configuration.ConfigurationBuilder builder = super.createHotRodClientConfigurationBuilder(serverPort);
+      builder.protocolVersion(ConfigurationProperties.PROTOCOL_VERSION_13);
+      return builder;
+   }
+
+   @Override
+   protected void populate(RemoteCache<Integer, String> remote, Map<Integer, String> data) {
+      // putAll isn't supported by the 1.x protocol either
+      for (Map.Entry<Integer, String> entry : data.entrySet()) {
+         remote.put(entry.getKey(), entry.getValue());
+      }
+   }
+}
@@ -0,0 +1,62 @@
+package org.infinispan.client.hotrod;
+
+import org.infinispan.client.hotrod.test.MultiHotRodServersTest;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+
+/**
+ * Tests that getAll retrieves entries whose keys are owned by different servers.
+ *
+ * @since 7.2
+ */
+@Test(groups = "functional", testName = "client.hotrod.GetAllDistTest")
+public class GetAllDistTest extends MultiHotRodServersTest {
+
+   static final int NUM_SERVERS = 3;
+   static final int SIZE = 100;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      createHotRodServers(NUM_SERVERS, hotRodCacheConfiguration(
+            getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false)));
+   }
+
+   public void testGetAll() {
+      RemoteCache<Integer, String> remote = client(0).getCache();
+      Map<Integer, String> data = new HashMap<Integer, String>();
+      for (int i = 0; i < SIZE; i++) {
+         data.put(i, "v" + i);
+      }
+      populate(remote, data);
+
+      Set<Integer> keys = new HashSet<Integer>(data.keySet());
+      keys.add(SIZE);
+      Map<Integer, String> result = remote.getAll(keys);
+      assertEquals(data, result);
+      assertFalse(result.containsKey(SIZE));
+   }
+
+   protected void populate(RemoteCache<Integer, String> remote, Map<Integer, String> data) {
+      remote.putAll(data);
+   }
+
+   public void testGetAllWithSingleKey() {
+      RemoteCache<Integer, String> remote = client(1).getCache();
+      remote.put(1, "v1");
+      Set<Integer> keys = new HashSet<Integer>();
+      keys.add(1);
+      Map<Integer, String> result = remote.getAll(keys);
+      assertEquals(1, result.size());
+      assertEquals("v1", result.get(1));
+   }
+}
@@ -0,0 +1,201 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+/**
+ * Tests that the responses received on a {@link MultiplexedChannel} are matched to their requests by message id,
+ * against a fake server answering in whatever order the test chooses.
+ *
+ * @since 7.2
+ */
+@Test(groups = "unit", testName = "client.hotrod.impl.transport.netty.MultiplexedChannelTest")
+public class MultiplexedChannelTest extends AbstractInfinispanTest {
+
+   private static final byte VERSION = HotRodConstants.VERSION_20;
+
+   private ServerSocket serverSocket;
+   private Socket server;
+   private EventLoopGroup eventLoopGroup;
+   private MultiplexedChannel channel;
+
+   @BeforeMethod
+   public void connect() throws Exception {
+      serverSocket = new ServerSocket(0, 1, null);
+      InetSocketAddress address = new InetSocketAddress("127.0.0.1", serverSocket.getLocalPort());
+      eventLoopGroup = new NioEventLoopGroup(1);
+      channel = new MultiplexedChannel(address);
+      Bootstrap bootstrap = new Bootstrap()
+            .group(eventLoopGroup)
+            .channel(NioSocketChannel.class)
+            .handler(new ChannelInitializer<Channel>() {
+               @Override
+               protected void initChannel(Channel ch) {
+                  ch.pipeline().addLast("decoder", new ResponseFrameDecoder(channel));
+                  ch.pipeline().addLast("multiplexer", channel);
+               }
+            });
+      channel.connected(bootstrap.connect(address).sync().channel());
+      server = serverSocket.accept();
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void close() throws Exception {
+      if (channel != null) channel.close();
+      if (server != null) server.close();
+      if (serverSocket != null) serverSocket.close();
+      if (eventLoopGroup != null) eventLoopGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+   }
+
+   public void testResponsesOutOfOrder() throws Exception {
+      CompletableNotifyingFuture<ByteBuf> first = send(1, 0);
+      CompletableNotifyingFuture<ByteBuf> second = send(2, 0);
+      CompletableNotifyingFuture<ByteBuf> third = send(3, 0);
+
+      // the first request is slow, the others are answered before it
+      answer(concat(getResponse(3, "three"), getResponse(2, "two")));
+      assertResponse(3, "three", third);
+      assertResponse(2, "two", second);
+      assertFalse(first.isDone());
+
+      answer(getResponse(1, "one"));
+      assertResponse(1, "one", first);
+      assertEquals(0, channel.getPending());
+   }
+
+   public void testResponseSplitAcrossReads() throws Exception {
+      CompletableNotifyingFuture<ByteBuf> future = send(1, 0);
+      byte[] response = getResponse(1, "a value split in two reads");
+      int half = response.length / 2;
+      answer(Arrays.copyOfRange(response, 0, half));
+      Thread.sleep(100);
+      assertFalse(future.isDone());
+      answer(Arrays.copyOfRange(response, half, response.length));
+      assertResponse(1, "a value split in two reads", future);
+   }
+
+   public void testTimeoutOnlyFailsItsRequest() throws Exception {
+      CompletableNotifyingFuture<ByteBuf> slow = send(1, 100);
+      CompletableNotifyingFuture<ByteBuf> other = send(2, 0);
+      try {
+         slow.get(10, TimeUnit.SECONDS);
+         fail("The request should have timed out");
+      } catch (ExecutionException e) {
+         assertTrue(e.getCause() instanceof TransportException);
+      }
+      assertTrue(channel.isOpen());
+      assertFalse(other.isDone());
+      // the timed out request is unregistered right away
+      assertEquals(1, channel.getPending());
+
+      // the late response is skipped, the following ones are still received
+      CompletableNotifyingFuture<ByteBuf> next = send(3, 0);
+      answer(concat(getResponse(1, "late"), getResponse(3, "three"), getResponse(2, "two")));
+      assertResponse(3, "three", next);
+      assertResponse(2, "two", other);
+      assertTrue(channel.isOpen());
+      assertEquals(0, channel.getPending());
+   }
+
+   public void testCloseFailsPendingRequests() throws Exception {
+      CompletableNotifyingFuture<ByteBuf> future = send(1, 0);
+      server.close();
+      try {
+         future.get(10, TimeUnit.SECONDS);
+         fail("The request should have failed");
+      } catch (ExecutionException e) {
+         assertTrue(e.getCause() instanceof TransportException);
+      }
+      assertFalse(channel.isOpen());
+   }
+
+   public void testUnknownMessageIdSkipped() throws Exception {
+      CompletableNotifyingFuture<ByteBuf> future = send(1, 0);
+      answer(concat(getResponse(42, "unexpected"), getResponse(1, "one")));
+      assertResponse(1, "one", future);
+      assertTrue(channel.isOpen());
+   }
+
+   private CompletableNotifyingFuture<ByteBuf> send(long messageId, long timeoutMillis) {
+      ByteBuf request = Unpooled.buffer();
+      request.writeByte(HotRodConstants.REQUEST_MAGIC);
+      writeVLong(request, messageId);
+      return channel.send(request, messageId, VERSION, false, timeoutMillis).getResponse();
+   }
+
+   private void answer(byte[] bytes) throws IOException {
+      OutputStream out = server.getOutputStream();
+      out.write(bytes);
+      out.flush();
+   }
+
+   private static byte[] getResponse(long messageId, String value) {
+      ByteBuf response = Unpooled.buffer();
+      response.writeByte(HotRodConstants.RESPONSE_MAGIC);
+      writeVLong(response, messageId);
+      response.writeByte(HotRodConstants.GET_RESPONSE);
+      response.writeByte(HotRodConstants.NO_ERROR_STATUS);
+      response.writeByte(0); // no topology change
+      byte[] bytes = value.getBytes(HotRodConstants.HOTROD_STRING_CHARSET);
+      writeVLong(response, bytes.length);
+      response.writeBytes(bytes);
+      byte[] result = new byte[response.readableBytes()];
+      response.readBytes(result);
+      return result;
+   }
+
+   private static byte[] concat(byte[]... arrays) throws IOException {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (byte[] array : arrays) {
+         out.write(array);
+      }
+      return out.toByteArray();
+   }
+
+   private static void assertResponse(long messageId, String value, CompletableNotifyingFuture<ByteBuf> future)
+         throws Exception {
+      ByteBuf frame = future.get(10, TimeUnit.SECONDS);
+      byte[] expected = getResponse(messageId, value);
+      byte[] actual = new byte[frame.readableBytes()];
+      frame.readBytes(actual);
+      frame.release();
+      assertTrue(Arrays.equals(expected, actual));
+   }
+
+   private static void writeVLong(ByteBuf out, long l) {
+      while ((l & ~0x7F) != 0) {
+         out.writeByte((byte) ((l & 0x7f) | 0x80));
+         l >>>= 7;
+      }
+      out.writeByte((byte) l);
+   }
+}
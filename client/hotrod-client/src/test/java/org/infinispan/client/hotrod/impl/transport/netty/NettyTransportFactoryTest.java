@@ -0,0 +1,133 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import org.infinispan.client.hotrod.RemoteCache;
+import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.client.hotrod.test.InternalRemoteCacheManager;
+import org.infinispan.client.hotrod.test.SingleHotRodServerTest;
+import org.infinispan.commons.executors.ExecutorFactory;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+
+/**
+ * Tests that concurrent operations sharing the multiplexed connections get their own responses.
+ *
+ * @since 7.2
+ */
+@Test(groups = "functional", testName = "client.hotrod.impl.transport.netty.NettyTransportFactoryTest")
+public class NettyTransportFactoryTest extends SingleHotRodServerTest {
+
+   private static final int THREADS = 10;
+   private static final int KEYS_PER_THREAD = 100;
+
+   // a single thread, so that the async operations can't rely on a thread each
+   private final ExecutorService asyncExecutor = Executors.newSingleThreadExecutor();
+
+   @Override
+   protected RemoteCacheManager getRemoteCacheManager() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.addServer().host("127.0.0.1").port(hotrodServer.getPort())
+            .transportFactory(NettyTransportFactory.class)
+            .asyncExecutorFactory().factory(new ExecutorFactory() {
+               @Override
+               public ExecutorService getExecutor(Properties p) {
+                  return asyncExecutor;
+               }
+            })
+            .connectionPool().maxActive(2);
+      return new InternalRemoteCacheManager(builder.build());
+   }
+
+   public void testConcurrentOperations() throws Exception {
+      final RemoteCache<String, String> remote = remoteCacheManager.getCache();
+      ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+      try {
+         List<Future<Void>> futures = new ArrayList<Future<Void>>();
+         for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            futures.add(executor.submit(new Callable<Void>() {
+               @Override
+               public Void call() {
+                  for (int i = 0; i < KEYS_PER_THREAD; i++) {
+                     String key = "k-" + thread + "-" + i;
+                     assertNull(remote.get(key));
+                     remote.put(key, "v-" + thread + "-" + i);
+                     assertEquals("v-" + thread + "-" + i, remote.get(key));
+                  }
+                  return null;
+               }
+            }));
+         }
+         for (Future<Void> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+         }
+      } finally {
+         executor.shutdownNow();
+      }
+      assertEquals(THREADS * KEYS_PER_THREAD, remote.size());
+      assertEquals(THREADS * KEYS_PER_THREAD, cache.size());
+   }
+
+   public void testAsyncOperations() throws Exception {
+      RemoteCache<String, String> remote = remoteCacheManager.getCache();
+      List<Future<String>> futures = new ArrayList<Future<String>>();
+      for (int i = 0; i < KEYS_PER_THREAD; i++) {
+         remote.put("async-" + i, "v" + i);
+      }
+      for (int i = 0; i < KEYS_PER_THREAD; i++) {
+         futures.add(remote.getAsync("async-" + i));
+      }
+      for (int i = 0; i < KEYS_PER_THREAD; i++) {
+         assertEquals("v" + i, futures.get(i).get(10, TimeUnit.SECONDS));
+      }
+   }
+
+   public void testAsyncOperationsDoNotHoldThreads() throws Exception {
+      RemoteCache<String, String> remote = remoteCacheManager.getCache();
+      final CountDownLatch release = new CountDownLatch(1);
+      // occupy the only thread of the async executor
+      asyncExecutor.submit(new Callable<Void>() {
+         @Override
+         public Void call() throws Exception {
+            release.await();
+            return null;
+         }
+      });
+      try {
+         final int initialSize = cache.size();
+         List<Future<String>> futures = new ArrayList<Future<String>>();
+         for (int i = 0; i < KEYS_PER_THREAD; i++) {
+            futures.add(remote.putAsync("blocked-" + i, "v" + i));
+         }
+         // the requests are sent by the calling thread, so they are all executed while the executor is busy
+         eventually(new Condition() {
+            @Override
+            public boolean isSatisfied() throws Exception {
+               return cache.size() == initialSize + KEYS_PER_THREAD;
+            }
+         });
+         for (Future<String> future : futures) {
+            assertFalse(future.isDone());
+         }
+         release.countDown();
+         for (Future<String> future : futures) {
+            assertNull(future.get(10, TimeUnit.SECONDS));
+         }
+      } finally {
+         release.countDown();
+      }
+   }
+}
@@ -17,4 +17,5 @@ public interface Ids {
    // internal collections (id=18 no longer in use, might get reused at a later stage)
    int IMMUTABLE_MAP = 19;
    int BYTE_BUFFER = 106;
+   int SMALL_INT_SET = 107;
 }
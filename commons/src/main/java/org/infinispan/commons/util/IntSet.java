@@ -0,0 +1,64 @@
+package org.infinispan.commons.util;
+
+import java.util.Set;
+
+/**
+ * A set of non-negative integers, e.g. segment ids, which exposes primitive operations to avoid boxing.
+ * <p>
+ * It still implements {@code Set<Integer>}, so it can be passed to code expecting a plain set, but the primitive
+ * methods should be preferred on hot paths.
+ *
+ * @since 7.2
+ */
+public interface IntSet extends Set<Integer> {
+
+   /**
+    * Adds the given value to the set.
+    *
+    * @return {@code true} if the set didn't already contain the value
+    */
+   boolean add(int value);
+
+   /**
+    * Removes the given value from the set.
+    *
+    * @return {@code true} if the set contained the value
+    */
+   boolean remove(int value);
+
+   /**
+    * @return {@code true} if the set contains the given value
+    */
+   boolean contains(int value);
+
+   /**
+    * Adds all the values of the given set to this one.
+    *
+    * @return {@code true} if this set changed
+    */
+   boolean addAll(IntSet set);
+
+   /**
+    * Removes all the values of the given set from this one.
+    *
+    * @return {@code true} if this set changed
+    */
+   boolean removeAll(IntSet set);
+
+   /**
+    * Removes all the values which are not in the given set from this one.
+    *
+    * @return {@code true} if this set changed
+    */
+   boolean retainAll(IntSet set);
+
+   /**
+    * @return {@code true} if this set contains all the values of the given set
+    */
+   boolean containsAll(IntSet set);
+
+   /**
+    * @return the values of this set, in ascending order
+    */
+   int[] toIntArray();
+}
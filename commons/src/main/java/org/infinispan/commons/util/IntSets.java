@@ -0,0 +1,179 @@
+package org.infinispan.commons.util;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Static utility methods for {@link IntSet}s.
+ *
+ * @since 7.2
+ */
+public final class IntSets {
+
+   private static final IntSet EMPTY_SET = new ImmutableIntSet(new SmallIntSet(0));
+
+   private IntSets() {
+   }
+
+   /**
+    * @return an immutable empty set
+    */
+   public static IntSet emptySet() {
+      return EMPTY_SET;
+   }
+
+   /**
+    * Wraps the given set so that it can't be modified. The returned set is a view, so it reflects the changes made
+    * to the wrapped set.
+    */
+   public static IntSet immutableSet(IntSet set) {
+      if (set instanceof ImmutableIntSet) {
+         return set;
+      }
+      return new ImmutableIntSet(set);
+   }
+
+   static final class ImmutableIntSet implements IntSet, Immutables.Immutable {
+      final IntSet delegate;
+
+      ImmutableIntSet(IntSet delegate) {
+         this.delegate = delegate;
+      }
+
+      @Override
+      public boolean contains(int value) {
+         return delegate.contains(value);
+      }
+
+      @Override
+      public boolean contains(Object o) {
+         return delegate.contains(o);
+      }
+
+      @Override
+      public boolean containsAll(IntSet set) {
+         return delegate.containsAll(set);
+      }
+
+      @Override
+      public boolean containsAll(Collection<?> c) {
+         return delegate.containsAll(c);
+      }
+
+      @Override
+      public int[] toIntArray() {
+         return delegate.toIntArray();
+      }
+
+      @Override
+      public int size() {
+         return delegate.size();
+      }
+
+      @Override
+      public boolean isEmpty() {
+         return delegate.isEmpty();
+      }
+
+      @Override
+      public Iterator<Integer> iterator() {
+         final Iterator<Integer> it = delegate.iterator();
+         return new Iterator<Integer>() {
+            @Override
+            public boolean hasNext() {
+               return it.hasNext();
+            }
+
+            @Override
+            public Integer next() {
+               return it.next();
+            }
+
+            @Override
+            public void remove() {
+               throw new UnsupportedOperationException();
+            }
+         };
+      }
+
+      @Override
+      public Object[] toArray() {
+         return delegate.toArray();
+      }
+
+      @Override
+      public <T> T[] toArray(T[] a) {
+         return delegate.toArray(a);
+      }
+
+      @Override
+      public boolean add(int value) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public boolean add(Integer integer) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public boolean remove(int value) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public boolean remove(Object o) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public boolean addAll(IntSet set) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public boolean addAll(Collection<? extends Integer> c) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public boolean removeAll(IntSet set) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public boolean removeAll(Collection<?> c) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public boolean retainAll(IntSet set) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public boolean retainAll(Collection<?> c) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void clear() {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         return o == this || delegate.equals(o);
+      }
+
+      @Override
+      public int hashCode() {
+         return delegate.hashCode();
+      }
+
+      @Override
+      public String toString() {
+         return delegate.toString();
+      }
+   }
+}
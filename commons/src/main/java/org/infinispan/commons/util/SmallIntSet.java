@@ -0,0 +1,329 @@
+package org.infinispan.commons.util;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.infinispan.commons.io.UnsignedNumeric;
+import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.commons.marshall.Ids;
+
+/**
+ * {@link IntSet} backed by a {@link BitSet}, suitable for dense sets of small values such as the segments of a
+ * consistent hash. The memory used is proportional to the largest value in the set, not to the size of the set.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @since 7.2
+ */
+public class SmallIntSet extends AbstractSet<Integer> implements IntSet {
+
+   private final BitSet bits;
+
+   public SmallIntSet() {
+      this.bits = new BitSet();
+   }
+
+   /**
+    * @param maxValue a hint for the largest value which will be added to the set
+    */
+   public SmallIntSet(int maxValue) {
+      this.bits = new BitSet(maxValue + 1);
+   }
+
+   /**
+    * Creates a copy of the given collection.
+    */
+   public SmallIntSet(Collection<Integer> values) {
+      BitSet source = bitsOf(values);
+      if (source != null) {
+         this.bits = (BitSet) source.clone();
+      } else {
+         this.bits = new BitSet();
+         for (Integer value : values) {
+            add(value.intValue());
+         }
+      }
+   }
+
+   private SmallIntSet(BitSet bits) {
+      this.bits = bits;
+   }
+
+   /**
+    * @return a set containing all the values between {@code 0} (inclusive) and {@code size} (exclusive)
+    */
+   public static SmallIntSet range(int size) {
+      SmallIntSet set = new SmallIntSet(size);
+      set.bits.set(0, size);
+      return set;
+   }
+
+   /**
+    * @return the bits backing the given collection, or {@code null} if it's not backed by a {@link BitSet}
+    */
+   static BitSet bitsOf(Collection<?> collection) {
+      if (collection instanceof SmallIntSet) {
+         return ((SmallIntSet) collection).bits;
+      } else if (collection instanceof IntSets.ImmutableIntSet) {
+         return bitsOf(((IntSets.ImmutableIntSet) collection).delegate);
+      }
+      return null;
+   }
+
+   @Override
+   public boolean add(int value) {
+      checkValue(value);
+      if (bits.get(value)) {
+         return false;
+      }
+      bits.set(value);
+      return true;
+   }
+
+   @Override
+   public boolean add(Integer value) {
+      return add(value.intValue());
+   }
+
+   @Override
+   public boolean remove(int value) {
+      if (value < 0 || !bits.get(value)) {
+         return false;
+      }
+      bits.clear(value);
+      return true;
+   }
+
+   @Override
+   public boolean remove(Object o) {
+      return o instanceof Integer && remove(((Integer) o).intValue());
+   }
+
+   @Override
+   public boolean contains(int value) {
+      return value >= 0 && bits.get(value);
+   }
+
+   @Override
+   public boolean contains(Object o) {
+      return o instanceof Integer && contains(((Integer) o).intValue());
+   }
+
+   @Override
+   public boolean addAll(IntSet set) {
+      BitSet other = bitsOf(set);
+      if (other == null) {
+         return addAll((Collection<Integer>) set);
+      }
+      int cardinality = bits.cardinality();
+      bits.or(other);
+      return bits.cardinality() != cardinality;
+   }
+
+   @Override
+   public boolean addAll(Collection<? extends Integer> c) {
+      if (c instanceof IntSet && bitsOf(c) != null) {
+         return addAll((IntSet) c);
+      }
+      return super.addAll(c);
+   }
+
+   @Override
+   public boolean removeAll(IntSet set) {
+      BitSet other = bitsOf(set);
+      if (other == null) {
+         boolean changed = false;
+         for (Integer value : set) {
+            changed |= remove(value.intValue());
+         }
+         return changed;
+      }
+      int cardinality = bits.cardinality();
+      bits.andNot(other);
+      return bits.cardinality() != cardinality;
+   }
+
+   @Override
+   public boolean removeAll(Collection<?> c) {
+      if (c instanceof IntSet) {
+         return removeAll((IntSet) c);
+      }
+      return super.removeAll(c);
+   }
+
+   @Override
+   public boolean retainAll(IntSet set) {
+      BitSet other = bitsOf(set);
+      if (other == null) {
+         return super.retainAll(set);
+      }
+      int cardinality = bits.cardinality();
+      bits.and(other);
+      return bits.cardinality() != cardinality;
+   }
+
+   @Override
+   public boolean retainAll(Collection<?> c) {
+      if (c instanceof IntSet) {
+         return retainAll((IntSet) c);
+      }
+      return super.retainAll(c);
+   }
+
+   @Override
+   public boolean containsAll(IntSet set) {
+      BitSet other = bitsOf(set);
+      if (other == null) {
+         for (Integer value : set) {
+            if (!contains(value.intValue())) {
+               return false;
+            }
+         }
+         return true;
+      }
+      BitSet missing = (BitSet) other.clone();
+      missing.andNot(bits);
+      return missing.isEmpty();
+   }
+
+   @Override
+   public boolean containsAll(Collection<?> c) {
+      if (c instanceof IntSet) {
+         return containsAll((IntSet) c);
+      }
+      return super.containsAll(c);
+   }
+
+   @Override
+   public int[] toIntArray() {
+      int[] values = new int[bits.cardinality()];
+      int i = 0;
+      for (int value = bits.nextSetBit(0); value >= 0; value = bits.nextSetBit(value + 1)) {
+         values[i++] = value;
+      }
+      return values;
+   }
+
+   @Override
+   public int size() {
+      return bits.cardinality();
+   }
+
+   @Override
+   public boolean isEmpty() {
+      return bits.isEmpty();
+   }
+
+   @Override
+   public void clear() {
+      bits.clear();
+   }
+
+   @Override
+   public Iterator<Integer> iterator() {
+      return new BitSetIterator();
+   }
+
+   @Override
+   public boolean equals(Object o) {
+      if (o == this) {
+         return true;
+      }
+      BitSet other = o instanceof Collection ? bitsOf((Collection<?>) o) : null;
+      if (other != null) {
+         return bits.equals(other);
+      }
+      return super.equals(o);
+   }
+
+   @Override
+   public int hashCode() {
+      // must be consistent with the other sets, i.e. the sum of the values
+      int hashCode = 0;
+      for (int value = bits.nextSetBit(0); value >= 0; value = bits.nextSetBit(value + 1)) {
+         hashCode += value;
+      }
+      return hashCode;
+   }
+
+   private static void checkValue(int value) {
+      if (value < 0) {
+         throw new IllegalArgumentException("Negative values are not supported: " + value);
+      }
+   }
+
+   private class BitSetIterator implements Iterator<Integer> {
+      private int next = bits.nextSetBit(0);
+      private int last = -1;
+
+      @Override
+      public boolean hasNext() {
+         return next >= 0;
+      }
+
+      @Override
+      public Integer next() {
+         if (next < 0) {
+            throw new NoSuchElementException();
+         }
+         last = next;
+         next = bits.nextSetBit(next + 1);
+         return last;
+      }
+
+      @Override
+      public void remove() {
+         if (last < 0) {
+            throw new IllegalStateException();
+         }
+         bits.clear(last);
+         last = -1;
+      }
+   }
+
+   public static class Externalizer extends AbstractExternalizer<IntSet> {
+
+      private static final long serialVersionUID = 2935287437545626391L;
+
+      @Override
+      public void writeObject(ObjectOutput output, IntSet set) throws IOException {
+         BitSet bits = bitsOf(set);
+         if (bits == null) {
+            bits = new SmallIntSet(set).bits;
+         }
+         long[] words = bits.toLongArray();
+         UnsignedNumeric.writeUnsignedInt(output, words.length);
+         for (long word : words) {
+            output.writeLong(word);
+         }
+      }
+
+      @Override
+      public IntSet readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         int length = UnsignedNumeric.readUnsignedInt(input);
+         long[] words = new long[length];
+         for (int i = 0; i < length; i++) {
+            words[i] = input.readLong();
+         }
+         return new SmallIntSet(BitSet.valueOf(words));
+      }
+
+      @Override
+      public Integer getId() {
+         return Ids.SMALL_INT_SET;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public Set<Class<? extends IntSet>> getTypeClasses() {
+         return Util.<Class<? extends IntSet>>asSet(SmallIntSet.class, IntSets.ImmutableIntSet.class);
+      }
+   }
+}
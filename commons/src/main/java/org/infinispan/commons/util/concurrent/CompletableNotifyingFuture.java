@@ -0,0 +1,172 @@
+package org.infinispan.commons.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link NotifyingFuture} completed explicitly by the producer of the result, through {@link #complete(Object)} or
+ * {@link #completeExceptionally(Throwable)}, instead of wrapping another {@link java.util.concurrent.Future}.
+ * <p/>
+ * Only the first completion is taken into account, the following ones are ignored. The listeners are notified in the
+ * thread completing the future, or in the thread attaching them if the future is already completed.
+ *
+ * @since 7.2
+ */
+public class CompletableNotifyingFuture<T> extends BaseNotifyingFuture<T> {
+
+   private final CountDownLatch done = new CountDownLatch(1);
+   private final AtomicBoolean completing = new AtomicBoolean();
+   private volatile T value;
+   private volatile Throwable exception;
+   private volatile boolean cancelled;
+
+   /**
+    * @return a future already completed with the given value
+    */
+   public static <T> CompletableNotifyingFuture<T> completed(T value) {
+      CompletableNotifyingFuture<T> future = new CompletableNotifyingFuture<T>();
+      future.complete(value);
+      return future;
+   }
+
+   /**
+    * @return a future already completed with the given exception
+    */
+   public static <T> CompletableNotifyingFuture<T> failed(Throwable exception) {
+      CompletableNotifyingFuture<T> future = new CompletableNotifyingFuture<T>();
+      future.completeExceptionally(exception);
+      return future;
+   }
+
+   /**
+    * Returns a future completed with the results of all the given futures once they are all completed, in no particular
+    * order. If any of them fails, it is completed with the cause of the first failure instead.
+    */
+   public static <T> CompletableNotifyingFuture<List<T>> allOf(List<? extends NotifyingFuture<T>> futures) {
+      final CompletableNotifyingFuture<List<T>> result = new CompletableNotifyingFuture<List<T>>();
+      if (futures.isEmpty()) {
+         result.complete(Collections.<T>emptyList());
+         return result;
+      }
+      final List<T> values = Collections.synchronizedList(new ArrayList<T>(futures.size()));
+      final AtomicInteger pending = new AtomicInteger(futures.size());
+      final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+      FutureListener<T> listener = new FutureListener<T>() {
+         @Override
+         public void futureDone(Future<T> future) {
+            try {
+               values.add(future.get());
+            } catch (ExecutionException e) {
+               failure.compareAndSet(null, e.getCause());
+            } catch (Throwable t) {
+               failure.compareAndSet(null, t);
+            }
+            if (pending.decrementAndGet() == 0) {
+               if (failure.get() != null) {
+                  result.completeExceptionally(failure.get());
+               } else {
+                  result.complete(values);
+               }
+            }
+         }
+      };
+      for (NotifyingFuture<T> future : futures) {
+         future.attachListener(listener);
+      }
+      return result;
+   }
+
+   /**
+    * Completes the future with the given value.
+    *
+    * @return {@code true} if this call completed the future, {@code false} if it was already completed
+    */
+   public boolean complete(T value) {
+      if (!completing.compareAndSet(false, true)) {
+         return false;
+      }
+      this.value = value;
+      done();
+      return true;
+   }
+
+   /**
+    * Completes the future with the given exception, thrown by {@link #get()} wrapped in an
+    * {@link ExecutionException}.
+    *
+    * @return {@code true} if this call completed the future, {@code false} if it was already completed
+    */
+   public boolean completeExceptionally(Throwable exception) {
+      if (exception == null) {
+         throw new IllegalArgumentException("The exception cannot be null");
+      }
+      if (!completing.compareAndSet(false, true)) {
+         return false;
+      }
+      this.exception = exception;
+      done();
+      return true;
+   }
+
+   /**
+    * Completes the future as cancelled. The producer of the result isn't interrupted.
+    */
+   @Override
+   public boolean cancel(boolean mayInterruptIfRunning) {
+      if (!completing.compareAndSet(false, true)) {
+         return false;
+      }
+      cancelled = true;
+      done();
+      return true;
+   }
+
+   @Override
+   public boolean isCancelled() {
+      return cancelled;
+   }
+
+   @Override
+   public boolean isDone() {
+      return done.getCount() == 0;
+   }
+
+   @Override
+   public T get() throws InterruptedException, ExecutionException {
+      done.await();
+      return result();
+   }
+
+   @Override
+   public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+      if (!done.await(timeout, unit)) {
+         throw new TimeoutException();
+      }
+      return result();
+   }
+
+   private void done() {
+      done.countDown();
+      fireListeners();
+   }
+
+   private T result() throws ExecutionException {
+      if (cancelled) {
+         throw new CancellationException();
+      }
+      if (exception != null) {
+         throw new ExecutionException(exception);
+      }
+      return value;
+   }
+}
@@ -372,6 +372,12 @@ TreeNode<K,V> createNewEntry(K key, int hash, TreeNode<K,V> next,
        * @return the nodes that were evicted
        */
       Collection<Node<K, V>> findIfEntriesNeedEvicting();
+
+      /**
+       * Returns the size of the map as tracked by this policy, that is the number of entries or, when the map uses an
+       * {@link EntrySizeCalculator}, the sum of the sizes of all entries. Returns -1 if the size is not tracked.
+       */
+      long currentSize();
    }
 
    static class NullEvictionPolicy<K, V> implements EvictionPolicy<K, V> {
@@ -409,6 +415,11 @@ public Set<Node<K, V>> findIfEntriesNeedEvicting() {
          return InfinispanCollections.emptySet();
       }
 
+      @Override
+      public long currentSize() {
+         return -1;
+      }
+
       @Override
       public void onEntryHitRead(Node<K, V> e, V value) {
          // Do nothing.
@@ -436,17 +447,65 @@ public K getKey() {
       }
    }
 
+   /**
+    * LRU node that also records the size of the entry as last calculated by the {@link EntrySizeCalculator}, so
+    * that the same amount can be subtracted when the entry is updated, removed or evicted.
+    */
+   static final class SizedLRUNode<K, V> extends LRUNode<K, V> {
+      long size;
+
+      public SizedLRUNode(Node<K, V> item) {
+         super(item);
+      }
+   }
+
    static class LRUEvictionPolicy<K, V> implements EvictionPolicy<K, V> {
       final BoundedEquivalentConcurrentHashMapV8<K, V> map;
       final StrippedConcurrentLinkedDeque<Node<K, V>> deque = 
             new StrippedConcurrentLinkedDeque<Node<K,V>>();
       final long maxSize;
+      // null means every entry has a size of 1
+      final EntrySizeCalculator<? super K, ? super V> sizeCalculator;
       final AtomicReference<SizeAndEvicting> currentSize = new AtomicReference<>(
             new SizeAndEvicting(0, 0));
       
       public LRUEvictionPolicy(BoundedEquivalentConcurrentHashMapV8<K, V> map, long maxSize) {
+         this(map, maxSize, null);
+      }
+
+      public LRUEvictionPolicy(BoundedEquivalentConcurrentHashMapV8<K, V> map, long maxSize,
+            EntrySizeCalculator<? super K, ? super V> sizeCalculator) {
          this.map = map;
          this.maxSize = maxSize;
+         this.sizeCalculator = sizeCalculator;
+      }
+
+      /**
+       * Records the new size of the entry and returns the difference from the previously recorded one.
+       * The lock on the eviction node must be held.
+       */
+      private long updateSize(LRUNode<K, V> eviction, K key, V value) {
+         SizedLRUNode<K, V> sizedNode = (SizedLRUNode<K, V>) eviction;
+         long newSize = sizeCalculator.calculateSize(key, value);
+         if (newSize < 0) {
+            throw new IllegalArgumentException("Size of entry " + key + " cannot be negative: " + newSize);
+         }
+         long delta = newSize - sizedNode.size;
+         sizedNode.size = newSize;
+         return delta;
+      }
+
+      private long sizeOf(LRUNode<K, V> eviction) {
+         return sizeCalculator == null ? 1 : ((SizedLRUNode<K, V>) eviction).size;
+      }
+
+      private LRUNode<K, V> newEvictionNode(Node<K, V> node) {
+         return sizeCalculator == null ? new LRUNode<>(node) : new SizedLRUNode<>(node);
+      }
+
+      @Override
+      public long currentSize() {
+         return currentSize.get().size;
       }
 
       @Override
@@ -475,6 +534,18 @@ public void onEntryHitRead(Node<K, V> e, V value) {
 
       @Override
       public void onEntryHitWrite(BoundedEquivalentConcurrentHashMapV8.Node<K,V> e, V value) {
+         if (sizeCalculator != null) {
+            LRUNode<K, V> eviction = (LRUNode<K, V>) e.eviction;
+            synchronized (eviction) {
+               if (!eviction.removed) {
+                  // the new value may be larger or smaller than the old one
+                  long delta = updateSize(eviction, e.key, value);
+                  if (delta != 0) {
+                     incrementSizeEviction(currentSize, delta, 0);
+                  }
+               }
+            }
+         }
          onEntryHitRead(e, value);
       }
 
@@ -487,7 +558,8 @@ public void onEntryMiss(Node<K, V> e, V value) {
                DequeNode<Node<K, V>> queueNode = new DequeNode<>(e);
                eviction.queueNode = queueNode;
                deque.linkLast(queueNode);
-               incrementSizeEviction(currentSize, 1, 0);
+               incrementSizeEviction(currentSize,
+                     sizeCalculator == null ? 1 : updateSize(eviction, e.key, value), 0);
             }
          }
       }
@@ -506,7 +578,7 @@ public void onEntryRemove(Node<K, V> e) {
             // This is just in case if there are concurrent removes for the same key
             if (!eviction.removed) {
                eviction.removed = true;
-               incrementSizeEviction(currentSize, -1, 0);
+               incrementSizeEviction(currentSize, -sizeOf(eviction), 0);
             }
          }
       }
@@ -516,7 +588,7 @@ public Node<K, V> createNewEntry(K key, int hash, Node<K, V> next, V value,
             EvictionEntry<K, V> evictionEntry) {
          Node<K, V> node = new Node<K, V>(hash, map.nodeEq, key, value, next);
          if (evictionEntry == null) {
-            node.lazySetEviction(new LRUNode<>(node));
+            node.lazySetEviction(newEvictionNode(node));
          } else {
             node.lazySetEviction(evictionEntry);
          }
@@ -529,7 +601,7 @@ public TreeNode<K, V> createNewEntry(K key, int hash, TreeNode<K, V> next,
          TreeNode<K, V> treeNode;
          if (evictionEntry == null) {
             treeNode = new TreeNode<>(hash, map.nodeEq, key, value, next, parent, null);
-            treeNode.lazySetEviction(new LRUNode<>(treeNode));
+            treeNode.lazySetEviction(newEvictionNode(treeNode));
          } else {
             treeNode = new TreeNode<>(hash, map.nodeEq, key, value, next, parent,
                   evictionEntry);
@@ -557,35 +629,37 @@ public Collection<Node<K, V>> findIfEntriesNeedEvicting() {
          }
          List<Node<K, V>> evictedEntries = null;
          if (extra > 0) {
-            evictedEntries = new ArrayList<>((int)extra & 0x7fffffff);
+            // when entries have a size we don't know up front how many of them need evicting
+            evictedEntries = new ArrayList<>(sizeCalculator == null ? (int)extra & 0x7fffffff : 4);
             long decCreate = 0;
-            long decEvict = 0;
-            for (long j = 0; j < extra; ++j) {
+            long evicted = 0;
+            while (evicted < extra) {
                Node<K, V> node = deque.pollFirst();
+               if (node == null) {
+                  // This shouldn't really ever happen - only possible if a remove
+                  // occurs concurrently and removes all the rest of the values
+                  break;
+               }
+               long nodeSize;
                boolean removed = false;
-               if (node != null) {
-                  LRUNode<K, V> lruNode = (LRUNode<K, V>) node.eviction;
-                  synchronized (lruNode) {
-                     if (!lruNode.removed) {
-                        lruNode.removed = true;
-                        removed = true;
-                     }
+               LRUNode<K, V> lruNode = (LRUNode<K, V>) node.eviction;
+               synchronized (lruNode) {
+                  nodeSize = sizeOf(lruNode);
+                  if (!lruNode.removed) {
+                     lruNode.removed = true;
+                     removed = true;
                   }
                }
 
                if (removed) {
                   map.replaceNode(node.key, null, null, true);
                   evictedEntries.add(node);
-                  decCreate--;
-                  decEvict--;
-               } else {
-                  // This shouldn't really ever happen - only possible if a remove
-                  // occurs concurrently and removes all the rest of the values
-                  decEvict--;
+                  decCreate -= nodeSize;
                }
+               // A concurrent remove already subtracted the size of the node, so it counts as evicted
+               evicted += nodeSize;
             }
-            if (decEvict != 0)
-               incrementSizeEviction(currentSize, decCreate, decEvict);
+            incrementSizeEviction(currentSize, decCreate, -extra);
          } else {
             evictedEntries = InfinispanCollections.emptyList();
          }
@@ -1245,6 +1319,11 @@ public void onEntryRemove(Node<K, V> e) {
          }
       }
 
+      @Override
+      public long currentSize() {
+         return currentSize.get().size;
+      }
+
       @Override
       public Collection<Node<K, V>> findIfEntriesNeedEvicting() {
          long hotDemotions;
@@ -1431,7 +1510,7 @@ public <K, V> EvictionPolicy<K, V> make(
          @Override
          public <K, V> EvictionPolicy<K, V> make(
                BoundedEquivalentConcurrentHashMapV8<K, V> map, long capacity) {
-            return new LRUEvictionPolicy<K, V>(map, capacity);
+            return new LRUEvictionPolicy<K, V>(map, capacity, map.sizeCalculator);
          }
       },
       LIRS {
@@ -2084,6 +2163,7 @@ static final <K,V> void setTabAt(Node<K,V>[] tab, int i, Node<K,V> v) {
 
    final long maxSize;
 
+   final EntrySizeCalculator<? super K, ? super V> sizeCalculator;
    final EvictionPolicy<K, V> evictionPolicy;
    final EvictionListener<? super K, ? super V> evictionListener;
 
@@ -2101,6 +2181,7 @@ public BoundedEquivalentConcurrentHashMapV8(long maxSize,
       this.keyEq = keyEquivalence; // EQUIVALENCE_MOD
       this.valueEq = valueEquivalence; // EQUIVALENCE_MOD
       this.nodeEq = new NodeEquivalence<K, V>(this.keyEq, this.valueEq); // EQUIVALENCE_MOD
+      this.sizeCalculator = null;
       this.evictionPolicy = Eviction.LRU.make(this, maxSize);
       this.evictionListener = new NullEvictionListener<K, V>();
    }
@@ -2111,13 +2192,32 @@ public BoundedEquivalentConcurrentHashMapV8(long maxSize,
    public BoundedEquivalentConcurrentHashMapV8(long maxSize,
          Eviction evictionStrategy, EvictionListener<? super K, ? super V> evictionListener,
          Equivalence<? super K> keyEquivalence, Equivalence<? super V> valueEquivalence) {
+      this(maxSize, evictionStrategy, evictionListener, keyEquivalence, valueEquivalence, null);
+   }
+
+   /**
+    * Creates a new, empty map with the default initial table size (16), bounded by the total size of its
+    * entries as calculated by the given {@link EntrySizeCalculator} instead of by the number of entries.
+    * Only {@link Eviction#LRU} supports a size calculator.
+    *
+    * @param maxSize the maximum total size of the entries
+    * @param sizeCalculator calculates the size of each entry, or {@code null} to bound the map by number of entries
+    */
+   public BoundedEquivalentConcurrentHashMapV8(long maxSize,
+         Eviction evictionStrategy, EvictionListener<? super K, ? super V> evictionListener,
+         Equivalence<? super K> keyEquivalence, Equivalence<? super V> valueEquivalence,
+         EntrySizeCalculator<? super K, ? super V> sizeCalculator) {
       if (maxSize <= 0) {
          throw new IllegalArgumentException();
       }
       if (evictionStrategy == null || evictionListener == null) {
          throw new NullPointerException();
       }
+      if (sizeCalculator != null && evictionStrategy != Eviction.LRU) {
+         throw new IllegalArgumentException("Only LRU eviction supports an entry size calculator");
+      }
       this.maxSize = maxSize;
+      this.sizeCalculator = sizeCalculator;
       this.keyEq = keyEquivalence; // EQUIVALENCE_MOD
       this.valueEq = valueEquivalence; // EQUIVALENCE_MOD
       this.nodeEq = new NodeEquivalence<K, V>(this.keyEq, this.valueEq); // EQUIVALENCE_MOD
@@ -3677,6 +3777,17 @@ public long mappingCount() {
       return (n < 0L) ? 0L : n; // ignore transient negative values
    }
 
+   /**
+    * Returns the current size of the map as seen by the eviction policy. This is the number of mappings,
+    * or the sum of the sizes of all entries when the map was created with an {@link EntrySizeCalculator}.
+    * Like {@link #mappingCount()} the value may be inaccurate while there are concurrent updates.
+    *
+    * @return the current eviction size, or -1 if the eviction policy doesn't track it
+    */
+   public long evictionSize() {
+      return evictionPolicy.currentSize();
+   }
+
    /**
     * Creates a new {@link Set} backed by a EquivalentConcurrentHashMapV8
     * from the given type to {@code Boolean.TRUE}.
@@ -5144,7 +5255,9 @@ final int batchFor(long b) {
       long n;
       if (b == Long.MAX_VALUE || (n = sumCount()) <= 1L || n < b)
          return 0;
-      int sp = ForkJoinPool.getCommonPoolParallelism() << 2; // slack of 4
+      // split for the pool the traversal runs in, if it's not the common pool
+      ForkJoinPool pool = ForkJoinTask.getPool();
+      int sp = (pool != null ? pool.getParallelism() : ForkJoinPool.getCommonPoolParallelism()) << 2; // slack of 4
       return (b <= 0L || (n /= b) >= sp) ? sp : (int)n;
    }
 
@@ -0,0 +1,23 @@
+package org.infinispan.commons.util.concurrent.jdk8backported;
+
+/**
+ * Calculates the size of an entry stored in a {@link BoundedEquivalentConcurrentHashMapV8} that has been bounded by
+ * memory rather than by number of entries. The returned value is usually an estimate of the number of bytes the key
+ * and value occupy on the heap.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ * @since 7.2
+ */
+public interface EntrySizeCalculator<K, V> {
+
+   /**
+    * Returns how much space the given key and value take. The same key and value must always produce the same size,
+    * since the size is subtracted again when the entry is removed or evicted.
+    *
+    * @param key the key of the entry
+    * @param value the value of the entry
+    * @return the size of the entry, never negative
+    */
+   long calculateSize(K key, V value);
+}
@@ -3574,7 +3574,9 @@ final int batchFor(long b) {
       long n;
       if (b == Long.MAX_VALUE || (n = sumCount()) <= 1L || n < b)
          return 0;
-      int sp = ForkJoinPool.getCommonPoolParallelism() << 2; // slack of 4
+      // split for the pool the traversal runs in, if it's not the common pool
+      ForkJoinPool pool = ForkJoinTask.getPool();
+      int sp = (pool != null ? pool.getParallelism() : ForkJoinPool.getCommonPoolParallelism()) << 2; // slack of 4
       return (b <= 0L || (n /= b) >= sp) ? sp : (int)n;
    }
 
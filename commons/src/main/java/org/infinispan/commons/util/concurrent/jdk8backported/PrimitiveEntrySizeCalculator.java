@@ -0,0 +1,76 @@
+package org.infinispan.commons.util.concurrent.jdk8backported;
+
+/**
+ * Entry size calculator that knows the exact heap footprint of strings, primitive wrappers and arrays of primitives,
+ * {@code byte[]} in particular. Any other type is rejected with an {@link IllegalArgumentException}; subclasses can
+ * override {@link #handleObject(Object)} to support more types.
+ * <p>
+ * Sizes assume a 64 bit JVM with compressed oops, which is the default for heaps smaller than 32GB.
+ *
+ * @since 7.2
+ */
+public class PrimitiveEntrySizeCalculator implements EntrySizeCalculator<Object, Object> {
+
+   public static final int OBJECT_HEADER = 12;
+   public static final int ARRAY_HEADER = 16;
+   public static final int POINTER_SIZE = 4;
+
+   @Override
+   public long calculateSize(Object key, Object value) {
+      return handleObject(key) + handleObject(value);
+   }
+
+   protected long handleObject(Object object) {
+      if (object == null) {
+         return 0;
+      }
+      Class<?> objClass = object.getClass();
+      if (objClass == String.class) {
+         // char[] value + int hash
+         return roundUpToNearest8(OBJECT_HEADER + POINTER_SIZE + 4) + arraySize(((String) object).length(), 2);
+      } else if (objClass == byte[].class) {
+         return arraySize(((byte[]) object).length, 1);
+      } else if (objClass == Long.class || objClass == Double.class) {
+         return roundUpToNearest8(OBJECT_HEADER + 8);
+      } else if (objClass == Integer.class || objClass == Float.class || objClass == Short.class
+            || objClass == Character.class || objClass == Byte.class || objClass == Boolean.class) {
+         return roundUpToNearest8(OBJECT_HEADER + 4);
+      } else if (objClass.isArray() && objClass.getComponentType().isPrimitive()) {
+         return primitiveArraySize(object, objClass.getComponentType());
+      }
+      throw new IllegalArgumentException("Size of " + objClass + " cannot be determined using entry size calculator "
+            + getClass().getName());
+   }
+
+   private static long primitiveArraySize(Object array, Class<?> componentType) {
+      if (componentType == boolean.class) {
+         return arraySize(((boolean[]) array).length, 1);
+      } else if (componentType == char.class) {
+         return arraySize(((char[]) array).length, 2);
+      } else if (componentType == short.class) {
+         return arraySize(((short[]) array).length, 2);
+      } else if (componentType == int.class) {
+         return arraySize(((int[]) array).length, 4);
+      } else if (componentType == float.class) {
+         return arraySize(((float[]) array).length, 4);
+      } else if (componentType == long.class) {
+         return arraySize(((long[]) array).length, 8);
+      } else {
+         return arraySize(((double[]) array).length, 8);
+      }
+   }
+
+   /**
+    * Returns the heap size of an array with the given number of elements of the given size in bytes.
+    */
+   public static long arraySize(int elements, int elementSize) {
+      return roundUpToNearest8(ARRAY_HEADER + (long) elements * elementSize);
+   }
+
+   /**
+    * Objects are aligned to 8 bytes on the heap.
+    */
+   public static long roundUpToNearest8(long size) {
+      return (size + 7) & ~7L;
+   }
+}
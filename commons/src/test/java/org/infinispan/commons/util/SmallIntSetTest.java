@@ -0,0 +1,125 @@
+package org.infinispan.commons.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link SmallIntSet} and {@link IntSets}.
+ *
+ * @since 7.2
+ */
+public class SmallIntSetTest {
+
+   @Test
+   public void testAddRemoveContains() {
+      IntSet set = new SmallIntSet();
+      assertTrue(set.isEmpty());
+      assertTrue(set.add(3));
+      assertFalse(set.add(3));
+      assertTrue(set.add(Integer.valueOf(70)));
+      assertEquals(2, set.size());
+      assertTrue(set.contains(3));
+      assertTrue(set.contains(Integer.valueOf(70)));
+      assertFalse(set.contains(4));
+      assertFalse(set.contains(-1));
+      assertFalse(set.contains("3"));
+      assertTrue(set.remove(3));
+      assertFalse(set.remove(3));
+      assertFalse(set.remove(-1));
+      assertEquals(1, set.size());
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testNegativeValue() {
+      new SmallIntSet().add(-1);
+   }
+
+   @Test
+   public void testBulkOperations() {
+      IntSet set = SmallIntSet.range(10);
+      IntSet odd = new SmallIntSet();
+      for (int i = 1; i < 10; i += 2) {
+         odd.add(i);
+      }
+      assertTrue(set.containsAll(odd));
+      assertFalse(odd.containsAll(set));
+
+      assertTrue(set.removeAll(odd));
+      assertFalse(set.removeAll(odd));
+      assertEquals(5, set.size());
+      assertArrayEquals(new int[]{0, 2, 4, 6, 8}, set.toIntArray());
+
+      assertTrue(set.addAll(odd));
+      assertFalse(set.addAll(odd));
+      assertEquals(10, set.size());
+
+      assertTrue(set.retainAll(odd));
+      assertEquals(odd, set);
+   }
+
+   @Test
+   public void testInteroperabilityWithOtherSets() {
+      Set<Integer> hashSet = new HashSet<Integer>(Arrays.asList(1, 5, 130));
+      IntSet set = new SmallIntSet(hashSet);
+      assertEquals(hashSet, set);
+      assertEquals(set, hashSet);
+      assertEquals(hashSet.hashCode(), set.hashCode());
+
+      hashSet.add(7);
+      assertTrue(set.addAll(hashSet));
+      assertTrue(set.containsAll(hashSet));
+      hashSet.remove(1);
+      assertTrue(set.retainAll(hashSet));
+      assertEquals(hashSet, set);
+   }
+
+   @Test
+   public void testIterator() {
+      IntSet set = new SmallIntSet(Arrays.asList(9, 2, 64));
+      Iterator<Integer> it = set.iterator();
+      assertEquals(2, it.next().intValue());
+      it.remove();
+      assertEquals(9, it.next().intValue());
+      assertEquals(64, it.next().intValue());
+      assertFalse(it.hasNext());
+      assertArrayEquals(new int[]{9, 64}, set.toIntArray());
+   }
+
+   @Test
+   public void testImmutableSet() {
+      IntSet set = new SmallIntSet(Arrays.asList(1, 2));
+      IntSet immutable = IntSets.immutableSet(set);
+      assertTrue(immutable.contains(1));
+      assertEquals(set, immutable);
+      assertEquals(immutable, set);
+      try {
+         immutable.add(3);
+         fail("The set should not be modifiable");
+      } catch (UnsupportedOperationException e) {
+         // expected
+      }
+      try {
+         Iterator<Integer> it = immutable.iterator();
+         it.next();
+         it.remove();
+         fail("The set should not be modifiable");
+      } catch (UnsupportedOperationException e) {
+         // expected
+      }
+      // bulk operations with an immutable set still use the backing bits
+      IntSet copy = new SmallIntSet(immutable);
+      copy.removeAll(immutable);
+      assertTrue(copy.isEmpty());
+      assertTrue(IntSets.emptySet().isEmpty());
+   }
+}
@@ -0,0 +1,161 @@
+package org.infinispan.commons.util.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link CompletableNotifyingFuture}.
+ *
+ * @since 7.2
+ */
+public class CompletableNotifyingFutureTest {
+
+   @Test
+   public void testComplete() throws Exception {
+      CompletableNotifyingFuture<String> future = new CompletableNotifyingFuture<String>();
+      assertFalse(future.isDone());
+      assertTrue(future.complete("v1"));
+      assertFalse(future.complete("v2"));
+      assertFalse(future.completeExceptionally(new Exception()));
+      assertFalse(future.cancel(false));
+      assertTrue(future.isDone());
+      assertFalse(future.isCancelled());
+      assertEquals("v1", future.get());
+      assertEquals("v1", future.get(0, TimeUnit.MILLISECONDS));
+   }
+
+   @Test
+   public void testCompleteExceptionally() throws Exception {
+      Exception cause = new Exception();
+      CompletableNotifyingFuture<String> future = CompletableNotifyingFuture.failed(cause);
+      assertFalse(future.complete("v1"));
+      assertTrue(future.isDone());
+      try {
+         future.get();
+         fail("The future should have failed");
+      } catch (ExecutionException e) {
+         assertSame(cause, e.getCause());
+      }
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testCompleteExceptionallyWithoutException() {
+      new CompletableNotifyingFuture<String>().completeExceptionally(null);
+   }
+
+   @Test(expected = CancellationException.class)
+   public void testCancel() throws Exception {
+      CompletableNotifyingFuture<String> future = new CompletableNotifyingFuture<String>();
+      assertTrue(future.cancel(true));
+      assertFalse(future.complete("v1"));
+      assertTrue(future.isDone());
+      assertTrue(future.isCancelled());
+      future.get();
+   }
+
+   @Test(expected = TimeoutException.class)
+   public void testGetTimesOut() throws Exception {
+      new CompletableNotifyingFuture<String>().get(10, TimeUnit.MILLISECONDS);
+   }
+
+   @Test
+   public void testGetWaitsForCompletion() throws Exception {
+      final CompletableNotifyingFuture<String> future = new CompletableNotifyingFuture<String>();
+      Thread completer = new Thread(new Runnable() {
+         @Override
+         public void run() {
+            try {
+               Thread.sleep(50);
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            }
+            future.complete("v1");
+         }
+      });
+      completer.start();
+      assertEquals("v1", future.get(10, TimeUnit.SECONDS));
+      completer.join();
+   }
+
+   @Test
+   public void testListenersNotifiedOnce() throws Exception {
+      final AtomicInteger notifications = new AtomicInteger();
+      FutureListener<String> listener = new FutureListener<String>() {
+         @Override
+         public void futureDone(Future<String> future) {
+            notifications.incrementAndGet();
+         }
+      };
+      CompletableNotifyingFuture<String> future = new CompletableNotifyingFuture<String>();
+      future.attachListener(listener);
+      assertEquals(0, notifications.get());
+      future.complete("v1");
+      future.complete("v2");
+      assertEquals(1, notifications.get());
+
+      // attached after the completion, notified right away
+      CompletableNotifyingFuture.completed("v1").attachListener(listener);
+      assertEquals(2, notifications.get());
+   }
+
+   @Test
+   public void testAllOf() throws Exception {
+      CompletableNotifyingFuture<String> first = new CompletableNotifyingFuture<String>();
+      CompletableNotifyingFuture<String> second = new CompletableNotifyingFuture<String>();
+      CompletableNotifyingFuture<List<String>> all = CompletableNotifyingFuture.allOf(Arrays.asList(first, second));
+      second.complete("v2");
+      assertFalse(all.isDone());
+      first.complete("v1");
+      assertTrue(all.isDone());
+      assertEquals(new HashSet<String>(Arrays.asList("v1", "v2")), new HashSet<String>(all.get()));
+   }
+
+   @Test
+   public void testAllOfFails() throws Exception {
+      Exception cause = new Exception();
+      CompletableNotifyingFuture<String> first = new CompletableNotifyingFuture<String>();
+      CompletableNotifyingFuture<String> second = new CompletableNotifyingFuture<String>();
+      CompletableNotifyingFuture<List<String>> all = CompletableNotifyingFuture.allOf(Arrays.asList(first, second));
+      first.completeExceptionally(cause);
+      // still waits for the other futures
+      assertFalse(all.isDone());
+      second.complete("v2");
+      try {
+         all.get();
+         fail("The future should have failed");
+      } catch (ExecutionException e) {
+         assertSame(cause, e.getCause());
+      }
+   }
+
+   @Test
+   public void testAllOfNone() throws Exception {
+      List<CompletableNotifyingFuture<String>> none = Arrays.asList();
+      CompletableNotifyingFuture<List<String>> all = CompletableNotifyingFuture.allOf(none);
+      assertTrue(all.isDone());
+      assertTrue(all.get().isEmpty());
+   }
+
+   @Test
+   public void testCompletedWithNull() throws Exception {
+      CompletableNotifyingFuture<String> future = CompletableNotifyingFuture.completed(null);
+      assertTrue(future.isDone());
+      assertNull(future.get());
+   }
+}
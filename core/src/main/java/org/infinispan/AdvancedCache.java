@@ -29,6 +29,7 @@
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * An advanced interface that exposes additional methods not available on {@link Cache}.
@@ -415,6 +416,26 @@
     */
    CacheEntry<K, V> getCacheEntry(K key);
 
+   /**
+    * Gets a collection of entries, returning them as {@link Map} of the values associated with the set of keys
+    * requested.
+    * <p>
+    * If the cache is configured read-through, and a get for a key would return null because an entry is missing from
+    * the cache, the Cache's {@link org.infinispan.persistence.spi.CacheLoader} is called in an attempt to load the
+    * entry. If an entry cannot be loaded for a given key, the returned Map will contain no entry for that key.
+    * <p>
+    * In a distributed cache the keys are grouped by their primary owner and a single remote call is issued to each
+    * owner, in parallel, instead of one remote call per key.
+    *
+    * @param keys The keys whose associated values are to be returned.
+    * @return A map of entries that were found for the given keys. If an entry is not found for a given key, it will
+    *         not be in the returned map.
+    * @throws NullPointerException if keys is null or if keys contains a null
+    *
+    * @since 7.2
+    */
+   Map<K, V> getAll(Set<?> keys);
+
    /**
     * Retrieve the entry iterable that can be used to iterate over the contents of this cache.  Note that every
     * invocation of {@link Iterable#iterator()} will cause a new request chain to retrieve all of the values in
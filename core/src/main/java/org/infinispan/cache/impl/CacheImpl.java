@@ -9,6 +9,7 @@
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.read.EntryRetrievalCommand;
 import org.infinispan.commands.read.EntrySetCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
@@ -436,6 +437,26 @@ public final CacheEntry getCacheEntry(K key) {
       return getCacheEntry(key, null, null);
    }
 
+   @Override
+   public Map<K, V> getAll(Set<?> keys) {
+      return getAll(keys, null, null);
+   }
+
+   @SuppressWarnings("unchecked")
+   final Map<K, V> getAll(Set<?> keys, EnumSet<Flag> explicitFlags, ClassLoader explicitClassLoader) {
+      if (keys == null) throw new NullPointerException("Null keys are not supported!");
+      for (Object key : keys) {
+         assertKeyNotNull(key);
+      }
+      if (keys.isEmpty()) {
+         return Collections.emptyMap();
+      }
+      InvocationContext ctx = getInvocationContextForRead(explicitClassLoader, keys.size());
+      GetAllCommand command = commandsFactory.buildGetAllCommand(keys, explicitFlags, false);
+      Map<K, V> map = (Map<K, V>) invoker.invoke(ctx, command);
+      return Collections.unmodifiableMap(map);
+   }
+
    @Override
    public EntryIterable<K, V> filterEntries(KeyValueFilter<? super K, ? super V> filter) {
       return filterEntries(filter, null, null);
@@ -537,6 +537,11 @@ public CacheEntry getCacheEntry(K key) {
       return cacheImplementation.getCacheEntry(key, flags, classLoader.get());
    }
 
+   @Override
+   public Map<K, V> getAll(Set<?> keys) {
+      return cacheImplementation.getAll(keys, flags, classLoader.get());
+   }
+
 
    @Override
    public EntryIterable<K, V> filterEntries(KeyValueFilter<? super K, ? super V> filter) {
@@ -10,13 +10,16 @@
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.read.DistributedExecuteCommand;
 import org.infinispan.commands.read.EntrySetCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
 import org.infinispan.commands.read.MapCombineCommand;
 import org.infinispan.commands.read.ReduceCommand;
+import org.infinispan.commands.read.ShuffleCommand;
 import org.infinispan.commands.read.SizeCommand;
 import org.infinispan.commands.read.ValuesCommand;
+import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.remote.MultipleRpcCommand;
 import org.infinispan.commands.remote.SingleRpcCommand;
@@ -43,6 +46,7 @@
 import org.infinispan.statetransfer.StateResponseCommand;
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.transaction.xa.GlobalTransaction;
+import org.infinispan.xsite.BatchXSiteRpcCommand;
 import org.infinispan.xsite.SingleXSiteRpcCommand;
 import org.infinispan.xsite.XSiteAdminCommand;
 import org.infinispan.xsite.statetransfer.XSiteState;
@@ -147,6 +151,16 @@ public interface CommandsFactory {
     */
    GetCacheEntryCommand buildGetCacheEntryCommand(Object key, Set<Flag> explicitFlags);
 
+   /**
+    * Builds a GetAllCommand
+    * @param keys keys to get
+    * @param flags Command flags provided by cache
+    * @param returnEntries boolean indicating whether entire cache entries are
+    *                      returned, otherwise return just the value parts
+    * @return a GetAllCommand
+    */
+   GetAllCommand buildGetAllCommand(Collection<?> keys, Set<Flag> flags, boolean returnEntries);
+
    /**
     * Builds a KeySetCommand
     * @param flags Command flags provided by cache
@@ -274,6 +288,13 @@ public interface CommandsFactory {
     */
    ClusteredGetCommand buildClusteredGetCommand(Object key, Set<Flag> flags, boolean acquireRemoteLock, GlobalTransaction gtx);
 
+   /**
+    * Builds a ClusteredGetAllCommand, which is a remote lookup command for multiple keys owned by the same node
+    * @param keys keys to look up
+    * @return a ClusteredGetAllCommand
+    */
+   ClusteredGetAllCommand buildClusteredGetAllCommand(List<?> keys, Set<Flag> flags, GlobalTransaction gtx);
+
    /**
     * Builds a LockControlCommand to control explicit remote locking
     *
@@ -351,6 +372,16 @@ <KIn, VIn, KOut, VOut> MapCombineCommand<KIn, VIn, KOut, VOut> buildMapCombineCo
    <KOut, VOut> ReduceCommand<KOut, VOut> buildReduceCommand(String taskId,
             String destinationCache, Reducer<KOut, VOut> r, Collection<KOut> keys);
 
+   /**
+    * Builds a ShuffleCommand used to move intermediate keys and values of MapReduce tasks to the reducing node.
+    *
+    * @param values intermediate keys and values, or null to discard the keys and values shuffled to the node
+    * @param maxBufferedValues number of values the reducing node keeps in memory before spilling them to disk
+    * @return created ShuffleCommand
+    */
+   <KOut, VOut> ShuffleCommand<KOut, VOut> buildShuffleCommand(String taskId, Map<KOut, List<VOut>> values,
+            int maxBufferedValues);
+
    /**
     * @see GetInDoubtTxInfoCommand
     */
@@ -431,6 +462,13 @@ <KOut, VOut> ReduceCommand<KOut, VOut> buildReduceCommand(String taskId,
     */
    SingleXSiteRpcCommand buildSingleXSiteRpcCommand(VisitableCommand command);
 
+   /**
+    * Builds BatchXSiteRpcCommand used to apply a batch of modifications on the backup site.
+    * @param modifications the modifications to apply, in order.
+    * @return the BatchXSiteRpcCommand created
+    */
+   BatchXSiteRpcCommand buildBatchXSiteRpcCommand(WriteCommand[] modifications);
+
    /**
     * Builds {@link org.infinispan.iteration.impl.EntryRequestCommand} used to request entries from a remote node for
     * given segments
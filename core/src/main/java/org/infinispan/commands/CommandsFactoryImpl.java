@@ -15,13 +15,16 @@
 import org.infinispan.commands.module.ModuleCommandInitializer;
 import org.infinispan.commands.read.DistributedExecuteCommand;
 import org.infinispan.commands.read.EntrySetCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
 import org.infinispan.commands.read.MapCombineCommand;
 import org.infinispan.commands.read.ReduceCommand;
+import org.infinispan.commands.read.ShuffleCommand;
 import org.infinispan.commands.read.SizeCommand;
 import org.infinispan.commands.read.ValuesCommand;
+import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.remote.MultipleRpcCommand;
 import org.infinispan.commands.remote.SingleRpcCommand;
@@ -84,6 +87,7 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 import org.infinispan.xsite.BackupSender;
+import org.infinispan.xsite.BatchXSiteRpcCommand;
 import org.infinispan.xsite.SingleXSiteRpcCommand;
 import org.infinispan.xsite.XSiteAdminCommand;
 import org.infinispan.xsite.statetransfer.XSiteState;
@@ -312,6 +316,11 @@ public ClusteredGetCommand buildClusteredGetCommand(Object key, Set<Flag> flags,
             configuration.dataContainer().keyEquivalence());
    }
 
+   @Override
+   public ClusteredGetAllCommand buildClusteredGetAllCommand(List<?> keys, Set<Flag> flags, GlobalTransaction gtx) {
+      return new ClusteredGetAllCommand(cacheName, keys, flags, gtx);
+   }
+
    /**
     * @param isRemote true if the command is deserialized and is executed remote.
     */
@@ -395,6 +404,12 @@ public void initializeReplicableCommand(ReplicableCommand c, boolean isRemote) {
                   interceptorChain, distributionManager, txTable,
                   configuration.dataContainer().keyEquivalence());
             break;
+         case ClusteredGetAllCommand.COMMAND_ID:
+            ((ClusteredGetAllCommand) c).init(icf, this, entryFactory, interceptorChain);
+            break;
+         case GetAllCommand.COMMAND_ID:
+            ((GetAllCommand) c).init(entryFactory, configuration.dataContainer().keyEquivalence());
+            break;
          case LockControlCommand.COMMAND_ID:
             LockControlCommand lcc = (LockControlCommand) c;
             lcc.init(interceptorChain, icf, txTable);
@@ -437,6 +452,10 @@ public void initializeReplicableCommand(ReplicableCommand c, boolean isRemote) {
             ReduceCommand reduceCommand = (ReduceCommand)c;
             reduceCommand.init(mapReduceManager);
             break;
+         case ShuffleCommand.COMMAND_ID:
+            ShuffleCommand shuffleCommand = (ShuffleCommand)c;
+            shuffleCommand.init(mapReduceManager);
+            break;
          case DistributedExecuteCommand.COMMAND_ID:
             DistributedExecuteCommand dec = (DistributedExecuteCommand)c;
             dec.init(cache);
@@ -581,6 +600,12 @@ public <KOut, VOut> ReduceCommand<KOut, VOut> buildReduceCommand(String taskId,
       return new ReduceCommand<KOut, VOut>(taskId, r, destintationCache, keys);
    }
 
+   @Override
+   public <KOut, VOut> ShuffleCommand<KOut, VOut> buildShuffleCommand(String taskId, Map<KOut, List<VOut>> values,
+            int maxBufferedValues) {
+      return new ShuffleCommand<KOut, VOut>(taskId, cacheName, values, maxBufferedValues);
+   }
+
    @Override
    public CancelCommand buildCancelCommandCommand(UUID commandUUID) {
       return new CancelCommand(cacheName, commandUUID);
@@ -608,6 +633,11 @@ public SingleXSiteRpcCommand buildSingleXSiteRpcCommand(VisitableCommand command
       return new SingleXSiteRpcCommand(cacheName, command);
    }
 
+   @Override
+   public BatchXSiteRpcCommand buildBatchXSiteRpcCommand(WriteCommand[] modifications) {
+      return new BatchXSiteRpcCommand(cacheName, modifications);
+   }
+
    @Override
    public <K, V, C> EntryRequestCommand<K, V, C> buildEntryRequestCommand(UUID identifier, Set<Integer> segments,
                                                                     Set<K> keysToFilter,
@@ -636,4 +666,9 @@ public GetCacheEntryCommand buildGetCacheEntryCommand(Object key, Set<Flag> expl
       return new GetCacheEntryCommand(key, explicitFlags, entryFactory);
    }
 
+   @Override
+   public GetAllCommand buildGetAllCommand(Collection<?> keys, Set<Flag> flags, boolean returnEntries) {
+      return new GetAllCommand(keys, flags, returnEntries, entryFactory, configuration.dataContainer().keyEquivalence());
+   }
+
 }
@@ -4,11 +4,14 @@
 import org.infinispan.commands.module.ExtendedModuleCommandFactory;
 import org.infinispan.commands.module.ModuleCommandFactory;
 import org.infinispan.commands.read.DistributedExecuteCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.MapCombineCommand;
 import org.infinispan.commands.read.ReduceCommand;
+import org.infinispan.commands.read.ShuffleCommand;
 import org.infinispan.commands.remote.CacheRpcCommand;
+import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.remote.GetKeysInGroupCommand;
 import org.infinispan.commands.remote.MultipleRpcCommand;
@@ -44,6 +47,7 @@
 import org.infinispan.statetransfer.StateRequestCommand;
 import org.infinispan.statetransfer.StateResponseCommand;
 import org.infinispan.topology.CacheTopologyControlCommand;
+import org.infinispan.xsite.BatchXSiteRpcCommand;
 import org.infinispan.xsite.SingleXSiteRpcCommand;
 import org.infinispan.xsite.XSiteAdminCommand;
 import org.infinispan.xsite.statetransfer.XSiteStatePushCommand;
@@ -131,6 +135,9 @@ public ReplicableCommand fromStream(byte id, Object[] parameters, byte type) {
             case GetCacheEntryCommand.COMMAND_ID:
                command = new GetCacheEntryCommand();
                break;
+            case GetAllCommand.COMMAND_ID:
+               command = new GetAllCommand();
+               break;
             default:
                throw new CacheException("Unknown command id " + id + "!");
          }
@@ -200,6 +207,9 @@ public CacheRpcCommand fromStream(byte id, Object[] parameters, byte type, Strin
             case ClusteredGetCommand.COMMAND_ID:
                command = new ClusteredGetCommand(cacheName);
                break;
+            case ClusteredGetAllCommand.COMMAND_ID:
+               command = new ClusteredGetAllCommand(cacheName);
+               break;
             case StateRequestCommand.COMMAND_ID:
                command = new StateRequestCommand(cacheName);
                break;
@@ -224,6 +234,9 @@ public CacheRpcCommand fromStream(byte id, Object[] parameters, byte type, Strin
             case ReduceCommand.COMMAND_ID:
                command = new ReduceCommand(cacheName);
                break;
+            case ShuffleCommand.COMMAND_ID:
+               command = new ShuffleCommand(cacheName);
+               break;
             case DistributedExecuteCommand.COMMAND_ID:
                command = new DistributedExecuteCommand(cacheName);
                break;
@@ -251,6 +264,9 @@ public CacheRpcCommand fromStream(byte id, Object[] parameters, byte type, Strin
             case SingleXSiteRpcCommand.COMMAND_ID:
                command = new SingleXSiteRpcCommand(cacheName);
                break;
+            case BatchXSiteRpcCommand.COMMAND_ID:
+               command = new BatchXSiteRpcCommand(cacheName);
+               break;
             case EntryRequestCommand.COMMAND_ID:
                command = new EntryRequestCommand(cacheName);
                break;
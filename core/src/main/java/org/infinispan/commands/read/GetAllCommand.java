@@ -0,0 +1,166 @@
+package org.infinispan.commands.read;
+
+import org.infinispan.commands.AbstractFlagAffectedCommand;
+import org.infinispan.commands.Visitor;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.container.InternalEntryFactory;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.context.Flag;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.lifecycle.ComponentStatus;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import static org.infinispan.commons.util.Util.toStr;
+
+/**
+ * Retrieves multiple entries at once. Implements functionality defined by
+ * {@link org.infinispan.AdvancedCache#getAll(java.util.Set)}.
+ * <p/>
+ * The entries are looked up in the invocation context, so every interceptor that needs to fetch the entries (from a
+ * cache store or from remote owners) has to wrap them in the context before the command is performed.
+ *
+ * @since 7.2
+ */
+public class GetAllCommand extends AbstractFlagAffectedCommand {
+
+   public static final byte COMMAND_ID = 46;
+   private static final Log log = LogFactory.getLog(GetAllCommand.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private Collection<?> keys;
+   private boolean returnEntries;
+   private InternalEntryFactory entryFactory;
+   private Equivalence keyEquivalence;
+   /* WARNING: this is a local-only field, it is not replicated */
+   private Map<Object, InternalCacheEntry> remotelyFetched;
+
+   public GetAllCommand(Collection<?> keys, Set<Flag> flags, boolean returnEntries,
+                        InternalEntryFactory entryFactory, Equivalence keyEquivalence) {
+      this.keys = keys;
+      this.flags = flags;
+      this.returnEntries = returnEntries;
+      this.entryFactory = entryFactory;
+      this.keyEquivalence = keyEquivalence;
+   }
+
+   public GetAllCommand() {
+   }
+
+   public void init(InternalEntryFactory entryFactory, Equivalence keyEquivalence) {
+      this.entryFactory = entryFactory;
+      this.keyEquivalence = keyEquivalence;
+   }
+
+   @Override
+   public Object acceptVisitor(InvocationContext ctx, Visitor visitor) throws Throwable {
+      return visitor.visitGetAllCommand(ctx, this);
+   }
+
+   @Override
+   public boolean shouldInvoke(InvocationContext ctx) {
+      return true;
+   }
+
+   @Override
+   public boolean ignoreCommandOnStatus(ComponentStatus status) {
+      return false;
+   }
+
+   @Override
+   public Object perform(InvocationContext ctx) throws Throwable {
+      Map<Object, Object> map = CollectionFactory.makeMap(keys.size(), keyEquivalence, AnyEquivalence.getInstance());
+      for (Object key : keys) {
+         CacheEntry entry = ctx.lookupEntry(key);
+         if (entry == null || entry.isNull()) {
+            if (trace) {
+               log.tracef("Entry for key %s not found", toStr(key));
+            }
+            continue;
+         }
+         if (entry.isRemoved()) {
+            if (trace) {
+               log.tracef("Entry for key %s has been deleted and is of type %s", toStr(key), entry.getClass().getSimpleName());
+            }
+            continue;
+         }
+         map.put(key, returnEntries ? entryFactory.copy(entry) : entry.getValue());
+      }
+      return map;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public Object[] getParameters() {
+      return new Object[]{keys, returnEntries, Flag.copyWithoutRemotableFlags(flags)};
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public void setParameters(int commandId, Object[] parameters) {
+      if (commandId != COMMAND_ID) throw new IllegalStateException("Invalid method id");
+      keys = (Collection<?>) parameters[0];
+      returnEntries = (Boolean) parameters[1];
+      flags = (Set<Flag>) parameters[2];
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return true;
+   }
+
+   @Override
+   public boolean canBlock() {
+      return false;
+   }
+
+   public Collection<?> getKeys() {
+      return keys;
+   }
+
+   public void setKeys(Collection<?> keys) {
+      this.keys = keys;
+   }
+
+   public boolean isReturnEntries() {
+      return returnEntries;
+   }
+
+   /**
+    * If the cache needs to go remotely in order to obtain some of the entries, the remote entries are stored in this
+    * map, keyed by the requested key.
+    */
+   public Map<Object, InternalCacheEntry> getRemotelyFetched() {
+      return remotelyFetched;
+   }
+
+   public void setRemotelyFetched(Map<Object, InternalCacheEntry> remotelyFetched) {
+      this.remotelyFetched = remotelyFetched;
+   }
+
+   public boolean isRemotelyFetched(Object key) {
+      return remotelyFetched != null && remotelyFetched.containsKey(key);
+   }
+
+   @Override
+   public String toString() {
+      return new StringBuilder()
+            .append("GetAllCommand {keys=")
+            .append(toStr(keys))
+            .append(", returnEntries=").append(returnEntries)
+            .append(", flags=").append(flags)
+            .append("}")
+            .toString();
+   }
+}
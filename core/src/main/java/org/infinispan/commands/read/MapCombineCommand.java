@@ -34,6 +34,7 @@
    private UUID uuid;
    private String intermediateCacheName;
    private int maxCollectorSize;
+   private int maxShuffleBufferedValues;
 
    public MapCombineCommand() {
       super(null); // For command id uniqueness test
@@ -118,6 +119,29 @@ public int getMaxCollectorSize() {
       return maxCollectorSize;
    }
 
+   /**
+    * Enables the streaming shuffle: rather than being stored in the intermediate cache, the intermediate
+    * keys/values are sent in batches to the nodes reducing them, which keep at most the given number of
+    * values in memory and spill the others to disk.
+    *
+    * @param maxBufferedValues
+    *           the number of values each reducing node keeps in memory, or 0 to store the intermediate
+    *           keys/values in the intermediate cache
+    */
+   public void setMaxShuffleBufferedValues(int maxBufferedValues) {
+      if (maxBufferedValues < 0)
+         throw new IllegalArgumentException("Invalid size " + maxBufferedValues);
+      maxShuffleBufferedValues = maxBufferedValues;
+   }
+
+   public int getMaxShuffleBufferedValues() {
+      return maxShuffleBufferedValues;
+   }
+
+   public boolean isStreamingShuffle() {
+      return maxShuffleBufferedValues > 0;
+   }
+
    public Set<KIn> getKeys() {
       return keys;
    }
@@ -155,7 +179,7 @@ public UUID getUUID() {
    @Override
    public Object[] getParameters() {
       return new Object[] { taskId, keys, mapper, combiner, reducePhaseDistributed,
-            useIntermediateSharedCache, uuid, intermediateCacheName, maxCollectorSize};
+            useIntermediateSharedCache, uuid, intermediateCacheName, maxCollectorSize, maxShuffleBufferedValues};
    }
 
    @SuppressWarnings("unchecked")
@@ -173,6 +197,7 @@ public void setParameters(int commandId, Object[] args) {
       uuid = (UUID) args[i++];
       intermediateCacheName = (String) args[i++]; 
       maxCollectorSize = (Integer) args[i++];
+      maxShuffleBufferedValues = (Integer) args[i++];
    }
 
    @Override
@@ -29,6 +29,7 @@
    private MapReduceManager mrManager;
    private UUID uuid;
    private String resultCacheName;
+   private boolean streamingShuffle;
 
    private ReduceCommand() {
       super(null); // For command id uniqueness test
@@ -90,6 +91,18 @@ public void setResultCacheName(String resultCacheName) {
       this.resultCacheName = resultCacheName;
    }
 
+   /**
+    * @return true if the intermediate keys and values were shuffled to the nodes reducing them, in which case
+    *         each node reduces all the keys it received and the input keys are ignored
+    */
+   public boolean isStreamingShuffle() {
+      return streamingShuffle;
+   }
+
+   public void setStreamingShuffle(boolean streamingShuffle) {
+      this.streamingShuffle = streamingShuffle;
+   }
+
    public Set<KOut> getKeys() {
       return keys;
    }
@@ -114,7 +127,7 @@ public UUID getUUID() {
 
    @Override
    public Object[] getParameters() {
-      return new Object[] { taskId, keys, reducer, useIntermediateSharedCache, uuid, resultCacheName };
+      return new Object[] { taskId, keys, reducer, useIntermediateSharedCache, uuid, resultCacheName, streamingShuffle };
    }
 
    @SuppressWarnings({ "unchecked", "rawtypes" })
@@ -129,6 +142,7 @@ public void setParameters(int commandId, Object[] args) {
       useIntermediateSharedCache = (Boolean) args[i++];
       uuid = (UUID) args[i++];
       resultCacheName = (String) args[i++];
+      streamingShuffle = (Boolean) args[i++];
    }
 
    @Override
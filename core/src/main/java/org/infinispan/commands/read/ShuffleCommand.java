@@ -0,0 +1,110 @@
+package org.infinispan.commands.read;
+
+import java.util.List;
+import java.util.Map;
+
+import org.infinispan.commands.remote.BaseRpcCommand;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.distexec.mapreduce.MapReduceManager;
+
+/**
+ * ShuffleCommand moves a batch of intermediate keys and values, produced by the map phase of a MapReduceTask
+ * using the streaming shuffle, to the node which will reduce them. Without any values, it discards the keys and values
+ * already shuffled to the node for a task which failed or was cancelled.
+ *
+ * @since 7.2
+ */
+public class ShuffleCommand<KOut, VOut> extends BaseRpcCommand {
+
+   public static final byte COMMAND_ID = 49;
+   private String taskId;
+   private Map<KOut, List<VOut>> values;
+   private int maxBufferedValues;
+   private MapReduceManager mrManager;
+
+   private ShuffleCommand() {
+      super(null); // For command id uniqueness test
+   }
+
+   public ShuffleCommand(String cacheName) {
+      super(cacheName);
+   }
+
+   public ShuffleCommand(String taskId, String cacheName, Map<KOut, List<VOut>> values, int maxBufferedValues) {
+      super(cacheName);
+      this.taskId = taskId;
+      this.values = values;
+      this.maxBufferedValues = maxBufferedValues;
+   }
+
+   public void init(MapReduceManager mrManager) {
+      this.mrManager = mrManager;
+   }
+
+   /**
+    * Buffers the intermediate keys and values until the reduce phase is invoked on this node, or discards them.
+    */
+   @Override
+   public Object perform(InvocationContext context) throws Throwable {
+      mrManager.shuffle(this);
+      return null;
+   }
+
+   public String getTaskId() {
+      return taskId;
+   }
+
+   public Map<KOut, List<VOut>> getValues() {
+      return values;
+   }
+
+   /**
+    * @return true if the command discards the keys and values shuffled to the node instead of adding some
+    */
+   public boolean isDiscard() {
+      return values == null;
+   }
+
+   /**
+    * @return the number of intermediate values a node keeps in memory before spilling them to disk
+    */
+   public int getMaxBufferedValues() {
+      return maxBufferedValues;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public Object[] getParameters() {
+      return new Object[] { taskId, values, maxBufferedValues };
+   }
+
+   @SuppressWarnings("unchecked")
+   @Override
+   public void setParameters(int commandId, Object[] args) {
+      if (commandId != COMMAND_ID)
+         throw new IllegalStateException("Invalid method id");
+      int i = 0;
+      taskId = (String) args[i++];
+      values = (Map<KOut, List<VOut>>) args[i++];
+      maxBufferedValues = (Integer) args[i++];
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return false;
+   }
+
+   @Override
+   public boolean canBlock() {
+      return true;
+   }
+
+   @Override
+   public String toString() {
+      return "ShuffleCommand [taskId=" + taskId + (isDiscard() ? ", discard" : ", keys=" + values.size()) + "]";
+   }
+}
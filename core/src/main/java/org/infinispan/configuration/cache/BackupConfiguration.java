@@ -31,11 +31,15 @@ static AttributeSet attributeDefinitionSet() {
    private final AttributeSet attributes;
    private final TakeOfflineConfiguration takeOfflineConfiguration;
    private final XSiteStateTransferConfiguration xSiteStateTransferConfiguration ;
+   private final XSiteAsyncBatchingConfiguration asyncBatchingConfiguration;
 
-   public BackupConfiguration(AttributeSet attributes, TakeOfflineConfiguration takeOfflineConfiguration, XSiteStateTransferConfiguration xSiteStateTransferConfiguration) {
+   public BackupConfiguration(AttributeSet attributes, TakeOfflineConfiguration takeOfflineConfiguration,
+                              XSiteStateTransferConfiguration xSiteStateTransferConfiguration,
+                              XSiteAsyncBatchingConfiguration asyncBatchingConfiguration) {
       this.attributes = attributes.checkProtection();;
       this.takeOfflineConfiguration = takeOfflineConfiguration;
       this.xSiteStateTransferConfiguration = xSiteStateTransferConfiguration;
+      this.asyncBatchingConfiguration = asyncBatchingConfiguration;
       this.site = attributes.attribute(SITE);
       this.strategy = attributes.attribute(STRATEGY);
       this.replicationTimeout = attributes.attribute(REPLICATION_TIMEOUT);
@@ -107,6 +111,10 @@ public XSiteStateTransferConfiguration stateTransfer() {
       return xSiteStateTransferConfiguration;
    }
 
+   public XSiteAsyncBatchingConfiguration asyncBatching() {
+      return asyncBatchingConfiguration;
+   }
+
    public AttributeSet attributes() {
       return attributes;
    }
@@ -114,7 +122,8 @@ public AttributeSet attributes() {
    @Override
    public String toString() {
       return "BackupConfiguration [attributes=" + attributes + ", takeOfflineConfiguration=" + takeOfflineConfiguration
-            + ", xSiteStateTransferConfiguration=" + xSiteStateTransferConfiguration + "]";
+            + ", xSiteStateTransferConfiguration=" + xSiteStateTransferConfiguration
+            + ", asyncBatchingConfiguration=" + asyncBatchingConfiguration + "]";
    }
 
    @Override
@@ -141,6 +150,11 @@ public boolean equals(Object obj) {
             return false;
       } else if (!xSiteStateTransferConfiguration.equals(other.xSiteStateTransferConfiguration))
          return false;
+      if (asyncBatchingConfiguration == null) {
+         if (other.asyncBatchingConfiguration != null)
+            return false;
+      } else if (!asyncBatchingConfiguration.equals(other.asyncBatchingConfiguration))
+         return false;
       return true;
    }
 
@@ -152,6 +166,7 @@ public int hashCode() {
       result = prime * result + ((takeOfflineConfiguration == null) ? 0 : takeOfflineConfiguration.hashCode());
       result = prime * result
             + ((xSiteStateTransferConfiguration == null) ? 0 : xSiteStateTransferConfiguration.hashCode());
+      result = prime * result + ((asyncBatchingConfiguration == null) ? 0 : asyncBatchingConfiguration.hashCode());
       return result;
    }
 }
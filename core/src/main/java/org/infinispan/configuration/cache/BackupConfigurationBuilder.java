@@ -21,12 +21,14 @@ public class BackupConfigurationBuilder extends AbstractConfigurationChildBuilde
    private final AttributeSet attributes;
    private XSiteStateTransferConfigurationBuilder stateTransferBuilder;
    private TakeOfflineConfigurationBuilder takeOfflineBuilder;
+   private XSiteAsyncBatchingConfigurationBuilder asyncBatchingBuilder;
 
    public BackupConfigurationBuilder(ConfigurationBuilder builder) {
       super(builder);
       attributes = BackupConfiguration.attributeDefinitionSet();
       takeOfflineBuilder = new TakeOfflineConfigurationBuilder(builder, this);
       stateTransferBuilder = new XSiteStateTransferConfigurationBuilder(builder, this);
+      asyncBatchingBuilder = new XSiteAsyncBatchingConfigurationBuilder(builder, this);
    }
 
    /**
@@ -119,10 +121,18 @@ public XSiteStateTransferConfigurationBuilder stateTransfer() {
       return this.stateTransferBuilder;
    }
 
+   /**
+    * Configures the batching of the modifications backed up asynchronously to this site.
+    */
+   public XSiteAsyncBatchingConfigurationBuilder asyncBatching() {
+      return this.asyncBatchingBuilder;
+   }
+
    @Override
    public void validate() {
       takeOfflineBuilder.validate();
       stateTransferBuilder.validate();
+      asyncBatchingBuilder.validate();
       if (attributes.attribute(SITE).get() == null)
          throw log.backupMissingSite();
       if (attributes.attribute(FAILURE_POLICY).get() == BackupFailurePolicy.CUSTOM && (attributes.attribute(FAILURE_POLICY_CLASS).get() == null)) {
@@ -131,17 +141,22 @@ public void validate() {
       if (attributes.attribute(USE_TWO_PHASE_COMMIT).get() && attributes.attribute(STRATEGY).get() == BackupConfiguration.BackupStrategy.ASYNC) {
          throw log.twoPhaseCommitAsyncBackup();
       }
+      if (asyncBatchingBuilder.isEnabled() && attributes.attribute(STRATEGY).get() != BackupConfiguration.BackupStrategy.ASYNC) {
+         throw log.asyncBatchingSyncBackup();
+      }
    }
 
    @Override
    public void validate(GlobalConfiguration globalConfig) {
       takeOfflineBuilder.validate(globalConfig);
       stateTransferBuilder.validate(globalConfig);
+      asyncBatchingBuilder.validate(globalConfig);
    }
 
    @Override
    public BackupConfiguration create() {
-      return new BackupConfiguration(attributes.protect(), takeOfflineBuilder.create(), stateTransferBuilder.create());
+      return new BackupConfiguration(attributes.protect(), takeOfflineBuilder.create(), stateTransferBuilder.create(),
+                                     asyncBatchingBuilder.create());
    }
 
    @Override
@@ -149,6 +164,7 @@ public BackupConfigurationBuilder read(BackupConfiguration template) {
       attributes.read(template.attributes());
       takeOfflineBuilder.read(template.takeOffline());
       stateTransferBuilder.read(template.stateTransfer());
+      asyncBatchingBuilder.read(template.asyncBatching());
       return this;
    }
 
@@ -21,21 +21,28 @@ public class DataContainerConfiguration extends AbstractTypedPropertiesConfigura
          .<Equivalence> builder("keyEquivalence", AnyEquivalence.getInstance()).immutable().build();
    public static final AttributeDefinition<Equivalence> VALUE_EQUIVALENCE = AttributeDefinition
          .<Equivalence> builder("valueEquivalence", AnyEquivalence.getInstance()).immutable().build();
+   public static final AttributeDefinition<Boolean> OFF_HEAP = AttributeDefinition.builder("offHeap", false).immutable().build();
+   public static final AttributeDefinition<Integer> PARALLELISM = AttributeDefinition
+         .builder("parallelism", Runtime.getRuntime().availableProcessors()).immutable().build();
 
    static public AttributeSet attributeDefinitionSet() {
       return new AttributeSet(DataContainerConfiguration.class, AbstractTypedPropertiesConfiguration.attributeSet(),
-            DATA_CONTAINER, KEY_EQUIVALENCE, VALUE_EQUIVALENCE);
+            DATA_CONTAINER, KEY_EQUIVALENCE, VALUE_EQUIVALENCE, OFF_HEAP, PARALLELISM);
    }
 
    private final Attribute<DataContainer> dataContainer;
    private final Attribute<Equivalence> keyEquivalence;
    private final Attribute<Equivalence> valueEquivalence;
+   private final Attribute<Boolean> offHeap;
+   private final Attribute<Integer> parallelism;
 
    DataContainerConfiguration(AttributeSet attributes) {
       super(attributes);
       dataContainer = attributes.attribute(DATA_CONTAINER);
       keyEquivalence = attributes.attribute(KEY_EQUIVALENCE);
       valueEquivalence = attributes.attribute(VALUE_EQUIVALENCE);
+      offHeap = attributes.attribute(OFF_HEAP);
+      parallelism = attributes.attribute(PARALLELISM);
    }
 
    /**
@@ -57,6 +64,21 @@ public <V> Equivalence<V> valueEquivalence() {
       return (Equivalence<V>) valueEquivalence.get();
    }
 
+   /**
+    * Whether the entries are stored outside of the Java heap, in marshalled form
+    */
+   public boolean offHeap() {
+      return offHeap.get();
+   }
+
+   /**
+    * The maximum number of threads traversing the data container in parallel, e.g. during the map phase of a
+    * map/reduce task. The threads are shared by all the caches, and there are at most as many as processors.
+    */
+   public int parallelism() {
+      return parallelism.get();
+   }
+
    public AttributeSet attributes() {
       return attributes;
    }
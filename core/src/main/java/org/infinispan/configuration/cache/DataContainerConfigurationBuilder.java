@@ -3,8 +3,11 @@
 import static org.infinispan.commons.configuration.AbstractTypedPropertiesConfiguration.PROPERTIES;
 import static org.infinispan.configuration.cache.DataContainerConfiguration.DATA_CONTAINER;
 import static org.infinispan.configuration.cache.DataContainerConfiguration.KEY_EQUIVALENCE;
+import static org.infinispan.configuration.cache.DataContainerConfiguration.OFF_HEAP;
+import static org.infinispan.configuration.cache.DataContainerConfiguration.PARALLELISM;
 import static org.infinispan.configuration.cache.DataContainerConfiguration.VALUE_EQUIVALENCE;
 
+import java.lang.invoke.MethodHandles;
 import java.util.Properties;
 
 import org.infinispan.commons.configuration.Builder;
@@ -13,6 +16,8 @@
 import org.infinispan.commons.util.TypedProperties;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.container.DataContainer;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
 
 /**
  * Controls the data container for the cache.
@@ -22,6 +27,8 @@
  */
 public class DataContainerConfigurationBuilder extends AbstractConfigurationChildBuilder implements Builder<DataContainerConfiguration> {
 
+   private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass(), Log.class);
+
    private AttributeSet attributes;
 
    DataContainerConfigurationBuilder(ConfigurationBuilder builder) {
@@ -94,8 +101,38 @@ public <V> DataContainerConfigurationBuilder valueEquivalence(Equivalence<V> val
       return this;
    }
 
+   /**
+    * Store the entries outside of the Java heap. Keys, values and metadata are kept marshalled in native memory and
+    * are only deserialized when read, which requires keys to have a deterministic marshalled form. Ignored if a
+    * custom {@link #dataContainer(DataContainer)} is specified.
+    *
+    * @param offHeap whether the entries are stored off-heap
+    * @return this configuration builder
+    */
+   public DataContainerConfigurationBuilder offHeap(boolean offHeap) {
+      attributes.attribute(OFF_HEAP).set(offHeap);
+      return this;
+   }
+
+   /**
+    * The maximum number of threads traversing the data container in parallel, e.g. during the map phase of a
+    * map/reduce task. The threads are shared by all the caches, and there are at most as many as processors. Defaults
+    * to the number of available processors, {@code 1} traverses the entries sequentially in the invoking thread.
+    *
+    * @param parallelism the maximum number of threads
+    * @return this configuration builder
+    */
+   public DataContainerConfigurationBuilder parallelism(int parallelism) {
+      attributes.attribute(PARALLELISM).set(parallelism);
+      return this;
+   }
+
    @Override
    public void validate() {
+      int parallelism = attributes.attribute(PARALLELISM).get();
+      if (parallelism < 1) {
+         throw log.invalidDataContainerParallelism(parallelism);
+      }
    }
 
    @Override
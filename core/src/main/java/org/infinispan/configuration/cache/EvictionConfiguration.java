@@ -3,8 +3,10 @@
 import org.infinispan.commons.configuration.attributes.Attribute;
 import org.infinispan.commons.configuration.attributes.AttributeDefinition;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.commons.util.concurrent.jdk8backported.EntrySizeCalculator;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionThreadPolicy;
+import org.infinispan.eviction.EvictionType;
 
 /**
  * Controls the eviction settings for the cache.
@@ -13,13 +15,17 @@ public class EvictionConfiguration {
    public static final AttributeDefinition<Long> MAX_ENTRIES  = AttributeDefinition.builder("maxEntries", -1l).build();
    public static final AttributeDefinition<EvictionStrategy> STRATEGY = AttributeDefinition.builder("strategy", EvictionStrategy.NONE).immutable().build();
    public static final AttributeDefinition<EvictionThreadPolicy> THREAD_POLICY = AttributeDefinition.builder("threadPolicy", EvictionThreadPolicy.DEFAULT).immutable().build();
+   public static final AttributeDefinition<EvictionType> TYPE = AttributeDefinition.builder("type", EvictionType.COUNT).immutable().build();
+   public static final AttributeDefinition<EntrySizeCalculator> SIZE_CALCULATOR = AttributeDefinition.builder("sizeCalculator", null, EntrySizeCalculator.class).immutable().build();
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(EvictionConfiguration.class, MAX_ENTRIES, STRATEGY, THREAD_POLICY);
+      return new AttributeSet(EvictionConfiguration.class, MAX_ENTRIES, STRATEGY, THREAD_POLICY, TYPE, SIZE_CALCULATOR);
    }
 
    private final Attribute<Long> maxEntries;
    private final Attribute<EvictionStrategy> strategy;
    private final Attribute<EvictionThreadPolicy> threadPolicy;
+   private final Attribute<EvictionType> type;
+   private final Attribute<EntrySizeCalculator> sizeCalculator;
    private final AttributeSet attributes;
 
    EvictionConfiguration(AttributeSet attributes) {
@@ -27,6 +33,8 @@ static AttributeSet attributeDefinitionSet() {
       maxEntries = attributes.attribute(MAX_ENTRIES);
       strategy = attributes.attribute(STRATEGY);
       threadPolicy = attributes.attribute(THREAD_POLICY);
+      type = attributes.attribute(TYPE);
+      sizeCalculator = attributes.attribute(SIZE_CALCULATOR);
    }
 
    /**
@@ -53,6 +61,29 @@ public long maxEntries() {
       return maxEntries.get();
    }
 
+   /**
+    * The maximum size of the cache instance: the maximum number of entries when {@link #type()} is
+    * {@link EvictionType#COUNT}, or the maximum amount of memory in bytes when it is {@link EvictionType#MEMORY}.
+    */
+   public long size() {
+      return maxEntries.get();
+   }
+
+   /**
+    * Whether the cache is bounded by number of entries or by memory.
+    */
+   public EvictionType type() {
+      return type.get();
+   }
+
+   /**
+    * The calculator estimating the memory occupied by keys and values when {@link #type()} is
+    * {@link EvictionType#MEMORY}, or {@code null} to use the default one.
+    */
+   public EntrySizeCalculator sizeCalculator() {
+      return sizeCalculator.get();
+   }
+
    public AttributeSet attributes() {
       return attributes;
    }
@@ -1,15 +1,19 @@
 package org.infinispan.configuration.cache;
 
 import static org.infinispan.configuration.cache.EvictionConfiguration.MAX_ENTRIES;
+import static org.infinispan.configuration.cache.EvictionConfiguration.SIZE_CALCULATOR;
 import static org.infinispan.configuration.cache.EvictionConfiguration.STRATEGY;
 import static org.infinispan.configuration.cache.EvictionConfiguration.THREAD_POLICY;
+import static org.infinispan.configuration.cache.EvictionConfiguration.TYPE;
 
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.commons.util.concurrent.jdk8backported.EntrySizeCalculator;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionThreadPolicy;
+import org.infinispan.eviction.EvictionType;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -64,9 +68,46 @@ public EvictionConfigurationBuilder maxEntries(long maxEntries) {
       return this;
    }
 
+   /**
+    * Maximum size of a cache instance: the maximum number of entries when the eviction type is
+    * {@link EvictionType#COUNT}, or the maximum amount of memory in bytes when it is {@link EvictionType#MEMORY}.
+    * This is an alias for {@link #maxEntries(long)}.
+    *
+    * @param size
+    */
+   public EvictionConfigurationBuilder size(long size) {
+      return maxEntries(size);
+   }
+
+   /**
+    * Sets whether the cache is bounded by number of entries ({@link EvictionType#COUNT}, the default) or by the
+    * estimated amount of memory occupied by the entries ({@link EvictionType#MEMORY}). Memory based eviction only
+    * supports the LRU eviction strategy.
+    *
+    * @param type
+    */
+   public EvictionConfigurationBuilder type(EvictionType type) {
+      attributes.attribute(TYPE).set(type);
+      return this;
+   }
+
+   /**
+    * Calculator used to estimate how much memory keys and values occupy when the eviction type is
+    * {@link EvictionType#MEMORY}. The overhead of the cache entry and of its metadata is added by the cache. If not
+    * set, a calculator which knows the exact size of {@code byte[]}, {@link String}, primitive wrappers and of keys and
+    * values stored as binary is used, and any other key or value type is rejected when written to the cache.
+    *
+    * @param sizeCalculator
+    */
+   public EvictionConfigurationBuilder sizeCalculator(EntrySizeCalculator<?, ?> sizeCalculator) {
+      attributes.attribute(SIZE_CALCULATOR).set(sizeCalculator);
+      return this;
+   }
+
    @Override
    public void validate() {
       EvictionStrategy strategy = attributes.attribute(STRATEGY).get();
+      EvictionType type = attributes.attribute(TYPE).get();
       Long maxEntries = attributes.attribute(MAX_ENTRIES).get();
       if (!strategy.isEnabled() && getBuilder().persistence().passivation())
          log.passivationWithoutEviction();
@@ -75,9 +116,11 @@ public void validate() {
       if (strategy.isEnabled() && maxEntries <= 0)
          throw new CacheConfigurationException("Eviction maxEntries value cannot be less than or equal to zero if eviction is enabled");
       if (maxEntries > 0 && !strategy.isEnabled()) {
-         strategy(EvictionStrategy.LIRS);
+         strategy(type == EvictionType.MEMORY ? EvictionStrategy.LRU : EvictionStrategy.LIRS);
          log.debugf("Max entries configured (%d) without eviction strategy. Eviction strategy overriden to %s", maxEntries, strategy);
       }
+      if (type == EvictionType.MEMORY && attributes.attribute(STRATEGY).get() == EvictionStrategy.LIRS)
+         throw log.evictionTypeNotSupportedWithStrategy(type, EvictionStrategy.LIRS);
       if (maxEntries > EVICTION_MAX_SIZE) {
          throw log.evictionSizeTooLarge(maxEntries);
       }
@@ -0,0 +1,100 @@
+package org.infinispan.configuration.cache;
+
+import org.infinispan.commons.configuration.attributes.Attribute;
+import org.infinispan.commons.configuration.attributes.AttributeDefinition;
+import org.infinispan.commons.configuration.attributes.AttributeSet;
+
+/**
+ * Configures how the modifications backed up asynchronously to a site are queued and sent in batches.
+ *
+ * @since 7.2
+ */
+public class XSiteAsyncBatchingConfiguration {
+   public static final int DEFAULT_MAX_BATCH_SIZE = 512;
+   public static final long DEFAULT_MAX_DELAY = 100;
+
+   public static final AttributeDefinition<Boolean> ENABLED = AttributeDefinition.builder("enabled", false).immutable().build();
+   public static final AttributeDefinition<Integer> MAX_BATCH_SIZE = AttributeDefinition.builder("maxBatchSize", DEFAULT_MAX_BATCH_SIZE).immutable().build();
+   public static final AttributeDefinition<Long> MAX_DELAY = AttributeDefinition.builder("maxDelay", DEFAULT_MAX_DELAY).immutable().build();
+   public static final AttributeDefinition<Boolean> COMPRESSION = AttributeDefinition.builder("compression", false).immutable().build();
+
+   static AttributeSet attributeDefinitionSet() {
+      return new AttributeSet(XSiteAsyncBatchingConfiguration.class, ENABLED, MAX_BATCH_SIZE, MAX_DELAY, COMPRESSION);
+   }
+
+   private final Attribute<Boolean> enabled;
+   private final Attribute<Integer> maxBatchSize;
+   private final Attribute<Long> maxDelay;
+   private final Attribute<Boolean> compression;
+   private final AttributeSet attributes;
+
+   public XSiteAsyncBatchingConfiguration(AttributeSet attributes) {
+      this.attributes = attributes.checkProtection();
+      enabled = attributes.attribute(ENABLED);
+      maxBatchSize = attributes.attribute(MAX_BATCH_SIZE);
+      maxDelay = attributes.attribute(MAX_DELAY);
+      compression = attributes.attribute(COMPRESSION);
+   }
+
+   /**
+    * @see XSiteAsyncBatchingConfigurationBuilder#enabled(boolean)
+    */
+   public boolean enabled() {
+      return enabled.get();
+   }
+
+   /**
+    * @see XSiteAsyncBatchingConfigurationBuilder#maxBatchSize(int)
+    */
+   public int maxBatchSize() {
+      return maxBatchSize.get();
+   }
+
+   /**
+    * @see XSiteAsyncBatchingConfigurationBuilder#maxDelay(long)
+    */
+   public long maxDelay() {
+      return maxDelay.get();
+   }
+
+   /**
+    * @see XSiteAsyncBatchingConfigurationBuilder#compression(boolean)
+    */
+   public boolean compression() {
+      return compression.get();
+   }
+
+   @Override
+   public boolean equals(Object obj) {
+      if (this == obj)
+         return true;
+      if (obj == null)
+         return false;
+      if (getClass() != obj.getClass())
+         return false;
+      XSiteAsyncBatchingConfiguration other = (XSiteAsyncBatchingConfiguration) obj;
+      if (attributes == null) {
+         if (other.attributes != null)
+            return false;
+      } else if (!attributes.equals(other.attributes))
+         return false;
+      return true;
+   }
+
+   @Override
+   public int hashCode() {
+      final int prime = 31;
+      int result = 1;
+      result = prime * result + ((attributes == null) ? 0 : attributes.hashCode());
+      return result;
+   }
+
+   @Override
+   public String toString() {
+      return "XSiteAsyncBatchingConfiguration [attributes=" + attributes + "]";
+   }
+
+   public AttributeSet attributes() {
+      return attributes;
+   }
+}
@@ -0,0 +1,110 @@
+package org.infinispan.configuration.cache;
+
+import static org.infinispan.configuration.cache.XSiteAsyncBatchingConfiguration.*;
+
+import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.commons.configuration.Builder;
+import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.configuration.global.GlobalConfiguration;
+
+/**
+ * Configuration Builder to configure the batching of the modifications backed up asynchronously to a site.
+ *
+ * @since 7.2
+ */
+public class XSiteAsyncBatchingConfigurationBuilder extends AbstractConfigurationChildBuilder
+      implements Builder<XSiteAsyncBatchingConfiguration> {
+   private final BackupConfigurationBuilder backupConfigurationBuilder;
+   private final AttributeSet attributes;
+
+   public XSiteAsyncBatchingConfigurationBuilder(ConfigurationBuilder builder,
+                                                 BackupConfigurationBuilder backupConfigurationBuilder) {
+      super(builder);
+      this.attributes = XSiteAsyncBatchingConfiguration.attributeDefinitionSet();
+      this.backupConfigurationBuilder = backupConfigurationBuilder;
+   }
+
+   @Override
+   public void validate() {
+      if (!attributes.attribute(ENABLED).get()) {
+         return;
+      }
+      if (attributes.attribute(MAX_BATCH_SIZE).get() <= 0) {
+         throw new CacheConfigurationException("The maximum batch size must be higher or equals than 1 (one).");
+      }
+      if (attributes.attribute(MAX_DELAY).get() <= 0) {
+         throw new CacheConfigurationException("The maximum delay must be higher or equals than 1 (one).");
+      }
+   }
+
+   @Override
+   public void validate(GlobalConfiguration globalConfig) {
+   }
+
+   /**
+    * If true, the modifications backed up asynchronously are queued and sent in batches, and multiple writes to the
+    * same key in the same batch are coalesced so that only the last one is sent. Only allowed with the
+    * {@link BackupConfiguration.BackupStrategy#ASYNC} strategy. Defaults to false.
+    */
+   public XSiteAsyncBatchingConfigurationBuilder enabled(boolean enabled) {
+      attributes.attribute(ENABLED).set(enabled);
+      return this;
+   }
+
+   public XSiteAsyncBatchingConfigurationBuilder enable() {
+      return enabled(true);
+   }
+
+   public XSiteAsyncBatchingConfigurationBuilder disable() {
+      return enabled(false);
+   }
+
+   /**
+    * The maximum number of modifications sent in a batch. A batch is sent as soon as it is full. Defaults to 512.
+    */
+   public XSiteAsyncBatchingConfigurationBuilder maxBatchSize(int maxBatchSize) {
+      attributes.attribute(MAX_BATCH_SIZE).set(maxBatchSize);
+      return this;
+   }
+
+   /**
+    * The maximum time (in milliseconds) a modification waits in the queue before its batch is sent. Defaults to 100
+    * milliseconds.
+    */
+   public XSiteAsyncBatchingConfigurationBuilder maxDelay(long maxDelay) {
+      attributes.attribute(MAX_DELAY).set(maxDelay);
+      return this;
+   }
+
+   /**
+    * If true, the batches are compressed before being sent to the backup site. Defaults to false.
+    */
+   public XSiteAsyncBatchingConfigurationBuilder compression(boolean compression) {
+      attributes.attribute(COMPRESSION).set(compression);
+      return this;
+   }
+
+   public boolean isEnabled() {
+      return attributes.attribute(ENABLED).get();
+   }
+
+   public BackupConfigurationBuilder backup() {
+      return backupConfigurationBuilder;
+   }
+
+   @Override
+   public XSiteAsyncBatchingConfiguration create() {
+      return new XSiteAsyncBatchingConfiguration(attributes.protect());
+   }
+
+   @Override
+   public XSiteAsyncBatchingConfigurationBuilder read(XSiteAsyncBatchingConfiguration template) {
+      this.attributes.read(template.attributes());
+      return this;
+   }
+
+   @Override
+   public String toString() {
+      return this.getClass().getSimpleName() + attributes;
+   }
+}
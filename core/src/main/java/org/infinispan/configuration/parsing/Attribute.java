@@ -30,6 +30,7 @@ public enum Attribute {
     CLASS("class"),
     CLUSTER("cluster"),
     COMPLETED_TX_TIMEOUT("complete-timeout"),
+    COMPRESSION("compression"),
     CONCURRENCY_LEVEL("concurrency-level"),
     CONSISTENT_HASH_FACTORY("consistent-hash-factory"),
     CORE_THREADS("core-threads"),
@@ -60,6 +61,8 @@ public enum Attribute {
     MACHINE_ID("machine"),
     MAPPER("mapper"),
     MARSHALLER_CLASS("marshaller"),
+    MAX_BATCH_SIZE("max-batch-size"),
+    MAX_DELAY("max-delay"),
     MAX_ENTRIES("max-entries"),
     MAX_IDLE("max-idle"),
     MAX_RETRIES("max-retries"),
@@ -70,8 +73,10 @@ public enum Attribute {
     MODIFICATION_QUEUE_SIZE("modification-queue-size"),
     MODULE("module"),
     NAME("name"),
+    OFF_HEAP("off-heap"),
     ON_REHASH("onRehash"),
     OWNERS("owners"),
+    PARALLELISM("parallelism"),
     PATH("path"),
     PASSIVATION("passivation"),
     PERMISSIONS("permissions"),
@@ -100,6 +105,7 @@ public enum Attribute {
     SHUTDOWN_TIMEOUT("shutdown-timeout"),
     SINGLETON("singleton"),
     SITE("site"),
+    SIZE_CALCULATOR("size-calculator"),
     SPIN_DURATION("deadlock-detection-spin"),
     STATISTICS("statistics"),
     START("start"),
@@ -121,6 +127,7 @@ public enum Attribute {
     TRANSACTION_MANAGER_LOOKUP_CLASS("transaction-manager-lookup"),
     TRANSACTION_PROTOCOL("protocol"),
     TRANSPORT("transport"),
+    TYPE("type"),
     UNRELIABLE_RETURN_VALUES("unreliable-return-values"),
     USE_TWO_PHASE_COMMIT("two-phase-commit"),
     VALUE("value"),
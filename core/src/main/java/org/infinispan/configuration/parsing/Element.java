@@ -16,6 +16,7 @@ public enum Element {
 
     ADVANCED_EXTERNALIZER("advanced-externalizer"),
     ASYNC("async"),
+    ASYNC_BATCHING("async-batching"),
     AUTHORIZATION("authorization"),
     BACKUP("backup"),
     BACKUPS("backups"),
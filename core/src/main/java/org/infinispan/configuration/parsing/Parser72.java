@@ -10,6 +10,7 @@
 import org.infinispan.commons.marshall.AdvancedExternalizer;
 import org.infinispan.commons.marshall.Marshaller;
 import org.infinispan.commons.util.Util;
+import org.infinispan.commons.util.concurrent.jdk8backported.EntrySizeCalculator;
 import org.infinispan.configuration.cache.*;
 import org.infinispan.configuration.global.GlobalAuthorizationConfigurationBuilder;
 import org.infinispan.configuration.global.GlobalConfigurationBuilder;
@@ -23,6 +24,7 @@
 import org.infinispan.distribution.group.Grouper;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionThreadPolicy;
+import org.infinispan.eviction.EvictionType;
 import org.infinispan.factories.threads.DefaultThreadFactory;
 import org.infinispan.interceptors.base.CommandInterceptor;
 import org.infinispan.jmx.MBeanServerLookup;
@@ -939,6 +941,10 @@ private void parseBackup(XMLExtendedStreamReader reader, ConfigurationBuilder bu
                this.parseXSiteStateTransfer(reader, backup);
                break;
             }
+            case ASYNC_BATCHING: {
+               this.parseXSiteAsyncBatching(reader, backup);
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedElement(reader);
             }
@@ -991,6 +997,31 @@ private void parseXSiteStateTransfer(XMLExtendedStreamReader reader, BackupConfi
       ParseUtils.requireNoContent(reader);
    }
 
+   private void parseXSiteAsyncBatching(XMLExtendedStreamReader reader, BackupConfigurationBuilder backup) throws XMLStreamException {
+      backup.asyncBatching().enable();
+      for (int i = 0; i < reader.getAttributeCount(); i++) {
+         String value = replaceProperties(reader.getAttributeValue(i));
+         Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+         switch (attribute) {
+            case ENABLED:
+               backup.asyncBatching().enabled(Boolean.parseBoolean(value));
+               break;
+            case MAX_BATCH_SIZE:
+               backup.asyncBatching().maxBatchSize(Integer.parseInt(value));
+               break;
+            case MAX_DELAY:
+               backup.asyncBatching().maxDelay(Long.parseLong(value));
+               break;
+            case COMPRESSION:
+               backup.asyncBatching().compression(Boolean.parseBoolean(value));
+               break;
+            default:
+               throw ParseUtils.unexpectedAttribute(reader, i);
+         }
+      }
+      ParseUtils.requireNoContent(reader);
+   }
+
    private void parseBackupFor(XMLExtendedStreamReader reader, ConfigurationBuilder builder) throws XMLStreamException {
       builder.sites().backupFor().reset();
       for (int i = 0; i < reader.getAttributeCount(); i++) {
@@ -1065,7 +1096,7 @@ protected void parseCacheElement(XMLExtendedStreamReader reader, Element element
             break;
          }
          case EVICTION: {
-            this.parseEviction(reader, builder);
+            this.parseEviction(reader, builder, holder);
             break;
          }
          case EXPIRATION: {
@@ -1142,6 +1173,12 @@ private void parseDataContainer(final XMLExtendedStreamReader reader, final Conf
             case VALUE_EQUIVALENCE:
                builder.dataContainer().valueEquivalence(Util.<Equivalence>getInstance(value, holder.getClassLoader()));
                break;
+            case OFF_HEAP:
+               builder.dataContainer().offHeap(Boolean.parseBoolean(value));
+               break;
+            case PARALLELISM:
+               builder.dataContainer().parallelism(Integer.parseInt(value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -1354,7 +1391,7 @@ protected void parseTransaction(XMLExtendedStreamReader reader, ConfigurationBui
       ParseUtils.requireNoContent(reader);
    }
 
-   protected void parseEviction(XMLExtendedStreamReader reader, ConfigurationBuilder builder) throws XMLStreamException {
+   protected void parseEviction(XMLExtendedStreamReader reader, ConfigurationBuilder builder, ConfigurationBuilderHolder holder) throws XMLStreamException {
       for (int i = 0; i < reader.getAttributeCount(); i++) {
          String value = replaceProperties(reader.getAttributeValue(i));
          Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
@@ -1371,6 +1408,14 @@ protected void parseEviction(XMLExtendedStreamReader reader, ConfigurationBuilde
                builder.eviction().threadPolicy(EvictionThreadPolicy.valueOf(value));
                break;
             }
+            case TYPE: {
+               builder.eviction().type(EvictionType.valueOf(value));
+               break;
+            }
+            case SIZE_CALCULATOR: {
+               builder.eviction().sizeCalculator(Util.<EntrySizeCalculator>getInstance(value, holder.getClassLoader()));
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -82,6 +82,14 @@
     */
    int size();
 
+   /**
+    * Returns the size of the container as tracked for eviction purposes: the number of entries or, when eviction is
+    * bounded by memory, the estimated amount of memory in bytes occupied by the entries.
+    *
+    * @return the eviction size of the container
+    */
+   long evictionSize();
+
    /**
     * Removes all entries in the container
     */
@@ -14,6 +14,11 @@
 import org.infinispan.commons.util.concurrent.jdk8backported.EquivalentConcurrentHashMapV8;
 import org.infinispan.commons.util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8.Eviction;
 import org.infinispan.commons.util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8.EvictionListener;
+import org.infinispan.commons.util.concurrent.jdk8backported.EntrySizeCalculator;
+import org.infinispan.commons.util.concurrent.jdk8backported.ForkJoinPool;
+import org.infinispan.commons.util.concurrent.jdk8backported.ForkJoinTask;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.container.entries.CacheEntrySizeCalculator;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.eviction.ActivationManager;
 import org.infinispan.eviction.EvictionManager;
@@ -24,6 +29,11 @@
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.filter.KeyValueFilter;
+import org.infinispan.jmx.annotations.DisplayType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.metadata.impl.L1Metadata;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.util.CoreImmutables;
@@ -37,6 +47,7 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -54,24 +65,30 @@
  * @since 4.0
  */
 @ThreadSafe
+@MBean(objectName = "DataContainer", description = "Holds the entries of the cache and reaps the expired ones")
 public class DefaultDataContainer<K, V> implements DataContainer<K, V> {
 
    private static final Log log = LogFactory.getLog(DefaultDataContainer.class);
    private static final boolean trace = log.isTraceEnabled();
+   private static final long EXPIRATION_RESOLUTION = 1000;
+   private static final long PARALLELISM_THRESHOLD = 32;
 
    private final ConcurrentMap<K, InternalCacheEntry<K, V>> entries;
    private final ExtendedMap<K, V> extendedMap;
+   private final ExpirationIndex<K> expirationIndex;
    protected InternalEntryFactory entryFactory;
    private EvictionManager evictionManager;
    private PassivationManager passivator;
    private ActivationManager activator;
    private PersistenceManager pm;
    private TimeService timeService;
+   private int parallelism = Runtime.getRuntime().availableProcessors();
 
    public DefaultDataContainer(int concurrencyLevel) {
       // If no comparing implementations passed, could fallback on JDK CHM
       entries = CollectionFactory.makeConcurrentParallelMap(128, concurrencyLevel);
       extendedMap = new EquivalentConcurrentExtendedMap();
+      expirationIndex = new ExpirationIndex<K>(AnyEquivalence.getInstance(), EXPIRATION_RESOLUTION);
    }
 
    public DefaultDataContainer(int concurrencyLevel,
@@ -79,11 +96,22 @@ public DefaultDataContainer(int concurrencyLevel,
       // If at least one comparing implementation give, use ComparingCHMv8
       entries = CollectionFactory.makeConcurrentParallelMap(128, concurrencyLevel, keyEq, AnyEquivalence.getInstance());
       extendedMap = new EquivalentConcurrentExtendedMap();
+      expirationIndex = new ExpirationIndex<K>(keyEq, EXPIRATION_RESOLUTION);
    }
 
    protected DefaultDataContainer(int concurrencyLevel, long maxEntries,
          EvictionStrategy strategy, EvictionThreadPolicy policy,
          Equivalence<? super K> keyEquivalence) {
+      this(concurrencyLevel, maxEntries, strategy, policy, keyEquivalence, null);
+   }
+
+   /**
+    * Creates a container bounded by memory if {@code sizeCalculator} is not null, in which case {@code maxSize} is the
+    * maximum amount of memory in bytes occupied by the entries.
+    */
+   protected DefaultDataContainer(int concurrencyLevel, long maxSize,
+         EvictionStrategy strategy, EvictionThreadPolicy policy,
+         Equivalence<? super K> keyEquivalence, EntrySizeCalculator<? super K, ? super V> sizeCalculator) {
       DefaultEvictionListener evictionListener;
       // translate eviction policy and strategy
       switch (policy) {
@@ -109,9 +137,18 @@ protected DefaultDataContainer(int concurrencyLevel, long maxEntries,
             throw new IllegalArgumentException("No such eviction strategy " + strategy);
       }
 
+      CacheEntrySizeCalculator<K, V> entrySizeCalculator = sizeCalculator == null ? null :
+            new CacheEntrySizeCalculator<K, V>(sizeCalculator);
       entries = new BoundedEquivalentConcurrentHashMapV8<K, InternalCacheEntry<K, V>>(
-            (long) maxEntries, Eviction.LRU, evictionListener, keyEquivalence, AnyEquivalence.getInstance());
+            maxSize, Eviction.LRU, evictionListener, keyEquivalence, AnyEquivalence.getInstance(),
+            entrySizeCalculator);
       extendedMap = new BoundedEquivalentConcurrentExtendedMap();
+      expirationIndex = new ExpirationIndex<K>(keyEquivalence, EXPIRATION_RESOLUTION);
+   }
+
+   @Inject
+   public void injectConfiguration(Configuration configuration) {
+      this.parallelism = configuration.dataContainer().parallelism();
    }
 
    @Inject
@@ -132,6 +169,13 @@ public static <K, V> DataContainer<K, V> boundedDataContainer(int concurrencyLev
             policy, keyEquivalence);
    }
 
+   public static <K, V> DataContainer<K, V> boundedDataContainer(int concurrencyLevel, long maxSize,
+            EvictionStrategy strategy, EvictionThreadPolicy policy,
+            Equivalence<? super K> keyEquivalence, EntrySizeCalculator<? super K, ? super V> sizeCalculator) {
+      return new DefaultDataContainer<K, V>(concurrencyLevel, maxSize, strategy,
+            policy, keyEquivalence, sizeCalculator);
+   }
+
    public static <K, V> DataContainer<K, V> unBoundedDataContainer(int concurrencyLevel,
          Equivalence<? super K> keyEquivalence) {
       return new DefaultDataContainer(concurrencyLevel, keyEquivalence);
@@ -156,7 +200,9 @@ public InternalCacheEntry<K, V> get(Object k) {
          long currentTimeMillis = timeService.wallClockTime();
          if (e.isExpired(currentTimeMillis)) {
             // We can only remove the same value - in case if a concurrent write updates it
-            entries.remove(k, e);
+            if (entries.remove(k, e)) {
+               expirationIndex.remove(k);
+            }
             e = null;
          } else {
             e.touch(currentTimeMillis);
@@ -190,13 +236,21 @@ public void put(K k, V v, Metadata metadata) {
          log.tracef("Store %s in container", e);
 
       extendedMap.putAndActivate(e);
+      if (e.canExpire()) {
+         expirationIndex.add(k, e.getExpiryTime());
+      } else {
+         // the entry replaced may have been expirable
+         expirationIndex.remove(k);
+      }
    }
 
    @Override
    public boolean containsKey(Object k) {
       InternalCacheEntry<K, V> ice = peek(k);
       if (ice != null && ice.canExpire() && ice.isExpired(timeService.wallClockTime())) {
-         entries.remove(k);
+         if (entries.remove(k, ice)) {
+            expirationIndex.remove(k);
+         }
          ice = null;
       }
       return ice != null;
@@ -205,6 +259,9 @@ public boolean containsKey(Object k) {
    @Override
    public InternalCacheEntry<K, V> remove(Object k) {
       InternalCacheEntry<K, V> e = extendedMap.removeAndActivate(k);
+      if (e != null && e.canExpire()) {
+         expirationIndex.remove(k);
+      }
       return e == null || (e.canExpire() && e.isExpired(timeService.wallClockTime())) ? null : e;
    }
 
@@ -213,9 +270,17 @@ public int size() {
       return entries.size();
    }
 
+   @Override
+   public long evictionSize() {
+      return extendedMap.evictionSize();
+   }
+
    @Override
    public void clear() {
       log.tracef("Clearing data container");
+      // writers add the entry before indexing its key, so the index must be cleared first: a put concurrent with the
+      // clear either has its entry removed, or its key indexed after the index was cleared
+      expirationIndex.clear();
       entries.clear();
    }
 
@@ -236,23 +301,82 @@ public Set<InternalCacheEntry<K, V>> entrySet() {
 
    @Override
    public void purgeExpired() {
+      // only the keys indexed as expiring by now are checked, instead of iterating over all the entries
       long currentTimeMillis = timeService.wallClockTime();
-      for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = entries.values().iterator(); purgeCandidates.hasNext();) {
-         InternalCacheEntry e = purgeCandidates.next();
+      long reaped = 0;
+      long maxLag = 0;
+      for (K key : expirationIndex.pollDue(currentTimeMillis)) {
+         InternalCacheEntry<K, V> e = peek(key);
+         if (e == null || !e.canExpire()) {
+            continue;
+         }
          if (e.isExpired(currentTimeMillis)) {
-            purgeCandidates.remove();
+            // We can only remove the same value - in case if a concurrent write updates it
+            if (entries.remove(key, e)) {
+               reaped++;
+               maxLag = Math.max(maxLag, currentTimeMillis - e.getExpiryTime());
+            }
+         } else {
+            // touched since it was indexed
+            expirationIndex.add(key, e.getExpiryTime());
          }
       }
+      expirationIndex.reaped(currentTimeMillis, reaped, maxLag);
+      if (trace)
+         log.tracef("Reaped %d expired entries", reaped);
+   }
+
+   @ManagedAttribute(
+         description = "Number of expired entries removed by the reaper",
+         displayName = "Number of reaped entries",
+         measurementType = MeasurementType.TRENDSUP,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getReapedEntries() {
+      return expirationIndex.getReaped();
+   }
+
+   @ManagedAttribute(
+         description = "Number of expired entries removed per second during the last reaper run",
+         displayName = "Reaped entries per second",
+         displayType = DisplayType.SUMMARY
+   )
+   public double getReapedPerSecond() {
+      return expirationIndex.getReapedPerSecond();
+   }
+
+   @ManagedAttribute(
+         description = "Longest time an entry reaped during the last reaper run stayed in the container after expiring",
+         displayName = "Reaper lag",
+         units = Units.MILLISECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getReaperLag() {
+      return expirationIndex.getLag();
+   }
+
+   /**
+    * Number of keys in the expiration index, one per expirable entry until the entry is reaped.
+    */
+   int getExpirationIndexSize() {
+      return expirationIndex.size();
    }
 
    @Override
    public void evict(K key) {
       extendedMap.evict(key);
+      expirationIndex.remove(key);
    }
 
    @Override
    public InternalCacheEntry<K, V> compute(K key, ComputeAction<K, V> action) {
-      return extendedMap.compute(key, action);
+      InternalCacheEntry<K, V> e = extendedMap.compute(key, action);
+      if (e != null && e.canExpire()) {
+         expirationIndex.add(key, e.getExpiryTime());
+      } else {
+         expirationIndex.remove(key);
+      }
+      return e;
    }
 
    @Override
@@ -264,6 +388,9 @@ private final class DefaultEvictionListener implements EvictionListener<K, Inter
 
       @Override
       public void onEntryEviction(Map<K, InternalCacheEntry<K, V>> evicted) {
+         for (K key : evicted.keySet()) {
+            expirationIndex.remove(key);
+         }
          evictionManager.onEntryEviction(evicted);
       }
 
@@ -404,8 +531,7 @@ public void executeTask(final KeyFilter<? super K> filter, final KeyValueAction<
       if (action == null)
          throw new IllegalArgumentException("No action specified");
 
-      ParallelIterableMap<K, InternalCacheEntry<K, V>> map = (ParallelIterableMap<K, InternalCacheEntry<K, V>>) entries;
-      map.forEach(32, new KeyValueAction<K, InternalCacheEntry<K, V>>() {
+      forEach(new KeyValueAction<K, InternalCacheEntry<K, V>>() {
          @Override
          public void apply(K key, InternalCacheEntry<K, V> value) {
             if (filter.accept(key)) {
@@ -427,8 +553,7 @@ public void executeTask(final KeyValueFilter<? super K, ? super V> filter, final
       if (action == null)
          throw new IllegalArgumentException("No action specified");
 
-      ParallelIterableMap<K, InternalCacheEntry<K, V>> map = (ParallelIterableMap<K, InternalCacheEntry<K, V>>) entries;
-      map.forEach(32, new KeyValueAction<K, InternalCacheEntry<K, V>>() {
+      forEach(new KeyValueAction<K, InternalCacheEntry<K, V>>() {
          @Override
          public void apply(K key, InternalCacheEntry<K, V> value) {
             if (filter.accept(key, value.getValue(), value.getMetadata())) {
@@ -442,6 +567,40 @@ public void apply(K key, InternalCacheEntry<K, V> value) {
       }
    }
 
+   /**
+    * Applies the action to all the entries, in parallel in the shared traversal pool if there are enough of them and
+    * the configured parallelism allows it.
+    */
+   private void forEach(final KeyValueAction<K, InternalCacheEntry<K, V>> action) throws InterruptedException {
+      final ParallelIterableMap<K, InternalCacheEntry<K, V>> map = (ParallelIterableMap<K, InternalCacheEntry<K, V>>) entries;
+      int size = entries.size();
+      if (parallelism <= 1 || size <= PARALLELISM_THRESHOLD) {
+         map.forEach(Long.MAX_VALUE, action);
+         return;
+      }
+      // the map splits the traversal in b = size / threshold batches, run by 2^(floor(log2(b)) + 1) tasks since each
+      // fork halves the batches left. With b at most highestOneBit(parallelism) / 2 there are at most parallelism
+      // tasks, hence threads, working on it, and still if the container doubles in size before the traversal starts
+      final long batches = Integer.highestOneBit(parallelism) / 2;
+      final long threshold = Math.max(PARALLELISM_THRESHOLD, (size + batches - 1) / batches);
+      // the forked subtasks run in the pool of the thread that starts the traversal
+      TraversalPool.INSTANCE.invoke(ForkJoinTask.adapt(new Callable<Void>() {
+         @Override
+         public Void call() throws Exception {
+            map.forEach(threshold, action);
+            return null;
+         }
+      }));
+   }
+
+   /**
+    * The pool traversing the entries of all the data containers, so that the number of threads is bounded by the
+    * number of processors whatever the number of caches. Created on first use.
+    */
+   private static final class TraversalPool {
+      static final ForkJoinPool INSTANCE = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+   }
+
    /**
     * Atomic logic to activate/passivate entries. This is dependent of the {@code ConcurrentMap} implementation.
     */
@@ -453,9 +612,16 @@ public void apply(K key, InternalCacheEntry<K, V> value) {
       void putAndActivate(InternalCacheEntry<K, V> newEntry);
 
       InternalCacheEntry<K, V> removeAndActivate(Object key);
+
+      long evictionSize();
    }
 
    private class EquivalentConcurrentExtendedMap implements ExtendedMap<K, V> {
+      @Override
+      public long evictionSize() {
+         return entries.size();
+      }
+
       @Override
       public void evict(K key) {
          ((EquivalentConcurrentHashMapV8<K, InternalCacheEntry<K, V>>) entries)
@@ -518,6 +684,11 @@ public InternalCacheEntry<K, V> apply(Object key, InternalCacheEntry<K, V> entry
    }
 
    private class BoundedEquivalentConcurrentExtendedMap implements ExtendedMap<K, V> {
+      @Override
+      public long evictionSize() {
+         return ((BoundedEquivalentConcurrentHashMapV8<K, InternalCacheEntry<K, V>>) entries).evictionSize();
+      }
+
       @Override
       public void evict(K key) {
          ((BoundedEquivalentConcurrentHashMapV8<K, InternalCacheEntry<K, V>>) entries)
@@ -0,0 +1,158 @@
+package org.infinispan.container;
+
+import net.jcip.annotations.ThreadSafe;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.CollectionFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Index of the keys of expirable entries, grouped in buckets by expiration time, so that expired entries can be reaped
+ * without scanning the whole data container.
+ * <p>
+ * Each key is in a single bucket: the bucket of a key is tracked, so that writing the key again moves it to the bucket
+ * of its new expiration time and {@link #remove(Object) removing} it frees its slot. The index is still only a hint,
+ * as touching a transient entry doesn't move its key: whoever polls the due keys is expected to check the actual entry
+ * in the container and to {@link #add(Object, long) add} the key again if it has not expired yet.
+ *
+ * @since 7.2
+ */
+@ThreadSafe
+final class ExpirationIndex<K> {
+
+   private final ConcurrentNavigableMap<Long, Set<K>> buckets = new ConcurrentSkipListMap<Long, Set<K>>();
+   // the bucket each key is in
+   private final ConcurrentMap<K, Long> bucketOf;
+   private final Equivalence<? super K> keyEquivalence;
+   private final long resolution;
+
+   // statistics, only updated by the reaper
+   private volatile long reaped;
+   private volatile double reapedPerSecond;
+   private volatile long lag;
+   private volatile long lastReap = -1;
+
+   /**
+    * @param resolution the time span, in milliseconds, covered by a bucket
+    */
+   ExpirationIndex(Equivalence<? super K> keyEquivalence, long resolution) {
+      this.keyEquivalence = keyEquivalence;
+      this.resolution = resolution;
+      this.bucketOf = CollectionFactory.makeConcurrentMap(keyEquivalence, AnyEquivalence.LONG);
+   }
+
+   /**
+    * Indexes the key by the expiration time of its entry, moving it out of the bucket it was in if any.
+    */
+   void add(K key, long expiryTime) {
+      Long bucket = expiryTime / resolution;
+      Long previous = bucketOf.put(key, bucket);
+      if (previous != null && !previous.equals(bucket)) {
+         removeFromBucket(key, previous);
+      }
+      while (true) {
+         Set<K> keys = buckets.get(bucket);
+         if (keys == null) {
+            Set<K> newKeys = Collections.newSetFromMap(
+                  CollectionFactory.<K, Boolean>makeConcurrentMap(keyEquivalence, AnyEquivalence.BOOLEAN));
+            keys = buckets.putIfAbsent(bucket, newKeys);
+            if (keys == null) {
+               keys = newKeys;
+            }
+         }
+         keys.add(key);
+         // if the bucket was polled concurrently the key may have been missed, so add it to a new bucket
+         if (buckets.get(bucket) == keys) {
+            return;
+         }
+         // the poll may have taken the key out of the index too
+         bucketOf.put(key, bucket);
+      }
+   }
+
+   /**
+    * Removes the key from the index, when its entry is removed from the container or can't expire any more.
+    */
+   void remove(Object key) {
+      Long bucket = bucketOf.remove(key);
+      if (bucket != null) {
+         removeFromBucket(key, bucket);
+      }
+   }
+
+   private void removeFromBucket(Object key, Long bucket) {
+      // an emptied bucket stays in the index until it is polled
+      Set<K> keys = buckets.get(bucket);
+      if (keys != null) {
+         keys.remove(key);
+      }
+   }
+
+   /**
+    * Removes from the index and returns the keys whose entries may be expired at {@code now}. Keys added again during
+    * the processing of the returned keys won't be returned before the next invocation.
+    */
+   List<K> pollDue(long now) {
+      long nowBucket = now / resolution;
+      List<K> due = new ArrayList<K>();
+      Map.Entry<Long, Set<K>> first;
+      while ((first = buckets.firstEntry()) != null && first.getKey() <= nowBucket) {
+         if (buckets.remove(first.getKey(), first.getValue())) {
+            for (K key : first.getValue()) {
+               // skip the keys which were moved to another bucket concurrently
+               if (bucketOf.remove(key, first.getKey())) {
+                  due.add(key);
+               }
+            }
+         }
+      }
+      return due;
+   }
+
+   /**
+    * Records the outcome of a reaping run.
+    *
+    * @param now the time the run started
+    * @param count the number of entries removed
+    * @param maxLag the longest time, in milliseconds, that a reaped entry stayed in the container after expiring
+    */
+   void reaped(long now, long count, long maxLag) {
+      reaped += count;
+      long previous = lastReap;
+      if (previous >= 0 && now > previous) {
+         reapedPerSecond = count * 1000d / (now - previous);
+      }
+      lastReap = now;
+      lag = maxLag;
+   }
+
+   void clear() {
+      buckets.clear();
+      bucketOf.clear();
+   }
+
+   int size() {
+      return bucketOf.size();
+   }
+
+   long getReaped() {
+      return reaped;
+   }
+
+   double getReapedPerSecond() {
+      return reapedPerSecond;
+   }
+
+   long getLag() {
+      return lag;
+   }
+}
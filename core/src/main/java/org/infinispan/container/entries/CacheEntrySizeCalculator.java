@@ -0,0 +1,77 @@
+package org.infinispan.container.entries;
+
+import org.infinispan.commons.util.concurrent.jdk8backported.EntrySizeCalculator;
+import org.infinispan.container.entries.metadata.MetadataAware;
+import org.infinispan.container.entries.metadata.MetadataMortalCacheEntry;
+import org.infinispan.container.entries.metadata.MetadataTransientCacheEntry;
+import org.infinispan.container.entries.metadata.MetadataTransientMortalCacheEntry;
+import org.infinispan.metadata.Metadata;
+
+import static org.infinispan.commons.util.concurrent.jdk8backported.PrimitiveEntrySizeCalculator.OBJECT_HEADER;
+import static org.infinispan.commons.util.concurrent.jdk8backported.PrimitiveEntrySizeCalculator.POINTER_SIZE;
+import static org.infinispan.commons.util.concurrent.jdk8backported.PrimitiveEntrySizeCalculator.roundUpToNearest8;
+
+/**
+ * Estimates the memory occupied by an entry of the data container: the size of the key and of the value, as returned
+ * by the configured {@link EntrySizeCalculator}, plus the overhead of the {@link InternalCacheEntry}, of its
+ * {@link Metadata} and of the node linking it in the bounded container.
+ *
+ * @since 7.2
+ */
+public class CacheEntrySizeCalculator<K, V> implements EntrySizeCalculator<K, InternalCacheEntry<K, V>> {
+
+   // map node (hash, key, value, next, eviction and equivalence), LRU node (node, queue node, removed, size),
+   // deque node (prev, next, item) and the table slot
+   private static final long CONTAINER_NODE_SIZE = roundUpToNearest8(OBJECT_HEADER + 4 + 5 * POINTER_SIZE)
+         + roundUpToNearest8(OBJECT_HEADER + 2 * POINTER_SIZE + 1 + 8)
+         + roundUpToNearest8(OBJECT_HEADER + 3 * POINTER_SIZE)
+         + POINTER_SIZE;
+
+   private final EntrySizeCalculator<? super K, ? super V> calculator;
+
+   public CacheEntrySizeCalculator(EntrySizeCalculator<? super K, ? super V> calculator) {
+      this.calculator = calculator;
+   }
+
+   @Override
+   public long calculateSize(K key, InternalCacheEntry<K, V> ice) {
+      return calculator.calculateSize(key, ice.getValue()) + internalEntrySize(ice) + CONTAINER_NODE_SIZE;
+   }
+
+   private static long internalEntrySize(InternalCacheEntry<?, ?> ice) {
+      // key and value
+      long size = OBJECT_HEADER + 2 * POINTER_SIZE;
+      if (ice instanceof TransientMortalCacheEntry) {
+         size += 4 * 8;
+      } else if (ice instanceof MortalCacheEntry || ice instanceof TransientCacheEntry
+            || ice instanceof MetadataTransientMortalCacheEntry) {
+         size += 2 * 8;
+      } else if (ice instanceof MetadataMortalCacheEntry || ice instanceof MetadataTransientCacheEntry) {
+         size += 8;
+      }
+      if (ice instanceof MetadataAware) {
+         size += POINTER_SIZE;
+         size = roundUpToNearest8(size) + metadataSize(((MetadataAware) ice).getMetadata());
+      }
+      return roundUpToNearest8(size);
+   }
+
+   private static long metadataSize(Metadata metadata) {
+      if (metadata == null) {
+         return 0;
+      }
+      // version
+      long size = OBJECT_HEADER + POINTER_SIZE;
+      if (metadata.lifespan() >= 0) {
+         size += 8;
+      }
+      if (metadata.maxIdle() >= 0) {
+         size += 8;
+      }
+      size = roundUpToNearest8(size);
+      if (metadata.version() != null) {
+         size += roundUpToNearest8(OBJECT_HEADER + 8);
+      }
+      return size;
+   }
+}
@@ -0,0 +1,1059 @@
+package org.infinispan.container.offheap;
+
+import net.jcip.annotations.ThreadSafe;
+
+import org.infinispan.IllegalLifecycleStateException;
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.logging.Log;
+import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.concurrent.ParallelIterableMap.KeyValueAction;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.InternalEntryFactory;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.entries.L1InternalCacheEntry;
+import org.infinispan.container.entries.metadata.L1MetadataInternalCacheEntry;
+import org.infinispan.container.entries.metadata.MetadataAware;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.eviction.EvictionManager;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.eviction.PassivationManager;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.factories.annotations.ComponentName;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.filter.KeyFilter;
+import org.infinispan.filter.KeyValueFilter;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.metadata.impl.L1Metadata;
+import org.infinispan.util.CoreImmutables;
+import org.infinispan.util.TimeService;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A {@link DataContainer} which keeps its entries outside of the Java heap.
+ * <p>
+ * Keys, values and metadata are marshalled with the cache marshaller and copied into natively allocated memory,
+ * together with the expiration timestamps of the entry. Entries are indexed by an off-heap hash table made of a
+ * power-of-two array of bucket addresses, each bucket holding a chain of entries; the table is guarded by striped
+ * read/write locks, and doubles in size when it holds more than 3/4 entries per bucket. Only the hash table and entry
+ * payloads live off-heap, so the garbage collector does not need to trace the cached data.
+ * <p>
+ * Entries are deserialized lazily: only when an entry is read is a {@link InternalCacheEntry} materialized on the heap,
+ * and the returned instance is a copy which is not updated by later writes. Since keys are compared by their
+ * marshalled form, keys must marshall deterministically (i.e. equal keys must produce equal bytes).
+ * <p>
+ * When bounded, eviction always follows an approximate LRU order, whatever the configured strategy: entries are kept
+ * in insertion order and reads only mark them as accessed, so the eviction gives the accessed entries a second chance
+ * by moving them to the end of the list. The bound is either the number of entries or the number of bytes allocated
+ * for the entries, depending on the {@link EvictionType}.
+ * <p>
+ * The native memory is released when the container is stopped, after which any access fails with an
+ * {@link IllegalLifecycleStateException} until it is started again.
+ *
+ * @since 7.2
+ */
+@ThreadSafe
+public class OffHeapDataContainer<K, V> implements DataContainer<K, V> {
+
+   private static final Log log = LogFactory.getLog(OffHeapDataContainer.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   // entry layout
+   private static final int NEXT = 0;
+   private static final int LRU_PREV = 8;
+   private static final int LRU_NEXT = 16;
+   private static final int HASH = 24;
+   private static final int KEY_LENGTH = 28;
+   private static final int METADATA_LENGTH = 32;
+   private static final int VALUE_LENGTH = 36;
+   private static final int FLAGS = 40;
+   private static final int ACCESSED = 41;
+   private static final int CREATED = 48;
+   private static final int LAST_USED = 56;
+   private static final int LIFESPAN = 64;
+   private static final int MAX_IDLE = 72;
+   private static final int HEADER_SIZE = 80;
+
+   private static final byte FLAG_L1 = 1;
+
+   private static final int MAX_BUCKETS = 1 << 30;
+   private static final int DEFAULT_BUCKETS = 1 << 12;
+   // the table grows as needed, so count-bounded containers are only presized up to this number of buckets
+   private static final int MAX_INITIAL_BUCKETS = 1 << 20;
+
+   private final Equivalence<? super K> keyEquivalence;
+   private final long maxSize;
+   private final EvictionType evictionType;
+   private final int initialBucketCount;
+   private final ReentrantReadWriteLock[] locks;
+   private final AtomicInteger size = new AtomicInteger();
+   private final AtomicLong allocated = new AtomicLong();
+
+   // the LRU list is only maintained for bounded containers, and is guarded by lruLock
+   private final Object lruLock = new Object();
+   private long lruHead;
+   private long lruTail;
+
+   // only modified with all the stripe write locks held, 0 once the container is stopped
+   private volatile long buckets;
+   private volatile int bucketCount;
+
+   private StreamingMarshaller marshaller;
+   private EvictionManager evictionManager;
+   private PassivationManager passivator;
+   private InternalEntryFactory entryFactory;
+   private ActivationManager activator;
+   private TimeService timeService;
+
+   /**
+    * @param concurrencyLevel the number of lock stripes guarding the hash table
+    * @param keyEquivalence used to compute the hash of the keys
+    * @param maxSize the maximum number of entries, or bytes if {@code evictionType} is {@link EvictionType#MEMORY};
+    *                a negative value means the container is unbounded
+    * @param evictionType how {@code maxSize} is interpreted
+    */
+   public OffHeapDataContainer(int concurrencyLevel, Equivalence<? super K> keyEquivalence, long maxSize,
+                               EvictionType evictionType) {
+      this.keyEquivalence = keyEquivalence;
+      this.maxSize = maxSize;
+      this.evictionType = evictionType;
+      if (maxSize >= 0 && evictionType == EvictionType.COUNT) {
+         initialBucketCount = Math.max(nextPowerOfTwo(Math.min(maxSize * 4 / 3, MAX_INITIAL_BUCKETS)), DEFAULT_BUCKETS);
+      } else {
+         initialBucketCount = DEFAULT_BUCKETS;
+      }
+      // the stripe of a bucket doesn't change when the table grows, as there are never more stripes than buckets
+      int lockCount = Math.min(nextPowerOfTwo(concurrencyLevel), initialBucketCount);
+      locks = new ReentrantReadWriteLock[lockCount];
+      for (int i = 0; i < lockCount; i++) {
+         locks[i] = new ReentrantReadWriteLock();
+      }
+      bucketCount = initialBucketCount;
+      buckets = OffHeapMemory.allocateZeroed((long) bucketCount << 3);
+   }
+
+   @Inject
+   public void initialize(@ComponentName(KnownComponentNames.CACHE_MARSHALLER) StreamingMarshaller marshaller,
+                          EvictionManager evictionManager, PassivationManager passivator,
+                          InternalEntryFactory entryFactory, ActivationManager activator, TimeService timeService) {
+      this.marshaller = marshaller;
+      this.evictionManager = evictionManager;
+      this.passivator = passivator;
+      this.entryFactory = entryFactory;
+      this.activator = activator;
+      this.timeService = timeService;
+   }
+
+   @Start
+   public void start() {
+      // the bucket table is released when the container is stopped
+      lockAll();
+      try {
+         if (buckets == 0) {
+            bucketCount = initialBucketCount;
+            buckets = OffHeapMemory.allocateZeroed((long) bucketCount << 3);
+         }
+      } finally {
+         unlockAll();
+      }
+   }
+
+   @Stop(priority = 1000)
+   public void stop() {
+      // no other thread can be reading the table or the entries while all the stripes are locked
+      lockAll();
+      try {
+         if (buckets == 0) {
+            return;
+         }
+         for (int i = 0; i < bucketCount; i++) {
+            releaseBucket(i);
+         }
+         OffHeapMemory.free(buckets);
+         buckets = 0;
+      } finally {
+         unlockAll();
+      }
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> get(Object k) {
+      byte[] keyBytes = marshall(k);
+      int hash = hash(k);
+      EntrySnapshot snapshot;
+      boolean expired = false;
+      Lock lock = lockFor(hash).readLock();
+      lock.lock();
+      try {
+         checkRunning();
+         long address = find(hash, keyBytes);
+         if (address == 0) {
+            return null;
+         }
+         long now = timeService.wallClockTime();
+         if (isExpired(address, now)) {
+            expired = true;
+            snapshot = null;
+         } else {
+            // other readers may access the entry concurrently, so only atomic updates are allowed here
+            if (OffHeapMemory.getLong(address + MAX_IDLE) > -1) {
+               touch(address, now);
+            }
+            if (isBounded()) {
+               OffHeapMemory.putByteVolatile(address + ACCESSED, (byte) 1);
+            }
+            snapshot = snapshot(address, false);
+         }
+      } finally {
+         lock.unlock();
+      }
+      if (expired) {
+         removeExpired(hash, keyBytes);
+         return null;
+      }
+      return toEntry((K) k, snapshot);
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> peek(Object k) {
+      byte[] keyBytes = marshall(k);
+      int hash = hash(k);
+      EntrySnapshot snapshot;
+      Lock lock = lockFor(hash).readLock();
+      lock.lock();
+      try {
+         checkRunning();
+         long address = find(hash, keyBytes);
+         if (address == 0) {
+            return null;
+         }
+         snapshot = snapshot(address, false);
+      } finally {
+         lock.unlock();
+      }
+      return toEntry((K) k, snapshot);
+   }
+
+   @Override
+   public void put(K k, V v, Metadata metadata) {
+      InternalCacheEntry<K, V> e;
+      if (metadata instanceof L1Metadata) {
+         e = entryFactory.createL1(k, v, ((L1Metadata) metadata).metadata());
+      } else {
+         // updating an entry creates a new incarnation of it, so there's nothing to read from the existing one
+         e = entryFactory.create(k, v, metadata);
+      }
+      if (trace)
+         log.tracef("Store %s in container", e);
+
+      byte[] keyBytes = marshall(k);
+      int hash = hash(k);
+      long address = allocateEntry(hash, keyBytes, e);
+      Lock lock = lockFor(hash).writeLock();
+      lock.lock();
+      try {
+         if (buckets == 0) {
+            OffHeapMemory.free(address);
+            throw stopped();
+         }
+         boolean created = store(hash, keyBytes, address);
+         activator.onUpdate(k, created);
+      } finally {
+         lock.unlock();
+      }
+      resizeIfNeeded();
+      evictIfNeeded();
+   }
+
+   @Override
+   public boolean containsKey(Object k) {
+      byte[] keyBytes = marshall(k);
+      int hash = hash(k);
+      boolean expired;
+      Lock lock = lockFor(hash).readLock();
+      lock.lock();
+      try {
+         checkRunning();
+         long address = find(hash, keyBytes);
+         if (address == 0) {
+            return false;
+         }
+         expired = isExpired(address, timeService.wallClockTime());
+      } finally {
+         lock.unlock();
+      }
+      if (expired) {
+         removeExpired(hash, keyBytes);
+      }
+      return !expired;
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> remove(Object k) {
+      byte[] keyBytes = marshall(k);
+      int hash = hash(k);
+      EntrySnapshot snapshot = null;
+      Lock lock = lockFor(hash).writeLock();
+      lock.lock();
+      try {
+         checkRunning();
+         long address = find(hash, keyBytes);
+         activator.onRemove(k, address == 0);
+         if (address == 0) {
+            return null;
+         }
+         if (!isExpired(address, timeService.wallClockTime())) {
+            snapshot = snapshot(address, false);
+         }
+         unlink(hash, address);
+      } finally {
+         lock.unlock();
+      }
+      return snapshot == null ? null : toEntry((K) k, snapshot);
+   }
+
+   @Override
+   public int size() {
+      return size.get();
+   }
+
+   @Override
+   public long evictionSize() {
+      return evictionType == EvictionType.MEMORY ? allocated.get() : size.get();
+   }
+
+   @Override
+   public void clear() {
+      log.tracef("Clearing data container");
+      for (int stripe = 0; stripe < locks.length; stripe++) {
+         Lock lock = locks[stripe].writeLock();
+         lock.lock();
+         try {
+            if (buckets == 0) {
+               return;
+            }
+            for (int i = stripe; i < bucketCount; i += locks.length) {
+               releaseBucket(i);
+            }
+         } finally {
+            lock.unlock();
+         }
+      }
+   }
+
+   @Override
+   public Set<K> keySet() {
+      return new KeySet();
+   }
+
+   @Override
+   public Collection<V> values() {
+      return new Values();
+   }
+
+   @Override
+   public Set<InternalCacheEntry<K, V>> entrySet() {
+      return new EntrySet();
+   }
+
+   @Override
+   public void purgeExpired() {
+      long now = timeService.wallClockTime();
+      // one stripe at a time, so that only the keys of that stripe are blocked
+      for (int stripe = 0; stripe < locks.length; stripe++) {
+         Lock lock = locks[stripe].writeLock();
+         lock.lock();
+         try {
+            if (buckets == 0) {
+               return;
+            }
+            for (int i = stripe; i < bucketCount; i += locks.length) {
+               long address = OffHeapMemory.getLong(slot(i));
+               while (address != 0) {
+                  long next = OffHeapMemory.getLong(address + NEXT);
+                  if (isExpired(address, now)) {
+                     unlink(OffHeapMemory.getInt(address + HASH), address);
+                  }
+                  address = next;
+               }
+            }
+         } finally {
+            lock.unlock();
+         }
+      }
+   }
+
+   @Override
+   public void evict(K key) {
+      evict(hash(key), marshall(key), key);
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> compute(K key, ComputeAction<K, V> action) {
+      byte[] keyBytes = marshall(key);
+      int hash = hash(key);
+      InternalCacheEntry<K, V> newEntry;
+      Lock lock = lockFor(hash).writeLock();
+      lock.lock();
+      try {
+         checkRunning();
+         long address = find(hash, keyBytes);
+         InternalCacheEntry<K, V> oldEntry = address == 0 ? null : toEntry(key, snapshot(address, false));
+         newEntry = action.compute(key, oldEntry, entryFactory);
+         if (newEntry == null) {
+            if (address != 0) {
+               unlink(hash, address);
+            }
+            activator.onRemove(key, false);
+            return null;
+         }
+         if (newEntry != oldEntry) {
+            activator.onUpdate(key, oldEntry == null);
+            if (trace)
+               log.tracef("Store %s in container", newEntry);
+         }
+         // the action may have modified the old entry in place, so it's always written back
+         store(hash, keyBytes, allocateEntry(hash, keyBytes, newEntry));
+      } finally {
+         lock.unlock();
+      }
+      resizeIfNeeded();
+      evictIfNeeded();
+      return newEntry;
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iterator() {
+      return new EntryIterator();
+   }
+
+   @Override
+   public void executeTask(final KeyFilter<? super K> filter, KeyValueAction<? super K, InternalCacheEntry<K, V>> action)
+         throws InterruptedException {
+      if (filter == null)
+         throw new IllegalArgumentException("No filter specified");
+      if (action == null)
+         throw new IllegalArgumentException("No action specified");
+
+      List<EntrySnapshot> snapshots = new ArrayList<EntrySnapshot>();
+      int cursor = 0;
+      do {
+         snapshots.clear();
+         cursor = scanBucket(cursor, snapshots);
+         for (EntrySnapshot snapshot : snapshots) {
+            K key = (K) unmarshall(snapshot.key);
+            if (filter.accept(key)) {
+               action.apply(key, toEntry(key, snapshot));
+            }
+         }
+         if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+         }
+      } while (cursor != 0);
+   }
+
+   @Override
+   public void executeTask(KeyValueFilter<? super K, ? super V> filter, KeyValueAction<? super K, InternalCacheEntry<K, V>> action)
+         throws InterruptedException {
+      if (filter == null)
+         throw new IllegalArgumentException("No filter specified");
+      if (action == null)
+         throw new IllegalArgumentException("No action specified");
+
+      List<EntrySnapshot> snapshots = new ArrayList<EntrySnapshot>();
+      int cursor = 0;
+      do {
+         snapshots.clear();
+         cursor = scanBucket(cursor, snapshots);
+         for (EntrySnapshot snapshot : snapshots) {
+            InternalCacheEntry<K, V> entry = toEntry((K) unmarshall(snapshot.key), snapshot);
+            if (filter.accept(entry.getKey(), entry.getValue(), entry.getMetadata())) {
+               action.apply(entry.getKey(), entry);
+            }
+         }
+         if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+         }
+      } while (cursor != 0);
+   }
+
+   private boolean isBounded() {
+      return maxSize >= 0;
+   }
+
+   private boolean isOverBound() {
+      if (evictionType == EvictionType.MEMORY) {
+         return allocated.get() > maxSize;
+      }
+      return size.get() > maxSize;
+   }
+
+   private void evictIfNeeded() {
+      if (!isBounded()) {
+         return;
+      }
+      while (isOverBound()) {
+         int hash;
+         byte[] keyBytes;
+         synchronized (lruLock) {
+            // the entries can't be released while the LRU lock is held, as they are unlinked from the list first
+            int chances = size.get();
+            while (lruHead != 0 && chances-- > 0 && OffHeapMemory.getByteVolatile(lruHead + ACCESSED) != 0) {
+               // accessed since it was last considered, so give it a second chance
+               long address = lruHead;
+               OffHeapMemory.putByteVolatile(address + ACCESSED, (byte) 0);
+               lruRemove(address);
+               lruAppend(address);
+            }
+            if (lruHead == 0) {
+               return;
+            }
+            hash = OffHeapMemory.getInt(lruHead + HASH);
+            keyBytes = OffHeapMemory.getBytes(lruHead + HEADER_SIZE, OffHeapMemory.getInt(lruHead + KEY_LENGTH));
+         }
+         evict(hash, keyBytes, null);
+      }
+   }
+
+   private void evict(int hash, byte[] keyBytes, K key) {
+      InternalCacheEntry<K, V> evicted;
+      Lock lock = lockFor(hash).writeLock();
+      lock.lock();
+      try {
+         checkRunning();
+         long address = find(hash, keyBytes);
+         if (address == 0) {
+            return;
+         }
+         EntrySnapshot snapshot = snapshot(address, key == null);
+         evicted = toEntry(key == null ? (K) unmarshall(snapshot.key) : key, snapshot);
+         passivator.passivate(evicted);
+         unlink(hash, address);
+      } finally {
+         lock.unlock();
+      }
+      if (key == null) {
+         if (trace)
+            log.tracef("Evicted %s from container", evicted);
+         evictionManager.onEntryEviction(Collections.singletonMap(evicted.getKey(), evicted));
+      }
+   }
+
+   private void removeExpired(int hash, byte[] keyBytes) {
+      Lock lock = lockFor(hash).writeLock();
+      lock.lock();
+      try {
+         checkRunning();
+         // the entry might have been updated since it was found expired
+         long address = find(hash, keyBytes);
+         if (address != 0 && isExpired(address, timeService.wallClockTime())) {
+            unlink(hash, address);
+         }
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   private static boolean isExpired(long address, long now) {
+      long lifespan = OffHeapMemory.getLong(address + LIFESPAN);
+      long created = OffHeapMemory.getLong(address + CREATED);
+      if (lifespan > -1 && created > -1 && now > created + lifespan) {
+         return true;
+      }
+      long maxIdle = OffHeapMemory.getLong(address + MAX_IDLE);
+      long lastUsed = OffHeapMemory.getLongVolatile(address + LAST_USED);
+      return maxIdle > -1 && lastUsed > -1 && now > maxIdle + lastUsed;
+   }
+
+   /**
+    * Copies the given entry in a newly allocated block of native memory, which is not yet linked in the hash table.
+    */
+   private long allocateEntry(int hash, byte[] keyBytes, InternalCacheEntry<K, V> entry) {
+      byte[] valueBytes = marshall(entry.getValue());
+      byte[] metadataBytes = entry instanceof MetadataAware ? marshall(entry.getMetadata()) : null;
+      int metadataLength = metadataBytes == null ? 0 : metadataBytes.length;
+      long entrySize = HEADER_SIZE + keyBytes.length + metadataLength + valueBytes.length;
+
+      long address = OffHeapMemory.allocate(entrySize);
+      OffHeapMemory.putLong(address + NEXT, 0);
+      OffHeapMemory.putLong(address + LRU_PREV, 0);
+      OffHeapMemory.putLong(address + LRU_NEXT, 0);
+      OffHeapMemory.putInt(address + HASH, hash);
+      OffHeapMemory.putInt(address + KEY_LENGTH, keyBytes.length);
+      OffHeapMemory.putInt(address + METADATA_LENGTH, metadataLength);
+      OffHeapMemory.putInt(address + VALUE_LENGTH, valueBytes.length);
+      OffHeapMemory.putByte(address + FLAGS, entry.isL1Entry() ? FLAG_L1 : 0);
+      OffHeapMemory.putByte(address + ACCESSED, (byte) 0);
+      OffHeapMemory.putLong(address + CREATED, entry.getCreated());
+      OffHeapMemory.putLong(address + LAST_USED, entry.getLastUsed());
+      OffHeapMemory.putLong(address + LIFESPAN, entry.getLifespan());
+      OffHeapMemory.putLong(address + MAX_IDLE, entry.getMaxIdle());
+      long offset = address + HEADER_SIZE;
+      OffHeapMemory.putBytes(offset, keyBytes);
+      offset += keyBytes.length;
+      if (metadataBytes != null) {
+         OffHeapMemory.putBytes(offset, metadataBytes);
+         offset += metadataLength;
+      }
+      OffHeapMemory.putBytes(offset, valueBytes);
+      return address;
+   }
+
+   private static long entrySize(long address) {
+      return HEADER_SIZE + OffHeapMemory.getInt(address + KEY_LENGTH) + OffHeapMemory.getInt(address + METADATA_LENGTH)
+            + OffHeapMemory.getInt(address + VALUE_LENGTH);
+   }
+
+   /**
+    * Links an allocated entry in the hash table, replacing and releasing any existing entry for the same key. Must be
+    * called with the write lock of the stripe held.
+    *
+    * @return {@code true} if there was no entry for the key
+    */
+   private boolean store(int hash, byte[] keyBytes, long address) {
+      long existing = find(hash, keyBytes);
+      if (existing != 0) {
+         unlink(hash, existing);
+      }
+      long slot = slot(bucketIndex(hash));
+      OffHeapMemory.putLong(address + NEXT, OffHeapMemory.getLong(slot));
+      OffHeapMemory.putLong(slot, address);
+      size.incrementAndGet();
+      allocated.addAndGet(entrySize(address));
+      if (isBounded()) {
+         lruAppend(address);
+      }
+      return existing == 0;
+   }
+
+   /**
+    * Releases all the entries of a bucket. Must be called with the write lock of the stripe held.
+    */
+   private void releaseBucket(int bucket) {
+      long slot = slot(bucket);
+      long address = OffHeapMemory.getLong(slot);
+      while (address != 0) {
+         long next = OffHeapMemory.getLong(address + NEXT);
+         release(address);
+         address = next;
+      }
+      OffHeapMemory.putLong(slot, 0);
+   }
+
+   private boolean needsResize() {
+      int count = bucketCount;
+      return count < MAX_BUCKETS && size.get() > count - (count >>> 2);
+   }
+
+   private void resizeIfNeeded() {
+      if (!needsResize()) {
+         return;
+      }
+      lockAll();
+      try {
+         // another thread may have resized the table, or stopped the container, while waiting for the locks
+         if (buckets == 0 || !needsResize()) {
+            return;
+         }
+         int newCount = bucketCount << 1;
+         long newBuckets = OffHeapMemory.allocateZeroed((long) newCount << 3);
+         for (int i = 0; i < bucketCount; i++) {
+            long address = OffHeapMemory.getLong(slot(i));
+            while (address != 0) {
+               long next = OffHeapMemory.getLong(address + NEXT);
+               long newSlot = newBuckets + ((long) (OffHeapMemory.getInt(address + HASH) & (newCount - 1)) << 3);
+               OffHeapMemory.putLong(address + NEXT, OffHeapMemory.getLong(newSlot));
+               OffHeapMemory.putLong(newSlot, address);
+               address = next;
+            }
+         }
+         OffHeapMemory.free(buckets);
+         buckets = newBuckets;
+         bucketCount = newCount;
+         if (trace)
+            log.tracef("Resized the off-heap hash table to %d buckets", newCount);
+      } finally {
+         unlockAll();
+      }
+   }
+
+   /**
+    * Updates the last used timestamp of an entry, which may be read concurrently as only a read lock is required.
+    */
+   private static void touch(long address, long now) {
+      long lastUsed;
+      do {
+         lastUsed = OffHeapMemory.getLongVolatile(address + LAST_USED);
+      } while (lastUsed < now && !OffHeapMemory.compareAndSwapLong(address + LAST_USED, lastUsed, now));
+   }
+
+   /**
+    * Removes an entry from the hash table and releases its memory. Must be called with the write lock of the stripe
+    * held.
+    */
+   private void unlink(int hash, long address) {
+      long slot = slot(bucketIndex(hash));
+      long current = OffHeapMemory.getLong(slot);
+      if (current == address) {
+         OffHeapMemory.putLong(slot, OffHeapMemory.getLong(address + NEXT));
+      } else {
+         while (current != 0) {
+            long next = OffHeapMemory.getLong(current + NEXT);
+            if (next == address) {
+               OffHeapMemory.putLong(current + NEXT, OffHeapMemory.getLong(address + NEXT));
+               break;
+            }
+            current = next;
+         }
+      }
+      release(address);
+   }
+
+   private void release(long address) {
+      if (isBounded()) {
+         lruRemove(address);
+      }
+      size.decrementAndGet();
+      allocated.addAndGet(-entrySize(address));
+      OffHeapMemory.free(address);
+   }
+
+   /**
+    * Must be called with a lock of the stripe held.
+    */
+   private long find(int hash, byte[] keyBytes) {
+      long address = OffHeapMemory.getLong(slot(bucketIndex(hash)));
+      while (address != 0) {
+         if (OffHeapMemory.getInt(address + HASH) == hash
+               && OffHeapMemory.equalBytes(address + HEADER_SIZE, OffHeapMemory.getInt(address + KEY_LENGTH), keyBytes)) {
+            return address;
+         }
+         address = OffHeapMemory.getLong(address + NEXT);
+      }
+      return 0;
+   }
+
+   private void lruAppend(long address) {
+      synchronized (lruLock) {
+         OffHeapMemory.putLong(address + LRU_PREV, lruTail);
+         OffHeapMemory.putLong(address + LRU_NEXT, 0);
+         if (lruTail == 0) {
+            lruHead = address;
+         } else {
+            OffHeapMemory.putLong(lruTail + LRU_NEXT, address);
+         }
+         lruTail = address;
+      }
+   }
+
+   private void lruRemove(long address) {
+      synchronized (lruLock) {
+         long prev = OffHeapMemory.getLong(address + LRU_PREV);
+         long next = OffHeapMemory.getLong(address + LRU_NEXT);
+         if (prev == 0) {
+            lruHead = next;
+         } else {
+            OffHeapMemory.putLong(prev + LRU_NEXT, next);
+         }
+         if (next == 0) {
+            lruTail = prev;
+         } else {
+            OffHeapMemory.putLong(next + LRU_PREV, prev);
+         }
+      }
+   }
+
+   /**
+    * Copies the contents of an entry onto the heap, so that it can be deserialized without holding any lock. Must be
+    * called with a lock of the stripe held.
+    */
+   private static EntrySnapshot snapshot(long address, boolean includeKey) {
+      EntrySnapshot snapshot = new EntrySnapshot();
+      int keyLength = OffHeapMemory.getInt(address + KEY_LENGTH);
+      int metadataLength = OffHeapMemory.getInt(address + METADATA_LENGTH);
+      long offset = address + HEADER_SIZE;
+      if (includeKey) {
+         snapshot.key = OffHeapMemory.getBytes(offset, keyLength);
+      }
+      offset += keyLength;
+      if (metadataLength > 0) {
+         snapshot.metadata = OffHeapMemory.getBytes(offset, metadataLength);
+         offset += metadataLength;
+      }
+      snapshot.value = OffHeapMemory.getBytes(offset, OffHeapMemory.getInt(address + VALUE_LENGTH));
+      snapshot.l1 = (OffHeapMemory.getByte(address + FLAGS) & FLAG_L1) != 0;
+      snapshot.created = OffHeapMemory.getLong(address + CREATED);
+      snapshot.lastUsed = OffHeapMemory.getLongVolatile(address + LAST_USED);
+      snapshot.lifespan = OffHeapMemory.getLong(address + LIFESPAN);
+      snapshot.maxIdle = OffHeapMemory.getLong(address + MAX_IDLE);
+      return snapshot;
+   }
+
+   /**
+    * Copies the entries of the bucket designated by the cursor, starting with cursor {@code 0}.
+    * <p>
+    * The cursor is incremented from its most significant bucket bit down, so that when the table doubles in size, the
+    * buckets visited so far map exactly to the buckets preceding the cursor in the new table: the scan neither misses
+    * the entries present during the whole scan nor returns any of them twice.
+    *
+    * @return the cursor of the next bucket, or {@code 0} once all the buckets were visited
+    */
+   private int scanBucket(int cursor, List<EntrySnapshot> snapshots) {
+      // the stripe of the bucket doesn't depend on the table size
+      Lock lock = locks[cursor & (locks.length - 1)].readLock();
+      lock.lock();
+      try {
+         if (buckets == 0) {
+            return 0;
+         }
+         int mask = bucketCount - 1;
+         long address = OffHeapMemory.getLong(slot(cursor & mask));
+         while (address != 0) {
+            snapshots.add(snapshot(address, true));
+            address = OffHeapMemory.getLong(address + NEXT);
+         }
+         return Integer.reverse(Integer.reverse(cursor | ~mask) + 1);
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   private InternalCacheEntry<K, V> toEntry(K key, EntrySnapshot snapshot) {
+      V value = (V) unmarshall(snapshot.value);
+      Metadata metadata = snapshot.metadata == null ? null : (Metadata) unmarshall(snapshot.metadata);
+      if (snapshot.l1) {
+         if (metadata != null) {
+            return new L1MetadataInternalCacheEntry(key, value, metadata, snapshot.created);
+         }
+         return new L1InternalCacheEntry(key, value, snapshot.lifespan, snapshot.created);
+      }
+      return entryFactory.create(key, value, metadata, snapshot.created, snapshot.lifespan, snapshot.lastUsed,
+                                 snapshot.maxIdle);
+   }
+
+   private byte[] marshall(Object o) {
+      try {
+         return marshaller.objectToByteBuffer(o);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new CacheException(e);
+      } catch (Exception e) {
+         throw new CacheException("Unable to marshall " + o, e);
+      }
+   }
+
+   private Object unmarshall(byte[] bytes) {
+      try {
+         return marshaller.objectFromByteBuffer(bytes);
+      } catch (Exception e) {
+         throw new CacheException("Unable to unmarshall off-heap entry", e);
+      }
+   }
+
+   private int hash(Object key) {
+      return spread(keyEquivalence.hashCode(key));
+   }
+
+   private static int spread(int h) {
+      h ^= (h >>> 20) ^ (h >>> 12);
+      return h ^ (h >>> 7) ^ (h >>> 4);
+   }
+
+   private int bucketIndex(int hash) {
+      return hash & (bucketCount - 1);
+   }
+
+   private long slot(int bucket) {
+      return buckets + ((long) bucket << 3);
+   }
+
+   private ReentrantReadWriteLock lockFor(int hash) {
+      return locks[hash & (locks.length - 1)];
+   }
+
+   private void lockAll() {
+      for (ReentrantReadWriteLock lock : locks) {
+         lock.writeLock().lock();
+      }
+   }
+
+   private void unlockAll() {
+      for (int i = locks.length - 1; i >= 0; i--) {
+         locks[i].writeLock().unlock();
+      }
+   }
+
+   /**
+    * Must be called with a lock of the stripe held.
+    */
+   private void checkRunning() {
+      if (buckets == 0) {
+         throw stopped();
+      }
+   }
+
+   private static IllegalLifecycleStateException stopped() {
+      return new IllegalLifecycleStateException("The off-heap data container is stopped");
+   }
+
+   private static int nextPowerOfTwo(long n) {
+      int power = 1;
+      while (power < n && power < MAX_BUCKETS) {
+         power <<= 1;
+      }
+      return power;
+   }
+
+   private static final class EntrySnapshot {
+      byte[] key;
+      byte[] metadata;
+      byte[] value;
+      boolean l1;
+      long created;
+      long lastUsed;
+      long lifespan;
+      long maxIdle;
+   }
+
+   /**
+    * Walks the hash table one bucket at a time, copying the entries of the current bucket under its read lock.
+    * Weakly consistent: concurrent modifications of buckets not yet visited may or may not be seen, but resizing the
+    * table doesn't cause any entry to be skipped or returned twice.
+    */
+   private class SnapshotIterator {
+      private final List<EntrySnapshot> bucket = new ArrayList<EntrySnapshot>(2);
+      private int position;
+      private int cursor;
+      private boolean done;
+
+      public boolean hasNext() {
+         while (position >= bucket.size()) {
+            if (done) {
+               return false;
+            }
+            bucket.clear();
+            position = 0;
+            cursor = scanBucket(cursor, bucket);
+            done = cursor == 0;
+         }
+         return true;
+      }
+
+      EntrySnapshot nextSnapshot() {
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         return bucket.get(position++);
+      }
+
+      public void remove() {
+         throw new UnsupportedOperationException();
+      }
+   }
+
+   private class EntryIterator extends SnapshotIterator implements Iterator<InternalCacheEntry<K, V>> {
+      @Override
+      public InternalCacheEntry<K, V> next() {
+         EntrySnapshot snapshot = nextSnapshot();
+         return toEntry((K) unmarshall(snapshot.key), snapshot);
+      }
+   }
+
+   private class ImmutableEntryIterator extends EntryIterator {
+      @Override
+      public InternalCacheEntry<K, V> next() {
+         return CoreImmutables.immutableInternalCacheEntry(super.next());
+      }
+   }
+
+   private class KeyIterator extends SnapshotIterator implements Iterator<K> {
+      @Override
+      public K next() {
+         return (K) unmarshall(nextSnapshot().key);
+      }
+   }
+
+   private class ValueIterator extends SnapshotIterator implements Iterator<V> {
+      @Override
+      public V next() {
+         return (V) unmarshall(nextSnapshot().value);
+      }
+   }
+
+   /**
+    * Minimal implementation needed for unmodifiable Set
+    */
+   private class EntrySet extends AbstractSet<InternalCacheEntry<K, V>> {
+      @Override
+      public boolean contains(Object o) {
+         if (!(o instanceof Map.Entry)) {
+            return false;
+         }
+         Map.Entry e = (Map.Entry) o;
+         InternalCacheEntry ice = peek(e.getKey());
+         return ice != null && ice.getValue().equals(e.getValue());
+      }
+
+      @Override
+      public Iterator<InternalCacheEntry<K, V>> iterator() {
+         return new ImmutableEntryIterator();
+      }
+
+      @Override
+      public int size() {
+         return size.get();
+      }
+   }
+
+   /**
+    * Minimal implementation needed for unmodifiable Set
+    */
+   private class KeySet extends AbstractSet<K> {
+      @Override
+      public boolean contains(Object o) {
+         return containsKey(o);
+      }
+
+      @Override
+      public Iterator<K> iterator() {
+         return new KeyIterator();
+      }
+
+      @Override
+      public int size() {
+         return size.get();
+      }
+   }
+
+   /**
+    * Minimal implementation needed for unmodifiable Collection
+    */
+   private class Values extends AbstractCollection<V> {
+      @Override
+      public Iterator<V> iterator() {
+         return new ValueIterator();
+      }
+
+      @Override
+      public int size() {
+         return size.get();
+      }
+   }
+}
@@ -0,0 +1,125 @@
+package org.infinispan.container.offheap;
+
+import sun.misc.Unsafe;
+
+/**
+ * Thin wrapper around {@link sun.misc.Unsafe} used by the {@link OffHeapDataContainer} to allocate, access and release
+ * native memory. Addresses are plain {@code long} values and {@code 0} is used as the null address.
+ *
+ * @since 7.2
+ */
+final class OffHeapMemory {
+
+   private static final Unsafe UNSAFE = getUnsafe();
+   private static final long BYTE_ARRAY_OFFSET = UNSAFE.arrayBaseOffset(byte[].class);
+
+   private OffHeapMemory() {
+   }
+
+   static long allocate(long bytes) {
+      return UNSAFE.allocateMemory(bytes);
+   }
+
+   static long allocateZeroed(long bytes) {
+      long address = UNSAFE.allocateMemory(bytes);
+      UNSAFE.setMemory(address, bytes, (byte) 0);
+      return address;
+   }
+
+   static void free(long address) {
+      UNSAFE.freeMemory(address);
+   }
+
+   static long getLong(long address) {
+      return UNSAFE.getLong(address);
+   }
+
+   static void putLong(long address, long value) {
+      UNSAFE.putLong(address, value);
+   }
+
+   static long getLongVolatile(long address) {
+      return UNSAFE.getLongVolatile(null, address);
+   }
+
+   static boolean compareAndSwapLong(long address, long expected, long value) {
+      return UNSAFE.compareAndSwapLong(null, address, expected, value);
+   }
+
+   static int getInt(long address) {
+      return UNSAFE.getInt(address);
+   }
+
+   static void putInt(long address, int value) {
+      UNSAFE.putInt(address, value);
+   }
+
+   static byte getByte(long address) {
+      return UNSAFE.getByte(address);
+   }
+
+   static void putByte(long address, byte value) {
+      UNSAFE.putByte(address, value);
+   }
+
+   static byte getByteVolatile(long address) {
+      return UNSAFE.getByteVolatile(null, address);
+   }
+
+   static void putByteVolatile(long address, byte value) {
+      UNSAFE.putByteVolatile(null, address, value);
+   }
+
+   static void putBytes(long address, byte[] bytes) {
+      UNSAFE.copyMemory(bytes, BYTE_ARRAY_OFFSET, null, address, bytes.length);
+   }
+
+   static byte[] getBytes(long address, int length) {
+      byte[] bytes = new byte[length];
+      UNSAFE.copyMemory(null, address, bytes, BYTE_ARRAY_OFFSET, length);
+      return bytes;
+   }
+
+   /**
+    * Compares {@code length} bytes at {@code address} with the contents of {@code bytes}, without copying them onto
+    * the heap.
+    */
+   static boolean equalBytes(long address, int length, byte[] bytes) {
+      if (length != bytes.length)
+         return false;
+      int i = 0;
+      for (; i + 8 <= length; i += 8) {
+         if (UNSAFE.getLong(address + i) != UNSAFE.getLong(bytes, BYTE_ARRAY_OFFSET + i))
+            return false;
+      }
+      for (; i < length; i++) {
+         if (UNSAFE.getByte(address + i) != bytes[i])
+            return false;
+      }
+      return true;
+   }
+
+   private static Unsafe getUnsafe() {
+      try {
+         return Unsafe.getUnsafe();
+      } catch (SecurityException tryReflectionInstead) {}
+      try {
+         return java.security.AccessController.doPrivileged
+               (new java.security.PrivilegedExceptionAction<Unsafe>() {
+                  @Override
+                  public Unsafe run() throws Exception {
+                     Class<Unsafe> k = Unsafe.class;
+                     for (java.lang.reflect.Field f : k.getDeclaredFields()) {
+                        f.setAccessible(true);
+                        Object x = f.get(null);
+                        if (k.isInstance(x))
+                           return k.cast(x);
+                     }
+                     throw new NoSuchFieldError("the Unsafe");
+                  }});
+      } catch (java.security.PrivilegedActionException e) {
+         throw new RuntimeException("Could not initialize intrinsics",
+               e.getCause());
+      }
+   }
+}
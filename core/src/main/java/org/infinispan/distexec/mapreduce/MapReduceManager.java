@@ -8,6 +8,7 @@
 
 import org.infinispan.commands.read.MapCombineCommand;
 import org.infinispan.commands.read.ReduceCommand;
+import org.infinispan.commands.read.ShuffleCommand;
 import org.infinispan.distribution.DistributionManager;
 import org.infinispan.remoting.transport.Address;
 
@@ -70,6 +71,14 @@ <KIn, VIn, KOut, VOut> Map<KOut, List<VOut>> mapAndCombineForLocalReduction(
    <KOut, VOut> void reduce(ReduceCommand<KOut, VOut> reducer, String resultCache)
          throws InterruptedException;
 
+   /**
+    * Invoked when ShuffleCommand arrives to a target Infinispan node. Implementations should keep
+    * the intermediate keys and values until the reduce phase of the task is invoked on this node.
+    *
+    * @param shuffleCommand ShuffleCommand sent by a node executing the map phase
+    */
+   <KOut, VOut> void shuffle(ShuffleCommand<KOut, VOut> shuffleCommand) throws InterruptedException;
+
    /**
     * Maps Map/Reduce task intermediate or input keys to nodes on Infinispan cluster
     * 
@@ -4,9 +4,12 @@
 import org.infinispan.atomic.Delta;
 import org.infinispan.atomic.DeltaAware;
 import org.infinispan.commands.read.MapCombineCommand;
+import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.read.ReduceCommand;
+import org.infinispan.commands.read.ShuffleCommand;
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.commons.util.Util;
 import org.infinispan.commons.util.concurrent.ParallelIterableMap.KeyValueAction;
@@ -16,8 +19,10 @@
 import org.infinispan.context.Flag;
 import org.infinispan.distexec.mapreduce.spi.MapReduceTaskLifecycleService;
 import org.infinispan.distribution.DistributionManager;
+import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Stop;
 import org.infinispan.filter.CollectionKeyFilter;
 import org.infinispan.filter.CompositeKeyFilter;
 import org.infinispan.filter.KeyFilter;
@@ -30,6 +35,8 @@
 import org.infinispan.marshall.core.Ids;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledValue;
+import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.rpc.RpcManager;
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
@@ -43,11 +50,13 @@
 import java.util.Map.Entry;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.infinispan.factories.KnownComponentNames.ASYNC_TRANSPORT_EXECUTOR;
+import static org.infinispan.factories.KnownComponentNames.CACHE_MARSHALLER;
 
 /**
  * Default implementation of {@link MapReduceManager}.
@@ -61,12 +70,24 @@
 public class MapReduceManagerImpl implements MapReduceManager {
 
    private static final Log log = LogFactory.getLog(MapReduceManagerImpl.class);
+   private static final int MAX_FINISHED_SHUFFLES = 1024;
    private ClusteringDependentLogic cdl;
    private EmbeddedCacheManager cacheManager;
    private PersistenceManager persistenceManager;
    private ExecutorService executorService;
    private TimeService timeService;
+   private StreamingMarshaller marshaller;
    private int chunkSize;
+   // intermediate keys/values shuffled to this node, by task id
+   private final ConcurrentMap<String, ShuffleBuffer<?, ?>> shuffleBuffers = CollectionFactory.makeConcurrentMap();
+   // the last tasks whose buffer was reduced or discarded, so that late shuffles don't create a buffer nobody removes
+   private final Set<String> finishedShuffles = Collections.newSetFromMap(Collections.synchronizedMap(
+         new LinkedHashMap<String, Boolean>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+               return size() > MAX_FINISHED_SHUFFLES;
+            }
+         }));
 
    MapReduceManagerImpl() {
    }
@@ -74,15 +95,26 @@ public class MapReduceManagerImpl implements MapReduceManager {
    @Inject
    public void init(EmbeddedCacheManager cacheManager, PersistenceManager persistenceManager,
             @ComponentName(ASYNC_TRANSPORT_EXECUTOR) ExecutorService asyncTransportExecutor,
-            ClusteringDependentLogic cdl, TimeService timeService, Configuration configuration) {
+            ClusteringDependentLogic cdl, TimeService timeService, Configuration configuration,
+            @ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller) {
       this.cacheManager = cacheManager;
       this.persistenceManager = persistenceManager;
       this.cdl = cdl;
       this.executorService = asyncTransportExecutor;
       this.timeService = timeService;
+      this.marshaller = marshaller;
       this.chunkSize = configuration.clustering().stateTransfer().chunkSize();
    }
 
+   @Stop
+   public void stop() {
+      // buffers of tasks which failed before their reduce phase
+      for (ShuffleBuffer<?, ?> buffer : shuffleBuffers.values()) {
+         buffer.discard();
+      }
+      shuffleBuffers.clear();
+   }
+
    @Override
    public ExecutorService getExecutorService() {
       return executorService;
@@ -119,13 +151,62 @@ public <KOut, VOut> void reduce(ReduceCommand<KOut, VOut> reduceCommand, String
       reduce(reduceCommand, cache);
    }
 
+   @Override
+   @SuppressWarnings("unchecked")
+   public <KOut, VOut> void shuffle(ShuffleCommand<KOut, VOut> shuffleCommand) throws InterruptedException {
+      String taskId = shuffleCommand.getTaskId();
+      if (shuffleCommand.isDiscard()) {
+         log.tracef("For m/r task %s discarding the shuffled keys at %s", taskId, cdl.getAddress());
+         discardShuffled(taskId);
+         return;
+      }
+      ShuffleBuffer<KOut, VOut> buffer = (ShuffleBuffer<KOut, VOut>) shuffleBuffers.get(taskId);
+      if (buffer == null) {
+         buffer = new ShuffleBuffer<KOut, VOut>(taskId, shuffleCommand.getMaxBufferedValues(), marshaller);
+         ShuffleBuffer<KOut, VOut> existing = (ShuffleBuffer<KOut, VOut>) shuffleBuffers.putIfAbsent(taskId, buffer);
+         if (existing != null) {
+            buffer = existing;
+         } else if (finishedShuffles.contains(taskId)) {
+            // the task was reduced or discarded in the meantime
+            shuffleBuffers.remove(taskId, buffer);
+            buffer.discard();
+         }
+      }
+      log.tracef("For m/r task %s received %s at %s", taskId, shuffleCommand, cdl.getAddress());
+      try {
+         if (!buffer.add(shuffleCommand.getValues())) {
+            log.tracef("For m/r task %s dropping %s, the task was already reduced or discarded", taskId, shuffleCommand);
+         }
+      } catch (IOException e) {
+         throw new CacheException("Could not spill intermediate keys/values of M/R task " + taskId + " to disk", e);
+      }
+   }
+
+   /**
+    * Discards the keys and values shuffled to this node for a task which won't reduce them, e.g. because it failed or
+    * was cancelled.
+    */
+   private void discardShuffled(String taskId) {
+      ShuffleBuffer<?, ?> buffer = removeShuffleBuffer(taskId);
+      if (buffer != null) {
+         buffer.discard();
+      }
+   }
+
+   private ShuffleBuffer<?, ?> removeShuffleBuffer(String taskId) {
+      finishedShuffles.add(taskId);
+      return shuffleBuffers.remove(taskId);
+   }
+
    protected <KOut, VOut> void reduce(ReduceCommand<KOut, VOut> reduceCommand, final Map<KOut, VOut> result)
          throws InterruptedException {
       final Set<KOut> keys = reduceCommand.getKeys();
       final String taskId = reduceCommand.getTaskId();
       boolean noInputKeys = keys == null || keys.isEmpty();
 
-      if (noInputKeys) {
+      if (reduceCommand.isStreamingShuffle()) {
+         reduceShuffled(reduceCommand, result);
+      } else if (noInputKeys) {
          //illegal state, raise exception
          throw new IllegalStateException("Reduce phase of MapReduceTask " + taskId + " on node " + cdl.getAddress()
                + " executed with empty input keys");
@@ -169,6 +250,41 @@ public void apply(IntermediateKey<KOut> k, InternalCacheEntry<IntermediateKey<KO
       }
    }
 
+   @SuppressWarnings("unchecked")
+   private <KOut, VOut> void reduceShuffled(ReduceCommand<KOut, VOut> reduceCommand, Map<KOut, VOut> result)
+         throws InterruptedException {
+      String taskId = reduceCommand.getTaskId();
+      // the keys were shuffled to the MapReduceManager of the intermediate cache
+      MapReduceManagerImpl owner = mapReduceManagerOf(reduceCommand.getCacheName());
+      ShuffleBuffer<KOut, VOut> buffer = (ShuffleBuffer<KOut, VOut>) owner.removeShuffleBuffer(taskId);
+      if (buffer == null) {
+         log.tracef("For m/r task %s no intermediate keys were shuffled to %s", taskId, cdl.getAddress());
+         return;
+      }
+      Reducer<KOut, VOut> reducer = reduceCommand.getReducer();
+      MapReduceTaskLifecycleService taskLifecycleService = MapReduceTaskLifecycleService.getInstance();
+      long start = log.isTraceEnabled() ? timeService.time() : 0;
+      try {
+         taskLifecycleService.onPreExecute(reducer, cacheManager.getCache(reduceCommand.getCacheName()));
+         buffer.reduce(reducer, result);
+      } catch (InterruptedException e) {
+         throw e;
+      } catch (Exception e) {
+         throw new CacheException("Could not reduce intermediate keys/values of M/R task " + taskId, e);
+      } finally {
+         if (log.isTraceEnabled()) {
+            log.tracef("Reduce for task %s took %s milliseconds", taskId,
+                  timeService.timeDuration(start, TimeUnit.MILLISECONDS));
+         }
+         taskLifecycleService.onPostExecute(reducer);
+      }
+   }
+
+   private MapReduceManagerImpl mapReduceManagerOf(String cacheName) {
+      Cache<?, ?> cache = cacheManager.getCache(cacheName);
+      return (MapReduceManagerImpl) cache.getAdvancedCache().getComponentRegistry().getComponent(MapReduceManager.class);
+   }
+
    @SuppressWarnings("unchecked")
    protected <KIn, VIn, KOut, VOut> CollectableCollector<KOut, VOut> map(
             MapCombineCommand<KIn, VIn, KOut, VOut> mcc) throws InterruptedException {
@@ -325,6 +441,9 @@ private <KIn, VIn, KOut, VOut> Set<KOut> migrateIntermediateKeysAndValues(
       Set<KOut> mapPhaseKeys = new HashSet<KOut>();
       DistributionManager dm = tmpCache.getAdvancedCache().getDistributionManager();
       Map<Address, List<KOut>> keysToNodes = mapKeysToNodes(dm, taskId, collectedValues.keySet());
+      if (mcc.isStreamingShuffle()) {
+         return shuffleIntermediateKeysAndValues(mcc, tmpCache, keysToNodes, collectedValues);
+      }
       long start = log.isTraceEnabled() ? timeService.time() : 0;
       tmpCache = tmpCache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES);
       try {
@@ -355,6 +474,55 @@ private <KIn, VIn, KOut, VOut> Set<KOut> migrateIntermediateKeysAndValues(
       return mapPhaseKeys;
    }
 
+   /**
+    * Sends the intermediate keys/values directly to the nodes reducing them, in one batch per node.
+    */
+   private <KIn, VIn, KOut, VOut> Set<KOut> shuffleIntermediateKeysAndValues(
+         MapCombineCommand<KIn, VIn, KOut, VOut> mcc, Cache<?, ?> tmpCache, Map<Address, List<KOut>> keysToNodes,
+         Map<KOut, List<VOut>> collectedValues) {
+      String taskId = mcc.getTaskId();
+      ComponentRegistry registry = tmpCache.getAdvancedCache().getComponentRegistry();
+      CommandsFactory factory = registry.getComponent(CommandsFactory.class);
+      RpcManager rpcManager = tmpCache.getAdvancedCache().getRpcManager();
+      Set<KOut> mapPhaseKeys = new HashSet<KOut>();
+      long start = log.isTraceEnabled() ? timeService.time() : 0;
+      try {
+         for (Entry<Address, List<KOut>> entry : keysToNodes.entrySet()) {
+            Map<KOut, List<VOut>> batch = new HashMap<KOut, List<VOut>>(entry.getValue().size());
+            for (KOut key : entry.getValue()) {
+               // the collector is reset after the migration, so the values must be copied
+               batch.put(key, new ArrayList<VOut>(collectedValues.get(key)));
+            }
+            ShuffleCommand<KOut, VOut> command = factory.buildShuffleCommand(taskId, batch,
+                  mcc.getMaxShuffleBufferedValues());
+            log.tracef("For m/r task %s shuffling intermediate keys %s to %s", taskId, entry.getValue(), entry.getKey());
+            try {
+               if (entry.getKey().equals(cdl.getAddress())) {
+                  command.init(registry.getComponent(MapReduceManager.class));
+                  command.perform(null);
+               } else {
+                  Map<Address, Response> responses = rpcManager.invokeRemotely(Collections.singleton(entry.getKey()),
+                        command, rpcManager.getDefaultRpcOptions(true));
+                  for (Response response : responses.values()) {
+                     if (!response.isSuccessful()) {
+                        throw new CacheException("Unsuccessful response " + response + " from " + entry.getKey());
+                     }
+                  }
+               }
+            } catch (Throwable t) {
+               throw new CacheException("Could not shuffle intermediate keys/values for M/R task " + taskId, t);
+            }
+            mapPhaseKeys.addAll(entry.getValue());
+         }
+      } finally {
+         if (log.isTraceEnabled()) {
+            log.tracef("Shuffling keys for task %s took %s milliseconds (Shuffled %s keys)",
+                  taskId, timeService.timeDuration(start, TimeUnit.MILLISECONDS), mapPhaseKeys.size());
+         }
+      }
+      return mapPhaseKeys;
+   }
+
    @Override
    public <T> Map<Address, List<T>> mapKeysToNodes(DistributionManager dm, String taskId,
             Collection<T> keysToMap) {
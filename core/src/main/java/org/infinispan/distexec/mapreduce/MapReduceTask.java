@@ -29,6 +29,7 @@
 import org.infinispan.commands.CreateCacheCommand;
 import org.infinispan.commands.read.MapCombineCommand;
 import org.infinispan.commands.read.ReduceCommand;
+import org.infinispan.commands.read.ShuffleCommand;
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.marshall.Marshaller;
 import org.infinispan.commons.marshall.StreamingMarshaller;
@@ -162,6 +163,7 @@
    protected RpcOptionsBuilder rpcOptionsBuilder;
    protected String customIntermediateCacheName;
    protected String intermediateCacheConfigurationName = DEFAULT_TMP_CACHE_CONFIGURATION_NAME;
+   protected int maxShuffleBufferedValues;
    private StateTransferManager stateTransferManager;
    private static final int MAX_COLLECTOR_SIZE = 1000;
 
@@ -405,6 +407,30 @@ public MapReduceTask<KIn, VIn, KOut, VOut> usingSharedIntermediateCache(String c
       return this;
    }
 
+   /**
+    * Allows this MapReduceTask to move the intermediate <KOut, List<VOut>> key/values pairs produced by
+    * the map phase directly to the nodes reducing them, rather than storing them in the intermediate
+    * cache. Each node executing the map phase combines its intermediate key/values in bounded memory and
+    * sends them in one batch per reducing node. Each reducing node keeps at most maxBufferedValues values
+    * in memory and spills the others to local disk until the reduce phase.
+    * <p>
+    * Only applies when the reduce phase is distributed. The topology of the intermediate cache must not
+    * change while this MapReduceTask is executed.
+    *
+    * @param maxBufferedValues
+    *           number of intermediate values each reducing node keeps in memory
+    * @return this MapReduceTask iteself
+    * @since 7.2
+    */
+   public MapReduceTask<KIn, VIn, KOut, VOut> usingStreamingShuffle(int maxBufferedValues) {
+      if (maxBufferedValues <= 0) {
+         throw new IllegalArgumentException("Invalid maxBufferedValues " + maxBufferedValues
+               + ", maxBufferedValues must be positive");
+      }
+      this.maxShuffleBufferedValues = maxBufferedValues;
+      return this;
+   }
+
    /**
     * Executes this task across Infinispan cluster nodes.
     *
@@ -483,11 +509,17 @@ protected Map<KOut, VOut> executeHelper(String resultCache) throws NullPointerEx
             EmbeddedCacheManager cm = cache.getCacheManager();
             String intermediateCache = getIntermediateCacheName();
             if (useIntermediatePerTaskCache()) {
+               // stopping the cache also discards the shuffled keys/values
                cm.removeCache(intermediateCache);
             } else {
+               if (useStreamingShuffle() && result == null) {
+                  // the task failed or was cancelled, the reducing nodes still buffer the shuffled keys/values
+                  discardShuffledKeysAndValues(intermediateCache);
+               }
                //let's make sure shared cache is not destroyed and that we have keys to remove
                Cache<KOut, VOut> sharedTmpCache = cm.getCache(intermediateCache);
-               if (sharedTmpCache != null && allMapPhasesResponses != null) {
+               // nothing is stored in the intermediate cache with the streaming shuffle
+               if (sharedTmpCache != null && allMapPhasesResponses != null && !useStreamingShuffle()) {
                   for (KOut k : allMapPhasesResponses) {
                      sharedTmpCache.removeAsync(new IntermediateKey<KOut>(taskId.toString(), k));
                   }
@@ -512,6 +544,21 @@ protected Map<KOut, VOut> executeHelper(String resultCache) throws NullPointerEx
       return result;
    }
 
+   private void discardShuffledKeysAndValues(String intermediateCacheName) {
+      AdvancedCache<?, ?> tmpCache = cache.getCacheManager().getCache(intermediateCacheName).getAdvancedCache();
+      ComponentRegistry registry = tmpCache.getComponentRegistry();
+      ShuffleCommand<KOut, VOut> command = registry.getComponent(CommandsFactory.class)
+            .buildShuffleCommand(taskId.toString(), null, 0);
+      try {
+         RpcManager rpc = tmpCache.getRpcManager();
+         rpc.invokeRemotely(null, command, rpc.getDefaultRpcOptions(false));
+         command.init(registry.getComponent(MapReduceManager.class));
+         command.perform(null);
+      } catch (Throwable t) {
+         log.debugf(t, "Could not discard the shuffled keys/values of %s", this);
+      }
+   }
+
    protected String getIntermediateCacheName() {
       return customIntermediateCacheName;
    }
@@ -528,6 +575,10 @@ protected boolean useIntermediatePerTaskCache() {
       return !useIntermediateSharedCache();
    }
 
+   protected boolean useStreamingShuffle() {
+      return maxShuffleBufferedValues > 0;
+   }
+
 
    protected void executeTaskInit(String tmpCacheName) throws MapReduceException {
       RpcManager rpc = cache.getRpcManager();
@@ -698,8 +749,18 @@ protected Map<KOut, VOut> executeReducePhase(String resultCache, Set<KOut> allMa
       String destCache = getIntermediateCacheName();
 
       Cache<Object, Object> dstCache = cache.getCacheManager().getCache(destCache);
-      Map<Address, ? extends Collection<KOut>> keysToNodes = mapKeysToNodes(dstCache.getAdvancedCache()
+      Map<Address, ? extends Collection<KOut>> keysToNodes;
+      if (useStreamingShuffle()) {
+         // each node reduces all the keys shuffled to it
+         Map<Address, Collection<KOut>> allMembers = new HashMap<Address, Collection<KOut>>();
+         for (Address member : rpc.getMembers()) {
+            allMembers.put(member, Collections.<KOut>emptySet());
+         }
+         keysToNodes = allMembers;
+      } else {
+         keysToNodes = mapKeysToNodes(dstCache.getAdvancedCache()
                .getDistributionManager(), allMapPhasesResponses, useIntermediateSharedCache);
+      }
       Map<KOut, VOut> reduceResult = new HashMap<KOut, VOut>();
       List<ReduceTaskPart<Map<KOut, VOut>>> reduceTasks = new ArrayList<ReduceTaskPart<Map<KOut, VOut>>>();
       ReduceCommand<KOut, VOut> reduceCommand = null;
@@ -713,6 +774,7 @@ protected Map<KOut, VOut> executeReducePhase(String resultCache, Set<KOut> allMa
             reduceCommand = buildReduceCommand(resultCache, taskId.toString(), destCache, reducer, keys,
                      useIntermediateSharedCache);
          }
+         reduceCommand.setStreamingShuffle(useStreamingShuffle());
          ReduceTaskPart<Map<KOut, VOut>> part = createReducePart(reduceCommand, address, destCache);
          part.execute();
          reduceTasks.add(part);
@@ -725,6 +787,14 @@ protected Map<KOut, VOut> executeReducePhase(String resultCache, Set<KOut> allMa
             } catch (ExecutionException ee) {
                throw new MapReduceException("Reduce phase failed", ee.getCause());
             }
+            if (useStreamingShuffle()) {
+               for (KOut key : result.keySet()) {
+                  if (reduceResult.containsKey(key)) {
+                     throw new MapReduceException("Key " + key + " was reduced on more than one node,"
+                           + " the topology changed during the streaming shuffle of " + this);
+                  }
+               }
+            }
             reduceResult.putAll(result);
          }
       } finally {
@@ -765,6 +835,9 @@ private MapCombineCommand<KIn, VIn, KOut, VOut> buildMapCombineCommand(
       c.setUseIntermediateSharedCache(useIntermediateSharedCache);
       c.setIntermediateCacheName(intermediateCacheName);
       c.setMaxCollectorSize(MAX_COLLECTOR_SIZE);
+      if (reducePhaseDistributed) {
+         c.setMaxShuffleBufferedValues(maxShuffleBufferedValues);
+      }
       return c;
    }
 
@@ -0,0 +1,194 @@
+package org.infinispan.distexec.mapreduce;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.Util;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Buffers the intermediate keys and values shuffled to this node by the map phase of a {@link MapReduceTask}, until
+ * they are reduced.
+ * <p>
+ * The values are kept in memory up to a maximum, above which all of them are spilled to local files. The spilled keys
+ * are hash partitioned over several files, so that the reduce phase only holds the values of one partition in memory
+ * at a time. The spill files are only deleted by {@link #discard()}, which must be invoked whether the task completes
+ * or not.
+ * <p>
+ * This is an internal class, not intended to be used by clients.
+ *
+ * @since 7.2
+ */
+final class ShuffleBuffer<KOut, VOut> {
+
+   private static final Log log = LogFactory.getLog(ShuffleBuffer.class);
+   private static final int SPILL_PARTITIONS = 16;
+
+   private final String taskId;
+   private final int maxBufferedValues;
+   private final StreamingMarshaller marshaller;
+   private final File[] spillFiles = new File[SPILL_PARTITIONS];
+   private final int[] spilledKeys = new int[SPILL_PARTITIONS];
+   private Map<KOut, List<VOut>> buffered = new HashMap<KOut, List<VOut>>();
+   private int bufferedValues;
+   private boolean spilled;
+   private boolean discarded;
+
+   ShuffleBuffer(String taskId, int maxBufferedValues, StreamingMarshaller marshaller) {
+      this.taskId = taskId;
+      this.maxBufferedValues = maxBufferedValues;
+      this.marshaller = marshaller;
+   }
+
+   /**
+    * Buffers the given keys and values, spilling them to disk if needed.
+    *
+    * @return false if the buffer was discarded, in which case the values are dropped
+    */
+   synchronized boolean add(Map<KOut, List<VOut>> values) throws IOException, InterruptedException {
+      if (discarded) {
+         return false;
+      }
+      merge(buffered, values);
+      for (List<VOut> list : values.values()) {
+         bufferedValues += list.size();
+      }
+      if (bufferedValues > maxBufferedValues) {
+         spill();
+      }
+      return true;
+   }
+
+   /**
+    * Reduces all the buffered and spilled keys, and discards them.
+    */
+   synchronized void reduce(Reducer<KOut, VOut> reducer, Map<KOut, VOut> result) throws Exception {
+      try {
+         if (!spilled) {
+            reduce(reducer, buffered, result);
+            return;
+         }
+         List<Map<KOut, List<VOut>>> bufferedPartitions = partition(buffered);
+         buffered = new HashMap<KOut, List<VOut>>();
+         for (int i = 0; i < SPILL_PARTITIONS; i++) {
+            Map<KOut, List<VOut>> values = bufferedPartitions.get(i);
+            if (spillFiles[i] != null) {
+               merge(values, readSpillFile(i));
+            }
+            reduce(reducer, values, result);
+            bufferedPartitions.set(i, null);
+         }
+      } finally {
+         discard();
+      }
+   }
+
+   /**
+    * Removes all the buffered values and the spill files. The values added afterwards are dropped.
+    */
+   synchronized void discard() {
+      discarded = true;
+      buffered = new HashMap<KOut, List<VOut>>();
+      bufferedValues = 0;
+      for (int i = 0; i < SPILL_PARTITIONS; i++) {
+         if (spillFiles[i] != null && !spillFiles[i].delete()) {
+            log.debugf("Unable to delete spill file %s of M/R task %s", spillFiles[i], taskId);
+         }
+         spillFiles[i] = null;
+         spilledKeys[i] = 0;
+      }
+   }
+
+   private void reduce(Reducer<KOut, VOut> reducer, Map<KOut, List<VOut>> values, Map<KOut, VOut> result) {
+      for (Entry<KOut, List<VOut>> e : values.entrySet()) {
+         result.put(e.getKey(), reducer.reduce(e.getKey(), e.getValue().iterator()));
+      }
+   }
+
+   private void spill() throws IOException, InterruptedException {
+      long start = System.nanoTime();
+      List<Map<KOut, List<VOut>>> partitions = partition(buffered);
+      for (int i = 0; i < SPILL_PARTITIONS; i++) {
+         Map<KOut, List<VOut>> partition = partitions.get(i);
+         if (partition.isEmpty()) {
+            continue;
+         }
+         if (spillFiles[i] == null) {
+            spillFiles[i] = File.createTempFile("mapreduce-" + taskId + "-", ".spill");
+         }
+         DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spillFiles[i], true)));
+         try {
+            for (Entry<KOut, List<VOut>> e : partition.entrySet()) {
+               byte[] bytes = marshaller.objectToByteBuffer(new Object[]{e.getKey(), e.getValue()});
+               out.writeInt(bytes.length);
+               out.write(bytes);
+               spilledKeys[i]++;
+            }
+         } finally {
+            Util.close(out);
+         }
+      }
+      log.tracef("Spilled %d values of M/R task %s to disk in %d milliseconds", bufferedValues, taskId,
+                 (System.nanoTime() - start) / 1000000);
+      spilled = true;
+      buffered = new HashMap<KOut, List<VOut>>();
+      bufferedValues = 0;
+   }
+
+   @SuppressWarnings("unchecked")
+   private Map<KOut, List<VOut>> readSpillFile(int partition) throws Exception {
+      Map<KOut, List<VOut>> values = new HashMap<KOut, List<VOut>>();
+      DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(spillFiles[partition])));
+      try {
+         for (int i = 0; i < spilledKeys[partition]; i++) {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            Object[] entry = (Object[]) marshaller.objectFromByteBuffer(bytes);
+            merge(values, (KOut) entry[0], (List<VOut>) entry[1]);
+         }
+      } finally {
+         Util.close(in);
+      }
+      return values;
+   }
+
+   private List<Map<KOut, List<VOut>>> partition(Map<KOut, List<VOut>> values) {
+      List<Map<KOut, List<VOut>>> partitions = new ArrayList<Map<KOut, List<VOut>>>(SPILL_PARTITIONS);
+      for (int i = 0; i < SPILL_PARTITIONS; i++) {
+         partitions.add(new HashMap<KOut, List<VOut>>());
+      }
+      for (Entry<KOut, List<VOut>> e : values.entrySet()) {
+         int hash = e.getKey() == null ? 0 : e.getKey().hashCode();
+         partitions.get((hash & Integer.MAX_VALUE) % SPILL_PARTITIONS).put(e.getKey(), e.getValue());
+      }
+      return partitions;
+   }
+
+   private void merge(Map<KOut, List<VOut>> target, Map<KOut, List<VOut>> values) {
+      for (Entry<KOut, List<VOut>> e : values.entrySet()) {
+         merge(target, e.getKey(), e.getValue());
+      }
+   }
+
+   private void merge(Map<KOut, List<VOut>> target, KOut key, List<VOut> values) {
+      List<VOut> list = target.get(key);
+      if (list == null) {
+         list = new ArrayList<VOut>(values.size());
+         target.put(key, list);
+      }
+      list.addAll(values);
+   }
+}
@@ -1,6 +1,7 @@
 package org.infinispan.distribution.ch;
 
 import org.infinispan.commons.hash.Hash;
+import org.infinispan.commons.util.IntSet;
 import org.infinispan.remoting.transport.Address;
 
 import java.util.Collection;
@@ -113,19 +114,21 @@ public interface ConsistentHash {
    Address locatePrimaryOwnerForSegment(int segmentId);
 
    /**
-    * Returns the segments owned by a cache member.
+    * Returns the segments owned by a cache member. The returned set can't be modified, callers need to copy it first,
+    * e.g. with {@link org.infinispan.commons.util.SmallIntSet#SmallIntSet(java.util.Collection)}.
     *
     * @param owner the address of the member
-    * @return a non-null set of segment IDs
+    * @return a non-null, immutable set of segment IDs
     */
-   Set<Integer> getSegmentsForOwner(Address owner);
+   IntSet getSegmentsForOwner(Address owner);
 
    /**
-    * Returns the segments that this cache member is the primary owner for.
+    * Returns the segments that this cache member is the primary owner for. Like
+    * {@link #getSegmentsForOwner(Address)}, the returned set can't be modified.
     * @param owner the address of the member
-    * @return a non-null set of segment IDs
+    * @return a non-null, immutable set of segment IDs
     */
-   Set<Integer> getPrimarySegmentsForOwner(Address owner);
+   IntSet getPrimarySegmentsForOwner(Address owner);
 
    /**
     * Returns a string containing all the segments and their associated addresses.
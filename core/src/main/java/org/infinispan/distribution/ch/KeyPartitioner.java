@@ -0,0 +1,17 @@
+package org.infinispan.distribution.ch;
+
+/**
+ * Maps keys to the segments of a cache.
+ * <p/>
+ * The segment of a key only depends on the configuration of the cache (e.g. the number of segments and the hash
+ * function), not on the current members.
+ *
+ * @since 7.2
+ */
+public interface KeyPartitioner {
+
+   /**
+    * @return the segment of the key, between {@code 0} (inclusive) and the number of segments (exclusive)
+    */
+   int getSegment(Object key);
+}
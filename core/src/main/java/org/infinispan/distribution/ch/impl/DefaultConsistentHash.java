@@ -18,6 +18,9 @@
 import org.infinispan.commons.marshall.AbstractExternalizer;
 import org.infinispan.commons.marshall.InstanceReusingAdvancedExternalizer;
 import org.infinispan.commons.util.Immutables;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.IntSets;
+import org.infinispan.commons.util.SmallIntSet;
 import org.infinispan.commons.util.Util;
 import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.marshall.core.Ids;
@@ -49,6 +52,14 @@ public class DefaultConsistentHash implements ConsistentHash {
    private final List<Address>[] segmentOwners;
    private final int segmentSize;
 
+   /**
+    * The segments owned by each member, and the segments for which each member is the primary owner, indexed by the
+    * position of the member in {@link #members}. Precomputed because they are used on every topology change.
+    */
+   private final Map<Address, Integer> memberIndexes;
+   private final IntSet[] segmentsByMember;
+   private final IntSet[] primarySegmentsByMember;
+
    public DefaultConsistentHash(Hash hashFunction, int numOwners, int numSegments, List<Address> members,
                                 Map<Address, Float> capacityFactors, List<Address>[] segmentOwners) {
       if (numSegments < 1)
@@ -69,6 +80,34 @@ public DefaultConsistentHash(Hash hashFunction, int numOwners, int numSegments,
          this.segmentOwners[i] = Immutables.immutableListCopy(segmentOwners[i]);
       }
       this.segmentSize = Util.getSegmentSize(numSegments);
+
+      int numMembers = this.members.size();
+      this.memberIndexes = new HashMap<Address, Integer>(numMembers * 2);
+      SmallIntSet[] segments = new SmallIntSet[numMembers];
+      SmallIntSet[] primarySegments = new SmallIntSet[numMembers];
+      for (int i = 0; i < numMembers; i++) {
+         memberIndexes.put(this.members.get(i), i);
+         segments[i] = new SmallIntSet(numSegments);
+         primarySegments[i] = new SmallIntSet(numSegments);
+      }
+      for (int segment = 0; segment < numSegments; segment++) {
+         List<Address> owners = this.segmentOwners[segment];
+         for (int i = 0; i < owners.size(); i++) {
+            Integer memberIndex = memberIndexes.get(owners.get(i));
+            if (memberIndex != null) {
+               segments[memberIndex].add(segment);
+               if (i == 0) {
+                  primarySegments[memberIndex].add(segment);
+               }
+            }
+         }
+      }
+      this.segmentsByMember = new IntSet[numMembers];
+      this.primarySegmentsByMember = new IntSet[numMembers];
+      for (int i = 0; i < numMembers; i++) {
+         segmentsByMember[i] = IntSets.immutableSet(segments[i]);
+         primarySegmentsByMember[i] = IntSets.immutableSet(primarySegments[i]);
+      }
    }
 
    @Override
@@ -82,39 +121,24 @@ public int getNumSegments() {
    }
 
    @Override
-   public Set<Integer> getSegmentsForOwner(Address owner) {
-      if (owner == null) {
-         throw new IllegalArgumentException("owner cannot be null");
-      }
-      if (!members.contains(owner)) {
-         throw new IllegalArgumentException("Node " + owner + " is not a member");
-      }
-
-      Set<Integer> segments = new HashSet<Integer>();
-      for (int segment = 0; segment < segmentOwners.length; segment++) {
-         if (segmentOwners[segment].contains(owner)) {
-            segments.add(segment);
-         }
-      }
-      return segments;
+   public IntSet getSegmentsForOwner(Address owner) {
+      return segmentsByMember[getMemberIndex(owner)];
    }
 
    @Override
-   public Set<Integer> getPrimarySegmentsForOwner(Address owner) {
+   public IntSet getPrimarySegmentsForOwner(Address owner) {
+      return primarySegmentsByMember[getMemberIndex(owner)];
+   }
+
+   private int getMemberIndex(Address owner) {
       if (owner == null) {
          throw new IllegalArgumentException("owner cannot be null");
       }
-      if (!members.contains(owner)) {
+      Integer memberIndex = memberIndexes.get(owner);
+      if (memberIndex == null) {
          throw new IllegalArgumentException("Node " + owner + " is not a member");
       }
-
-      Set<Integer> segments = new HashSet<Integer>();
-      for (int segment = 0; segment < segmentOwners.length; segment++) {
-         if (owner.equals(segmentOwners[segment].get(0))) {
-            segments.add(segment);
-         }
-      }
-      return segments;
+      return memberIndex;
    }
 
    @Override
@@ -167,13 +191,12 @@ public List<Address> locateOwners(Object key) {
 
    @Override
    public Set<Address> locateAllOwners(Collection<Object> keys) {
-      // Use a HashSet assuming most of the time the number of keys is small.
-      HashSet<Integer> segments = new HashSet<Integer>();
+      SmallIntSet segments = new SmallIntSet(numSegments);
       for (Object key : keys) {
          segments.add(getSegment(key));
       }
       HashSet<Address> ownersUnion = new HashSet<Address>();
-      for (Integer segment : segments) {
+      for (int segment : segments.toIntArray()) {
          ownersUnion.addAll(segmentOwners[segment]);
       }
       return ownersUnion;
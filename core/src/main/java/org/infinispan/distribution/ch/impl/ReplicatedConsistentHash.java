@@ -2,6 +2,9 @@
 
 import org.infinispan.commons.hash.Hash;
 import org.infinispan.commons.marshall.InstanceReusingAdvancedExternalizer;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.IntSets;
+import org.infinispan.commons.util.SmallIntSet;
 import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.marshall.core.Ids;
 import org.infinispan.remoting.transport.Address;
@@ -26,18 +29,26 @@ public class ReplicatedConsistentHash implements ConsistentHash {
    private final int[] primaryOwners;
    private final List<Address> members;
    private final Set<Address> membersSet;
-   private final Set<Integer> segments;
+   private final IntSet segments;
+   private final IntSet[] primarySegments;
 
    public ReplicatedConsistentHash(Hash hashFunction, List<Address> members, int[] primaryOwners) {
       this.hashFunction = hashFunction;
       this.members = Collections.unmodifiableList(new ArrayList<Address>(members));
       this.membersSet = Collections.unmodifiableSet(new HashSet<Address>(members));
       this.primaryOwners = primaryOwners;
-      Set<Integer> segmentIds = new HashSet<Integer>(primaryOwners.length);
-      for (int i = 0; i < primaryOwners.length; i++) {
-         segmentIds.add(i);
+      this.segments = IntSets.immutableSet(SmallIntSet.range(primaryOwners.length));
+      SmallIntSet[] primarySegmentIds = new SmallIntSet[members.size()];
+      for (int i = 0; i < primarySegmentIds.length; i++) {
+         primarySegmentIds[i] = new SmallIntSet(primaryOwners.length);
+      }
+      for (int i = 0; i < primaryOwners.length; ++i) {
+         primarySegmentIds[primaryOwners[i]].add(i);
+      }
+      this.primarySegments = new IntSet[primarySegmentIds.length];
+      for (int i = 0; i < primarySegmentIds.length; i++) {
+         primarySegments[i] = IntSets.immutableSet(primarySegmentIds[i]);
       }
-      segments = Collections.unmodifiableSet(segmentIds);
    }
 
    @Override
@@ -85,7 +96,7 @@ public Address locatePrimaryOwnerForSegment(int segmentId) {
    }
 
    @Override
-   public Set<Integer> getSegmentsForOwner(Address owner) {
+   public IntSet getSegmentsForOwner(Address owner) {
       if (owner == null) {
          throw new IllegalArgumentException("owner cannot be null");
       }
@@ -96,18 +107,12 @@ public Set<Integer> getSegmentsForOwner(Address owner) {
    }
 
    @Override
-   public Set<Integer> getPrimarySegmentsForOwner(Address owner) {
+   public IntSet getPrimarySegmentsForOwner(Address owner) {
       int index = members.indexOf(owner);
       if (index == -1) {
          throw new IllegalArgumentException("The node is not a member : " + owner);
       }
-      Set<Integer> primarySegments = new HashSet<Integer>();
-      for (int i = 0; i < primaryOwners.length; ++i) {
-         if (primaryOwners[i] == index) {
-            primarySegments.add(i);
-         }
-      }
-      return primarySegments;
+      return primarySegments[index];
    }
 
    @Override
@@ -1,6 +1,7 @@
 package org.infinispan.distribution.group;
 
 import org.infinispan.commons.hash.Hash;
+import org.infinispan.commons.util.IntSet;
 import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.remoting.transport.Address;
 
@@ -63,12 +64,12 @@ public Address locatePrimaryOwnerForSegment(int segmentId) {
    }
 
    @Override
-   public Set<Integer> getSegmentsForOwner(Address owner) {
+   public IntSet getSegmentsForOwner(Address owner) {
       return ch.getSegmentsForOwner(owner);
    }
 
    @Override
-   public Set<Integer> getPrimarySegmentsForOwner(Address owner) {
+   public IntSet getPrimarySegmentsForOwner(Address owner) {
       return ch.getPrimarySegmentsForOwner(owner);
    }
 
@@ -0,0 +1,17 @@
+package org.infinispan.eviction;
+
+/**
+ * Supported ways of bounding the data container
+ *
+ * @since 7.2
+ */
+public enum EvictionType {
+   /**
+    * The container is bounded by the number of entries
+    */
+   COUNT,
+   /**
+    * The container is bounded by the estimated amount of heap memory, in bytes, occupied by the entries
+    */
+   MEMORY
+}
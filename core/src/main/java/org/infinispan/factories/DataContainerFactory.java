@@ -3,11 +3,15 @@
 import org.infinispan.commons.equivalence.AnyEquivalence;
 import org.infinispan.commons.equivalence.Equivalence;
 import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.commons.util.concurrent.jdk8backported.EntrySizeCalculator;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.DefaultDataContainer;
+import org.infinispan.container.offheap.OffHeapDataContainer;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionThreadPolicy;
+import org.infinispan.eviction.EvictionType;
 import org.infinispan.factories.annotations.DefaultFactoryFor;
+import org.infinispan.marshall.core.MarshalledValueEntrySizeCalculator;
 
 /**
  * Constructs the data container
@@ -30,6 +34,11 @@ public <T> T construct(Class<T> componentType) {
          int level = configuration.locking().concurrencyLevel();
          Equivalence keyEquivalence = configuration.dataContainer().keyEquivalence();
 
+         if (configuration.dataContainer().offHeap()) {
+            long maxSize = st == EvictionStrategy.NONE ? -1 : configuration.eviction().maxEntries();
+            return (T) new OffHeapDataContainer(level, keyEquivalence, maxSize, configuration.eviction().type());
+         }
+
          switch (st) {
             case NONE:
                return (T) DefaultDataContainer.unBoundedDataContainer(
@@ -47,6 +56,15 @@ public <T> T construct(Class<T> componentType) {
 
                EvictionThreadPolicy policy = configuration.eviction().threadPolicy();
 
+               if (configuration.eviction().type() == EvictionType.MEMORY) {
+                  EntrySizeCalculator sizeCalculator = configuration.eviction().sizeCalculator();
+                  if (sizeCalculator == null) {
+                     sizeCalculator = new MarshalledValueEntrySizeCalculator();
+                  }
+                  return (T) DefaultDataContainer.boundedDataContainer(
+                     level, maxEntries, st, policy, keyEquivalence, sizeCalculator);
+               }
+
                return (T) DefaultDataContainer.boundedDataContainer(
                   level, maxEntries, st, policy, keyEquivalence);
             default:
@@ -0,0 +1,68 @@
+package org.infinispan.filter;
+
+import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.commons.util.Util;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.marshall.core.Ids;
+import org.infinispan.metadata.Metadata;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.BitSet;
+import java.util.Set;
+
+/**
+ * A key value filter accepting only the entries whose key maps to one of the given segments of the read consistent
+ * hash of the cache, so that the entries of a cache can be iterated in parallel by iterating disjoint sets of
+ * segments.
+ * <p/>
+ * The caches which aren't distributed or replicated have a single segment, 0.
+ *
+ * @since 7.2
+ */
+public class SegmentKeyValueFilter implements KeyValueFilter<Object, Object> {
+   private final BitSet segments;
+   private transient DistributionManager distributionManager;
+
+   public SegmentKeyValueFilter(BitSet segments) {
+      if (segments == null) {
+         throw new NullPointerException();
+      }
+      this.segments = segments;
+   }
+
+   @Inject
+   protected void injectDependencies(DistributionManager distributionManager) {
+      this.distributionManager = distributionManager;
+   }
+
+   @Override
+   public boolean accept(Object key, Object value, Metadata metadata) {
+      int segment = distributionManager == null ? 0 : distributionManager.getReadConsistentHash().getSegment(key);
+      return segments.get(segment);
+   }
+
+   public static class Externalizer extends AbstractExternalizer<SegmentKeyValueFilter> {
+      @Override
+      public Set<Class<? extends SegmentKeyValueFilter>> getTypeClasses() {
+         return Util.<Class<? extends SegmentKeyValueFilter>>asSet(SegmentKeyValueFilter.class);
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, SegmentKeyValueFilter object) throws IOException {
+         output.writeObject(object.segments);
+      }
+
+      @Override
+      public SegmentKeyValueFilter readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         return new SegmentKeyValueFilter((BitSet) input.readObject());
+      }
+
+      @Override
+      public Integer getId() {
+         return Ids.SEGMENT_KEY_VALUE_FILTER;
+      }
+   }
+}
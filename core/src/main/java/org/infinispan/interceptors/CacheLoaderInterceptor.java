@@ -2,13 +2,18 @@
 
 import static org.infinispan.persistence.PersistenceUtil.convert;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.infinispan.commands.FlagAffectedCommand;
 import org.infinispan.commands.LocalFlagAffectedCommand;
 import org.infinispan.commands.read.AbstractDataCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.remote.GetKeysInGroupCommand;
@@ -19,6 +24,7 @@
 import org.infinispan.commands.write.ReplaceCommand;
 import org.infinispan.commands.write.WriteCommand;
 import org.infinispan.commons.util.InfinispanCollections;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.EntryFactory;
 import org.infinispan.container.InternalEntryFactory;
@@ -105,6 +111,17 @@ public Object visitGetCacheEntryCommand(InvocationContext ctx, GetCacheEntryComm
       return visitDataCommand(ctx, command);
    }
 
+   @Override
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      if (enabled) {
+         Map<Object, NotifyingFuture<MarshalledEntry>> pendingLoads = startLoads(ctx, command);
+         for (Object key : command.getKeys()) {
+            loadIfNeeded(ctx, key, command, pendingLoads.get(key));
+         }
+      }
+      return invokeNextInterceptor(ctx, command);
+   }
+
    @Override
    public Object visitInvalidateCommand(InvocationContext ctx, InvalidateCommand command) throws Throwable {
       if (enabled) {
@@ -195,6 +212,32 @@ protected boolean canLoad(Object key) {
     * @throws Throwable
     */
    protected final Boolean loadIfNeeded(final InvocationContext ctx, Object key, final FlagAffectedCommand cmd) throws Throwable {
+      return loadIfNeeded(ctx, key, cmd, null);
+   }
+
+   /**
+    * Starts loading all the keys of a multi-key read which aren't in memory, so that the stores load them concurrently
+    * instead of one after another. Nothing is started if there is a single key to load.
+    */
+   private Map<Object, NotifyingFuture<MarshalledEntry>> startLoads(InvocationContext ctx, GetAllCommand cmd) {
+      List<Object> keysToLoad = new ArrayList<>();
+      for (Object key : cmd.getKeys()) {
+         if (dataContainer.peek(key) == null && !skipLoad(cmd, key, ctx)) {
+            keysToLoad.add(key);
+         }
+      }
+      if (keysToLoad.size() < 2) {
+         return InfinispanCollections.emptyMap();
+      }
+      Map<Object, NotifyingFuture<MarshalledEntry>> pendingLoads = new HashMap<>();
+      for (Object key : keysToLoad) {
+         pendingLoads.put(key, persistenceManager.loadFromAllStoresAsync(key, ctx));
+      }
+      return pendingLoads;
+   }
+
+   private Boolean loadIfNeeded(final InvocationContext ctx, Object key, final FlagAffectedCommand cmd,
+                                NotifyingFuture<MarshalledEntry> pendingLoad) throws Throwable {
       if (skipLoad(cmd, key, ctx)) {
          return null;
       }
@@ -202,7 +245,7 @@ protected final Boolean loadIfNeeded(final InvocationContext ctx, Object key, fi
       final boolean isDelta = cmd instanceof ApplyDeltaCommand;
       final AtomicReference<Boolean> isLoaded = new AtomicReference<>();
       InternalCacheEntry entry = PersistenceUtil.loadAndStoreInDataContainer(dataContainer, persistenceManager, key,
-                                                                             ctx, timeService, isLoaded);
+                                                                             ctx, timeService, isLoaded, pendingLoad);
       Boolean isLoadedValue = isLoaded.get();
       if (trace) {
          log.tracef("Entry was loaded? %s", isLoadedValue);
@@ -2,6 +2,7 @@
 
 import org.infinispan.commands.FlagAffectedCommand;
 import org.infinispan.commands.read.AbstractDataCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.write.EvictCommand;
@@ -13,6 +14,7 @@
 import org.infinispan.container.DataContainer;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.eviction.EvictionType;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.interceptors.base.JmxStatsCommandInterceptor;
@@ -94,6 +96,35 @@ public final Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCo
    public final Object visitGetCacheEntryCommand(InvocationContext ctx, GetCacheEntryCommand command) throws Throwable {
       return visitDataReadCommand(ctx, command);
    }
+
+   @Override
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      long start = 0;
+      boolean statisticsEnabled = getStatisticsEnabled(command);
+      if (statisticsEnabled)
+         start = timeService.time();
+
+      final Map<?, ?> retval = (Map<?, ?>) invokeNextInterceptor(ctx, command);
+
+      if (statisticsEnabled && ctx.isOriginLocal()) {
+         long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
+         int requests = command.getKeys().size();
+         int hitCount = retval.size();
+         int missCount = requests - hitCount;
+         // Spread the time of the bulk read across the individual hits and misses
+         if (hitCount > 0) {
+            hitTimes.add(intervalMilliseconds * hitCount / requests);
+            hits.add(hitCount);
+         }
+         if (missCount > 0) {
+            missTimes.add(intervalMilliseconds * missCount / requests);
+            misses.add(missCount);
+         }
+      }
+
+      return retval;
+   }
+
    private Object visitDataReadCommand(InvocationContext ctx, AbstractDataCommand command) throws Throwable {
       long start = 0;
       boolean statisticsEnabled = getStatisticsEnabled(command);
@@ -344,6 +375,18 @@ public int getNumberOfEntries() {
       return dataContainer.size();
    }
 
+   @ManagedAttribute(
+         description = "Amount of memory in bytes estimated to be occupied by the entries in the cache, or -1 if eviction is not bounded by memory",
+         displayName = "Memory occupied by cache entries",
+         displayType = DisplayType.SUMMARY
+   )
+   public long getOccupiedMemory() {
+      if (cacheConfiguration.eviction().type() != EvictionType.MEMORY || !cacheConfiguration.eviction().strategy().isEnabled()) {
+         return -1;
+      }
+      return dataContainer.evictionSize();
+   }
+
    @ManagedAttribute(
          description = "Number of seconds since cache started",
          displayName = "Seconds since cache started",
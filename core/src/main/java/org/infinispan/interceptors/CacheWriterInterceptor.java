@@ -6,7 +6,9 @@
 import org.infinispan.commands.tx.CommitCommand;
 import org.infinispan.commands.tx.PrepareCommand;
 import org.infinispan.commands.write.*;
+import org.infinispan.commons.equivalence.AnyEquivalence;
 import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.configuration.cache.PersistenceConfiguration;
 import org.infinispan.container.InternalEntryFactory;
 import org.infinispan.container.entries.CacheEntry;
@@ -27,6 +29,7 @@
 import org.infinispan.jmx.annotations.ManagedOperation;
 import org.infinispan.jmx.annotations.MeasurementType;
 import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryImpl;
 import org.infinispan.metadata.EmbeddedMetadata;
 import org.infinispan.metadata.Metadata;
@@ -39,6 +42,8 @@
 import javax.transaction.Transaction;
 import javax.transaction.TransactionManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
@@ -192,11 +197,13 @@ public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) t
       if (!isStoreEnabled(command) || ctx.isInTxScope()) return returnValue;
 
       Map<Object, Object> map = command.getMap();
+      List<Object> keys = new ArrayList<Object>(map.size());
       for (Object key : map.keySet()) {
          if (isProperWriter(ctx, command, key)) {
-            storeEntry(ctx, key, command);
+            keys.add(key);
          }
       }
+      storeEntries(ctx, keys, command);
       if (getStatisticsEnabled()) cacheStores.getAndAdd(map.size());
       return returnValue;
    }
@@ -216,6 +223,7 @@ protected final void store(TxInvocationContext ctx) throws Throwable {
             cacheCommand.acceptVisitor(ctx, modsBuilder);
          }
       }
+      modsBuilder.flush();
       if (getStatisticsEnabled() && modsBuilder.putCount > 0) {
          cacheStores.getAndAdd(modsBuilder.putCount);
       }
@@ -240,15 +248,56 @@ protected boolean isProperWriter(InvocationContext ctx, FlagAffectedCommand comm
       return true;
    }
 
+   /**
+    * Applies the modifications of a transaction to the stores. Only the last modification of each key is kept, and
+    * they are written in batches when {@link #flush()} is invoked.
+    */
    public class Updater extends AbstractVisitor {
 
       protected final boolean generateStatistics;
       int putCount;
+      // a null entry means the key was removed
+      private final Map<Object, PendingModification> pending = CollectionFactory.makeMap(
+            cacheConfiguration.dataContainer().keyEquivalence(), AnyEquivalence.<PendingModification>getInstance());
 
       public Updater(boolean generateStatistics) {
          this.generateStatistics = generateStatistics;
       }
 
+      /**
+       * Writes the pending modifications to the stores.
+       */
+      public void flush() {
+         if (pending.isEmpty()) return;
+
+         List<MarshalledEntry> privateEntries = new ArrayList<MarshalledEntry>();
+         List<MarshalledEntry> entries = new ArrayList<MarshalledEntry>();
+         List<Object> removedKeys = new ArrayList<Object>();
+         for (Map.Entry<Object, PendingModification> e : pending.entrySet()) {
+            PendingModification modification = e.getValue();
+            if (modification.entry == null) {
+               removedKeys.add(e.getKey());
+            } else if (modification.mode == PRIVATE) {
+               privateEntries.add(modification.entry);
+            } else {
+               entries.add(modification.entry);
+            }
+         }
+         pending.clear();
+         if (!removedKeys.isEmpty()) persistenceManager.deleteBatchFromAllStores(removedKeys, BOTH);
+         if (!privateEntries.isEmpty()) persistenceManager.writeBatchToAllStores(privateEntries, PRIVATE);
+         if (!entries.isEmpty()) persistenceManager.writeBatchToAllStores(entries, BOTH);
+      }
+
+      private void addPending(Object key, PendingModification modification) {
+         PendingModification previous = pending.get(key);
+         if (previous != null && previous.mode != modification.mode) {
+            // the previous modification doesn't reach the same stores, so it can't be replaced
+            flush();
+         }
+         pending.put(key, modification);
+      }
+
       @Override
       public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
          return visitSingleStore(ctx, command, command.getKey());
@@ -269,7 +318,7 @@ public Object visitApplyDeltaCommand(InvocationContext ctx, ApplyDeltaCommand co
                ice = entryFactory.create(entry);
             }
             MarshalledEntryImpl marshalledEntry = new MarshalledEntryImpl(ice.getKey(), ice.getValue(), internalMetadata(ice), marshaller);
-            persistenceManager.writeToAllStores(marshalledEntry, command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE) ? PRIVATE : BOTH);
+            addPending(ice.getKey(), new PendingModification(marshalledEntry, command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE) ? PRIVATE : BOTH));
          }
          return null;
       }
@@ -291,13 +340,15 @@ public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) t
       public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) throws Throwable {
          Object key = command.getKey();
          if (isProperWriter(ctx, command, key)) {
-            persistenceManager.deleteFromAllStores(key, BOTH);
+            addPending(key, new PendingModification(null, BOTH));
          }
          return null;
       }
 
       @Override
       public Object visitClearCommand(InvocationContext ctx, ClearCommand command) throws Throwable {
+         // not all the stores are cleared in every mode, so the earlier modifications must be written first
+         flush();
          persistenceManager.clearAllStores(ctx.isOriginLocal() ? PRIVATE : BOTH);
          return null;
       }
@@ -307,12 +358,22 @@ protected Object visitSingleStore(InvocationContext ctx, FlagAffectedCommand com
             if (generateStatistics) putCount++;
             InternalCacheValue sv = getStoredValue(key, ctx);
             MarshalledEntryImpl me = new MarshalledEntryImpl(key, sv.getValue(), internalMetadata(sv), marshaller);
-            persistenceManager.writeToAllStores(me, command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE) ? PRIVATE : BOTH);
+            addPending(key, new PendingModification(me, command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE) ? PRIVATE : BOTH));
          }
          return null;
       }
    }
 
+   private static class PendingModification {
+      final MarshalledEntry entry;
+      final PersistenceManager.AccessMode mode;
+
+      PendingModification(MarshalledEntry entry, PersistenceManager.AccessMode mode) {
+         this.entry = entry;
+         this.mode = mode;
+      }
+   }
+
    @Override
    @ManagedOperation(
          description = "Resets statistics gathered by this component",
@@ -338,6 +399,26 @@ void storeEntry(InvocationContext ctx, Object key, FlagAffectedCommand command)
       if (getLog().isTraceEnabled()) getLog().tracef("Stored entry %s under key %s", sv, key);
    }
 
+   /**
+    * Stores the entries of the given keys, with a single batch write for each access mode.
+    */
+   void storeEntries(InvocationContext ctx, Collection<Object> keys, FlagAffectedCommand command) {
+      List<MarshalledEntry> privateEntries = new ArrayList<MarshalledEntry>();
+      List<MarshalledEntry> entries = new ArrayList<MarshalledEntry>(keys.size());
+      for (Object key : keys) {
+         InternalCacheValue sv = getStoredValue(key, ctx);
+         MarshalledEntry me = new MarshalledEntryImpl(key, sv.getValue(), internalMetadata(sv), marshaller);
+         if (skipSharedStores(ctx, key, command)) {
+            privateEntries.add(me);
+         } else {
+            entries.add(me);
+         }
+      }
+      if (!privateEntries.isEmpty()) persistenceManager.writeBatchToAllStores(privateEntries, PRIVATE);
+      if (!entries.isEmpty()) persistenceManager.writeBatchToAllStores(entries, BOTH);
+      if (getLog().isTraceEnabled()) getLog().tracef("Stored entries under keys %s", keys);
+   }
+
    protected boolean skipSharedStores(InvocationContext ctx, Object key, FlagAffectedCommand command) {
       return !ctx.isOriginLocal() || command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE);
    }
@@ -4,6 +4,7 @@
 import org.infinispan.commands.VisitableCommand;
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.read.AbstractDataCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.tx.CommitCommand;
@@ -18,6 +19,8 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.Map;
+
 /**
  * Always at the end of the chain, directly in front of the cache. Simply calls into the cache using reflection. If the
  * call resulted in a modification, add the Modification to the end of the modification list keyed by the current
@@ -87,6 +90,22 @@ public Object visitGetCacheEntryCommand(InvocationContext ctx, GetCacheEntryComm
       return ret;
    }
 
+   @Override
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      if (trace) log.trace("Executing command: " + command + ".");
+      @SuppressWarnings("unchecked")
+      Map<Object, Object> map = (Map<Object, Object>) command.perform(ctx);
+      for (Map.Entry<Object, Object> entry : map.entrySet()) {
+         Object value = entry.getValue();
+         if (command.isReturnEntries()) {
+            value = ((CacheEntry) value).getValue();
+         }
+         notifier.notifyCacheEntryVisited(entry.getKey(), value, true, ctx, command);
+         notifier.notifyCacheEntryVisited(entry.getKey(), value, false, ctx, command);
+      }
+      return map;
+   }
+
    private void notifyCacheEntryVisit(InvocationContext ctx, AbstractDataCommand command, Object value) {
       Object key = command.getKey();
       notifier.notifyCacheEntryVisited(key, value, true, ctx, command);
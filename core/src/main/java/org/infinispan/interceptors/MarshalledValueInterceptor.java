@@ -3,6 +3,7 @@
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.read.AbstractDataCommand;
 import org.infinispan.commands.read.EntrySetCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
@@ -31,6 +32,7 @@
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -174,6 +176,27 @@ private Object visitDataReadCommand(InvocationContext ctx, AbstractDataCommand c
       return processRetVal(retVal, ctx);
    }
 
+   @Override
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      if (wrapKeys) {
+         List<Object> keys = new ArrayList<Object>(command.getKeys().size());
+         for (Object key : command.getKeys()) {
+            keys.add(isTypeExcluded(key.getClass()) ? key : createMarshalledValue(key, ctx));
+         }
+         command.setKeys(keys);
+      }
+      @SuppressWarnings("unchecked")
+      Map<Object, Object> retVal = (Map<Object, Object>) invokeNextInterceptor(ctx, command);
+      if (!ctx.isOriginLocal() || command.isReturnEntries()) {
+         return retVal;
+      }
+      Map<Object, Object> unwrapped = new HashMap<Object, Object>(retVal.size());
+      for (Map.Entry<Object, Object> entry : retVal.entrySet()) {
+         unwrapped.put(processRetVal(entry.getKey(), ctx), processRetVal(entry.getValue(), ctx));
+      }
+      return unwrapped;
+   }
+
    @Override
    public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command) throws Throwable {
       MarshalledValue key, newValue, oldValue;
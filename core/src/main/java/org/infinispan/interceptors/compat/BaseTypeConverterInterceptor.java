@@ -2,6 +2,7 @@
 
 import org.infinispan.commands.MetadataAwareCommand;
 import org.infinispan.commands.read.EntryRetrievalCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
@@ -21,6 +22,10 @@
 import org.infinispan.iteration.EntryIterable;
 import org.infinispan.metadata.Metadata;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -104,6 +109,38 @@ public Object visitGetCacheEntryCommand(InvocationContext ctx, GetCacheEntryComm
       return null;
    }
 
+   @Override
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      TypeConverter<Object, Object, Object, Object> converter =
+            determineTypeConverter(command.getFlags());
+      if (ctx.isOriginLocal()) {
+         List<Object> boxedKeys = new ArrayList<Object>(command.getKeys().size());
+         for (Object key : command.getKeys()) {
+            boxedKeys.add(converter.boxKey(key));
+         }
+         command.setKeys(boxedKeys);
+      }
+      @SuppressWarnings("unchecked")
+      Map<Object, Object> ret = (Map<Object, Object>) invokeNextInterceptor(ctx, command);
+      Map<Object, Object> converted = new HashMap<Object, Object>(ret.size());
+      for (Map.Entry<Object, Object> entry : ret.entrySet()) {
+         Object key = entry.getKey();
+         Object value = entry.getValue();
+         boolean unbox = !command.isRemotelyFetched(key);
+         if (command.isReturnEntries()) {
+            CacheEntry cacheEntry = (CacheEntry) value;
+            Object returnValue = unbox ? converter.unboxValue(cacheEntry.getValue()) : cacheEntry.getValue();
+            // Create a copy of the entry to avoid modifying the internal entry
+            value = entryFactory.create(cacheEntry.getKey(), returnValue, cacheEntry.getMetadata(),
+                  cacheEntry.getLifespan(), cacheEntry.getMaxIdle());
+         } else if (unbox) {
+            value = converter.unboxValue(value);
+         }
+         converted.put(ctx.isOriginLocal() ? converter.unboxKey(key) : key, value);
+      }
+      return converted;
+   }
+
 
    @Override
    public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command) throws Throwable {
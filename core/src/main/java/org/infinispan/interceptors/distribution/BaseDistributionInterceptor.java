@@ -1,12 +1,16 @@
 package org.infinispan.interceptors.distribution;
 
 import org.infinispan.commands.FlagAffectedCommand;
+import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.remote.GetKeysInGroupCommand;
 import org.infinispan.commands.write.DataWriteCommand;
 import org.infinispan.commands.write.ValueMatcher;
 import org.infinispan.commands.write.WriteCommand;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.commons.util.concurrent.NotifyingFutureImpl;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.entries.InternalCacheValue;
@@ -14,6 +18,7 @@
 import org.infinispan.context.impl.TxInvocationContext;
 import org.infinispan.distribution.DistributionManager;
 import org.infinispan.distribution.RemoteValueRetrievedListener;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.distribution.group.GroupManager;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.interceptors.ClusteringInterceptor;
@@ -41,9 +46,11 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Base class for distribution of entries across a cluster.
@@ -184,6 +191,104 @@ private InternalCacheEntry invokeClusterGetCommandRemotely(List<Address> targets
       return null;
    }
 
+   /**
+    * Retrieves multiple cache entries from remote sources. The keys are grouped by their primary owner in the read
+    * consistent hash and a single {@link ClusteredGetAllCommand} is sent to each owner, all of them in parallel.
+    * <p/>
+    * Keys that could not be resolved by the bulk request (the owner left, or the topology changed while the request
+    * was in progress) are retried individually through {@link #retrieveFromRemoteSource}, which also contacts the
+    * backup owners and the pending owners.
+    *
+    * @return the entries that were found, keyed by the requested keys
+    */
+   protected final Map<Object, InternalCacheEntry> retrieveFromRemoteSources(Collection<?> requestedKeys, InvocationContext ctx,
+                                                                             FlagAffectedCommand command) throws Throwable {
+      GlobalTransaction gtx = ctx.isInTxScope() ? ((TxInvocationContext)ctx).getGlobalTransaction() : null;
+      CacheTopology cacheTopology = stateTransferManager.getCacheTopology();
+      ConsistentHash ch = cacheTopology.getReadConsistentHash();
+
+      Map<Address, List<Object>> ownerKeys = new HashMap<>();
+      for (Object key : requestedKeys) {
+         Address owner = ch.locatePrimaryOwner(key);
+         List<Object> keys = ownerKeys.get(owner);
+         if (keys == null) {
+            keys = new ArrayList<>();
+            ownerKeys.put(owner, keys);
+         }
+         keys.add(key);
+      }
+
+      RpcOptions options = rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS, DeliverOrder.NONE).build();
+      Map<Address, NotifyingFutureImpl<Map<Address, Response>>> futures = new HashMap<>(ownerKeys.size());
+      for (Map.Entry<Address, List<Object>> entry : ownerKeys.entrySet()) {
+         ClusteredGetAllCommand getAll = cf.buildClusteredGetAllCommand(entry.getValue(), command.getFlags(), gtx);
+         NotifyingFutureImpl<Map<Address, Response>> future = new NotifyingFutureImpl<>();
+         if (trace) log.tracef("Perform remote get of keys %s from %s", entry.getValue(), entry.getKey());
+         rpcManager.invokeRemotelyInFuture(future, Collections.singletonList(entry.getKey()), getAll, options);
+         futures.put(entry.getKey(), future);
+      }
+
+      Map<Object, InternalCacheEntry> result = CollectionFactory.makeMap(requestedKeys.size(),
+            cacheConfiguration.dataContainer().keyEquivalence(), AnyEquivalence.getInstance());
+      List<Object> retryKeys = new ArrayList<>();
+      List<Object> missingKeys = new ArrayList<>();
+      for (Map.Entry<Address, NotifyingFutureImpl<Map<Address, Response>>> entry : futures.entrySet()) {
+         Address owner = entry.getKey();
+         List<Object> keys = ownerKeys.get(owner);
+         Response response;
+         try {
+            response = entry.getValue().get().get(owner);
+         } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SuspectException) {
+               if (trace) log.tracef("Owner %s was suspected, retrying keys %s individually", owner, keys);
+               retryKeys.addAll(keys);
+               continue;
+            }
+            throw cause;
+         }
+         if (!(response instanceof SuccessfulResponse)) {
+            if (trace) log.tracef("Unsuccessful response %s from %s, retrying keys %s individually", response, owner, keys);
+            retryKeys.addAll(keys);
+            continue;
+         }
+         @SuppressWarnings("unchecked")
+         List<InternalCacheValue> values = (List<InternalCacheValue>) ((SuccessfulResponse) response).getResponseValue();
+         for (int i = 0; i < keys.size(); i++) {
+            Object key = keys.get(i);
+            InternalCacheValue value = values.get(i);
+            if (value != null) {
+               InternalCacheEntry ice = value.toInternalCacheEntry(key);
+               if (rvrl != null) {
+                  rvrl.remoteValueFound(ice);
+               }
+               result.put(key, ice);
+            } else {
+               missingKeys.add(key);
+            }
+         }
+      }
+
+      if (!missingKeys.isEmpty()) {
+         // A null value from the primary owner is only reliable if the topology did not change in the meantime
+         CacheTopology currentTopology = stateTransferManager.getCacheTopology();
+         if (currentTopology.getTopologyId() != cacheTopology.getTopologyId() || currentTopology.getPendingCH() != null) {
+            retryKeys.addAll(missingKeys);
+         } else if (rvrl != null) {
+            for (Object key : missingKeys) {
+               rvrl.remoteValueNotFound(key);
+            }
+         }
+      }
+      for (Object key : retryKeys) {
+         InternalCacheEntry ice = retrieveFromRemoteSource(key, ctx, false, command, false);
+         if (ice != null) {
+            result.put(key, ice);
+         }
+      }
+      return result;
+   }
+
    protected final Object handleNonTxWriteCommand(InvocationContext ctx, DataWriteCommand command) throws Throwable {
       if (ctx.isInTxScope()) {
          throw new CacheException("Attempted execution of non-transactional write command in a transactional invocation context");
@@ -2,6 +2,7 @@
 
 import org.infinispan.commands.FlagAffectedCommand;
 import org.infinispan.commands.read.AbstractDataCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.RemoteFetchingCommand;
@@ -16,6 +17,7 @@
 import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.commons.util.concurrent.NotifyingFutureImpl;
 import org.infinispan.commons.util.concurrent.NotifyingNotifiableFuture;
+import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
@@ -75,6 +77,39 @@ public Object visitGetCacheEntryCommand(InvocationContext ctx, GetCacheEntryComm
       }
    }
 
+   @Override
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      try {
+         List<Object> remoteKeys = new ArrayList<>();
+         for (Object key : command.getKeys()) {
+            if (needsRemoteGet(ctx, command, key)) {
+               remoteKeys.add(key);
+            } else {
+               CacheEntry contextEntry = ctx.lookupEntry(key);
+               if (contextEntry == null || contextEntry.isNull()) {
+                  // the key might have become local after the EntryWrappingInterceptor executed
+                  InternalCacheEntry localEntry = fetchValueLocallyIfAvailable(dm.getReadConsistentHash(), key);
+                  if (localEntry != null) {
+                     wrapInternalCacheEntry(localEntry, ctx, key, false, command);
+                  }
+               }
+            }
+         }
+         if (!remoteKeys.isEmpty()) {
+            // one ClusteredGetAllCommand per primary owner, instead of one ClusteredGetCommand per key
+            Map<Object, InternalCacheEntry> remoteEntries = retrieveFromRemoteSources(remoteKeys, ctx, command);
+            for (Entry<Object, InternalCacheEntry> entry : remoteEntries.entrySet()) {
+               wrapInternalCacheEntry(entry.getValue(), ctx, entry.getKey(), false, command);
+            }
+            command.setRemotelyFetched(remoteEntries);
+         }
+         return invokeNextInterceptor(ctx, command);
+      } catch (SuspectException e) {
+         //retry
+         return visitGetAllCommand(ctx, command);
+      }
+   }
+
    private <T extends AbstractDataCommand & RemoteFetchingCommand> Object visitRemoteFetchingCommand(InvocationContext ctx, T command, boolean returnEntry) throws Throwable {
       Object returnValue = invokeNextInterceptor(ctx, command);
       if (returnValue == null) {
@@ -5,6 +5,7 @@
 import org.infinispan.commands.FlagAffectedCommand;
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.read.AbstractDataCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.tx.CommitCommand;
@@ -33,8 +34,10 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeoutException;
 
 import static org.infinispan.util.DeltaCompositeKeyUtil.filterDeltaCompositeKey;
@@ -144,6 +147,48 @@ public Object visitGetCacheEntryCommand(InvocationContext ctx, GetCacheEntryComm
       }
    }
 
+   @Override
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      try {
+         if (ctx.isOriginLocal()) {
+            List<Object> remoteKeys = new ArrayList<>();
+            for (Object key : command.getKeys()) {
+               //if the cache entry has the value lock flag set, skip the remote get.
+               CacheEntry entry = ctx.lookupEntry(key);
+               if (entry != null && entry.skipLookup()) {
+                  continue;
+               }
+               if (needsRemoteGet(ctx, command, key)) {
+                  remoteKeys.add(key);
+               } else if ((entry == null || entry.isNull()) && !ctx.isEntryRemovedInContext(key)) {
+                  localGet(ctx, key, false, command, false);
+               }
+            }
+            if (!remoteKeys.isEmpty()) {
+               Map<Object, InternalCacheEntry> remoteEntries = retrieveFromRemoteSources(remoteKeys, ctx, command);
+               for (Map.Entry<Object, InternalCacheEntry> entry : remoteEntries.entrySet()) {
+                  Object key = entry.getKey();
+                  InternalCacheEntry ice = entry.getValue();
+                  if (useClusteredWriteSkewCheck && ctx.isInTxScope()) {
+                     ((TxInvocationContext)ctx).getCacheTransaction().putLookedUpRemoteVersion(key, ice.getMetadata().version());
+                  }
+                  if (!ctx.replaceValue(key, ice)) {
+                     ctx.putLookedUpEntry(key, ice);
+                     if (ctx.isInTxScope()) {
+                        ((TxInvocationContext) ctx).getCacheTransaction().replaceVersionRead(key, ice.getMetadata().version());
+                     }
+                  }
+               }
+               command.setRemotelyFetched(remoteEntries);
+            }
+         }
+         return invokeNextInterceptor(ctx, command);
+      } catch (SuspectException e) {
+         // retry
+         return visitGetAllCommand(ctx, command);
+      }
+   }
+
    private Object visitGetCommand(InvocationContext ctx, AbstractDataCommand command,
       boolean isGetCacheEntry) throws Throwable {
       Object returnValue = invokeNextInterceptor(ctx, command);
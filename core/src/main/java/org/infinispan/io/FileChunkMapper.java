@@ -1,6 +1,7 @@
 package org.infinispan.io;
 
 import org.infinispan.Cache;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.jgroups.logging.Log;
 import org.jgroups.logging.LogFactory;
 
@@ -38,6 +39,16 @@ public byte[] fetchChunk(int chunkNumber) {
       return val;
    }
 
+   /**
+    * Starts fetching the chunk without waiting for it, e.g. to prefetch the chunks following the one being read.
+    */
+   public NotifyingFuture<byte[]> fetchChunkAsync(int chunkNumber) {
+      String key = getChunkKey(chunkNumber);
+      if (log.isTraceEnabled())
+         log.trace("prefetching key=" + key);
+      return cache.getAsync(key);
+   }
+
    public void storeChunk(int chunkNumber, byte[] buffer, int length) {
       String key = getChunkKey(chunkNumber);
       byte[] val = trim(buffer, length);
@@ -46,6 +57,18 @@ public void storeChunk(int chunkNumber, byte[] buffer, int length) {
          log.trace("put(): key=" + key + ": " + val.length + " bytes");
    }
 
+   /**
+    * Starts storing a copy of the first {@code length} bytes of the buffer without waiting for the put to complete, so
+    * the buffer can be reused as soon as this method returns.
+    */
+   public NotifyingFuture<byte[]> storeChunkAsync(int chunkNumber, byte[] buffer, int length) {
+      String key = getChunkKey(chunkNumber);
+      byte[] val = trim(buffer, length);
+      if (log.isTraceEnabled())
+         log.trace("putAsync(): key=" + key + ": " + val.length + " bytes");
+      return cache.putAsync(key, val);
+   }
+
    public void removeChunk(int chunkNumber) {
       cache.remove(getChunkKey(chunkNumber));
    }
@@ -20,10 +20,12 @@
 public class GridFilesystem {
 
    private static final Log log = LogFactory.getLog(GridFilesystem.class);
+   private static final int DEFAULT_CHUNKS_IN_FLIGHT = 4;
 
    protected final Cache<String, byte[]> data;
    protected final Cache<String, GridFile.Metadata> metadata;
    protected final int defaultChunkSize;
+   protected final int chunksInFlight;
 
    /**
     * Creates an instance. The data and metadata caches should already have been setup and started
@@ -33,6 +35,23 @@ public class GridFilesystem {
     * @param defaultChunkSize the default size of the file chunks
     */
    public GridFilesystem(Cache<String, byte[]> data, Cache<String, GridFile.Metadata> metadata, int defaultChunkSize) {
+      this(data, metadata, defaultChunkSize, DEFAULT_CHUNKS_IN_FLIGHT);
+   }
+
+   /**
+    * Creates an instance. The data and metadata caches should already have been setup and started
+    *
+    * @param data the cache where the actual file contents are stored
+    * @param metadata the cache where file meta-data is stored
+    * @param defaultChunkSize the default size of the file chunks
+    * @param chunksInFlight the maximum number of chunks each stream or channel prefetches when reading, or stores
+    *        asynchronously when writing. With 0, the chunks are read and written synchronously, one at a time.
+    */
+   public GridFilesystem(Cache<String, byte[]> data, Cache<String, GridFile.Metadata> metadata, int defaultChunkSize,
+                         int chunksInFlight) {
+      if (chunksInFlight < 0) {
+         throw new IllegalArgumentException("chunksInFlight may not be negative");
+      }
       if(metadata.getCacheConfiguration().clustering().cacheMode().isClustered() &&
             !metadata.getCacheConfiguration().clustering().cacheMode().isSynchronous()){
          log.warnGridFSMetadataCacheRequiresSync();
@@ -40,6 +59,7 @@ public GridFilesystem(Cache<String, byte[]> data, Cache<String, GridFile.Metadat
       this.data = data;
       this.metadata = metadata;
       this.defaultChunkSize = ModularArithmetic.CANNOT_ASSUME_DENOM_IS_POWER_OF_TWO ? defaultChunkSize : Util.findNextHighestPowerOfTwo(defaultChunkSize);
+      this.chunksInFlight = chunksInFlight;
    }
 
    public GridFilesystem(Cache<String, byte[]> data, Cache<String, GridFile.Metadata> metadata) {
@@ -120,7 +140,7 @@ public OutputStream getOutput(String pathname, boolean append, int chunkSize) th
       GridFile file = (GridFile) getFile(pathname, chunkSize);
       checkIsNotDirectory(file);
       createIfNeeded(file);
-      return new GridOutputStream(file, append, data);
+      return new GridOutputStream(file, append, data, chunksInFlight);
    }
 
    /**
@@ -132,7 +152,7 @@ public OutputStream getOutput(String pathname, boolean append, int chunkSize) th
    public OutputStream getOutput(GridFile file) throws IOException {
       checkIsNotDirectory(file);
       createIfNeeded(file);
-      return new GridOutputStream(file, false, data);
+      return new GridOutputStream(file, false, data, chunksInFlight);
    }
 
    private void checkIsNotDirectory(GridFile file) throws FileNotFoundException {
@@ -155,7 +175,7 @@ private void createIfNeeded(GridFile file) throws IOException {
    public InputStream getInput(String pathname) throws FileNotFoundException {
       GridFile file = (GridFile) getFile(pathname);
       checkFileIsReadable(file);
-      return new GridInputStream(file, data);
+      return new GridInputStream(file, data, chunksInFlight);
    }
 
    private void checkFileIsReadable(GridFile file) throws FileNotFoundException {
@@ -189,7 +209,7 @@ public InputStream getInput(File file) throws FileNotFoundException {
    public ReadableGridFileChannel getReadableChannel(String pathname) throws FileNotFoundException {
       GridFile file = (GridFile) getFile(pathname);
       checkFileIsReadable(file);
-      return new ReadableGridFileChannel(file, data);
+      return new ReadableGridFileChannel(file, data, chunksInFlight);
    }
 
    /**
@@ -229,7 +249,7 @@ public WritableGridFileChannel getWritableChannel(String pathname, boolean appen
       GridFile file = (GridFile) getFile(pathname, chunkSize);
       checkIsNotDirectory(file);
       createIfNeeded(file);
-      return new WritableGridFileChannel(file, data, append);
+      return new WritableGridFileChannel(file, data, append, chunksInFlight);
    }
 
    /**
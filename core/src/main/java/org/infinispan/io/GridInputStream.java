@@ -1,9 +1,16 @@
 package org.infinispan.io;
 
 import org.infinispan.Cache;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 /**
  * @author Bela Ban
@@ -19,11 +26,14 @@ public class GridInputStream extends InputStream {
    private boolean streamClosed = false;
    private final FileChunkMapper fileChunkMapper;
    private final int chunkSize; // Guaranteed to be a power of 2
+   private final int chunksInFlight;
+   private final Map<Integer, NotifyingFuture<byte[]>> prefetchedChunks = new HashMap<Integer, NotifyingFuture<byte[]>>();
 
-   GridInputStream(GridFile file, Cache<String, byte[]> cache) {
+   GridInputStream(GridFile file, Cache<String, byte[]> cache, int chunksInFlight) {
       fileChunkMapper = new FileChunkMapper(file, cache);
       chunkSize = fileChunkMapper.getChunkSize();
       fSize = (int)file.length();
+      this.chunksInFlight = chunksInFlight;
    }
 
    @Override public int read() throws IOException {
@@ -58,7 +68,33 @@ public int read(byte[] bytes, int offset, int length) throws IOException {
       return totalBytesRead;
    }
 
-   private int readFromChunk(byte[] b, int off, int len) {
+   /**
+    * Reads straight from the chunks into the buffer, without the intermediate copy of
+    * {@link java.nio.channels.Channels#newChannel(InputStream)}.
+    */
+   int read(ByteBuffer dst) throws IOException {
+      assertOpen();
+      if (!dst.hasRemaining())
+         return 0;
+      if (isEndReached())
+         return -1;
+      int totalBytesRead = 0;
+      while (dst.hasRemaining() && !isEndReached()) {
+         int remaining = getBytesRemainingInChunk();
+         if (remaining == 0) {
+            getChunk();
+            remaining = getBytesRemainingInChunk();
+         }
+         int bytesToRead = Math.min(dst.remaining(), remaining);
+         dst.put(currentBuffer, localIndex, bytesToRead);
+         localIndex += bytesToRead;
+         index += bytesToRead;
+         totalBytesRead += bytesToRead;
+      }
+      return totalBytesRead;
+   }
+
+   private int readFromChunk(byte[] b, int off, int len) throws IOException {
       if (isEndReached())
          return -1;
       int remaining = getBytesRemainingInChunk();
@@ -102,7 +138,7 @@ void position(long newPosition) throws IOException {
       int newPos = (int) newPosition;
       int chunkNumberOfNewPosition = getChunkNumber(newPos);
       if (getChunkNumber(index - 1) != chunkNumberOfNewPosition) {
-         currentBuffer = fileChunkMapper.fetchChunk(chunkNumberOfNewPosition);
+         currentBuffer = fetchChunk(chunkNumberOfNewPosition);
       }
       index = newPos;
       localIndex = ModularArithmetic.mod(newPos, chunkSize);
@@ -117,6 +153,7 @@ public int available() throws IOException {
    @Override
    public void close() throws IOException {
       localIndex = index = 0;
+      prefetchedChunks.clear();
       streamClosed = true;
    }
 
@@ -136,11 +173,43 @@ private int getBytesRemainingInStream() {
       return fSize - index;
    }
 
-   private void getChunk() {
-      currentBuffer = fileChunkMapper.fetchChunk(getChunkNumber());
+   private void getChunk() throws IOException {
+      currentBuffer = fetchChunk(getChunkNumber());
       localIndex = 0;
    }
 
+   private byte[] fetchChunk(int chunkNumber) throws IOException {
+      NotifyingFuture<byte[]> prefetched = prefetchedChunks.remove(chunkNumber);
+      // start fetching the next chunks before waiting for this one, so that the round trips overlap
+      prefetchChunksAfter(chunkNumber);
+      if (prefetched == null)
+         return fileChunkMapper.fetchChunk(chunkNumber);
+      try {
+         return prefetched.get();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new InterruptedIOException();
+      } catch (ExecutionException e) {
+         throw new IOException(e.getCause());
+      }
+   }
+
+   private void prefetchChunksAfter(int chunkNumber) {
+      if (chunksInFlight == 0)
+         return;
+      int lastChunkToPrefetch = Math.min(chunkNumber + chunksInFlight, getChunkNumber(fSize - 1));
+      // forget the chunks outside of the window, e.g. after a change of position
+      for (Iterator<Integer> it = prefetchedChunks.keySet().iterator(); it.hasNext(); ) {
+         int prefetchedChunk = it.next();
+         if (prefetchedChunk <= chunkNumber || prefetchedChunk > lastChunkToPrefetch)
+            it.remove();
+      }
+      for (int i = chunkNumber + 1; i <= lastChunkToPrefetch; i++) {
+         if (!prefetchedChunks.containsKey(i))
+            prefetchedChunks.put(i, fileChunkMapper.fetchChunkAsync(i));
+      }
+   }
+
    private int getChunkNumber() {
       return getChunkNumber(index);
    }
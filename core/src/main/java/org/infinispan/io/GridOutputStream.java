@@ -1,9 +1,15 @@
 package org.infinispan.io;
 
 import org.infinispan.Cache;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
 
 /**
  * @author Bela Ban
@@ -21,11 +27,14 @@ public class GridOutputStream extends OutputStream {
    private final int chunkSize; // Guaranteed to be a power of 2
    private GridFile file;
    private boolean streamClosed;
+   private final int chunksInFlight;
+   private final Deque<NotifyingFuture<byte[]>> pendingChunks = new ArrayDeque<NotifyingFuture<byte[]>>();
 
-   GridOutputStream(GridFile file, boolean append, Cache<String, byte[]> cache) {
+   GridOutputStream(GridFile file, boolean append, Cache<String, byte[]> cache, int chunksInFlight) {
       fileChunkMapper = new FileChunkMapper(file, cache);
       chunkSize = fileChunkMapper.getChunkSize();
       this.file = file;
+      this.chunksInFlight = chunksInFlight;
 
       index = append ? (int) file.length() : 0;
       localIndex = append && isLastChunkFull() ? chunkSize : ModularArithmetic.mod(index, chunkSize);
@@ -65,7 +74,7 @@ public void write(int b) throws IOException {
       assertOpen();
       int remaining = getBytesRemainingInChunk();
       if (remaining == 0) {
-         flush();
+         storeFullChunk();
          localIndex = 0;
       }
       currentBuffer[localIndex] = (byte) b;
@@ -97,7 +106,7 @@ public void write(byte[] b, int off, int len) throws IOException {
    private int writeToChunk(byte[] b, int off, int len) throws IOException {
       int remaining = getBytesRemainingInChunk();
       if (remaining == 0) {
-         flush();
+         storeFullChunk();
          localIndex = 0;
          remaining = chunkSize;
       }
@@ -108,6 +117,28 @@ private int writeToChunk(byte[] b, int off, int len) throws IOException {
       return bytesToWrite;
    }
 
+   /**
+    * Writes straight from the buffer into the chunks, without the intermediate copy of
+    * {@link java.nio.channels.Channels#newChannel(OutputStream)}.
+    */
+   int write(ByteBuffer src) throws IOException {
+      assertOpen();
+      int totalBytesWritten = src.remaining();
+      while (src.hasRemaining()) {
+         int remaining = getBytesRemainingInChunk();
+         if (remaining == 0) {
+            storeFullChunk();
+            localIndex = 0;
+            remaining = chunkSize;
+         }
+         int bytesToWrite = Math.min(remaining, src.remaining());
+         src.get(currentBuffer, localIndex, bytesToWrite);
+         localIndex += bytesToWrite;
+         index += bytesToWrite;
+      }
+      return totalBytesWritten;
+   }
+
    @Override
    public void close() throws IOException {
       if (streamClosed) return;
@@ -125,10 +156,52 @@ private void removeExcessChunks() {
 
    @Override
    public void flush() throws IOException {
+      awaitPendingChunks();
       storeChunk();
       file.setLength(index);
    }
 
+   /**
+    * Stores the full chunk before moving on to the next one. The chunk is stored asynchronously if there are less than
+    * {@code chunksInFlight} chunks being stored, otherwise the oldest one is waited for first. The file length is only
+    * updated by {@link #flush()}, once all the chunks are stored, so readers never see a length covering missing chunks.
+    */
+   private void storeFullChunk() throws IOException {
+      if (chunksInFlight == 0) {
+         flush();
+         return;
+      }
+      while (pendingChunks.size() >= chunksInFlight) {
+         awaitChunk(pendingChunks.poll());
+      }
+      pendingChunks.add(fileChunkMapper.storeChunkAsync(getChunkNumber(index - 1), currentBuffer, localIndex));
+   }
+
+   private void awaitPendingChunks() throws IOException {
+      IOException failure = null;
+      while (!pendingChunks.isEmpty()) {
+         try {
+            awaitChunk(pendingChunks.poll());
+         } catch (IOException e) {
+            if (failure == null)
+               failure = e;
+         }
+      }
+      if (failure != null)
+         throw failure;
+   }
+
+   private void awaitChunk(NotifyingFuture<byte[]> pendingChunk) throws IOException {
+      try {
+         pendingChunk.get();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new InterruptedIOException();
+      } catch (ExecutionException e) {
+         throw new IOException(e.getCause());
+      }
+   }
+
    private void storeChunk() {
       fileChunkMapper.storeChunk(getChunkNumber(index - 1), currentBuffer, localIndex);
    }
@@ -16,15 +16,15 @@ public class ReadableGridFileChannel implements ReadableByteChannel {
    private final GridInputStream gridInputStream;
    private final ReadableByteChannel delegate;
 
-   ReadableGridFileChannel(GridFile file, Cache<String, byte[]> cache) {
-      this.gridInputStream = new GridInputStream(file, cache);
+   ReadableGridFileChannel(GridFile file, Cache<String, byte[]> cache, int chunksInFlight) {
+      this.gridInputStream = new GridInputStream(file, cache, chunksInFlight);
       this.delegate = Channels.newChannel(gridInputStream);
    }
 
    @Override
    public int read(ByteBuffer dst) throws IOException {
       checkOpen();
-      return delegate.read(dst);
+      return gridInputStream.read(dst);
    }
 
    public long position() throws IOException {
@@ -16,15 +16,15 @@ public class WritableGridFileChannel implements WritableByteChannel {
    private final GridOutputStream gridOutputStream;
    private final WritableByteChannel delegate;
 
-   WritableGridFileChannel(GridFile file, Cache<String, byte[]> cache, boolean append) {
-      this.gridOutputStream = new GridOutputStream(file, append, cache);
+   WritableGridFileChannel(GridFile file, Cache<String, byte[]> cache, boolean append, int chunksInFlight) {
+      this.gridOutputStream = new GridOutputStream(file, append, cache, chunksInFlight);
       this.delegate = Channels.newChannel(gridOutputStream);
    }
 
    @Override
    public int write(ByteBuffer src) throws IOException {
       checkOpen();
-      return delegate.write(src);
+      return gridOutputStream.write(src);
    }
 
    public void flush() throws IOException {
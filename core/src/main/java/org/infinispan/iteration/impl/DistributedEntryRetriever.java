@@ -5,6 +5,8 @@
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.SmallIntSet;
 import org.infinispan.commons.util.concurrent.ParallelIterableMap;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.container.entries.InternalCacheEntry;
@@ -139,7 +141,7 @@ public void dataRehashed(DataRehashedEvent<K, V> event) {
                log.tracef("After segments %s ", endHash.getPrimarySegmentsForOwner(localAddress));
             }
             // we don't care about newly added segments, since that means our run wouldn't include them anyways
-            Set<Integer> beforeSegments = new HashSet<Integer>(startHash.getPrimarySegmentsForOwner(localAddress));
+            IntSet beforeSegments = new SmallIntSet(startHash.getPrimarySegmentsForOwner(localAddress));
             // Now any that were there before but aren't there now should be added - we don't care about new segments
             // since our current request shouldn't be working on it - it will have to retrieve it later
             beforeSegments.removeAll(endHash.getPrimarySegmentsForOwner(localAddress));
@@ -579,7 +581,7 @@ public <C> CloseableIterator<CacheEntry<K, C>> retrieveEntries(final KeyValueFil
 
       DistributedItr<C> itr = new DistributedItr<>(batchSize, identifier, listener, hash);
       registerIterator(itr, flags);
-      Set<Integer> remoteSegments = new HashSet<>();
+      IntSet remoteSegments = new SmallIntSet(hash.getNumSegments());
       AtomicReferenceArray<Set<K>> processedKeys = new AtomicReferenceArray<Set<K>>(hash.getNumSegments());
       for (int i = 0; i < processedKeys.length(); ++i) {
          // Normally we only work on a single segment per thread.  But since there is an edge case where
@@ -591,7 +593,7 @@ public <C> CloseableIterator<CacheEntry<K, C>> retrieveEntries(final KeyValueFil
       final IterationStatus<C> status = new IterationStatus<>(itr, listener, filter, usedConverter, flags, processedKeys);
       iteratorDetails.put(identifier, status);
 
-      Set<Integer> ourSegments = hash.getPrimarySegmentsForOwner(localAddress);
+      IntSet ourSegments = hash.getPrimarySegmentsForOwner(localAddress);
       remoteSegments.removeAll(ourSegments);
       if (!remoteSegments.isEmpty()) {
          eventuallySendRequest(identifier, status);
@@ -713,9 +715,9 @@ private <C> boolean sendRequest(boolean sync, Map.Entry<Address, Set<Integer>> r
    }
 
    private Set<Integer> findMissingLocalSegments(AtomicReferenceArray<Set<K>> processValues, ConsistentHash hash) {
-      Set<Integer> ourSegments = hash.getPrimarySegmentsForOwner(localAddress);
-      Set<Integer> returnSegments = new HashSet<>();
-      for (Integer segment : ourSegments) {
+      IntSet ourSegments = hash.getPrimarySegmentsForOwner(localAddress);
+      IntSet returnSegments = new SmallIntSet(processValues.length());
+      for (int segment : ourSegments.toIntArray()) {
          if (processValues.get(segment) != null) {
             returnSegments.add(segment);
          }
@@ -786,7 +788,7 @@ private boolean shouldRepeatApplication(UUID identifier) {
    private boolean missingRemoteSegment(AtomicReferenceArray<Set<K>> processValues, ConsistentHash hash) {
       boolean missingRemote = false;
       if (processValues != null) {
-         Set<Integer> localSegments = hash.getPrimarySegmentsForOwner(localAddress);
+         IntSet localSegments = hash.getPrimarySegmentsForOwner(localAddress);
          for (int i = 0; i < processValues.length(); ++i) {
             if (processValues.get(i) != null) {
                if (!localSegments.contains(i)) {
@@ -800,8 +802,8 @@ private boolean missingRemoteSegment(AtomicReferenceArray<Set<K>> processValues,
    }
 
    private Set<Integer> findMissingRemoteSegments(AtomicReferenceArray<Set<K>> processValues, ConsistentHash hash) {
-      Set<Integer> localSegments = hash.getPrimarySegmentsForOwner(localAddress);
-      Set<Integer> segments = new HashSet<>();
+      IntSet localSegments = hash.getPrimarySegmentsForOwner(localAddress);
+      IntSet segments = new SmallIntSet();
       if (processValues != null) {
          for (int i = 0; i < processValues.length(); ++i) {
             if (processValues.get(i) != null) {
@@ -830,7 +832,7 @@ private Map.Entry<Address, Set<Integer>> findOptimalRoute(Set<Integer> segmentsT
             Address address = hash.locatePrimaryOwnerForSegment(i);
             Set<Integer> segments = routes.get(address);
             if (segments == null) {
-               segments = new HashSet<>();
+               segments = new SmallIntSet();
                routes.put(address, segments);
             }
             segments.add(i);
@@ -1140,7 +1142,7 @@ protected void finalize() throws Throwable {
 
    private class MapAction<K, V, C> implements ParallelIterableMap.KeyValueAction<K, CacheEntry<K, V>> {
       final UUID identifier;
-      final Set<Integer> segments;
+      final IntSet segments;
       final int batchSize;
       final Converter<? super K, ? super V, C> converter;
       final SegmentBatchHandler<K, C> handler;
@@ -1152,7 +1154,7 @@ public MapAction(UUID identifier, Set<Integer> segments, Set<Integer> inDoubtSeg
                        int batchSize, Converter<? super K, ? super V, C> converter, SegmentBatchHandler<K, C> handler,
                        Queue<CacheEntry<K, C>> queue)  {
          this.identifier = identifier;
-         this.segments = segments;
+         this.segments = toIntSet(segments);
          this.batchSize = batchSize;
          this.converter = converter;
          this.handler = handler;
@@ -1186,6 +1188,11 @@ public void apply(K k, CacheEntry<K, V> kvInternalCacheEntry) {
       }
    }
 
+   private static IntSet toIntSet(Set<Integer> segments) {
+      // the segments are checked for every entry, so avoid boxing the segment ids
+      return segments instanceof IntSet ? (IntSet) segments : new SmallIntSet(segments);
+   }
+
    interface SegmentBatchHandler<K, C> {
       public void handleBatch(UUID identifier, boolean complete, Set<Integer> completedSegments,
                               Set<Integer> inDoubtSegments, Collection<CacheEntry<K, C>> entries);
@@ -1195,11 +1202,11 @@ public void handleBatch(UUID identifier, boolean complete, Set<Integer> complete
 
    private static class SegmentFilter<K> implements KeyFilter<K> {
       private final ConsistentHash hash;
-      private final Set<Integer> segments;
+      private final IntSet segments;
 
       public SegmentFilter(ConsistentHash hash, Set<Integer> segments) {
          this.hash = hash;
-         this.segments = segments;
+         this.segments = toIntSet(segments);
       }
 
       @Override
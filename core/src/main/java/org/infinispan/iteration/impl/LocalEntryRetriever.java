@@ -278,6 +278,7 @@ public boolean add(CacheEntry<K, C> kcEntry) {
                long currentTime = timeService.wallClockTime();
                try {
                   int interruptCheck = 0;
+                  // sequential, since the user's filters and converters aren't required to be thread safe
                   for (InternalCacheEntry<K, V> entry : dataContainer) {
                      if (!entry.isExpired(currentTime)) {
                         InternalCacheEntry<K, V> clone = entryFactory.create(unwrapMarshalledvalue(entry.getKey()),
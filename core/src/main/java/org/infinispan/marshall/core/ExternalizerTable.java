@@ -25,6 +25,7 @@
 import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.util.Immutables;
 import org.infinispan.commons.util.InfinispanCollections;
+import org.infinispan.commons.util.SmallIntSet;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.container.entries.ImmortalCacheEntry;
 import org.infinispan.container.entries.ImmortalCacheValue;
@@ -67,6 +68,7 @@
 import org.infinispan.filter.KeyFilterAsKeyValueFilter;
 import org.infinispan.filter.KeyValueFilterAsKeyFilter;
 import org.infinispan.filter.NullValueConverter;
+import org.infinispan.filter.SegmentKeyValueFilter;
 import org.infinispan.marshall.exts.ArrayExternalizers;
 import org.infinispan.marshall.exts.CacheRpcCommandExternalizer;
 import org.infinispan.marshall.exts.EnumSetExternalizer;
@@ -250,6 +252,7 @@ private void loadInternalMarshallables() {
       addInternalExternalizer(new Immutables.ImmutableMapWrapperExternalizer());
       addInternalExternalizer(new MarshalledValue.Externalizer(globalMarshaller));
       addInternalExternalizer(new ByteBufferImpl.Externalizer());
+      addInternalExternalizer(new SmallIntSet.Externalizer());
 
       addInternalExternalizer(new SuccessfulResponse.Externalizer());
       addInternalExternalizer(new ExceptionResponse.Externalizer());
@@ -343,6 +346,7 @@ private void loadInternalMarshallables() {
       addInternalExternalizer(new KeyValueFilterAsCacheEventFilter.Externalizer());
       addInternalExternalizer(new NullValueConverter.Externalizer());
       addInternalExternalizer(new AcceptAllKeyValueFilter.Externalizer());
+      addInternalExternalizer(new SegmentKeyValueFilter.Externalizer());
       addInternalExternalizer(new ManagerStatusResponse.Externalizer());
       addInternalExternalizer(new MultiClusterEventCallable.Externalizer());
    }
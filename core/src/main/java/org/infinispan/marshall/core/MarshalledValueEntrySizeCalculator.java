@@ -0,0 +1,27 @@
+package org.infinispan.marshall.core;
+
+import org.infinispan.commons.util.concurrent.jdk8backported.PrimitiveEntrySizeCalculator;
+
+/**
+ * Entry size calculator that, on top of the types supported by {@link PrimitiveEntrySizeCalculator}, knows the exact
+ * size of {@link MarshalledValue} instances, i.e. of keys and values stored in binary form.
+ *
+ * @since 7.2
+ */
+public class MarshalledValueEntrySizeCalculator extends PrimitiveEntrySizeCalculator {
+
+   // raw, serialisedSize, cachedHashCode and marshaller
+   private static final long MARSHALLED_VALUE_SIZE = roundUpToNearest8(OBJECT_HEADER + 2 * POINTER_SIZE + 2 * 4);
+   // the byte stream holds the byte[] and its count
+   private static final long BYTE_STREAM_SIZE = roundUpToNearest8(OBJECT_HEADER + POINTER_SIZE + 4);
+
+   @Override
+   protected long handleObject(Object object) {
+      if (object instanceof MarshalledValue) {
+         // the backing array can be larger than the serialized form
+         byte[] raw = ((MarshalledValue) object).getRaw().getRaw();
+         return MARSHALLED_VALUE_SIZE + BYTE_STREAM_SIZE + arraySize(raw.length, 1);
+      }
+      return super.handleObject(object);
+   }
+}
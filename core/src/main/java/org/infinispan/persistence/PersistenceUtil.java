@@ -12,6 +12,7 @@
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.util.logging.Log;
@@ -20,6 +21,8 @@
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -87,6 +90,17 @@ public static InternalMetadata internalMetadata(InternalCacheValue icv) {
    public static <K, V> InternalCacheEntry<K,V> loadAndStoreInDataContainer(DataContainer<K, V> dataContainer, final PersistenceManager persistenceManager,
                                                          K key, final InvocationContext ctx, final TimeService timeService,
                                                          final AtomicReference<Boolean> isLoaded) {
+      return loadAndStoreInDataContainer(dataContainer, persistenceManager, key, ctx, timeService, isLoaded, null);
+   }
+
+   /**
+    * Like {@link #loadAndStoreInDataContainer(DataContainer, PersistenceManager, Object, InvocationContext, TimeService, AtomicReference)},
+    * but if {@code pendingLoad} is not null, the entry is taken from it instead of loading it again.
+    */
+   public static <K, V> InternalCacheEntry<K,V> loadAndStoreInDataContainer(DataContainer<K, V> dataContainer, final PersistenceManager persistenceManager,
+                                                         K key, final InvocationContext ctx, final TimeService timeService,
+                                                         final AtomicReference<Boolean> isLoaded,
+                                                         final Future<MarshalledEntry> pendingLoad) {
       return dataContainer.compute(key, new DataContainer.ComputeAction<K, V>() {
          @Override
          public InternalCacheEntry<K, V> compute(K key, InternalCacheEntry<K, V> oldEntry,
@@ -97,7 +111,9 @@ public InternalCacheEntry<K, V> compute(K key, InternalCacheEntry<K, V> oldEntry
                return oldEntry; //no changes in container
             }
 
-            MarshalledEntry loaded = loadAndCheckExpiration(persistenceManager, key, ctx, timeService);
+            MarshalledEntry loaded = pendingLoad == null ?
+                  loadAndCheckExpiration(persistenceManager, key, ctx, timeService) :
+                  checkExpiration(awaitLoad(pendingLoad), timeService);
             if (loaded == null) {
                isLoaded.set(Boolean.FALSE); //not loaded
                return null; //no changed in container
@@ -117,6 +133,10 @@ public static MarshalledEntry loadAndCheckExpiration(PersistenceManager persiste
       if (log.isTraceEnabled()) {
          log.tracef("Loaded %s for key %s from persistence.", loaded, key);
       }
+      return checkExpiration(loaded, timeService);
+   }
+
+   private static MarshalledEntry checkExpiration(MarshalledEntry loaded, TimeService timeService) {
       if (loaded == null) {
          return null;
       }
@@ -127,6 +147,20 @@ public static MarshalledEntry loadAndCheckExpiration(PersistenceManager persiste
       return loaded;
    }
 
+   private static MarshalledEntry awaitLoad(Future<MarshalledEntry> pendingLoad) {
+      try {
+         return pendingLoad.get();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new PersistenceException(e);
+      } catch (ExecutionException e) {
+         if (e.getCause() instanceof PersistenceException) {
+            throw (PersistenceException) e.getCause();
+         }
+         throw new PersistenceException(e.getCause());
+      }
+   }
+
    public static <K, V> InternalCacheEntry<K, V> convert(MarshalledEntry<K, V> loaded, InternalEntryFactory factory) {
       InternalMetadata metadata = loaded.getMetadata();
       if (metadata != null) {
@@ -0,0 +1,28 @@
+package org.infinispan.persistence;
+
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.filter.KeyFilter;
+
+/**
+ * Accepts the keys of the given segments which are also accepted by another filter.
+ *
+ * @since 7.2
+ */
+public class SegmentFilter<K> implements KeyFilter<K> {
+
+   private final IntSet segments;
+   private final KeyPartitioner keyPartitioner;
+   private final KeyFilter<? super K> filter;
+
+   public SegmentFilter(IntSet segments, KeyPartitioner keyPartitioner, KeyFilter<? super K> filter) {
+      this.segments = segments;
+      this.keyPartitioner = keyPartitioner;
+      this.filter = PersistenceUtil.notNull(filter);
+   }
+
+   @Override
+   public boolean accept(K key) {
+      return segments.contains(keyPartitioner.getSegment(key)) && filter.accept(key);
+   }
+}
@@ -10,6 +10,7 @@
 import org.infinispan.persistence.modifications.Remove;
 import org.infinispan.persistence.modifications.Store;
 import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.persistence.spi.BatchingCacheWriter;
 import org.infinispan.persistence.spi.CacheWriter;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.marshall.core.MarshalledEntry;
@@ -148,6 +149,10 @@ public boolean delete(Object key) {
    }
 
    protected void applyModificationsSync(List<Modification> mods) throws PersistenceException {
+      if (actual instanceof BatchingCacheWriter) {
+         applyModificationsInBatch((BatchingCacheWriter) actual, mods);
+         return;
+      }
       for (Modification m : mods) {
          switch (m.getType()) {
             case STORE:
@@ -163,6 +168,27 @@ protected void applyModificationsSync(List<Modification> mods) throws Persistenc
    }
 
 
+   @SuppressWarnings("unchecked")
+   private void applyModificationsInBatch(BatchingCacheWriter writer, List<Modification> mods) {
+      // the modifications are already coalesced, so there's at most one modification per key
+      List<MarshalledEntry> entries = new ArrayList<MarshalledEntry>(mods.size());
+      List<Object> keys = new ArrayList<Object>();
+      for (Modification m : mods) {
+         switch (m.getType()) {
+            case STORE:
+               entries.add(((Store) m).getStoredValue());
+               break;
+            case REMOVE:
+               keys.add(((Remove) m).getKey());
+               break;
+            default:
+               throw new IllegalArgumentException("Unknown modification type " + m.getType());
+         }
+      }
+      if (!keys.isEmpty()) writer.deleteBatch(keys);
+      if (!entries.isEmpty()) writer.writeBatch((Iterable) entries);
+   }
+
    State newState(boolean clear, State next) {
       ConcurrentMap<Object, Modification> map = CollectionFactory.makeConcurrentMap(64, concurrencyLevel);
       return new State(clear, map, next);
@@ -0,0 +1,83 @@
+package org.infinispan.persistence.file;
+
+import net.jcip.annotations.ThreadSafe;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.distribution.ch.KeyPartitioner;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The keys of a {@link SingleFileStore} grouped by segment, so that iterating, counting or removing the entries of some
+ * segments only goes through the keys of these segments.
+ * <p>
+ * The index is kept next to the map of the keys to their file entries: a key is added to the index after it is added to
+ * the map, and removed from the index after it is removed from the map. The index may briefly contain a key which is
+ * not in the map any more, so whoever looks up the keys of a segment has to skip the keys without a file entry.
+ *
+ * @since 7.2
+ */
+@ThreadSafe
+final class SegmentKeyIndex<K> {
+
+   private final ConcurrentMap<Integer, Set<K>> segments = CollectionFactory.makeConcurrentMap();
+   private final KeyPartitioner keyPartitioner;
+   private final Equivalence<? super K> keyEquivalence;
+
+   SegmentKeyIndex(KeyPartitioner keyPartitioner, Equivalence<? super K> keyEquivalence) {
+      this.keyPartitioner = keyPartitioner;
+      this.keyEquivalence = keyEquivalence;
+   }
+
+   void add(K key) {
+      Integer segment = keyPartitioner.getSegment(key);
+      Set<K> keys = segments.get(segment);
+      if (keys == null) {
+         Set<K> newKeys = Collections.newSetFromMap(
+               CollectionFactory.<K, Boolean>makeConcurrentMap(keyEquivalence, AnyEquivalence.BOOLEAN));
+         keys = segments.putIfAbsent(segment, newKeys);
+         if (keys == null) {
+            keys = newKeys;
+         }
+      }
+      keys.add(key);
+   }
+
+   /**
+    * Removes the key from the index, unless it was written again to {@code entries} in the meantime.
+    */
+   void remove(Object key, Map<K, ?> entries) {
+      Set<K> keys = segments.get(keyPartitioner.getSegment(key));
+      if (keys != null && keys.remove(key) && entries.containsKey(key)) {
+         // a concurrent write added the key to the map before it was removed from the index
+         keys.add((K) key);
+      }
+   }
+
+   /**
+    * @return the keys of the segment, backed by the index
+    */
+   Set<K> keys(int segment) {
+      Set<K> keys = segments.get(segment);
+      return keys != null ? keys : Collections.<K>emptySet();
+   }
+
+   /**
+    * Removes the keys of the segment from the index.
+    *
+    * @return the keys removed
+    */
+   Set<K> removeSegment(int segment) {
+      Set<K> keys = segments.remove(segment);
+      return keys != null ? keys : Collections.<K>emptySet();
+   }
+
+   void clear() {
+      segments.clear();
+   }
+}
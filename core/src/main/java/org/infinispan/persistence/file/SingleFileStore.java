@@ -6,15 +6,17 @@
 import org.infinispan.commons.equivalence.EquivalentLinkedHashMap;
 import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.commons.util.IntSet;
 import org.infinispan.configuration.cache.SingleFileStoreConfiguration;
+import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.executors.ExecutorAllCompletionService;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.PersistenceUtil;
 import org.infinispan.persistence.TaskContextImpl;
-import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore;
 import org.infinispan.util.KeyValuePair;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
@@ -35,7 +37,9 @@
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -61,14 +65,20 @@
  * source.
  * <p/>
  * This class is fully thread safe, yet allows for concurrent load / store
- * of individual cache entries.
+ * of individual cache entries. When the store is unbounded, the in-memory index is a concurrent map and loads don't
+ * acquire any lock: each file entry counts its readers, and its space is only reused once it was freed and all its
+ * readers are done.
+ * <p/>
+ * The first operation on some segments of the cache groups the keys of the in-memory index by segment, and the
+ * writes keep them grouped from then on, so that the next operations on segments only go through the keys of the
+ * requested segments. This takes another set entry in memory per key.
  *
  * @author Karsten Blees
  * @author Mircea Markus
  * @since 6.0
  */
 @ConfiguredBy(SingleFileStoreConfiguration.class)
-public class SingleFileStore<K, V> implements AdvancedLoadWriteStore<K, V> {
+public class SingleFileStore<K, V> implements SegmentedAdvancedLoadWriteStore<K, V> {
    private static final Log log = LogFactory.getLog(SingleFileStore.class);
    private static final boolean trace = log.isTraceEnabled();
 
@@ -91,6 +101,10 @@
    // Prevent clear() from truncating the file after a write() allocated the entry but before it wrote the data
    private ReadWriteLock resizeLock = new ReentrantReadWriteLock();
    private TimeService timeService;
+   private KeyPartitioner keyPartitioner;
+   // updated by the writers once created, but only used by the operations on segments once all the keys were added
+   private volatile SegmentKeyIndex<K> segmentIndex;
+   private volatile boolean segmentIndexComplete;
 
    @Override
    public void init(InitializationContext ctx) {
@@ -138,16 +152,49 @@ public void start() {
 
    private <Key> Map<Key, FileEntry> newEntryMap() {
       // only use LinkedHashMap (LRU) for entries when cache store is bounded
-      final Map<Key, FileEntry> entryMap;
       Equivalence<Object> keyEq = ctx.getCache().getCacheConfiguration().dataContainer().keyEquivalence();
-      if (configuration.maxEntries() > 0)
-         entryMap = CollectionFactory.makeLinkedMap(16, 0.75f,
+      if (isBounded()) {
+         Map<Key, FileEntry> entryMap = CollectionFactory.makeLinkedMap(16, 0.75f,
                EquivalentLinkedHashMap.IterationOrder.ACCESS_ORDER,
                keyEq, AnyEquivalence.<FileEntry>getInstance());
-      else
-         entryMap = CollectionFactory.makeMap(keyEq, AnyEquivalence.<FileEntry>getInstance());
+         return Collections.synchronizedMap(entryMap);
+      }
+      return CollectionFactory.makeConcurrentMap(keyEq, AnyEquivalence.<FileEntry>getInstance());
+   }
+
+   private boolean isBounded() {
+      return configuration.maxEntries() > 0;
+   }
+
+   /**
+    * Removes the mapping of the key only if it is still mapped to the given file entry.
+    */
+   private boolean removeEntry(Object key, FileEntry fe) {
+      boolean removed;
+      if (entries instanceof ConcurrentMap) {
+         removed = ((ConcurrentMap<K, FileEntry>) entries).remove(key, fe);
+      } else {
+         synchronized (entries) {
+            removed = entries.get(key) == fe;
+            if (removed) {
+               entries.remove(key);
+            }
+         }
+      }
+      if (removed) {
+         unindex(key);
+      }
+      return removed;
+   }
 
-      return Collections.synchronizedMap(entryMap);
+   /**
+    * Removes the key from the segment index, if any, once it was removed from the entries.
+    */
+   private void unindex(Object key) {
+      SegmentKeyIndex<K> index = segmentIndex;
+      if (index != null) {
+         index.remove(key, entries);
+      }
    }
 
    @Override
@@ -161,6 +208,8 @@ public void stop() {
             channel = null;
             entries = null;
             freeList = null;
+            segmentIndex = null;
+            segmentIndexComplete = false;
             filePos = MAGIC.length;
          }
       } catch (Exception e) {
@@ -245,11 +294,8 @@ private FileEntry allocate(int len) {
 
             // There's no race condition risk between locking the entry on
             // loading and checking whether it's locked (or store allocation),
-            // because for the entry to be lockable, it needs to be in the
-            // entries collection, in which case it's not in the free list.
-            // The only way an entry can be found in the free list is if it's
-            // been removed, and to remove it, lock on "entries" needs to be
-            // acquired, which is also a pre-requisite for loading data.
+            // because an entry is marked as freed before being added to the
+            // free list, and a freed entry can't acquire new readers.
 
             // found one, remove from freeList
             it.remove();
@@ -311,6 +357,7 @@ private void free(FileEntry fe) throws IOException {
          // Invalidate entry on disk (by setting keyLen field to 0)
          // No need to wait for readers to unlock here, the FileEntry instance is not modified,
          // and allocate() won't return an entry as long as it has a reader.
+         fe.markFreed();
          channel.write(ByteBuffer.wrap(ZERO_INT), fe.offset + KEYLEN_POS);
          if (!freeList.add(fe)) {
             throw new IllegalStateException(String.format("Trying to free an entry that was not allocated: %s", fe));
@@ -356,8 +403,12 @@ public void write(MarshalledEntry<? extends K, ? extends V> marshalledEntry) {
             oldEntry = entries.put(marshalledEntry.getKey(), newEntry);
 
             // if we added an entry, check if we need to evict something
-            if (oldEntry == null)
+            if (oldEntry == null) {
+               SegmentKeyIndex<K> index = segmentIndex;
+               if (index != null)
+                  index.add(marshalledEntry.getKey());
                oldEntry = evict();
+            }
          } finally {
             // in case we replaced or evicted an entry, add to freeList
             try {
@@ -378,14 +429,21 @@ public void write(MarshalledEntry<? extends K, ? extends V> marshalledEntry) {
     */
    private FileEntry evict() {
       if (configuration.maxEntries() > 0) {
+         K key = null;
+         FileEntry fe = null;
          synchronized (entries) {
             if (entries.size() > configuration.maxEntries()) {
-               Iterator<FileEntry> it = entries.values().iterator();
-               FileEntry fe = it.next();
+               Iterator<Map.Entry<K, FileEntry>> it = entries.entrySet().iterator();
+               Map.Entry<K, FileEntry> eldest = it.next();
+               key = eldest.getKey();
+               fe = eldest.getValue();
                it.remove();
-               return fe;
             }
          }
+         if (fe != null) {
+            unindex(key);
+            return fe;
+         }
       }
       return null;
    }
@@ -396,14 +454,20 @@ public void clear() {
       try {
          synchronized (entries) {
             synchronized (freeList) {
-               // wait until all readers are done reading file entries
-               for (FileEntry fe : entries.values())
+               // clear in-memory state
+               List<FileEntry> used = new ArrayList<FileEntry>(entries.values());
+               entries.clear();
+               SegmentKeyIndex<K> index = segmentIndex;
+               if (index != null)
+                  index.clear();
+
+               // wait until all readers are done reading file entries, and prevent new ones
+               for (FileEntry fe : used) {
+                  fe.markFreed();
                   fe.waitUnlocked();
+               }
                for (FileEntry fe : freeList)
                   fe.waitUnlocked();
-
-               // clear in-memory state
-               entries.clear();
                freeList.clear();
 
                // reset file
@@ -425,6 +489,8 @@ public boolean delete(Object key) {
       resizeLock.readLock().lock();
       try {
          FileEntry fe = entries.remove(key);
+         if (fe != null)
+            unindex(key);
          free(fe);
          return fe != null;
       } catch (Exception e) {
@@ -440,39 +506,36 @@ public MarshalledEntry<K, V> load(Object key) {
    }
 
    private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadMetadata) {
-      final FileEntry fe;
-      final boolean expired;
-      resizeLock.readLock().lock();
-      try {
-         synchronized (entries) {
-            // lookup FileEntry of the key
-            fe = entries.get(key);
-            if (fe == null)
-               return null;
-
-            expired = fe.isExpired(timeService.wallClockTime());
-            if (expired) {
-               // if expired, remove the entry (within entries monitor)
-               entries.remove(key);
-            } else {
-               // lock entry for reading before releasing entries monitor
-               fe.lock();
-            }
-         }
+      FileEntry fe;
+      do {
+         // lookup FileEntry of the key
+         fe = entries.get(key);
+         if (fe == null)
+            return null;
+         // lock entry for reading, which fails if it was replaced or removed in the meantime
+      } while (!fe.tryLock());
 
-         if (expired) {
-            // if expired, free the file entry (after releasing entries monitor)
-            try {
+      if (fe.isExpired(timeService.wallClockTime())) {
+         fe.unlock();
+         // if expired, remove and free the entry, unless a concurrent write replaced it
+         resizeLock.readLock().lock();
+         try {
+            if (removeEntry(key, fe))
                free(fe);
-            } catch (IOException e) {
-               throw new PersistenceException(e);
-            }
-            return null;
+         } catch (IOException e) {
+            throw new PersistenceException(e);
+         } finally {
+            resizeLock.readLock().unlock();
          }
-      } finally {
-         resizeLock.readLock().unlock();
+         return null;
       }
+      return readLocked(key, fe, loadValue, loadMetadata);
+   }
 
+   /**
+    * Reads the entry from the file and unlocks it. The caller must have locked the entry for reading.
+    */
+   private MarshalledEntry<K, V> readLocked(Object key, FileEntry fe, boolean loadValue, boolean loadMetadata) {
       final byte[] data;
       try {
          // load serialized data from disk
@@ -503,23 +566,20 @@ private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadM
 
    @Override
    public void process(KeyFilter<? super K> filter, final CacheLoaderTask<K, V> task, Executor executor, final boolean fetchValue, final boolean fetchMetadata) {
-      filter = PersistenceUtil.notNull(filter);
-      ArrayList<KeyValuePair<K, FileEntry>> keysToLoad = new ArrayList<>(entries.size());
-      synchronized (entries) {
-         for (Map.Entry<K, FileEntry> e : entries.entrySet()) {
-            if (filter.accept(e.getKey()))
-               keysToLoad.add(new KeyValuePair<>(e.getKey(), e.getValue()));
+      processKeys(collectKeys(PersistenceUtil.notNull(filter)), task, executor, fetchValue, fetchMetadata);
+   }
+
+   private void processKeys(List<KeyValuePair<K, FileEntry>> keysToLoad, final CacheLoaderTask<K, V> task, Executor executor,
+                            final boolean fetchValue, final boolean fetchMetadata) {
+      // read the entries in file order
+      Collections.sort(keysToLoad, new Comparator<KeyValuePair<K, FileEntry>>() {
+         @Override
+         public int compare(KeyValuePair<K, FileEntry> o1, KeyValuePair<K, FileEntry> o2) {
+            long offset1 = o1.getValue().offset;
+            long offset2 = o2.getValue().offset;
+            return offset1 < offset2 ? -1 : offset1 == offset2 ? 0 : 1;
          }
-         Collections.sort(keysToLoad, new Comparator<KeyValuePair<K, FileEntry>>() {
-            @Override
-            public int compare(KeyValuePair<K, FileEntry> o1, KeyValuePair<K, FileEntry> o2) {
-               long offset1 = o1.getValue().offset;
-               long offset2 = o2.getValue().offset;
-               return offset1 < offset2 ? -1 : offset1 == offset2 ? 0 : 1;
-            }
-         });
-         // keysToLoad values (i.e. FileEntries) must not be used past this point
-      }
+      });
 
       ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
 
@@ -529,11 +589,23 @@ public int compare(KeyValuePair<K, FileEntry> o1, KeyValuePair<K, FileEntry> o2)
             break;
 
          final K key = e.getKey();
+         final FileEntry fe = e.getValue();
          eacs.submit(new Callable<Void>() {
             @Override
             public Void call() throws Exception {
                try {
-                  final MarshalledEntry marshalledEntry = _load(key, fetchValue, fetchMetadata);
+                  final MarshalledEntry marshalledEntry;
+                  if (fe.tryLock()) {
+                     // the entry wasn't replaced since the keys were collected, avoid looking it up again
+                     if (fe.isExpired(timeService.wallClockTime())) {
+                        fe.unlock();
+                        marshalledEntry = null;
+                     } else {
+                        marshalledEntry = readLocked(key, fe, fetchValue, fetchMetadata);
+                     }
+                  } else {
+                     marshalledEntry = _load(key, fetchValue, fetchMetadata);
+                  }
                   if (marshalledEntry != null) {
                      task.processEntry(marshalledEntry, taskContext);
                   }
@@ -551,6 +623,117 @@ public Void call() throws Exception {
       }
    }
 
+   @Override
+   public void setKeyPartitioner(KeyPartitioner keyPartitioner) {
+      this.keyPartitioner = keyPartitioner;
+   }
+
+   /**
+    * Only goes through the keys of the given segments, and reads their values from the file.
+    */
+   @Override
+   public void process(IntSet segments, KeyFilter<? super K> filter, CacheLoaderTask<K, V> task, Executor executor, boolean fetchValue, boolean fetchMetadata) {
+      filter = PersistenceUtil.notNull(filter);
+      List<KeyValuePair<K, FileEntry>> keysToLoad = new ArrayList<>();
+      SegmentKeyIndex<K> index = getSegmentIndex();
+      for (int segment : segments) {
+         for (K key : index.keys(segment)) {
+            if (filter.accept(key)) {
+               // in a bounded store, this counts as an access to the entry like a load does
+               FileEntry fe = entries.get(key);
+               if (fe != null)
+                  keysToLoad.add(new KeyValuePair<>(key, fe));
+            }
+         }
+      }
+      processKeys(keysToLoad, task, executor, fetchValue, fetchMetadata);
+   }
+
+   /**
+    * Only goes through the keys of the given segments, without reading the file.
+    */
+   @Override
+   public int size(IntSet segments) {
+      SegmentKeyIndex<K> index = getSegmentIndex();
+      long now = timeService.wallClockTime();
+      int size = 0;
+      for (int segment : segments) {
+         for (K key : index.keys(segment)) {
+            FileEntry fe = entries.get(key);
+            if (fe != null && !fe.isExpired(now)) {
+               size++;
+            }
+         }
+      }
+      return size;
+   }
+
+   /**
+    * Only goes through the keys of the given segments, without reading the file, and frees the space of the removed
+    * entries.
+    */
+   @Override
+   public void removeSegments(IntSet segments) {
+      SegmentKeyIndex<K> index = getSegmentIndex();
+      resizeLock.readLock().lock();
+      try {
+         for (int segment : segments) {
+            for (K key : index.removeSegment(segment)) {
+               // the entry may have been replaced in the meantime, but it's still in a removed segment
+               FileEntry fe = entries.remove(key);
+               free(fe);
+            }
+         }
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      } finally {
+         resizeLock.readLock().unlock();
+      }
+   }
+
+   /**
+    * Groups the keys by segment on first use. The segment of the keys isn't known before the cache joins the cluster,
+    * when the store is started.
+    */
+   private SegmentKeyIndex<K> getSegmentIndex() {
+      if (!segmentIndexComplete) {
+         synchronized (this) {
+            if (!segmentIndexComplete) {
+               Equivalence<Object> keyEq = ctx.getCache().getCacheConfiguration().dataContainer().keyEquivalence();
+               SegmentKeyIndex<K> index = new SegmentKeyIndex<K>(keyPartitioner, keyEq);
+               // published before going through the keys, so that the keys written meanwhile are added by the writers
+               segmentIndex = index;
+               KeyFilter<K> allKeys = KeyFilter.ACCEPT_ALL_FILTER;
+               for (KeyValuePair<K, FileEntry> e : collectKeys(allKeys)) {
+                  index.add(e.getKey());
+               }
+               segmentIndexComplete = true;
+            }
+         }
+      }
+      return segmentIndex;
+   }
+
+   private List<KeyValuePair<K, FileEntry>> collectKeys(KeyFilter<? super K> filter) {
+      List<KeyValuePair<K, FileEntry>> keys = new ArrayList<>();
+      if (isBounded()) {
+         synchronized (entries) {
+            collectKeysToLoad(filter, keys);
+         }
+      } else {
+         // the iteration is weakly consistent, writers are not blocked
+         collectKeysToLoad(filter, keys);
+      }
+      return keys;
+   }
+
+   private void collectKeysToLoad(KeyFilter<? super K> filter, List<KeyValuePair<K, FileEntry>> keysToLoad) {
+      for (Map.Entry<K, FileEntry> e : entries.entrySet()) {
+         if (filter.accept(e.getKey()))
+            keysToLoad.add(new KeyValuePair<>(e.getKey(), e.getValue()));
+      }
+   }
+
    /**
     * Manipulates the free entries for optimizing disk space.
     */
@@ -666,12 +849,25 @@ public void purge(Executor threadPool, final PurgeListener task) {
          public void run() {
             long now = timeService.wallClockTime();
             List<KeyValuePair<Object, FileEntry>> entriesToPurge = new ArrayList<KeyValuePair<Object, FileEntry>>();
-            synchronized (entries) {
-               for (Iterator<Map.Entry<K, FileEntry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
-                  Map.Entry<K, FileEntry> next = it.next();
+            if (isBounded()) {
+               synchronized (entries) {
+                  for (Iterator<Map.Entry<K, FileEntry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+                     Map.Entry<K, FileEntry> next = it.next();
+                     FileEntry fe = next.getValue();
+                     if (fe.isExpired(now)) {
+                        it.remove();
+                        entriesToPurge.add(new KeyValuePair<Object, FileEntry>(next.getKey(), fe));
+                     }
+                  }
+               }
+               for (KeyValuePair<Object, FileEntry> e : entriesToPurge) {
+                  unindex(e.getKey());
+               }
+            } else {
+               for (Map.Entry<K, FileEntry> next : entries.entrySet()) {
                   FileEntry fe = next.getValue();
-                  if (fe.isExpired(now)) {
-                     it.remove();
+                  // skip the entries replaced or removed concurrently
+                  if (fe.isExpired(now) && removeEntry(next.getKey(), fe)) {
                      entriesToPurge.add(new KeyValuePair<Object, FileEntry>(next.getKey(), fe));
                   }
                }
@@ -771,10 +967,15 @@ private static class FileEntry implements Comparable<FileEntry> {
        */
       private final long expiryTime;
 
+      private static final AtomicIntegerFieldUpdater<FileEntry> STATE_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(FileEntry.class, "state");
+      private static final int FREED = Integer.MIN_VALUE;
+      private static final int READERS_MASK = Integer.MAX_VALUE;
+
       /**
-       * Number of current readers.
+       * Number of current readers, with the sign bit set once the entry has been freed.
        */
-      private transient int readers = 0;
+      private transient volatile int state = 0;
 
       public FileEntry(long offset, int size) {
          this(offset, size, 0, 0, 0, -1);
@@ -793,22 +994,48 @@ public FileEntry(FileEntry fe, int keyLen, int dataLen, int metadataLen, long ex
          this(fe.offset, fe.size, keyLen, dataLen, metadataLen, expiryTime);
       }
 
-      public synchronized boolean isLocked() {
-         return readers > 0;
+      public boolean isLocked() {
+         return (state & READERS_MASK) > 0;
+      }
+
+      /**
+       * Registers a reader, unless the entry has been freed.
+       *
+       * @return {@code true} if the entry was locked for reading, {@code false} if it has been freed
+       */
+      public boolean tryLock() {
+         for (;;) {
+            int current = state;
+            if ((current & FREED) != 0)
+               return false;
+            if (STATE_UPDATER.compareAndSet(this, current, current + 1))
+               return true;
+         }
       }
 
-      public synchronized void lock() {
-         readers++;
+      public void unlock() {
+         int current = STATE_UPDATER.decrementAndGet(this);
+         // only a freed entry can be waited for
+         if (current == FREED) {
+            synchronized (this) {
+               notifyAll();
+            }
+         }
       }
 
-      public synchronized void unlock() {
-         readers--;
-         if (readers == 0)
-            notifyAll();
+      /**
+       * Prevents new readers from locking the entry. The current readers can still read it until they unlock it.
+       */
+      public void markFreed() {
+         for (;;) {
+            int current = state;
+            if ((current & FREED) != 0 || STATE_UPDATER.compareAndSet(this, current, current | FREED))
+               return;
+         }
       }
 
       public synchronized void waitUnlocked() {
-         while (readers > 0) {
+         while (isLocked()) {
             try {
                wait();
             } catch (InterruptedException e) {
@@ -4,8 +4,11 @@
 import java.util.Set;
 import java.util.concurrent.Executor;
 
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.configuration.cache.StoreConfiguration;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.lifecycle.Lifecycle;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
@@ -46,6 +49,12 @@ public interface PersistenceManager extends Lifecycle {
 
    boolean deleteFromAllStores(Object key, AccessMode mode);
 
+   /**
+    * Removes the given keys from all the stores, in a single batch for the stores implementing
+    * {@link org.infinispan.persistence.spi.BatchingCacheWriter}.
+    */
+   void deleteBatchFromAllStores(Iterable<Object> keys, AccessMode mode);
+
    void processOnAllStores(KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata);
 
    void processOnAllStores(Executor executor, KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata);
@@ -54,10 +63,42 @@ public interface PersistenceManager extends Lifecycle {
 
    void processOnAllStores(Executor executor, KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode);
 
+   /**
+    * Iterates over the entries of the given segments in all the stores. The stores implementing
+    * {@link org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore} select the entries of these
+    * segments themselves, the others are wrapped in a filter which checks the segment of the keys before loading the
+    * values. Either way, only the entries of the given segments are passed to the task.
+    */
+   void processOnAllStores(IntSet segments, KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode);
+
+   /**
+    * @return the function used by the stores to map keys to segments
+    */
+   KeyPartitioner getKeyPartitioner();
+
    MarshalledEntry loadFromAllStores(Object key, InvocationContext context);
 
+   /**
+    * Starts loading the entry of the key from the stores, without blocking the invoking thread. Like
+    * {@link #loadFromAllStores(Object, InvocationContext)}, the stores are queried in order until one has the entry.
+    * The stores not implementing {@link org.infinispan.persistence.spi.NonBlockingCacheLoader} are invoked in the
+    * persistence executor.
+    * <p/>
+    * The stores queried are the ones enabled when this method is invoked: a store disabled while the load is in
+    * progress is still queried, just like with the synchronous method.
+    *
+    * @return a future completed with the entry, or with {@code null} if no store has it
+    */
+   NotifyingFuture<MarshalledEntry> loadFromAllStoresAsync(Object key, InvocationContext context);
+
    void writeToAllStores(MarshalledEntry marshalledEntry, AccessMode modes);
 
+   /**
+    * Writes the given entries to all the stores, in a single batch for the stores implementing
+    * {@link org.infinispan.persistence.spi.BatchingCacheWriter}.
+    */
+   void writeBatchToAllStores(Iterable<MarshalledEntry> entries, AccessMode mode);
+
    /**
     * Returns the store one configured with fetch persistent state, or null if none exist.
     */
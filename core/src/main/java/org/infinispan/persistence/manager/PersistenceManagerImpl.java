@@ -4,14 +4,21 @@
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.Util;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.commons.util.concurrent.FutureListener;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.EvictionConfigurationBuilder;
+import org.infinispan.eviction.EvictionType;
 import org.infinispan.configuration.cache.Index;
 import org.infinispan.configuration.cache.StoreConfiguration;
+import org.infinispan.container.DataContainer;
 import org.infinispan.container.entries.ImmortalCacheEntry;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.Flag;
+import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
@@ -22,12 +29,17 @@
 import org.infinispan.interceptors.CacheWriterInterceptor;
 import org.infinispan.interceptors.InterceptorChain;
 import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryFactory;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
 import org.infinispan.persistence.InitializationContextImpl;
+import org.infinispan.persistence.SegmentFilter;
 import org.infinispan.persistence.async.AdvancedAsyncCacheLoader;
 import org.infinispan.persistence.async.AdvancedAsyncCacheWriter;
 import org.infinispan.persistence.async.AsyncCacheLoader;
@@ -36,16 +48,21 @@
 import org.infinispan.persistence.factory.CacheStoreFactoryRegistry;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.persistence.spi.AdvancedCacheWriter;
+import org.infinispan.persistence.spi.BatchingCacheWriter;
 import org.infinispan.persistence.spi.CacheLoader;
 import org.infinispan.persistence.spi.CacheWriter;
 import org.infinispan.persistence.spi.LocalOnlyCacheLoader;
+import org.infinispan.persistence.spi.NonBlockingCacheWriter;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore;
 import org.infinispan.persistence.support.AdvancedSingletonCacheWriter;
 import org.infinispan.persistence.support.DelegatingCacheLoader;
 import org.infinispan.persistence.support.DelegatingCacheWriter;
+import org.infinispan.persistence.support.NonBlockingStoreAdapter;
 import org.infinispan.persistence.support.SingletonCacheWriter;
+import org.infinispan.statetransfer.StateTransferManager;
+import org.infinispan.topology.CacheTopology;
 import org.infinispan.util.TimeService;
-import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -53,10 +70,12 @@
 import javax.transaction.TransactionManager;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -67,6 +86,7 @@
 import static org.infinispan.factories.KnownComponentNames.PERSISTENCE_EXECUTOR;
 import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.BOTH;
 
+@MBean(objectName = "PersistenceManager", description = "Component that manages the cache loaders and writers of the cache.")
 public class PersistenceManagerImpl implements PersistenceManager {
 
    private static final Log log = LogFactory.getLog(PersistenceManagerImpl.class);
@@ -93,6 +113,10 @@ public class PersistenceManagerImpl implements PersistenceManager {
    private ByteBufferFactory byteBufferFactory;
    private MarshalledEntryFactory marshalledEntryFactory;
    private volatile boolean clearOnStop;
+   private final AtomicLong preloadedEntries = new AtomicLong();
+   private volatile boolean preloading;
+   private volatile long preloadTime = -1;
+   private final KeyPartitioner keyPartitioner = new CacheTopologyKeyPartitioner();
 
    @Inject
    public void inject(AdvancedCache<Object, Object> cache, @ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller,
@@ -218,24 +242,86 @@ public void preload() {
          return;
 
       long start = timeService.time();
-
+      preloading = true;
+      preloadedEntries.set(0);
+      preloadTime = -1;
 
       final long maxEntries = getMaxEntries();
-      final AtomicInteger loadedEntries = new AtomicInteger(0);
-      final AdvancedCache<Object, Object> flaggedCache = getCacheForStateInsertion();
-      preloadCl.process(null, new AdvancedCacheLoader.CacheLoaderTask() {
-         @Override
-         public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
-            if (loadedEntries.getAndIncrement() >= maxEntries) {
-               taskContext.stop();
-               return;
+      // the maximum is then an amount of memory, compared with the size of the container in bytes
+      final boolean boundedByMemory = configuration.eviction().strategy().isEnabled()
+            && configuration.eviction().type() == EvictionType.MEMORY;
+      final boolean direct = canPreloadDirectly();
+      final DataContainer<Object, Object> dataContainer = cache.getDataContainer();
+      final AdvancedCache<Object, Object> flaggedCache = direct ? null : getCacheForStateInsertion();
+      try {
+         // the stores process the entries in parallel when given a real executor
+         preloadCl.process(null, new AdvancedCacheLoader.CacheLoaderTask() {
+            @Override
+            public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
+               if (me.getMetadata() != null && me.getMetadata().isExpired(timeService.wallClockTime())) {
+                  return;
+               }
+               if (boundedByMemory) {
+                  if (dataContainer.evictionSize() >= maxEntries) {
+                     taskContext.stop();
+                     return;
+                  }
+                  preloadedEntries.incrementAndGet();
+               } else if (preloadedEntries.getAndIncrement() >= maxEntries) {
+                  preloadedEntries.decrementAndGet();
+                  taskContext.stop();
+                  return;
+               }
+               Metadata metadata = me.getMetadata() != null ? ((InternalMetadataImpl)me.getMetadata()).actual() : null; //the downcast will go away with ISPN-3460
+               if (direct) {
+                  dataContainer.put(me.getKey(), me.getValue(), metadata);
+               } else {
+                  preloadKey(flaggedCache, me.getKey(), me.getValue(), metadata);
+               }
             }
-            Metadata metadata = me.getMetadata() != null ? ((InternalMetadataImpl)me.getMetadata()).actual() : null; //the downcast will go away with ISPN-3460
-            preloadKey(flaggedCache, me.getKey(), me.getValue(), metadata);
-         }
-      }, new WithinThreadExecutor(), true, true);
+         }, persistenceExecutor, true, true);
+      } finally {
+         preloadTime = timeService.timeDuration(start, MILLISECONDS);
+         preloading = false;
+      }
+
+      log.debugf("Preloaded %s keys in %s", preloadedEntries, Util.prettyPrintTime(preloadTime));
+   }
 
-      log.debugf("Preloaded %s keys in %s", loadedEntries, Util.prettyPrintTime(timeService.timeDuration(start, MILLISECONDS)));
+   /**
+    * The entries can only be written to the data container directly if they don't need to be wrapped, converted,
+    * versioned, indexed or activated by the interceptors.
+    */
+   private boolean canPreloadDirectly() {
+      return !configuration.storeAsBinary().enabled() && !configuration.compatibility().enabled()
+            && !configuration.versioning().enabled() && !configuration.indexing().index().isEnabled()
+            && !configuration.persistence().passivation();
+   }
+
+   @ManagedAttribute(
+         description = "Whether the entries are currently being preloaded from the cache store",
+         displayName = "Preloading"
+   )
+   public boolean isPreloading() {
+      return preloading;
+   }
+
+   @ManagedAttribute(
+         description = "Number of entries preloaded from the cache store",
+         displayName = "Number of preloaded entries",
+         measurementType = MeasurementType.DYNAMIC
+   )
+   public long getPreloadedEntries() {
+      return preloadedEntries.get();
+   }
+
+   @ManagedAttribute(
+         description = "Time it took to preload the entries from the cache store, or -1 if the preload hasn't finished",
+         displayName = "Preload time",
+         units = Units.MILLISECONDS
+   )
+   public long getPreloadTime() {
+      return preloadTime;
    }
 
    @Override
@@ -394,6 +480,33 @@ public boolean deleteFromAllStores(Object key, AccessMode mode) {
       }
    }
 
+   @Override
+   @SuppressWarnings("unchecked")
+   public void deleteBatchFromAllStores(Iterable<Object> keys, AccessMode mode) {
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter w : writers) {
+            if (mode.canPerform(configMap.get(w))) {
+               if (w instanceof BatchingCacheWriter) {
+                  ((BatchingCacheWriter) w).deleteBatch(keys);
+               } else if (w instanceof NonBlockingCacheWriter) {
+                  List<NotifyingFuture<Boolean>> deletes = new ArrayList<>();
+                  for (Object key : keys) {
+                     deletes.add(((NonBlockingCacheWriter) w).deleteAsync(key));
+                  }
+                  awaitStoreOperation(CompletableNotifyingFuture.allOf(deletes));
+               } else {
+                  for (Object key : keys) {
+                     w.delete(key);
+                  }
+               }
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
    @Override
    public void processOnAllStores(KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task,
                                   boolean fetchValue, boolean fetchMetadata) {
@@ -425,6 +538,29 @@ public void processOnAllStores(Executor executor, KeyFilter keyFilter, AdvancedC
       }
    }
 
+   @Override
+   public void processOnAllStores(IntSet segments, KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode) {
+      storesMutex.readLock().lock();
+      try {
+         for (CacheLoader loader : loaders) {
+            if (mode.canPerform(configMap.get(loader))) {
+               if (loader instanceof SegmentedAdvancedLoadWriteStore) {
+                  ((SegmentedAdvancedLoadWriteStore) loader).process(segments, keyFilter, task, persistenceExecutor, fetchValue, fetchMetadata);
+               } else if (loader instanceof AdvancedCacheLoader) {
+                  ((AdvancedCacheLoader) loader).process(new SegmentFilter(segments, keyPartitioner, keyFilter), task, persistenceExecutor, fetchValue, fetchMetadata);
+               }
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
+   @Override
+   public KeyPartitioner getKeyPartitioner() {
+      return keyPartitioner;
+   }
+
    @Override
    public MarshalledEntry loadFromAllStores(Object key, InvocationContext context) {
       storesMutex.readLock().lock();
@@ -443,6 +579,64 @@ public MarshalledEntry loadFromAllStores(Object key, InvocationContext context)
       }
    }
 
+   @Override
+   public NotifyingFuture<MarshalledEntry> loadFromAllStoresAsync(Object key, InvocationContext context) {
+      // the loads run after the lock is released, on a snapshot of the loaders taken while holding it
+      List<CacheLoader> applicable;
+      storesMutex.readLock().lock();
+      try {
+         applicable = new ArrayList<>(loaders.size());
+         for (CacheLoader l : loaders) {
+            if (context.isOriginLocal() || !isLocalOnlyLoader(l))
+               applicable.add(l);
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+      CompletableNotifyingFuture<MarshalledEntry> result = new CompletableNotifyingFuture<>();
+      loadFromNextStore(applicable.iterator(), key, result);
+      return result;
+   }
+
+   private void loadFromNextStore(final Iterator<CacheLoader> remaining, final Object key,
+                                  final CompletableNotifyingFuture<MarshalledEntry> result) {
+      if (!remaining.hasNext()) {
+         result.complete(null);
+         return;
+      }
+      NonBlockingStoreAdapter.load(remaining.next(), key, persistenceExecutor).attachListener(new FutureListener<MarshalledEntry>() {
+         @Override
+         public void futureDone(Future<MarshalledEntry> future) {
+            try {
+               MarshalledEntry loaded = future.get();
+               if (loaded != null) {
+                  result.complete(loaded);
+               } else {
+                  loadFromNextStore(remaining, key, result);
+               }
+            } catch (ExecutionException e) {
+               result.completeExceptionally(e.getCause());
+            } catch (Throwable t) {
+               result.completeExceptionally(t);
+            }
+         }
+      });
+   }
+
+   private static <T> T awaitStoreOperation(NotifyingFuture<T> future) {
+      try {
+         return future.get();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new PersistenceException(e);
+      } catch (ExecutionException e) {
+         if (e.getCause() instanceof PersistenceException) {
+            throw (PersistenceException) e.getCause();
+         }
+         throw new PersistenceException(e.getCause());
+      }
+   }
+
    private boolean isLocalOnlyLoader(CacheLoader loader) {
       if (loader instanceof LocalOnlyCacheLoader) return true;
       if (loader instanceof DelegatingCacheLoader) {
@@ -467,6 +661,34 @@ public void writeToAllStores(MarshalledEntry marshalledEntry, AccessMode mode) {
       }
    }
 
+   @Override
+   @SuppressWarnings("unchecked")
+   public void writeBatchToAllStores(Iterable<MarshalledEntry> entries, AccessMode mode) {
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter w : writers) {
+            if (mode.canPerform(configMap.get(w))) {
+               if (w instanceof BatchingCacheWriter) {
+                  ((BatchingCacheWriter) w).writeBatch((Iterable) entries);
+               } else if (w instanceof NonBlockingCacheWriter) {
+                  // all the writes are in progress at the same time
+                  List<NotifyingFuture<Void>> writes = new ArrayList<>();
+                  for (MarshalledEntry entry : entries) {
+                     writes.add(((NonBlockingCacheWriter) w).writeAsync(entry));
+                  }
+                  awaitStoreOperation(CompletableNotifyingFuture.allOf(writes));
+               } else {
+                  for (MarshalledEntry entry : entries) {
+                     w.write(entry);
+                  }
+               }
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
    @Override
    public AdvancedCacheLoader getStateTransferProvider() {
       storesMutex.readLock().lock();
@@ -526,6 +748,9 @@ private void createLoadersAndWriters() {
          initializeLoader(processedConfiguration, loader, ctx);
          initializeWriter(processedConfiguration, writer, ctx);
          initializeBareInstance(bareInstance, ctx);
+         if (bareInstance instanceof SegmentedAdvancedLoadWriteStore) {
+            ((SegmentedAdvancedLoadWriteStore) bareInstance).setKeyPartitioner(keyPartitioner);
+         }
       }
    }
 
@@ -730,4 +955,29 @@ private void removeInterceptors(Collection<CommandInterceptor> interceptors) {
          cache.removeInterceptor(interceptor.getClass());
       }
    }
+
+   /**
+    * Maps the keys to segments using the consistent hash of the current cache topology. All the keys are in segment
+    * {@code 0} in local caches.
+    */
+   private class CacheTopologyKeyPartitioner implements KeyPartitioner {
+      private volatile StateTransferManager stateTransferManager;
+
+      @Override
+      public int getSegment(Object key) {
+         if (!configuration.clustering().cacheMode().isClustered()) {
+            return 0;
+         }
+         StateTransferManager stm = stateTransferManager;
+         if (stm == null) {
+            stm = cache.getComponentRegistry().getComponent(StateTransferManager.class);
+            stateTransferManager = stm;
+         }
+         CacheTopology cacheTopology = stm != null ? stm.getCacheTopology() : null;
+         if (cacheTopology == null) {
+            throw new IllegalStateException("The segment of a key is not known before the cache joins the cluster");
+         }
+         return cacheTopology.getWriteConsistentHash().getSegment(key);
+      }
+   }
 }
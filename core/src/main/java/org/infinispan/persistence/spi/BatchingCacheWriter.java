@@ -0,0 +1,34 @@
+package org.infinispan.persistence.spi;
+
+import net.jcip.annotations.ThreadSafe;
+import org.infinispan.marshall.core.MarshalledEntry;
+
+/**
+ * Optional extension of {@link CacheWriter} for stores which can persist or remove many entries more efficiently than
+ * one by one, e.g. in a single round trip to the external storage.
+ * <p/>
+ * The {@link org.infinispan.persistence.manager.PersistenceManager} uses these methods for the modifications of
+ * multiple keys (e.g. a put all or the commit of a transaction), and falls back to {@link #write(MarshalledEntry)} and
+ * {@link #delete(Object)} for the writers not implementing this interface. A batch never contains the same key twice.
+ *
+ * @since 7.2
+ */
+@ThreadSafe
+public interface BatchingCacheWriter<K, V> extends CacheWriter<K, V> {
+
+   /**
+    * Persists all the entries to the storage.
+    *
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    * @see #write(MarshalledEntry)
+    */
+   void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> entries);
+
+   /**
+    * Removes the entries of all the keys from the storage.
+    *
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    * @see #delete(Object)
+    */
+   void deleteBatch(Iterable<Object> keys);
+}
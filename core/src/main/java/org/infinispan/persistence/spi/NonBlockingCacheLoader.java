@@ -0,0 +1,28 @@
+package org.infinispan.persistence.spi;
+
+import net.jcip.annotations.ThreadSafe;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
+import org.infinispan.marshall.core.MarshalledEntry;
+
+/**
+ * Optional extension of {@link CacheLoader} for stores which can load entries without blocking the invoking thread,
+ * e.g. through an asynchronous network client.
+ * <p/>
+ * The {@link org.infinispan.persistence.manager.PersistenceManager} uses it when loading many keys at once, so that
+ * the loads of all the keys are in progress at the same time. The loaders not implementing this interface are
+ * adapted by invoking {@link #load(Object)} in the persistence executor.
+ *
+ * @since 7.2
+ */
+@ThreadSafe
+public interface NonBlockingCacheLoader<K, V> extends CacheLoader<K, V> {
+
+   /**
+    * Starts loading the entry of the given key, without waiting for it to be loaded.
+    *
+    * @return a future completed with the entry, with {@code null} if the key isn't in the store, or with a
+    *         {@link PersistenceException} in case of an error
+    * @see #load(Object)
+    */
+   NotifyingFuture<MarshalledEntry<K, V>> loadAsync(Object key);
+}
@@ -0,0 +1,37 @@
+package org.infinispan.persistence.spi;
+
+import net.jcip.annotations.ThreadSafe;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
+import org.infinispan.marshall.core.MarshalledEntry;
+
+/**
+ * Optional extension of {@link CacheWriter} for stores which can persist or remove entries without blocking the
+ * invoking thread, e.g. through an asynchronous network client.
+ * <p/>
+ * The {@link org.infinispan.persistence.manager.PersistenceManager} uses it for the modifications of multiple keys
+ * which the writer can't apply in a single batch, so that they are all in progress at the same time. The writers not
+ * implementing this interface are adapted by invoking {@link #write(MarshalledEntry)} and {@link #delete(Object)} in
+ * the persistence executor.
+ *
+ * @since 7.2
+ */
+@ThreadSafe
+public interface NonBlockingCacheWriter<K, V> extends CacheWriter<K, V> {
+
+   /**
+    * Starts persisting the entry, without waiting for it to be persisted.
+    *
+    * @return a future completed once the entry is persisted, or with a {@link PersistenceException} in case of an error
+    * @see #write(MarshalledEntry)
+    */
+   NotifyingFuture<Void> writeAsync(MarshalledEntry<? extends K, ? extends V> entry);
+
+   /**
+    * Starts removing the entry of the key, without waiting for it to be removed.
+    *
+    * @return a future completed with {@code true} if the entry existed, or with a {@link PersistenceException} in case
+    *         of an error
+    * @see #delete(Object)
+    */
+   NotifyingFuture<Boolean> deleteAsync(Object key);
+}
@@ -0,0 +1,56 @@
+package org.infinispan.persistence.spi;
+
+import net.jcip.annotations.ThreadSafe;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.filter.KeyFilter;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Optional extension of {@link AdvancedLoadWriteStore} for stores which can select their entries by the segments of
+ * the cache, so that the entries of a few segments can be iterated, counted or removed without loading the values of
+ * the other segments. It is used e.g. by state transfer, when only some segments move to or away from a node.
+ * <p/>
+ * The cost of each operation depends on the implementation: a store which partitions its data by segment, like
+ * {@link org.infinispan.persistence.file.SingleFileStore} which groups the keys of its in-memory index by segment,
+ * makes these operations proportional to the size of the requested segments, while a store which only filters its
+ * keys by segment still goes through all of them.
+ * <p/>
+ * The {@link org.infinispan.persistence.manager.PersistenceManager} invokes {@link #setKeyPartitioner(KeyPartitioner)}
+ * before starting the store.
+ *
+ * @since 7.2
+ */
+@ThreadSafe
+public interface SegmentedAdvancedLoadWriteStore<K, V> extends AdvancedLoadWriteStore<K, V> {
+
+   /**
+    * Sets the function which maps the keys to segments. Only invoked once, before {@link #start()}.
+    */
+   void setKeyPartitioner(KeyPartitioner keyPartitioner);
+
+   /**
+    * Same as {@link #process(KeyFilter, CacheLoaderTask, Executor, boolean, boolean)}, but only the entries of the
+    * given segments are passed to the task.
+    *
+    * @param segments the segments to iterate over
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    */
+   void process(IntSet segments, KeyFilter<? super K> filter, CacheLoaderTask<K, V> task, Executor executor,
+                boolean fetchValue, boolean fetchMetadata);
+
+   /**
+    * Returns the number of entries of the given segments.
+    *
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    */
+   int size(IntSet segments);
+
+   /**
+    * Removes all the entries of the given segments, e.g. because the node doesn't own them any more.
+    *
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    */
+   void removeSegments(IntSet segments);
+}
@@ -0,0 +1,65 @@
+package org.infinispan.persistence.support;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.spi.CacheLoader;
+import org.infinispan.persistence.spi.NonBlockingCacheLoader;
+
+/**
+ * Loads from any {@link CacheLoader} without blocking the invoking thread.
+ * <p/>
+ * The loaders implementing {@link NonBlockingCacheLoader} are invoked directly, the others are invoked in the given
+ * executor. If the executor rejects a load, it is invoked in the calling thread.
+ *
+ * @since 7.2
+ */
+public final class NonBlockingStoreAdapter {
+
+   private NonBlockingStoreAdapter() {
+   }
+
+   @SuppressWarnings("unchecked")
+   public static NotifyingFuture<MarshalledEntry> load(final CacheLoader loader, final Object key, Executor executor) {
+      if (loader instanceof NonBlockingCacheLoader) {
+         return ((NonBlockingCacheLoader) loader).loadAsync(key);
+      }
+      return submit(executor, new Operation<MarshalledEntry>() {
+         @Override
+         MarshalledEntry invoke() {
+            return loader.load(key);
+         }
+      });
+   }
+
+   private static <T> NotifyingFuture<T> submit(Executor executor, final Operation<T> operation) {
+      final CompletableNotifyingFuture<T> future = new CompletableNotifyingFuture<T>();
+      try {
+         executor.execute(new Runnable() {
+            @Override
+            public void run() {
+               operation.run(future);
+            }
+         });
+      } catch (RejectedExecutionException e) {
+         operation.run(future);
+      }
+      return future;
+   }
+
+   private abstract static class Operation<T> {
+      abstract T invoke();
+
+      final CompletableNotifyingFuture<T> run(CompletableNotifyingFuture<T> future) {
+         try {
+            future.complete(invoke());
+         } catch (Throwable t) {
+            future.completeExceptionally(t);
+         }
+         return future;
+      }
+   }
+}
@@ -644,6 +644,12 @@ public CacheEntry getCacheEntry(K key) {
       return delegate.getCacheEntry(key);
    }
 
+   @Override
+   public Map<K, V> getAll(Set<?> keys) {
+      authzManager.checkPermission(AuthorizationPermission.READ);
+      return delegate.getAll(keys);
+   }
+
    @Override
    public EntryIterable<K, V> filterEntries(KeyValueFilter<? super K, ? super V> filter) {
       authzManager.checkPermission(AuthorizationPermission.BULK_READ);
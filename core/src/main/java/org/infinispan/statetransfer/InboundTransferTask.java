@@ -2,6 +2,8 @@
 
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.SmallIntSet;
 import org.infinispan.remoting.inboundhandler.DeliverOrder;
 import org.infinispan.remoting.responses.Response;
 import org.infinispan.remoting.responses.SuccessfulResponse;
@@ -13,7 +15,6 @@
 import org.infinispan.util.logging.LogFactory;
 
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
@@ -36,12 +37,12 @@ public class InboundTransferTask {
    /**
     * All access to fields {@code segments} and {@code finishedSegments} must bead done while synchronizing on {@code segments}.
     */
-   private final Set<Integer> segments = new HashSet<>();
+   private final IntSet segments = new SmallIntSet();
 
    /**
     * All access to fields {@code segments} and {@code finishedSegments} must bead done while synchronizing on {@code segments}.
     */
-   private final Set<Integer> finishedSegments = new HashSet<>();
+   private final IntSet finishedSegments = new SmallIntSet();
 
    private final Address source;
 
@@ -106,13 +107,13 @@ public InboundTransferTask(Set<Integer> segments, Address source, int topologyId
 
    public Set<Integer> getSegments() {
       synchronized (segments) {
-         return new HashSet<>(segments);
+         return new SmallIntSet(segments);
       }
    }
 
    public Set<Integer> getUnfinishedSegments() {
       synchronized (segments) {
-         Set<Integer> unfinishedSegments = new HashSet<>(segments);
+         Set<Integer> unfinishedSegments = new SmallIntSet(segments);
          unfinishedSegments.removeAll(finishedSegments);
          return unfinishedSegments;
       }
@@ -4,13 +4,18 @@
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.commons.util.InfinispanCollections;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.IntSets;
+import org.infinispan.commons.util.SmallIntSet;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.InternalEntryFactory;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.filter.CollectionKeyFilter;
+import org.infinispan.persistence.SegmentFilter;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.remoting.rpc.ResponseMode;
 import org.infinispan.remoting.rpc.RpcManager;
@@ -23,7 +28,6 @@
 import org.infinispan.util.logging.LogFactory;
 
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
@@ -48,7 +52,11 @@ public class OutboundTransferTask implements Runnable {
 
    private final Address destination;
 
-   private final Set<Integer> segments = new CopyOnWriteArraySet<Integer>();
+   /**
+    * The segments still to be sent. The set is immutable and replaced when segments are cancelled, so that the
+    * lookups done for every entry don't need any synchronization.
+    */
+   private volatile IntSet segments;
 
    private final int stateTransferChunkSize;
 
@@ -97,7 +105,7 @@ public OutboundTransferTask(Address destination, Set<Integer> segments, int stat
       }
       this.stateProvider = stateProvider;
       this.destination = destination;
-      this.segments.addAll(segments);
+      this.segments = IntSets.immutableSet(new SmallIntSet(segments));
       this.stateTransferChunkSize = stateTransferChunkSize;
       this.topologyId = topologyId;
       this.readCh = readCh;
@@ -130,7 +138,7 @@ public Address getDestination() {
       return destination;
    }
 
-   public Set<Integer> getSegments() {
+   public IntSet getSegments() {
       return segments;
    }
 
@@ -168,7 +176,13 @@ public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext tas
                         }
                      }
                   };
-               stProvider.process(filter, task, new WithinThreadExecutor(), true, true);
+               if (stProvider instanceof SegmentedAdvancedLoadWriteStore) {
+                  ((SegmentedAdvancedLoadWriteStore) stProvider).process(segments, filter, task, new WithinThreadExecutor(), true, true);
+               } else {
+                  // skip the values of the other segments
+                  stProvider.process(new SegmentFilter(segments, persistenceManager.getKeyPartitioner(), filter), task,
+                                     new WithinThreadExecutor(), true, true);
+               }
             } catch (CacheException e) {
                log.failedLoadingKeysFromCacheStore(e);
             }
@@ -256,15 +270,21 @@ private void sendEntries(boolean isLast) {
     * @param cancelledSegments segments to cancel.
     */
    public void cancelSegments(Set<Integer> cancelledSegments) {
-      if (segments.removeAll(cancelledSegments)) {
-         if (trace) {
-            log.tracef("Cancelling outbound transfer of segments %s of cache %s to node %s (remaining segments %s)",
-                  cancelledSegments, cacheName, destination, segments);
-         }
-         entriesBySegment.keySet().removeAll(cancelledSegments);  // here we do not update accumulatedEntries but this inaccuracy does not cause any harm
-         if (segments.isEmpty()) {
-            cancel();
+      IntSet remainingSegments;
+      synchronized (this) {
+         remainingSegments = new SmallIntSet(segments);
+         if (!remainingSegments.removeAll(cancelledSegments)) {
+            return;
          }
+         segments = IntSets.immutableSet(remainingSegments);
+      }
+      if (trace) {
+         log.tracef("Cancelling outbound transfer of segments %s of cache %s to node %s (remaining segments %s)",
+               cancelledSegments, cacheName, destination, remainingSegments);
+      }
+      entriesBySegment.keySet().removeAll(cancelledSegments);  // here we do not update accumulatedEntries but this inaccuracy does not cause any harm
+      if (remainingSegments.isEmpty()) {
+         cancel();
       }
    }
 
@@ -8,6 +8,9 @@
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.util.InfinispanCollections;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.IntSets;
+import org.infinispan.commons.util.SmallIntSet;
 import org.infinispan.commons.util.concurrent.ParallelIterableMap;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.DataContainer;
@@ -291,7 +294,7 @@ public void onTopologyUpdate(final CacheTopology cacheTopology, final boolean is
             Set<Integer> addedSegments;
             if (previousWriteCh == null) {
                // we start fresh, without any data, so we need to pull everything we own according to writeCh
-               addedSegments = getOwnedSegments(newWriteCh);
+               addedSegments = new SmallIntSet(getOwnedSegments(newWriteCh));
 
                // TODO Perhaps we should only do this once we are a member, as listener installation should happen only on cache members?
                if (configuration.clustering().cacheMode().isDistributed()) {
@@ -310,15 +313,16 @@ public void onTopologyUpdate(final CacheTopology cacheTopology, final boolean is
                   log.tracef("On cache %s we have: added segments: %s", cacheName, addedSegments);
                }
             } else {
-               Set<Integer> previousSegments = getOwnedSegments(previousWriteCh);
-               Set<Integer> newSegments = getOwnedSegments(newWriteCh);
+               IntSet previousSegments = getOwnedSegments(previousWriteCh);
+               IntSet newSegments = getOwnedSegments(newWriteCh);
 
-               Set<Integer> removedSegments = new HashSet<Integer>(previousSegments);
+               IntSet removedSegments = new SmallIntSet(previousSegments);
                removedSegments.removeAll(newSegments);
 
                // This is a rebalance, we need to request the segments we own in the new CH.
-               addedSegments = new HashSet<Integer>(newSegments);
-               addedSegments.removeAll(previousSegments);
+               IntSet segmentsToAdd = new SmallIntSet(newSegments);
+               segmentsToAdd.removeAll(previousSegments);
+               addedSegments = segmentsToAdd;
 
                if (trace) {
                   log.tracef("On cache %s we have: new segments: %s; old segments: %s; removed segments: %s; added segments: %s",
@@ -383,15 +387,11 @@ public void onTopologyUpdate(final CacheTopology cacheTopology, final boolean is
          // We need to discard data from all segments we don't own, not just those we previously owned,
          // when we lose membership (e.g. because there was a merge, the local partition was in degraded mode
          // and the other partition was available) or when L1 is enabled.
-         Set<Integer> removedSegments;
+         IntSet removedSegments;
          boolean wasMember = previousWriteCh != null ? previousWriteCh.getMembers().contains(rpcManager.getAddress()) : false;
          if (isMember || (!isMember && wasMember)) {
-            removedSegments = new HashSet<>(newWriteCh.getNumSegments());
-            for (int i = 0; i < newWriteCh.getNumSegments(); i++) {
-               removedSegments.add(i);
-            }
-            Set<Integer> newSegments = getOwnedSegments(newWriteCh);
-            removedSegments.removeAll(newSegments);
+            removedSegments = SmallIntSet.range(newWriteCh.getNumSegments());
+            removedSegments.removeAll(getOwnedSegments(newWriteCh));
 
             try {
                removeStaleData(removedSegments);
@@ -435,10 +435,10 @@ private void notifyEndOfRebalanceIfNeeded(int topologyId, int rebalanceId) {
       }
    }
 
-   private Set<Integer> getOwnedSegments(ConsistentHash consistentHash) {
+   private IntSet getOwnedSegments(ConsistentHash consistentHash) {
       Address address = rpcManager.getAddress();
       return consistentHash.getMembers().contains(address) ? consistentHash.getSegmentsForOwner(address)
-            : InfinispanCollections.<Integer>emptySet();
+            : IntSets.emptySet();
    }
 
    public void applyState(final Address sender, int topologyId, Collection<StateChunk> stateChunks) {
@@ -468,7 +468,7 @@ public void applyState(final Address sender, int topologyId, Collection<StateChu
       if (trace) {
          log.tracef("Before applying the received state the data container of cache %s has %d keys", cacheName, dataContainer.size());
       }
-      final Set<Integer> mySegments = wCh.getSegmentsForOwner(rpcManager.getAddress());
+      final IntSet mySegments = wCh.getSegmentsForOwner(rpcManager.getAddress());
       final CountDownLatch countDownLatch = new CountDownLatch(stateChunks.size());
       for (final StateChunk stateChunk : stateChunks) {
          executorService.submit(new Callable<Void>() {
@@ -495,7 +495,7 @@ public Void call() throws Exception {
       }
    }
 
-   private void applyChunk(Address sender, Set<Integer> mySegments, StateChunk stateChunk) {
+   private void applyChunk(Address sender, IntSet mySegments, StateChunk stateChunk) {
       if (!mySegments.contains(stateChunk.getSegmentId())) {
          log.warnf("Discarding received cache entries for segment %d of cache %s because they do not belong to this node.", stateChunk.getSegmentId(), cacheName);
          return;
@@ -668,7 +668,7 @@ private void findSources(Set<Integer> segments, Map<Address, Set<Integer>> sourc
          if (source != null) {
             Set<Integer> segmentsFromSource = sources.get(source);
             if (segmentsFromSource == null) {
-               segmentsFromSource = new HashSet<Integer>();
+               segmentsFromSource = new SmallIntSet();
                sources.put(source, segmentsFromSource);
             }
             segmentsFromSource.add(segmentId);
@@ -698,7 +698,7 @@ private void requestTransactions(Set<Integer> segments, Map<Address, Set<Integer
 
       boolean seenFailures = false;
       while (true) {
-         Set<Integer> failedSegments = new HashSet<Integer>();
+         Set<Integer> failedSegments = new SmallIntSet();
          int topologyId = cacheTopology.getTopologyId();
          for (Map.Entry<Address, Set<Integer>> sourceEntry : sources.entrySet()) {
             Address source = sourceEntry.getKey();
@@ -859,7 +859,7 @@ private void retryTransferTask(InboundTransferTask task, Set<Address> excludedSo
       // look for other sources for the failed segments and replace all failed tasks with new tasks to be retried
       // remove+add needs to be atomic
       synchronized (transferMapsLock) {
-         Set<Integer> failedSegments = new HashSet<Integer>();
+         Set<Integer> failedSegments = new SmallIntSet();
          if (removeTransfer(task)) {
             excludedSources.add(task.getSource());
             failedSegments.addAll(task.getSegments());
@@ -888,7 +888,7 @@ private void cancelTransfers(Set<Integer> removedSegments) {
             int segmentId = segmentsToCancel.remove(0);
             InboundTransferTask inboundTransfer = transfersBySegment.get(segmentId);
             if (inboundTransfer != null) { // we need to check the transfer was not already completed
-               Set<Integer> cancelledSegments = new HashSet<Integer>(removedSegments);
+               Set<Integer> cancelledSegments = new SmallIntSet(removedSegments);
                cancelledSegments.retainAll(inboundTransfer.getSegments());
                segmentsToCancel.removeAll(cancelledSegments);
                transfersBySegment.keySet().removeAll(cancelledSegments);
@@ -899,7 +899,7 @@ private void cancelTransfers(Set<Integer> removedSegments) {
       }
    }
 
-   private void removeStaleData(final Set<Integer> removedSegments) throws InterruptedException {
+   private void removeStaleData(final IntSet removedSegments) throws InterruptedException {
       if (keyInvalidationListener != null) {
          keyInvalidationListener.beforeInvalidation(removedSegments, InfinispanCollections.<Integer>emptySet());
       }
@@ -926,16 +926,15 @@ public void apply(Object o, InternalCacheEntry<Object, Object> ice) {
       // gather all keys from cache store that belong to the segments that are being removed/moved to L1
       if (!removedSegments.isEmpty()) {
          try {
+            // the segmented stores only go through the keys of the removed segments, and the keys are removed by the
+            // invalidation below like the keys of the other stores, so that the listeners are notified
             KeyFilter filter = new KeyFilter() {
                @Override
                public boolean accept(Object key) {
-                  if (dataContainer.containsKey(key))
-                     return false;
-                  int keySegment = getSegment(key);
-                  return (removedSegments.contains(keySegment));
+                  return !dataContainer.containsKey(key);
                }
             };
-            persistenceManager.processOnAllStores(filter, new AdvancedCacheLoader.CacheLoaderTask() {
+            persistenceManager.processOnAllStores(removedSegments, filter, new AdvancedCacheLoader.CacheLoaderTask() {
                @Override
                public void processEntry(MarshalledEntry marshalledEntry, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
                   keysToRemove.add(marshalledEntry.getKey());
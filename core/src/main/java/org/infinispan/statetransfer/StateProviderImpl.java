@@ -3,6 +3,8 @@
 import org.infinispan.Cache;
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.SmallIntSet;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.InternalEntryFactory;
@@ -160,17 +162,19 @@ public List<TransactionInfo> getTransactionsForSegments(Address destination, int
       final CacheTopology cacheTopology = getCacheTopology(requestTopologyId, destination, true);
       final ConsistentHash readCh = cacheTopology.getReadConsistentHash();
 
-      Set<Integer> ownedSegments = readCh.getSegmentsForOwner(rpcManager.getAddress());
-      if (!ownedSegments.containsAll(segments)) {
-         segments.removeAll(ownedSegments);
-         throw new IllegalArgumentException("Segments " + segments + " are not owned by " + rpcManager.getAddress());
+      IntSet ownedSegments = readCh.getSegmentsForOwner(rpcManager.getAddress());
+      IntSet requestedSegments = segments instanceof IntSet ? (IntSet) segments : new SmallIntSet(segments);
+      if (!ownedSegments.containsAll(requestedSegments)) {
+         requestedSegments = new SmallIntSet(requestedSegments);
+         requestedSegments.removeAll(ownedSegments);
+         throw new IllegalArgumentException("Segments " + requestedSegments + " are not owned by " + rpcManager.getAddress());
       }
 
       List<TransactionInfo> transactions = new ArrayList<TransactionInfo>();
       //we migrate locks only if the cache is transactional and distributed
       if (configuration.transaction().transactionMode().isTransactional()) {
-         collectTransactionsToTransfer(destination, transactions, transactionTable.getRemoteTransactions(), segments, cacheTopology);
-         collectTransactionsToTransfer(destination, transactions, transactionTable.getLocalTransactions(), segments, cacheTopology);
+         collectTransactionsToTransfer(destination, transactions, transactionTable.getRemoteTransactions(), requestedSegments, cacheTopology);
+         collectTransactionsToTransfer(destination, transactions, transactionTable.getLocalTransactions(), requestedSegments, cacheTopology);
          if (trace) {
             log.tracef("Found %d transaction(s) to transfer", transactions.size());
          }
@@ -208,7 +212,7 @@ private CacheTopology getCacheTopology(int requestTopologyId, Address destinatio
    private void collectTransactionsToTransfer(Address destination,
                                               List<TransactionInfo> transactionsToTransfer,
                                               Collection<? extends CacheTransaction> transactions,
-                                              Set<Integer> segments, CacheTopology cacheTopology) {
+                                              IntSet segments, CacheTopology cacheTopology) {
       int topologyId = cacheTopology.getTopologyId();
       List<Address> members = cacheTopology.getMembers();
       ConsistentHash readCh = cacheTopology.getReadConsistentHash();
@@ -8,6 +8,8 @@
 import org.infinispan.commons.CacheListenerException;
 import org.infinispan.commons.marshall.AdvancedExternalizer;
 import org.infinispan.commons.util.TypedProperties;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.eviction.EvictionType;
 import org.infinispan.jmx.JmxDomainConflictException;
 import org.infinispan.lifecycle.ComponentStatus;
 import org.infinispan.partitionhandling.AvailabilityException;
@@ -1302,4 +1304,20 @@ void asyncStoreShutdownTimeoutTooHigh(long configuredAsyncStopTimeout,
 
    @Message(value = "Maximum data container size is currently 2^48 - 1, the number provided was %s", id = 356)
    CacheConfigurationException evictionSizeTooLarge(long value);
+
+   @Message(value = "Keys '%s' are not available. Not all owners are in this partition", id = 357)
+   AvailabilityException degradedModeKeysUnavailable(Collection<?> keys);
+
+   @Message(value = "Eviction type %s is not supported with eviction strategy %s, use LRU instead", id = 358)
+   CacheConfigurationException evictionTypeNotSupportedWithStrategy(EvictionType type, EvictionStrategy strategy);
+
+   @Message(value = "Async batching can only be used with asynchronous backup strategy.", id = 359)
+   CacheConfigurationException asyncBatchingSyncBackup();
+
+   @LogMessage(level = WARN)
+   @Message(value = "Failed to send a batch of %d modifications of cache %s to site %s", id = 360)
+   void failedSendingXSiteBatch(int size, String cacheName, String siteName, @Cause Throwable cause);
+
+   @Message(value = "The data container parallelism must be at least 1, but it was %d", id = 361)
+   CacheConfigurationException invalidDataContainerParallelism(int parallelism);
 }
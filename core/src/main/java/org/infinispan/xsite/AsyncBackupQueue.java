@@ -0,0 +1,315 @@
+package org.infinispan.xsite;
+
+import net.jcip.annotations.ThreadSafe;
+
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.DataWriteCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commands.write.PutMapCommand;
+import org.infinispan.commands.write.RemoveCommand;
+import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.equivalence.EquivalentLinkedHashMap;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.configuration.cache.XSiteAsyncBatchingConfiguration;
+import org.infinispan.remoting.transport.BackupResponse;
+import org.infinispan.remoting.transport.Transport;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Queues the modifications backed up asynchronously to a single site and sends them in batches.
+ * <p/>
+ * Only the last modification of each key is kept in the queue, a clear discards all the modifications queued before
+ * it and a put all is split into one put per key. A batch is sent when the queue reaches the configured maximum size or
+ * when its oldest modification has waited for the configured maximum delay, whichever comes first. Modifications
+ * which can't be coalesced (e.g. deltas) flush the queue and are sent on their own.
+ * <p/>
+ * The batches are sent by the queue's own threads, which wait for the site to acknowledge them, except for the
+ * modifications which can't be coalesced, sent by the thread writing them. Batches that can't be delivered count as
+ * communication failures towards taking the site offline, like the failures of the unbatched backups. The batches of a
+ * site which is offline are discarded.
+ *
+ * @since 7.2
+ */
+@ThreadSafe
+public class AsyncBackupQueue {
+
+   private static final Log log = LogFactory.getLog(AsyncBackupQueue.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final XSiteBackup backup;
+   private final OfflineStatus offlineStatus;
+   private final String cacheName;
+   private final XSiteAsyncBatchingConfiguration configuration;
+   private final Equivalence<Object> keyEquivalence;
+   private final Transport transport;
+   private final CommandsFactory commandsFactory;
+   private final StreamingMarshaller marshaller;
+   private final ScheduledExecutorService executor;
+   private final TimeService timeService;
+   private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+   // makes sure the batches are sent in order
+   private final Object sendLock = new Object();
+
+   // guarded by this
+   private Map<Object, WriteCommand> queue;
+   private WriteCommand queuedClear;
+   private long oldestQueuedNanos;
+   private long coalesced;
+
+   // only updated while holding sendLock
+   private volatile long batchesSent;
+   private volatile long modificationsSent;
+   private volatile int lastBatchSize;
+   private volatile long lastReplicationLagMillis;
+
+   private volatile ScheduledFuture<?> scheduledFuture;
+
+   public AsyncBackupQueue(XSiteBackup backup, OfflineStatus offlineStatus, String cacheName,
+                           XSiteAsyncBatchingConfiguration configuration,
+                           Equivalence<Object> keyEquivalence, Transport transport, CommandsFactory commandsFactory,
+                           StreamingMarshaller marshaller, ScheduledExecutorService executor, TimeService timeService) {
+      this.backup = backup;
+      this.offlineStatus = offlineStatus;
+      this.cacheName = cacheName;
+      this.configuration = configuration;
+      this.keyEquivalence = keyEquivalence;
+      this.transport = transport;
+      this.commandsFactory = commandsFactory;
+      this.marshaller = marshaller;
+      this.executor = executor;
+      this.timeService = timeService;
+      this.queue = newQueue();
+   }
+
+   public void start() {
+      long delay = configuration.maxDelay();
+      scheduledFuture = executor.scheduleWithFixedDelay(new Runnable() {
+         @Override
+         public void run() {
+            LogFactory.pushNDC(cacheName, trace);
+            try {
+               flush();
+            } finally {
+               LogFactory.popNDC(trace);
+            }
+         }
+      }, delay, delay, TimeUnit.MILLISECONDS);
+   }
+
+   public void stop() {
+      if (scheduledFuture != null) scheduledFuture.cancel(false);
+      try {
+         flush();
+      } catch (Exception e) {
+         log.debug("Unable to perform final flush before shutting down", e);
+      }
+   }
+
+   /**
+    * Adds a successful, unconditional modification to the queue.
+    */
+   public void add(WriteCommand command) {
+      if (command instanceof PutMapCommand) {
+         PutMapCommand putMap = (PutMapCommand) command;
+         List<WriteCommand> puts = new ArrayList<WriteCommand>(putMap.getMap().size());
+         for (Map.Entry<Object, Object> entry : putMap.getMap().entrySet()) {
+            puts.add(commandsFactory.buildPutKeyValueCommand(entry.getKey(), entry.getValue(), putMap.getMetadata(),
+                                                             putMap.getFlags()));
+         }
+         enqueue(puts);
+      } else if (command instanceof PutKeyValueCommand || command instanceof RemoveCommand
+            || command instanceof ClearCommand) {
+         enqueue(Collections.singletonList(command));
+      } else {
+         // can't be coalesced with the queued modifications, so they must reach the site first
+         synchronized (sendLock) {
+            flush();
+            sendBatch(new WriteCommand[]{command}, timeService.time());
+         }
+      }
+   }
+
+   private void enqueue(List<WriteCommand> commands) {
+      boolean full;
+      synchronized (this) {
+         if (queueSize() == 0) {
+            oldestQueuedNanos = timeService.time();
+         }
+         for (WriteCommand command : commands) {
+            if (command instanceof ClearCommand) {
+               coalesced += queueSize();
+               queue.clear();
+               queuedClear = command;
+            } else {
+               if (queue.put(((DataWriteCommand) command).getKey(), command) != null) {
+                  coalesced++;
+               }
+            }
+         }
+         full = queueSize() >= configuration.maxBatchSize();
+      }
+      if (full && flushScheduled.compareAndSet(false, true)) {
+         executor.execute(new Runnable() {
+            @Override
+            public void run() {
+               flushScheduled.set(false);
+               flush();
+            }
+         });
+      }
+   }
+
+   /**
+    * Sends the queued modifications, in batches of at most the configured maximum size.
+    */
+   public void flush() {
+      synchronized (sendLock) {
+         WriteCommand[] modifications;
+         long oldest;
+         synchronized (this) {
+            int size = queueSize();
+            if (size == 0) {
+               return;
+            }
+            modifications = new WriteCommand[size];
+            int i = 0;
+            if (queuedClear != null) {
+               modifications[i++] = queuedClear;
+            }
+            for (WriteCommand command : queue.values()) {
+               modifications[i++] = command;
+            }
+            oldest = oldestQueuedNanos;
+            queue = newQueue();
+            queuedClear = null;
+         }
+         int maxBatchSize = configuration.maxBatchSize();
+         for (int from = 0; from < modifications.length; from += maxBatchSize) {
+            int to = Math.min(modifications.length, from + maxBatchSize);
+            WriteCommand[] batch = modifications;
+            if (from != 0 || to != modifications.length) {
+               batch = new WriteCommand[to - from];
+               System.arraycopy(modifications, from, batch, 0, batch.length);
+            }
+            sendBatch(batch, oldest);
+         }
+      }
+   }
+
+   private void sendBatch(WriteCommand[] batch, long oldestQueuedNanos) {
+      synchronized (sendLock) {
+         String site = backup.getSiteName();
+         if (offlineStatus.isOffline()) {
+            log.tracef("The site '%s' is offline, discarding a batch of %d modifications", site, batch.length);
+            return;
+         }
+         long sendTimeMillis = TimeUnit.NANOSECONDS.toMillis(timeService.time());
+         boolean communicationFailure;
+         try {
+            BatchXSiteRpcCommand command = configuration.compression() ?
+                  BatchXSiteRpcCommand.compressed(cacheName, batch, marshaller) :
+                  commandsFactory.buildBatchXSiteRpcCommand(batch);
+            if (trace) log.tracef("Sending %s to site %s", command, site);
+            BackupResponse response = transport.backupRemotely(Collections.singletonList(backup), command);
+            response.waitForBackupToFinish();
+            sendTimeMillis = response.getSendTimeMillis();
+            communicationFailure = response.getCommunicationErrors().contains(site);
+            Throwable failure = response.getFailedBackups().get(site);
+            if (failure != null) {
+               log.failedSendingXSiteBatch(batch.length, cacheName, site, failure);
+            }
+         } catch (Throwable t) {
+            communicationFailure = true;
+            log.failedSendingXSiteBatch(batch.length, cacheName, site, t);
+         }
+         updateOfflineStatus(communicationFailure, sendTimeMillis);
+         batchesSent++;
+         modificationsSent += batch.length;
+         lastBatchSize = batch.length;
+         lastReplicationLagMillis = timeService.timeDuration(oldestQueuedNanos, TimeUnit.MILLISECONDS);
+      }
+   }
+
+   private void updateOfflineStatus(boolean communicationFailure, long sendTimeMillis) {
+      if (!offlineStatus.isEnabled()) {
+         return;
+      }
+      if (communicationFailure) {
+         offlineStatus.updateOnCommunicationFailure(sendTimeMillis);
+         log.tracef("OfflineStatus updated %s", offlineStatus);
+      } else if (!offlineStatus.isOffline()) {
+         offlineStatus.reset();
+      }
+   }
+
+   private Map<Object, WriteCommand> newQueue() {
+      return CollectionFactory.makeLinkedMap(16, 0.75f, EquivalentLinkedHashMap.IterationOrder.INSERT_ORDER,
+                                             keyEquivalence, AnyEquivalence.<WriteCommand>getInstance());
+   }
+
+   private int queueSize() {
+      return queue.size() + (queuedClear != null ? 1 : 0);
+   }
+
+   public XSiteBackup getBackup() {
+      return backup;
+   }
+
+   /**
+    * @return the number of modifications waiting to be sent.
+    */
+   public synchronized int getQueueSize() {
+      return queueSize();
+   }
+
+   /**
+    * @return the number of modifications which were not sent because a later modification of the same key replaced
+    * them.
+    */
+   public synchronized long getCoalescedCount() {
+      return coalesced;
+   }
+
+   public long getBatchesSent() {
+      return batchesSent;
+   }
+
+   public double getAverageBatchSize() {
+      long batches = batchesSent;
+      return batches == 0 ? 0 : (double) modificationsSent / batches;
+   }
+
+   public int getLastBatchSize() {
+      return lastBatchSize;
+   }
+
+   /**
+    * @return the time (in milliseconds) the oldest modification of the last batch waited before being sent.
+    */
+   public long getReplicationLag() {
+      return lastReplicationLagMillis;
+   }
+
+   @Override
+   public String toString() {
+      return "AsyncBackupQueue{" +
+            "site=" + backup.getSiteName() +
+            ", queueSize=" + getQueueSize() +
+            '}';
+   }
+}
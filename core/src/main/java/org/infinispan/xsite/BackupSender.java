@@ -41,6 +41,12 @@ public interface BackupSender {
 
    OfflineStatus getOfflineStatus(String siteName);
 
+   /**
+    * @return the queue batching the modifications backed up to the given site, or {@code null} if the site isn't
+    * backed up asynchronously in batches.
+    */
+   AsyncBackupQueue getAsyncBackupQueue(String siteName);
+
    /**
     * Returns a Map having as entries the site names and as value Boolean.TRUE if the site is online and Boolean.FALSE
     * if it is offline.
@@ -13,6 +13,7 @@
 import org.infinispan.commands.write.RemoveCommand;
 import org.infinispan.commands.write.ReplaceCommand;
 import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.cache.BackupConfiguration;
@@ -22,8 +23,11 @@
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.impl.TxInvocationContext;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
 import org.infinispan.remoting.transport.AggregateBackupResponse;
 import org.infinispan.remoting.transport.BackupResponse;
 import org.infinispan.remoting.transport.Transport;
@@ -44,6 +48,7 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * @author Mircea Markus
@@ -60,8 +65,11 @@ public class BackupSenderImpl implements BackupSender {
    private TransactionTable txTable;
    private TimeService timeService;
    private CommandsFactory commandsFactory;
+   private ScheduledExecutorService asyncBackupExecutor;
+   private StreamingMarshaller marshaller;
    private final Map<String, CustomFailurePolicy> siteFailurePolicy = new HashMap<String, CustomFailurePolicy>();
    private final ConcurrentMap<String, OfflineStatus> offlineStatus = CollectionFactory.makeConcurrentMap();
+   private final ConcurrentMap<String, AsyncBackupQueue> asyncBackupQueues = CollectionFactory.makeConcurrentMap();
 
 
    private final String localSiteName;
@@ -76,13 +84,17 @@ public BackupSenderImpl(String localSiteName) {
 
    @Inject
    public void init(Cache cache, Transport transport, TransactionTable txTable, GlobalConfiguration gc,
-                    TimeService timeService, CommandsFactory commandsFactory) {
+                    TimeService timeService, CommandsFactory commandsFactory,
+                    @ComponentName(KnownComponentNames.ASYNC_REPLICATION_QUEUE_EXECUTOR) ScheduledExecutorService asyncBackupExecutor,
+                    @ComponentName(KnownComponentNames.CACHE_MARSHALLER) StreamingMarshaller marshaller) {
       this.cache = cache;
       this.transport = transport;
       this.txTable = txTable;
       this.globalConfig = gc;
       this.timeService = timeService;
       this.commandsFactory = commandsFactory;
+      this.asyncBackupExecutor = asyncBackupExecutor;
+      this.marshaller = marshaller;
    }
 
    @Start
@@ -101,7 +113,25 @@ public void start() {
          }
          OfflineStatus offline = new OfflineStatus(bc.takeOffline(), timeService);
          offlineStatus.put(bc.site(), offline);
+         if (bc.strategy() == BackupConfiguration.BackupStrategy.ASYNC && bc.asyncBatching().enabled()
+               && !bc.site().equals(localSiteName)) {
+            // the batches are sent synchronously by the queue, so that their failures can take the site offline
+            AsyncBackupQueue queue = new AsyncBackupQueue(new XSiteBackup(bc.site(), true, bc.replicationTimeout()),
+                                                          offline, cacheName, bc.asyncBatching(),
+                                                          config.dataContainer().keyEquivalence(), transport,
+                                                          commandsFactory, marshaller, asyncBackupExecutor, timeService);
+            queue.start();
+            asyncBackupQueues.put(bc.site(), queue);
+         }
+      }
+   }
+
+   @Stop(priority = 9) // Stop before transport
+   public void stop() {
+      for (AsyncBackupQueue queue : asyncBackupQueues.values()) {
+         queue.stop();
       }
+      asyncBackupQueues.clear();
    }
 
    @Override
@@ -151,9 +181,40 @@ private void updateOfflineSites(BackupResponse backupResponse) {
    @Override
    public BackupResponse backupWrite(WriteCommand command) throws Exception {
       List<XSiteBackup> xSiteBackups = calculateBackupInfo(BackupFilter.KEEP_ALL);
+      if (!asyncBackupQueues.isEmpty()) {
+         xSiteBackups = enqueueAsyncBackups(command, xSiteBackups);
+         if (xSiteBackups.isEmpty()) {
+            return EMPTY_RESPONSE;
+         }
+      }
       return backupCommand(command, xSiteBackups);
    }
 
+   /**
+    * Adds the command to the queues of the sites backed up in batches.
+    *
+    * @return the sites the command must still be sent to.
+    */
+   private List<XSiteBackup> enqueueAsyncBackups(WriteCommand command, List<XSiteBackup> xSiteBackups) {
+      List<XSiteBackup> remaining = new ArrayList<XSiteBackup>(xSiteBackups.size());
+      List<WriteCommand> filtered = null;
+      for (XSiteBackup backup : xSiteBackups) {
+         AsyncBackupQueue queue = asyncBackupQueues.get(backup.getSiteName());
+         if (queue == null) {
+            remaining.add(backup);
+            continue;
+         }
+         if (filtered == null) {
+            // the queued commands are coalesced, so they must not depend on the previous value
+            filtered = filterModifications(Collections.singletonList(command));
+         }
+         for (WriteCommand modification : filtered) {
+            queue.add(modification);
+         }
+      }
+      return remaining;
+   }
+
    @Override
    public BackupResponse backupCommit(CommitCommand command) throws Exception {
       //we have a 2PC: we didn't backup the 1PC stuff during prepare, we need to do it now.
@@ -372,6 +433,11 @@ public OfflineStatus getOfflineStatus(String site) {
       return offlineStatus.get(site);
    }
 
+   @Override
+   public AsyncBackupQueue getAsyncBackupQueue(String siteName) {
+      return asyncBackupQueues.get(siteName);
+   }
+
    @Override
    public Map<String, Boolean> status() {
       Map<String, Boolean> result = new HashMap<String, Boolean>(offlineStatus.size());
@@ -0,0 +1,157 @@
+package org.infinispan.xsite;
+
+import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.context.InvocationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * RPC command to replicate a batch of modifications, queued by an {@link AsyncBackupQueue}, to the backup site. The
+ * modifications can be sent marshalled and compressed, in which case they are decompressed by the receiving site
+ * before being applied.
+ *
+ * @since 7.2
+ */
+public class BatchXSiteRpcCommand extends XSiteReplicateCommand {
+
+   public static final byte COMMAND_ID = 48;
+   private static final WriteCommand[] EMPTY_MODIFICATIONS = new WriteCommand[0];
+
+   private WriteCommand[] modifications;
+   private byte[] compressed;
+
+   public BatchXSiteRpcCommand(String cacheName, WriteCommand[] modifications) {
+      super(cacheName);
+      this.modifications = modifications;
+   }
+
+   public BatchXSiteRpcCommand(String cacheName, byte[] compressed) {
+      super(cacheName);
+      this.compressed = compressed;
+   }
+
+   public BatchXSiteRpcCommand(String cacheName) {
+      super(cacheName);
+   }
+
+   public BatchXSiteRpcCommand() {
+      super(null);
+   }
+
+   /**
+    * Creates a command containing the given modifications marshalled with {@code marshaller} and compressed.
+    */
+   public static BatchXSiteRpcCommand compressed(String cacheName, WriteCommand[] modifications,
+                                                 StreamingMarshaller marshaller) throws Exception {
+      byte[] marshalled = marshaller.objectToByteBuffer(modifications);
+      Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+      try {
+         deflater.setInput(marshalled);
+         deflater.finish();
+         ByteArrayOutputStream out = new ByteArrayOutputStream(marshalled.length / 2 + 16);
+         byte[] buffer = new byte[4096];
+         while (!deflater.finished()) {
+            int length = deflater.deflate(buffer);
+            out.write(buffer, 0, length);
+         }
+         return new BatchXSiteRpcCommand(cacheName, out.toByteArray());
+      } finally {
+         deflater.end();
+      }
+   }
+
+   @Override
+   public Object performInLocalSite(BackupReceiver receiver) throws Throwable {
+      WriteCommand[] toApply = modifications;
+      if (compressed != null) {
+         StreamingMarshaller marshaller = receiver.getCache().getAdvancedCache().getComponentRegistry().getCacheMarshaller();
+         toApply = (WriteCommand[]) marshaller.objectFromByteBuffer(decompress(compressed));
+      }
+      for (WriteCommand modification : toApply) {
+         receiver.handleRemoteCommand(modification);
+      }
+      return null;
+   }
+
+   private static byte[] decompress(byte[] data) throws DataFormatException {
+      Inflater inflater = new Inflater();
+      try {
+         inflater.setInput(data);
+         ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 2);
+         byte[] buffer = new byte[4096];
+         while (!inflater.finished()) {
+            int length = inflater.inflate(buffer);
+            if (length == 0 && inflater.needsInput()) {
+               throw new DataFormatException("Truncated batch of modifications");
+            }
+            out.write(buffer, 0, length);
+         }
+         return out.toByteArray();
+      } finally {
+         inflater.end();
+      }
+   }
+
+   public boolean isCompressed() {
+      return compressed != null;
+   }
+
+   @Override
+   public Object perform(InvocationContext ctx) throws Throwable {
+      throw new UnsupportedOperationException("The batch can only be applied in the backup site");
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public Object[] getParameters() {
+      if (compressed != null) {
+         return new Object[]{Boolean.TRUE, compressed};
+      }
+      Object[] result = new Object[modifications.length + 1];
+      result[0] = Boolean.FALSE;
+      System.arraycopy(modifications, 0, result, 1, modifications.length);
+      return result;
+   }
+
+   @Override
+   public void setParameters(int commandId, Object[] parameters) {
+      if (commandId != COMMAND_ID) {
+         throw new IllegalArgumentException("CommandId is not valid! (" + commandId + " != " + COMMAND_ID + ")");
+      }
+      if ((Boolean) parameters[0]) {
+         this.compressed = (byte[]) parameters[1];
+         this.modifications = null;
+      } else {
+         this.compressed = null;
+         this.modifications = parameters.length == 1 ? EMPTY_MODIFICATIONS : new WriteCommand[parameters.length - 1];
+         //noinspection SuspiciousSystemArraycopy
+         System.arraycopy(parameters, 1, modifications, 0, modifications.length);
+      }
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return false;
+   }
+
+   @Override
+   public boolean canBlock() {
+      return true;
+   }
+
+   @Override
+   public String toString() {
+      return "BatchXSiteRpcCommand{" +
+            "cacheName=" + cacheName +
+            (compressed != null ? ", compressed=" + compressed.length + " bytes" : ", modifications=" + modifications.length) +
+            '}';
+   }
+}
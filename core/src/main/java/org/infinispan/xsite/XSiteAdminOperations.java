@@ -210,6 +210,34 @@ public String getTakeOfflineAfterFailures(@Parameter(name = "site", description
       return String.valueOf(offlineStatus.getTakeOffline().afterFailures());
    }
 
+   @ManagedOperation(description = "Returns the number of modifications queued to be sent in batches to the given site by this node.", displayName = "Returns the number of modifications queued for the given site.")
+   public String getAsyncBackupQueueSize(@Parameter(name = "site", description = "The name of the backup site") String site) {
+      AsyncBackupQueue queue = backupSender.getAsyncBackupQueue(site);
+      if (queue == null) return notBatchedSite(site);
+      return String.valueOf(queue.getQueueSize());
+   }
+
+   @ManagedOperation(description = "Returns the average number of modifications of the batches sent to the given site by this node.", displayName = "Returns the average batch size for the given site.")
+   public String getAsyncBackupAverageBatchSize(@Parameter(name = "site", description = "The name of the backup site") String site) {
+      AsyncBackupQueue queue = backupSender.getAsyncBackupQueue(site);
+      if (queue == null) return notBatchedSite(site);
+      return String.valueOf(queue.getAverageBatchSize());
+   }
+
+   @ManagedOperation(description = "Returns the number of modifications not sent to the given site by this node because they were replaced by a later modification of the same key.", displayName = "Returns the number of coalesced modifications for the given site.")
+   public String getAsyncBackupCoalescedCount(@Parameter(name = "site", description = "The name of the backup site") String site) {
+      AsyncBackupQueue queue = backupSender.getAsyncBackupQueue(site);
+      if (queue == null) return notBatchedSite(site);
+      return String.valueOf(queue.getCoalescedCount());
+   }
+
+   @ManagedOperation(description = "Returns the time (in milliseconds) the oldest modification of the last batch sent to the given site by this node waited in the queue.", displayName = "Returns the replication lag for the given site.")
+   public String getAsyncBackupReplicationLag(@Parameter(name = "site", description = "The name of the backup site") String site) {
+      AsyncBackupQueue queue = backupSender.getAsyncBackupQueue(site);
+      if (queue == null) return notBatchedSite(site);
+      return String.valueOf(queue.getReplicationLag());
+   }
+
    @ManagedOperation(description = "Brings the given site back online on all the cluster.", displayName = "Brings the given site back online on all the cluster.")
    public String bringSiteOnline(@Parameter(name = "site", description = "The name of the backup site") String site) {
       OfflineStatus offlineStatus = backupSender.getOfflineStatus(site);
@@ -356,6 +384,10 @@ private String returnFailureOrSuccess(List<Address> failed, String prefix) {
       return SUCCESS;
    }
 
+   private String notBatchedSite(String site) {
+      return "Site " + site + " isn't backed up asynchronously in batches";
+   }
+
    private String rpcError(List<Address> failed, String prefix) {
       return prefix + failed.toString();
    }
@@ -0,0 +1,84 @@
+package org.infinispan.commons.util.concurrent.jdk8backported;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8.Eviction;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the bounded concurrent hash map V8 when it is bounded by the size of its entries instead of their number.
+ *
+ * @since 7.2
+ */
+@Test(groups = "functional", testName = "util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8MemoryTest")
+public class BoundedEquivalentConcurrentHashMapV8MemoryTest {
+
+   private static final EntrySizeCalculator<Integer, byte[]> VALUE_LENGTH = new EntrySizeCalculator<Integer, byte[]>() {
+      @Override
+      public long calculateSize(Integer key, byte[] value) {
+         return value.length;
+      }
+   };
+
+   private BoundedEquivalentConcurrentHashMapV8<Integer, byte[]> createMap(long maxSize) {
+      return new BoundedEquivalentConcurrentHashMapV8<Integer, byte[]>(maxSize, Eviction.LRU,
+            BoundedEquivalentConcurrentHashMapV8.<Integer, byte[]>getNullEvictionListener(),
+            AnyEquivalence.getInstance(), AnyEquivalence.getInstance(), VALUE_LENGTH);
+   }
+
+   public void testEvictionBySize() {
+      BoundedEquivalentConcurrentHashMapV8<Integer, byte[]> map = createMap(1000);
+      for (int i = 0; i < 10; i++) {
+         map.put(i, new byte[100]);
+      }
+      assertEquals(10, map.size());
+      assertEquals(1000, map.evictionSize());
+
+      // needs 3 of the oldest entries to go
+      map.put(10, new byte[300]);
+      assertEquals(8, map.size());
+      assertEquals(1000, map.evictionSize());
+      for (int i = 0; i < 3; i++) {
+         assertFalse(map.containsKey(i));
+      }
+      assertTrue(map.containsKey(10));
+   }
+
+   public void testUpdateChangesSize() {
+      BoundedEquivalentConcurrentHashMapV8<Integer, byte[]> map = createMap(1000);
+      map.put(0, new byte[100]);
+      map.put(1, new byte[100]);
+      assertEquals(200, map.evictionSize());
+
+      map.put(0, new byte[10]);
+      assertEquals(110, map.evictionSize());
+
+      // growing an entry evicts the least recently used one
+      map.put(2, new byte[100]);
+      map.put(1, new byte[900]);
+      assertEquals(1000, map.evictionSize());
+      assertFalse(map.containsKey(0));
+      assertEquals(2, map.size());
+   }
+
+   public void testRemoveAndClearReleaseSize() {
+      BoundedEquivalentConcurrentHashMapV8<Integer, byte[]> map = createMap(1000);
+      for (int i = 0; i < 5; i++) {
+         map.put(i, new byte[100]);
+      }
+      map.remove(0);
+      assertEquals(400, map.evictionSize());
+      map.clear();
+      assertEquals(0, map.evictionSize());
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testLIRSNotSupported() {
+      new BoundedEquivalentConcurrentHashMapV8<Integer, byte[]>(1000, Eviction.LIRS,
+            BoundedEquivalentConcurrentHashMapV8.<Integer, byte[]>getNullEvictionListener(),
+            AnyEquivalence.getInstance(), AnyEquivalence.getInstance(), VALUE_LENGTH);
+   }
+}
@@ -76,6 +76,12 @@ public int size() {
       return delegate.size();
    }
 
+   @Override
+   public long evictionSize() {
+      loggedOperations.add("evictionSize()" );
+      return delegate.evictionSize();
+   }
+
    @Override
    public void clear() {
       loggedOperations.add("clear()" );
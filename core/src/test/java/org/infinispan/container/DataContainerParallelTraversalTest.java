@@ -0,0 +1,91 @@
+package org.infinispan.container;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.util.concurrent.ParallelIterableMap.KeyValueAction;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.filter.KeyFilter;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.util.concurrent.ConcurrentHashSet;
+import org.testng.annotations.Test;
+
+import java.util.Set;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests that {@link DefaultDataContainer#executeTask(KeyFilter, KeyValueAction)} honours the configured parallelism.
+ *
+ * @since 7.2
+ */
+@Test(groups = "unit", testName = "container.DataContainerParallelTraversalTest")
+public class DataContainerParallelTraversalTest extends AbstractInfinispanTest {
+
+   private static final int ENTRIES = 1000;
+
+   public void testParallelTraversal() throws Exception {
+      Set<Thread> threads = traverse(createContainer(4, ENTRIES), ENTRIES);
+      assertTrue(threads.size() <= 4);
+      assertFalse(threads.contains(Thread.currentThread()));
+   }
+
+   public void testParallelismBoundsSharedPool() throws Exception {
+      // the pool is shared by all the containers, but each traversal uses at most its configured parallelism
+      Set<Thread> threads = traverse(createContainer(2, ENTRIES), ENTRIES);
+      assertTrue(threads.size() <= 2);
+      assertFalse(threads.contains(Thread.currentThread()));
+   }
+
+   public void testParallelismNotPowerOfTwo() throws Exception {
+      // neither the parallelism nor the number of entries divide each other
+      Set<Thread> threads = traverse(createContainer(3, ENTRIES + 1), ENTRIES + 1);
+      assertTrue(threads.size() <= 3);
+      threads = traverse(createContainer(6, ENTRIES + 1), ENTRIES + 1);
+      assertTrue(threads.size() <= 6);
+   }
+
+   public void testSequentialTraversal() throws Exception {
+      Set<Thread> threads = traverse(createContainer(1, ENTRIES), ENTRIES);
+      assertEquals(1, threads.size());
+      assertTrue(threads.contains(Thread.currentThread()));
+   }
+
+   private DefaultDataContainer<Integer, String> createContainer(int parallelism, int entries) {
+      DefaultDataContainer<Integer, String> dc = new DefaultDataContainer<Integer, String>(16, AnyEquivalence.getInstance());
+      InternalEntryFactoryImpl internalEntryFactory = new InternalEntryFactoryImpl();
+      internalEntryFactory.injectTimeService(TIME_SERVICE);
+      dc.initialize(null, null, internalEntryFactory, mock(ActivationManager.class), null, TIME_SERVICE);
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.dataContainer().parallelism(parallelism);
+      dc.injectConfiguration(builder.build());
+      for (int i = 0; i < entries; i++) {
+         dc.put(i, "v" + i, new EmbeddedMetadata.Builder().build());
+      }
+      return dc;
+   }
+
+   private Set<Thread> traverse(DataContainer<Integer, String> dc, int entries) throws InterruptedException {
+      final Set<Integer> evenKeys = new ConcurrentHashSet<Integer>();
+      final Set<Thread> threads = new ConcurrentHashSet<Thread>();
+      dc.executeTask(new KeyFilter<Integer>() {
+         @Override
+         public boolean accept(Integer key) {
+            return key % 2 == 0;
+         }
+      }, new KeyValueAction<Integer, InternalCacheEntry<Integer, String>>() {
+         @Override
+         public void apply(Integer key, InternalCacheEntry<Integer, String> entry) {
+            assertEquals("v" + key, entry.getValue());
+            evenKeys.add(key);
+            threads.add(Thread.currentThread());
+         }
+      });
+      assertEquals((entries + 1) / 2, evenKeys.size());
+      return threads;
+   }
+}
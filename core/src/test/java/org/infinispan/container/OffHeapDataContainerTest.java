@@ -0,0 +1,235 @@
+package org.infinispan.container;
+
+import org.infinispan.IllegalLifecycleStateException;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.offheap.OffHeapDataContainer;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.eviction.EvictionManager;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.eviction.PassivationManager;
+import org.infinispan.marshall.TestObjectStreamMarshaller;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+@Test(groups = "unit", testName = "container.OffHeapDataContainerTest")
+public class OffHeapDataContainerTest extends SimpleDataContainerTest {
+
+   private TestObjectStreamMarshaller marshaller;
+   private PassivationManager passivator;
+   private EvictionManager evictionManager;
+
+   @BeforeClass
+   public void createMarshaller() {
+      marshaller = new TestObjectStreamMarshaller();
+   }
+
+   @AfterClass
+   public void stopMarshaller() {
+      marshaller.stop();
+   }
+
+   @AfterMethod
+   @Override
+   public void tearDown() {
+      ((OffHeapDataContainer) dc).stop();
+      super.tearDown();
+   }
+
+   @Override
+   protected DataContainer createContainer() {
+      return createContainer(-1, EvictionType.COUNT);
+   }
+
+   private DataContainer createContainer(long maxSize, EvictionType type) {
+      OffHeapDataContainer<Object, String> dc = new OffHeapDataContainer<Object, String>(16,
+            AnyEquivalence.getInstance(), maxSize, type);
+      InternalEntryFactoryImpl internalEntryFactory = new InternalEntryFactoryImpl();
+      internalEntryFactory.injectTimeService(TIME_SERVICE);
+      passivator = mock(PassivationManager.class);
+      evictionManager = mock(EvictionManager.class);
+      dc.initialize(marshaller, evictionManager, passivator, internalEntryFactory, mock(ActivationManager.class),
+                    TIME_SERVICE);
+      dc.start();
+      return dc;
+   }
+
+   @Override
+   public void testUpdatingLastUsed() throws Exception {
+      // entries are copied out of the container, so a read doesn't update previously returned instances
+      dc.put("k", "v", new EmbeddedMetadata.Builder().maxIdle(600000, TimeUnit.MILLISECONDS).build());
+      long lastUsed = dc.get("k").getLastUsed();
+      Thread.sleep(100);
+      assertTrue(dc.get("k").getLastUsed() > lastUsed);
+      assertEquals(dc.peek("k").getLastUsed(), dc.peek("k").getLastUsed());
+   }
+
+   @Override
+   public void testExpirationIndexHasOneSlotPerEntry() {
+      // the off-heap container has no expiration index
+   }
+
+   public void testRemoveAndClear() {
+      for (int i = 0; i < 100; i++) dc.put(i, "v" + i, new EmbeddedMetadata.Builder().build());
+      assertEquals(100, dc.size());
+
+      InternalCacheEntry removed = dc.remove(42);
+      assertEquals("v42", removed.getValue());
+      assertNull(dc.remove(42));
+      assertFalse(dc.containsKey(42));
+      assertEquals(99, dc.size());
+
+      dc.clear();
+      assertEquals(0, dc.size());
+      assertEquals(0, dc.evictionSize());
+      assertNull(dc.get(1));
+   }
+
+   public void testEvictionByCount() {
+      tearDown();
+      dc = createContainer(10, EvictionType.COUNT);
+      for (int i = 0; i < 10; i++) dc.put(i, "v" + i, new EmbeddedMetadata.Builder().build());
+      // make 0 the most recently used entry
+      assertNotNull(dc.get(0));
+
+      dc.put(10, "v10", new EmbeddedMetadata.Builder().build());
+      assertEquals(10, dc.size());
+      assertNotNull(dc.peek(0));
+      assertNull(dc.peek(1));
+      verify(passivator, times(1)).passivate(any(InternalCacheEntry.class));
+      verify(evictionManager, times(1)).onEntryEviction(any(Map.class));
+   }
+
+   public void testEvictionByMemory() {
+      tearDown();
+      dc = createContainer(4096, EvictionType.MEMORY);
+      for (int i = 0; i < 1000; i++) {
+         dc.put(i, "value" + i, new EmbeddedMetadata.Builder().build());
+         assertTrue(dc.evictionSize() <= 4096);
+      }
+      assertTrue(dc.size() < 1000);
+      assertNotNull(dc.get(999));
+   }
+
+   public void testCompute() {
+      dc.put("k", "v", new EmbeddedMetadata.Builder().build());
+      InternalCacheEntry<Object, String> entry = dc.compute("k", new DataContainer.ComputeAction<Object, String>() {
+         @Override
+         public InternalCacheEntry<Object, String> compute(Object key, InternalCacheEntry<Object, String> oldEntry,
+                                                           InternalEntryFactory factory) {
+            assertEquals("v", oldEntry.getValue());
+            return factory.create(key, "v2", oldEntry.getMetadata());
+         }
+      });
+      assertEquals("v2", entry.getValue());
+      assertEquals("v2", dc.get("k").getValue());
+
+      dc.compute("k", new DataContainer.ComputeAction<Object, String>() {
+         @Override
+         public InternalCacheEntry<Object, String> compute(Object key, InternalCacheEntry<Object, String> oldEntry,
+                                                           InternalEntryFactory factory) {
+            return null;
+         }
+      });
+      assertFalse(dc.containsKey("k"));
+      assertEquals(0, dc.size());
+   }
+
+   public void testResize() {
+      // well beyond the initial number of buckets
+      for (int i = 0; i < 20000; i++) dc.put(i, "v" + i, new EmbeddedMetadata.Builder().build());
+      assertEquals(20000, dc.size());
+      for (int i = 0; i < 20000; i++) assertEquals("v" + i, dc.get(i).getValue());
+      assertEquals(20000, dc.keySet().size());
+   }
+
+   public void testIterationDuringResize() {
+      for (int i = 0; i < 1000; i++) dc.put(i, "v" + i, new EmbeddedMetadata.Builder().build());
+      Set<Object> seen = new HashSet<Object>();
+      int added = 1000;
+      for (Iterator<Object> it = dc.keySet().iterator(); it.hasNext(); ) {
+         // every entry present during the whole iteration is returned exactly once
+         assertTrue(seen.add(it.next()));
+         dc.put(added, "v" + added, new EmbeddedMetadata.Builder().build());
+         added++;
+      }
+      for (int i = 0; i < 1000; i++) assertTrue(seen.contains(i));
+   }
+
+   public void testAccessAfterStop() {
+      dc.put("k", "v", new EmbeddedMetadata.Builder().build());
+      ((OffHeapDataContainer) dc).stop();
+      try {
+         dc.get("k");
+         fail("The container is stopped");
+      } catch (IllegalLifecycleStateException e) {
+         // expected
+      }
+      try {
+         dc.put("k", "v", new EmbeddedMetadata.Builder().build());
+         fail("The container is stopped");
+      } catch (IllegalLifecycleStateException e) {
+         // expected
+      }
+      assertFalse(dc.iterator().hasNext());
+      ((OffHeapDataContainer) dc).start();
+      assertNull(dc.get("k"));
+      dc.put("k", "v", new EmbeddedMetadata.Builder().build());
+      assertEquals("v", dc.get("k").getValue());
+   }
+
+   public void testConcurrentAccessAndPurge() throws Exception {
+      tearDown();
+      dc = createContainer(500, EvictionType.COUNT);
+      List<Future<Void>> futures = new ArrayList<Future<Void>>();
+      for (int t = 0; t < 4; t++) {
+         final int thread = t;
+         futures.add(fork(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+               for (int i = 0; i < 5000; i++) {
+                  int key = (i * 7 + thread) % 1000;
+                  if (i % 2 == 0) {
+                     dc.put(key, "v" + key, new EmbeddedMetadata.Builder().maxIdle(1, TimeUnit.MINUTES).build());
+                  } else {
+                     InternalCacheEntry entry = dc.get(key);
+                     assertTrue(entry == null || ("v" + key).equals(entry.getValue()));
+                  }
+                  if (i % 500 == 0) {
+                     dc.purgeExpired();
+                  }
+               }
+               return null;
+            }
+         }));
+      }
+      for (Future<Void> future : futures) {
+         future.get(30, TimeUnit.SECONDS);
+      }
+      assertTrue(dc.size() <= 500);
+   }
+}
@@ -83,6 +83,36 @@ public void testExpiredData() throws InterruptedException {
       assert dc.size() == 0;
    }
    
+   public void testPurgeExpiredKeepsTouchedEntries() throws Exception {
+      dc.put("mortal", "v", new EmbeddedMetadata.Builder().lifespan(50, TimeUnit.MILLISECONDS).build());
+      dc.put("transient", "v", new EmbeddedMetadata.Builder().maxIdle(300, TimeUnit.MILLISECONDS).build());
+      dc.put("immortal", "v", new EmbeddedMetadata.Builder().build());
+      Thread.sleep(200);
+      assert dc.get("transient") != null;
+      dc.purgeExpired();
+      assertEquals(2, dc.size());
+      assert dc.peek("mortal") == null;
+
+      Thread.sleep(400);
+      dc.purgeExpired();
+      assertEquals(1, dc.size());
+      assert dc.peek("immortal") != null;
+   }
+
+   public void testExpirationIndexHasOneSlotPerEntry() throws Exception {
+      DefaultDataContainer<Object, String> container = (DefaultDataContainer<Object, String>) dc;
+      for (int i = 1; i <= 5; i++) {
+         container.put("k", "v" + i, new EmbeddedMetadata.Builder().lifespan(i, TimeUnit.HOURS).build());
+      }
+      container.put("transient", "v", new EmbeddedMetadata.Builder().maxIdle(1, TimeUnit.HOURS).build());
+      assertEquals(2, container.getExpirationIndexSize());
+
+      container.put("transient", "v", new EmbeddedMetadata.Builder().build());
+      assertEquals(1, container.getExpirationIndexSize());
+      container.remove("k");
+      assertEquals(0, container.getExpirationIndexSize());
+   }
+
    public void testResetOfCreationTime() throws Exception {
       long now = System.currentTimeMillis();
       dc.put("k", "v", new EmbeddedMetadata.Builder().lifespan(1000, TimeUnit.SECONDS).build());
@@ -0,0 +1,28 @@
+package org.infinispan.distexec.mapreduce;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.testng.annotations.Test;
+
+
+/**
+ * DistributedStreamingShuffleFourNodesMapReduceTest tests Map/Reduce functionality using four Infinispan nodes,
+ * distributed reduce and the intermediate key/values shuffled directly to the reducing nodes
+ *
+ * @since 7.2
+ */
+@Test(groups = "functional", testName = "distexec.mapreduce.DistributedStreamingShuffleFourNodesMapReduceTest")
+public class DistributedStreamingShuffleFourNodesMapReduceTest extends BaseWordCountMapReduceTest {
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(getCacheMode(), true);
+      createClusteredCaches(4, cacheName(), builder);
+   }
+
+   @SuppressWarnings({ "rawtypes", "unchecked" })
+   protected MapReduceTask<String, String, String, Integer> createMapReduceTask(Cache c){
+      //run distributed reduce with per task cache, keeping very few values in memory so that they're spilled to disk
+      return new MapReduceTask<String, String, String, Integer>(c, true, false).usingStreamingShuffle(5);
+   }
+}
@@ -0,0 +1,91 @@
+package org.infinispan.distribution;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.CountingRpcManager;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests {@link org.infinispan.AdvancedCache#getAll(java.util.Set)} in a distributed cache.
+ *
+ * @since 7.2
+ */
+@Test(groups = "functional", testName = "distribution.DistGetAllTest")
+public class DistGetAllTest extends MultipleCacheManagersTest {
+
+   protected boolean transactional = false;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, transactional);
+      builder.clustering().hash().numOwners(1).l1().disable();
+      createCluster(builder, 3);
+      waitForClusterToForm();
+   }
+
+   public void testGetAllFromMultipleOwners() {
+      Set<MagicKey> keys = new HashSet<MagicKey>();
+      for (int i = 0; i < 3; i++) {
+         for (int j = 0; j < 5; j++) {
+            MagicKey key = new MagicKey("k" + i + "-" + j, cache(i));
+            cache(i).put(key, "v" + i + "-" + j);
+            keys.add(key);
+         }
+      }
+
+      for (int i = 0; i < 3; i++) {
+         Cache<MagicKey, String> cache = cache(i);
+         RpcManager original = TestingUtil.extractComponent(cache, RpcManager.class);
+         CountingRpcManager rpcManager = new CountingRpcManager(original);
+         TestingUtil.replaceComponent(cache, RpcManager.class, rpcManager, true);
+         try {
+            Map<MagicKey, String> values = cache.getAdvancedCache().getAll(keys);
+            assertEquals(keys.size(), values.size());
+            for (MagicKey key : keys) {
+               assertEquals(cache.get(key), values.get(key));
+            }
+            rpcManager.resetStats();
+            cache.getAdvancedCache().getAll(keys);
+            // one ClusteredGetAllCommand per remote owner, no single key remote gets
+            assertEquals(0, rpcManager.clusterGet);
+            assertEquals(2, rpcManager.otherCount);
+         } finally {
+            TestingUtil.replaceComponent(cache, RpcManager.class, original, true);
+         }
+      }
+   }
+
+   public void testGetAllWithMissingKeys() {
+      MagicKey existing = new MagicKey("existing", cache(1));
+      MagicKey missingRemote = new MagicKey("missingRemote", cache(2));
+      MagicKey missingLocal = new MagicKey("missingLocal", cache(0));
+      cache(1).put(existing, "value");
+
+      Set<MagicKey> keys = new HashSet<MagicKey>();
+      keys.add(existing);
+      keys.add(missingRemote);
+      keys.add(missingLocal);
+
+      Map<MagicKey, String> values = cache(0).getAdvancedCache().getAll(keys);
+      assertEquals(1, values.size());
+      assertEquals("value", values.get(existing));
+      assertFalse(values.containsKey(missingRemote));
+      assertFalse(values.containsKey(missingLocal));
+   }
+
+   public void testGetAllEmpty() {
+      assertTrue(cache(0).getAdvancedCache().getAll(new HashSet<Object>()).isEmpty());
+   }
+}
@@ -0,0 +1,16 @@
+package org.infinispan.distribution;
+
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link org.infinispan.AdvancedCache#getAll(java.util.Set)} in a transactional distributed cache.
+ *
+ * @since 7.2
+ */
+@Test(groups = "functional", testName = "distribution.TxDistGetAllTest")
+public class TxDistGetAllTest extends DistGetAllTest {
+
+   public TxDistGetAllTest() {
+      transactional = true;
+   }
+}
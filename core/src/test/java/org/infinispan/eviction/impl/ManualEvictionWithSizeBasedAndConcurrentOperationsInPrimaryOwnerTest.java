@@ -456,6 +456,11 @@ public int size() {
          return delegate.size();
       }
 
+      @Override
+      public long evictionSize() {
+         return delegate.evictionSize();
+      }
+
       @Override
       @Stop(priority = 999)
       public void clear() {
@@ -0,0 +1,75 @@
+package org.infinispan.eviction.impl;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.interceptors.CacheMgmtInterceptor;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests eviction bounded by the memory occupied by the entries.
+ *
+ * @since 7.2
+ */
+@Test(groups = "functional", testName = "eviction.MemoryBasedEvictionFunctionalTest")
+public class MemoryBasedEvictionFunctionalTest extends SingleCacheManagerTest {
+
+   private static final long CACHE_SIZE = 64 * 1024;
+
+   public MemoryBasedEvictionFunctionalTest() {
+      cleanup = CleanupPhase.AFTER_METHOD;
+   }
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.eviction().strategy(EvictionStrategy.LRU).type(EvictionType.MEMORY).size(CACHE_SIZE)
+            .jmxStatistics().enable();
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   public void testEvictionByMemory() {
+      DataContainer container = cache.getAdvancedCache().getDataContainer();
+      for (int i = 0; i < 100; i++) {
+         cache.put(i, new byte[1024]);
+         assertTrue("Container occupies " + container.evictionSize(), container.evictionSize() <= CACHE_SIZE);
+      }
+      // every entry is larger than 1KB, so not all of them fit
+      assertTrue(container.size() < 64);
+      assertTrue(container.size() > 32);
+      assertTrue(cache.containsKey(99));
+   }
+
+   public void testDifferentSizes() {
+      DataContainer container = cache.getAdvancedCache().getDataContainer();
+      for (int i = 0; i < 10; i++) {
+         cache.put(i, new byte[100]);
+      }
+      int smallEntries = container.size();
+      assertEquals(10, smallEntries);
+
+      // a single large value evicts the small ones
+      cache.put("large", new byte[(int) CACHE_SIZE - 1024]);
+      assertTrue(container.size() < smallEntries + 1);
+      assertTrue(container.evictionSize() <= CACHE_SIZE);
+      assertTrue(cache.containsKey("large"));
+   }
+
+   public void testOccupiedMemoryStatistic() {
+      CacheMgmtInterceptor stats = TestingUtil.findInterceptor(cache, CacheMgmtInterceptor.class);
+      assertEquals(0, stats.getOccupiedMemory());
+      cache.put("key", new byte[100]);
+      long occupied = stats.getOccupiedMemory();
+      assertTrue(occupied > 100);
+      cache.remove("key");
+      assertEquals(0, stats.getOccupiedMemory());
+   }
+}
@@ -553,6 +553,54 @@ public void testReadLoop() throws Exception {
       }
    }
 
+   public void testChunksInFlight() throws Exception {
+      for (int chunksInFlight : new int[]{0, 1, 4}) {
+         GridFilesystem fs = new GridFilesystem(dataCache, metadataCache, 16, chunksInFlight);
+         String path = "/inFlight" + chunksInFlight + ".bin";
+         byte[] content = new byte[1000];
+         for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+         }
+
+         WritableGridFileChannel wgfc = fs.getWritableChannel(path, false, 16);
+         try {
+            wgfc.write(ByteBuffer.wrap(content, 0, 500));
+            OutputStream out = Channels.newOutputStream(wgfc);
+            out.write(content, 500, 500);
+         } finally {
+            wgfc.close();
+         }
+         assertEquals(fs.getFile(path).length(), content.length);
+
+         InputStream in = fs.getInput(path);
+         try {
+            assertEquals(toBytes(in), content);
+         } finally {
+            in.close();
+         }
+
+         ReadableGridFileChannel rgfc = fs.getReadableChannel(path);
+         try {
+            rgfc.position(900);
+            ByteBuffer buffer = ByteBuffer.allocate(50);
+            assertEquals(rgfc.read(buffer), 50);
+            assertEquals(buffer.array(), Arrays.copyOfRange(content, 900, 950));
+            rgfc.position(100);
+            buffer = ByteBuffer.allocate(1000);
+            assertEquals(rgfc.read(buffer), 900);
+            assertEquals(Arrays.copyOf(buffer.array(), 900), Arrays.copyOfRange(content, 100, 1000));
+            assertEquals(rgfc.read(buffer), -1);
+         } finally {
+            rgfc.close();
+         }
+      }
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testNegativeChunksInFlight() {
+      new GridFilesystem(dataCache, metadataCache, 16, -1);
+   }
+
    public void testGetAbsolutePath() throws IOException {
       assertEquals(fs.getFile("/file.txt").getAbsolutePath(), "/file.txt");
       assertEquals(fs.getFile("file.txt").getAbsolutePath(), "/file.txt");
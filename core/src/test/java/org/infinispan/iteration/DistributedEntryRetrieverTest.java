@@ -11,6 +11,7 @@
 import org.infinispan.distribution.DistributionManager;
 import org.infinispan.distribution.MagicKey;
 import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.filter.SegmentKeyValueFilter;
 import org.infinispan.iteration.impl.EntryRequestCommand;
 import org.infinispan.iteration.impl.EntryRetriever;
 import org.infinispan.remoting.rpc.RpcManager;
@@ -23,6 +24,8 @@
 import org.mockito.stubbing.Answer;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -69,6 +72,34 @@ protected Object getKeyTiedToCache(Cache<?, ?> cache) {
       return new MagicKey(cache);
    }
 
+   @Test
+   public void testSegmentFilter() {
+      Map<Object, String> values = putValueInEachCache(3);
+      Cache<Object, String> cache0 = cache(0, CACHE_NAME);
+      ConsistentHash ch = cache0.getAdvancedCache().getDistributionManager().getReadConsistentHash();
+
+      // Iterate each half of the segments separately, the entries should be split between them
+      BitSet firstHalf = new BitSet();
+      firstHalf.set(0, ch.getNumSegments() / 2);
+      BitSet secondHalf = new BitSet();
+      secondHalf.set(ch.getNumSegments() / 2, ch.getNumSegments());
+      Map<Object, String> found = new HashMap<Object, String>();
+      for (BitSet segments : Arrays.asList(firstHalf, secondHalf)) {
+         CloseableIterator<CacheEntry<Object, String>> iterator = cache0.getAdvancedCache().filterEntries(
+               new SegmentKeyValueFilter(segments)).iterator();
+         try {
+            while (iterator.hasNext()) {
+               CacheEntry<Object, String> entry = iterator.next();
+               assertTrue(segments.get(ch.getSegment(entry.getKey())));
+               assertNull(found.put(entry.getKey(), entry.getValue()));
+            }
+         } finally {
+            iterator.close();
+         }
+      }
+      assertEquals(values, found);
+   }
+
    @Test
    public void verifyNodeLeavesBeforeGettingData() throws TimeoutException, InterruptedException, ExecutionException {
       Map<Object, String> values = putValueInEachCache(3);
@@ -5,10 +5,12 @@
 import static org.testng.AssertJUnit.*;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.infinispan.filter.CollectionKeyFilter;
@@ -25,6 +27,7 @@
 import org.infinispan.metadata.InternalMetadata;
 import org.infinispan.persistence.spi.AdvancedCacheWriter;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.BatchingCacheWriter;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.test.AbstractInfinispanTest;
@@ -379,6 +382,36 @@ public void testStoreAndRemove() throws PersistenceException {
       assertEquals("k4", set.iterator().next().getKey());
    }
 
+   public void testWriteAndDeleteBatch() throws PersistenceException {
+      if (!(cl instanceof BatchingCacheWriter)) return;
+      BatchingCacheWriter<Object, Object> writer = (BatchingCacheWriter<Object, Object>) cl;
+      assertIsEmpty();
+      cl.write(marshalledEntry("k1", "old", null));
+
+      // more entries than the usual batch sizes
+      List<MarshalledEntry<?, ?>> entries = new ArrayList<>();
+      for (int i = 0; i < 300; i++) {
+         entries.add(marshalledEntry("k" + i, "v" + i, null));
+      }
+      writer.writeBatch(entries);
+
+      assertSize(TestingUtil.allEntries(cl), 300);
+      assertEquals("v0", unwrap(cl.load("k0").getValue()));
+      assertEquals("v1", unwrap(cl.load("k1").getValue()));
+      assertEquals("v299", unwrap(cl.load("k299").getValue()));
+
+      List<Object> keys = new ArrayList<>();
+      for (int i = 0; i < 150; i++) {
+         keys.add("k" + i);
+      }
+      keys.add("missing");
+      writer.deleteBatch(keys);
+
+      assertSize(TestingUtil.allEntries(cl), 150);
+      assertContains("k1", false);
+      assertContains("k150", true);
+   }
+
    public void testPurgeExpired() throws Exception {
       assertIsEmpty();
       // Increased lifespan and idle timeouts to accommodate slower cache stores
@@ -8,8 +8,11 @@
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.eviction.EvictionType;
 import org.infinispan.marshall.core.MarshalledEntryImpl;
 import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.manager.PersistenceManagerImpl;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.persistence.spi.AdvancedCacheWriter;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
@@ -48,6 +51,7 @@
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.fail;
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertTrue;
 
 /**
@@ -322,6 +326,29 @@ public void testPreloadingWithEviction() throws Exception {
       doPreloadingTestWithEviction(preloadingCfg.build(), "preloadingCache_4");
    }
 
+   public void testPreloadingWithMemoryEviction() throws Exception {
+      final long maxMemory = 16 * 1024;
+      ConfigurationBuilder preloadingCfg = new ConfigurationBuilder();
+      preloadingCfg.read(cfg.build());
+      preloadingCfg.persistence().clearStores().addStore(DummyInMemoryStoreConfigurationBuilder.class).preload(true).storeName(this.getClass().getName() + "preloadingCache_5");
+      preloadingCfg.eviction().strategy(EvictionStrategy.LRU).type(EvictionType.MEMORY).size(maxMemory);
+      cm.defineConfiguration("preloadingCache_5", preloadingCfg.build());
+      Cache<String, byte[]> preloadingCache = cm.getCache("preloadingCache_5");
+
+      for (int i = 0; i < 100; i++) {
+         preloadingCache.put("k" + i, new byte[1024]);
+      }
+      preloadingCache.stop();
+      preloadingCache.start();
+
+      DataContainer c = preloadingCache.getAdvancedCache().getDataContainer();
+      PersistenceManagerImpl pm = (PersistenceManagerImpl) TestingUtil.extractComponent(preloadingCache, PersistenceManager.class);
+      // the preload stops once the memory is used up, rather than after maxMemory entries
+      assertTrue("Preloaded " + pm.getPreloadedEntries() + " entries", pm.getPreloadedEntries() < 32);
+      assertTrue("Container occupies " + c.evictionSize(), c.evictionSize() <= maxMemory);
+      assertTrue(c.size() > 0);
+   }
+
    @Test(groups = "unstable")
    public void testPurgeOnStartup() throws PersistenceException {
       ConfigurationBuilder purgingCfg = new ConfigurationBuilder();
@@ -570,6 +597,10 @@ protected void doPreloadingTest(Configuration preloadingCfg, String cacheName) t
       assert preloadingCache.getCacheConfiguration().persistence().preload();
       c = preloadingCache.getAdvancedCache().getDataContainer();
       assert c.size() == 4;
+      PersistenceManagerImpl pm = (PersistenceManagerImpl) TestingUtil.extractComponent(preloadingCache, PersistenceManager.class);
+      assertFalse(pm.isPreloading());
+      assertEquals(4, pm.getPreloadedEntries());
+      assertTrue(pm.getPreloadTime() >= 0);
 
       for (int i = 1; i < 5; i++) {
          if (i % 2 == 1)
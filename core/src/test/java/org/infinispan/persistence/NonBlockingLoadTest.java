@@ -0,0 +1,222 @@
+package org.infinispan.persistence;
+
+import org.infinispan.commons.configuration.BuiltBy;
+import org.infinispan.commons.configuration.ConfigurationFor;
+import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.configuration.cache.AbstractStoreConfiguration;
+import org.infinispan.configuration.cache.AbstractStoreConfigurationBuilder;
+import org.infinispan.configuration.cache.AsyncStoreConfiguration;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
+import org.infinispan.configuration.cache.SingletonStoreConfiguration;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.context.InvocationContextFactory;
+import org.infinispan.filter.KeyFilter;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.marshall.core.MarshalledEntryImpl;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.manager.PersistenceManagerImpl;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.InitializationContext;
+import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.infinispan.test.TestingUtil.marshaller;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+/**
+ * Tests {@link PersistenceManager#loadFromAllStoresAsync(Object, InvocationContext)} and that the keys of a GetAll
+ * missing from memory are loaded concurrently.
+ *
+ * @since 7.2
+ */
+@Test(testName = "persistence.NonBlockingLoadTest", groups = "functional", singleThreaded = true)
+@CleanupAfterMethod
+public class NonBlockingLoadTest extends SingleCacheManagerTest {
+
+   private PersistenceManagerImpl persistenceManager;
+   private BarrierStore barrierStore;
+   private AdvancedLoadWriteStore dummyStore;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder cfg = getDefaultStandaloneCacheConfig(false);
+      cfg
+         .persistence()
+            .addStore(BarrierStoreConfigurationBuilder.class)
+         .persistence()
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class);
+      return TestCacheManagerFactory.createCacheManager(cfg);
+   }
+
+   @Override
+   protected void setup() throws Exception {
+      super.setup();
+      persistenceManager = (PersistenceManagerImpl) TestingUtil.extractComponent(cache, PersistenceManager.class);
+      barrierStore = (BarrierStore) persistenceManager.getAllLoaders().get(0);
+      dummyStore = (AdvancedLoadWriteStore) persistenceManager.getAllLoaders().get(1);
+   }
+
+   public void testLoadFromAllStoresAsync() throws Exception {
+      barrierStore.write(entry("k1", "first"));
+      dummyStore.write(entry("k1", "second"));
+      dummyStore.write(entry("k2", "second"));
+
+      // the stores are queried in order until one has the entry
+      assertEquals("first", loadAsync("k1").getValue());
+      assertEquals("second", loadAsync("k2").getValue());
+      assertNull(loadAsync("k3"));
+   }
+
+   public void testLoadFromAllStoresAsyncFailure() throws Exception {
+      try {
+         loadAsync(BarrierStore.FAILING_KEY);
+         fail("The load should have failed");
+      } catch (ExecutionException e) {
+         assertTrue(e.getCause() instanceof PersistenceException);
+      }
+   }
+
+   public void testGetAllLoadsConcurrently() throws Exception {
+      Set<Object> keys = new HashSet<Object>(Arrays.asList("k1", "k2", "k3"));
+      for (Object key : keys) {
+         barrierStore.write(entry(key, "v-" + key));
+      }
+      // every load waits for the others, so loading the keys one after another times out
+      barrierStore.barrier = new CyclicBarrier(keys.size());
+      try {
+         Map<Object, Object> values = cache.getAdvancedCache().getAll(keys);
+         assertEquals(keys.size(), values.size());
+         for (Object key : keys) {
+            assertEquals("v-" + key, values.get(key));
+            assertEquals("v-" + key, cache.getAdvancedCache().getDataContainer().get(key).getValue());
+         }
+      } finally {
+         barrierStore.barrier = null;
+      }
+   }
+
+   private MarshalledEntry loadAsync(Object key) throws Exception {
+      InvocationContextFactory icf = TestingUtil.extractComponent(cache, InvocationContextFactory.class);
+      InvocationContext context = icf.createSingleKeyNonTxInvocationContext();
+      return persistenceManager.loadFromAllStoresAsync(key, context).get(10, TimeUnit.SECONDS);
+   }
+
+   private MarshalledEntry entry(Object key, Object value) {
+      return new MarshalledEntryImpl(key, value, null, marshaller(cache));
+   }
+
+   public static class BarrierStore implements AdvancedLoadWriteStore {
+      static final String FAILING_KEY = "failing";
+
+      final ConcurrentMap<Object, MarshalledEntry> entries = new ConcurrentHashMap<Object, MarshalledEntry>();
+      volatile CyclicBarrier barrier;
+
+      @Override
+      public MarshalledEntry load(Object key) {
+         if (FAILING_KEY.equals(key)) {
+            throw new PersistenceException("Failed loading " + key);
+         }
+         CyclicBarrier b = barrier;
+         if (b != null) {
+            try {
+               b.await(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+               throw new PersistenceException("The loads of " + b.getParties() + " keys didn't run concurrently", e);
+            }
+         }
+         return entries.get(key);
+      }
+
+      @Override
+      public boolean contains(Object key) {
+         return entries.containsKey(key);
+      }
+
+      @Override
+      public void write(MarshalledEntry entry) {
+         entries.put(entry.getKey(), entry);
+      }
+
+      @Override
+      public boolean delete(Object key) {
+         return entries.remove(key) != null;
+      }
+
+      @Override
+      public void process(KeyFilter filter, CacheLoaderTask task, Executor executor, boolean fetchValue, boolean fetchMetadata) {
+      }
+
+      @Override
+      public int size() {
+         return entries.size();
+      }
+
+      @Override
+      public void clear() {
+         entries.clear();
+      }
+
+      @Override
+      public void purge(Executor threadPool, PurgeListener task) {
+      }
+
+      @Override
+      public void init(InitializationContext ctx) {
+      }
+
+      @Override
+      public void start() {
+      }
+
+      @Override
+      public void stop() {
+      }
+   }
+
+   @BuiltBy(BarrierStoreConfigurationBuilder.class)
+   @ConfigurationFor(BarrierStore.class)
+   public static class BarrierStoreConfiguration extends AbstractStoreConfiguration {
+
+      public BarrierStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguration async, SingletonStoreConfiguration singletonStore) {
+         super(attributes, async, singletonStore);
+      }
+   }
+
+   public static class BarrierStoreConfigurationBuilder extends AbstractStoreConfigurationBuilder<BarrierStoreConfiguration, BarrierStoreConfigurationBuilder> {
+
+      public BarrierStoreConfigurationBuilder(PersistenceConfigurationBuilder builder) {
+         super(builder, BarrierStoreConfiguration.attributeDefinitionSet());
+      }
+
+      @Override
+      public BarrierStoreConfiguration create() {
+         return new BarrierStoreConfiguration(attributes.protect(), async.create(), singletonStore.create());
+      }
+
+      @Override
+      public BarrierStoreConfigurationBuilder self() {
+         return this;
+      }
+   }
+}
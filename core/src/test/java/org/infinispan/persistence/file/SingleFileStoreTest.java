@@ -2,15 +2,29 @@
 
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
+import org.infinispan.commons.util.SmallIntSet;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.BaseStoreTest;
+import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore;
 import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.concurrent.ConcurrentHashSet;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.infinispan.test.TestingUtil.recursiveFileRemove;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
 
 /**
  * Low level single-file cache store tests.
@@ -22,6 +36,7 @@
 public class SingleFileStoreTest extends BaseStoreTest {
 
    String tmpDirectory;
+   final AtomicInteger segmentLookups = new AtomicInteger();
 
    @BeforeClass(alwaysRun = true)
    protected void setUpTempDir() {
@@ -43,6 +58,68 @@ protected AdvancedLoadWriteStore createStore() throws Exception {
                .addStore(SingleFileStoreConfigurationBuilder.class)
                   .location(this.tmpDirectory);
       store.init(createContext(configurationBuilder.build()));
+      segmentLookups.set(0);
+      // the segment of "k<n>" is n % 4
+      store.setKeyPartitioner(new KeyPartitioner() {
+         @Override
+         public int getSegment(Object key) {
+            segmentLookups.incrementAndGet();
+            return Integer.parseInt(((String) key).substring(1)) % 4;
+         }
+      });
       return store;
    }
+
+   public void testSegments() throws Exception {
+      SegmentedAdvancedLoadWriteStore<Object, Object> store = (SegmentedAdvancedLoadWriteStore<Object, Object>) cl;
+      for (int i = 0; i < 20; i++) {
+         store.write(marshalledEntry("k" + i, "v" + i, null));
+      }
+      assertEquals(5, store.size(new SmallIntSet(Arrays.asList(2))));
+      assertEquals(10, store.size(new SmallIntSet(Arrays.asList(0, 3))));
+
+      final Set<Object> keys = new ConcurrentHashSet<Object>();
+      store.process(new SmallIntSet(Arrays.asList(1)), null, new AdvancedCacheLoader.CacheLoaderTask<Object, Object>() {
+         @Override
+         public void processEntry(MarshalledEntry<Object, Object> marshalledEntry, AdvancedCacheLoader.TaskContext taskContext) {
+            keys.add(marshalledEntry.getKey());
+         }
+      }, new WithinThreadExecutor(), true, true);
+      assertEquals(new HashSet<Object>(Arrays.asList("k1", "k5", "k9", "k13", "k17")), keys);
+
+      store.removeSegments(new SmallIntSet(Arrays.asList(0, 1)));
+      assertEquals(10, store.size());
+      assertEquals(0, store.size(new SmallIntSet(Arrays.asList(0, 1))));
+      assertNull(store.load("k4"));
+      assertEquals("v6", store.load("k6").getValue());
+   }
+
+   public void testSegmentsOnlyGoThroughTheirKeys() throws Exception {
+      SegmentedAdvancedLoadWriteStore<Object, Object> store = (SegmentedAdvancedLoadWriteStore<Object, Object>) cl;
+      for (int i = 0; i < 20; i++) {
+         store.write(marshalledEntry("k" + i, "v" + i, null));
+      }
+      // the keys are grouped by segment once
+      assertEquals(5, store.size(new SmallIntSet(Arrays.asList(2))));
+      assertEquals(20, segmentLookups.getAndSet(0));
+
+      assertEquals(10, store.size(new SmallIntSet(Arrays.asList(0, 3))));
+      store.process(new SmallIntSet(Arrays.asList(1)), null, new AdvancedCacheLoader.CacheLoaderTask<Object, Object>() {
+         @Override
+         public void processEntry(MarshalledEntry<Object, Object> marshalledEntry, AdvancedCacheLoader.TaskContext taskContext) {
+         }
+      }, new WithinThreadExecutor(), true, true);
+      store.removeSegments(new SmallIntSet(Arrays.asList(0)));
+      assertEquals(0, segmentLookups.get());
+
+      // then the writes keep them grouped
+      store.write(marshalledEntry("k20", "v20", null));
+      store.write(marshalledEntry("k21", "v21", null));
+      store.write(marshalledEntry("k21", "v21'", null));
+      store.delete("k2");
+      assertEquals(3, segmentLookups.get());
+      assertEquals(1, store.size(new SmallIntSet(Arrays.asList(0))));
+      assertEquals(6, store.size(new SmallIntSet(Arrays.asList(1))));
+      assertEquals(4, store.size(new SmallIntSet(Arrays.asList(2))));
+   }
 }
@@ -0,0 +1,152 @@
+package org.infinispan.persistence.support;
+
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.marshall.core.MarshalledEntryImpl;
+import org.infinispan.metadata.InternalMetadata;
+import org.infinispan.persistence.spi.CacheLoader;
+import org.infinispan.persistence.spi.InitializationContext;
+import org.infinispan.persistence.spi.NonBlockingCacheLoader;
+import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNotSame;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+/**
+ * Tests that {@link NonBlockingStoreAdapter} only invokes the blocking loaders in the executor.
+ *
+ * @since 7.2
+ */
+@Test(groups = "unit", testName = "persistence.support.NonBlockingStoreAdapterTest")
+public class NonBlockingStoreAdapterTest extends AbstractInfinispanTest {
+
+   private ExecutorService executor;
+
+   @BeforeMethod
+   public void createExecutor() {
+      executor = Executors.newSingleThreadExecutor(getTestThreadFactory("Persistence"));
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void shutdownExecutor() {
+      executor.shutdownNow();
+   }
+
+   public void testBlockingLoaderInvokedInExecutor() throws Exception {
+      BlockingLoader loader = new BlockingLoader();
+      NotifyingFuture<MarshalledEntry> future = NonBlockingStoreAdapter.load(loader, "k1", executor);
+      // the calling thread isn't blocked while the load is in progress
+      assertFalse(future.isDone());
+      loader.release.countDown();
+      assertEquals("v1", future.get(10, TimeUnit.SECONDS).getValue());
+      assertNotSame(Thread.currentThread(), loader.loadingThread);
+      assertNull(NonBlockingStoreAdapter.load(loader, "missing", executor).get(10, TimeUnit.SECONDS));
+   }
+
+   public void testNonBlockingLoaderInvokedDirectly() throws Exception {
+      final CompletableNotifyingFuture<MarshalledEntry> loaded = new CompletableNotifyingFuture<MarshalledEntry>();
+      NonBlockingLoader loader = new NonBlockingLoader(loaded);
+      Executor failingExecutor = new Executor() {
+         @Override
+         public void execute(Runnable command) {
+            fail("The executor shouldn't be used");
+         }
+      };
+      assertSame(loaded, NonBlockingStoreAdapter.load(loader, "k1", failingExecutor));
+   }
+
+   public void testLoadRejectedByExecutor() throws Exception {
+      BlockingLoader loader = new BlockingLoader();
+      loader.release.countDown();
+      executor.shutdown();
+      NotifyingFuture<MarshalledEntry> future = NonBlockingStoreAdapter.load(loader, "k1", executor);
+      // the load is invoked in the calling thread instead
+      assertTrue(future.isDone());
+      assertEquals("v1", future.get().getValue());
+      assertSame(Thread.currentThread(), loader.loadingThread);
+   }
+
+   public void testFailedLoad() throws Exception {
+      BlockingLoader loader = new BlockingLoader();
+      loader.release.countDown();
+      try {
+         NonBlockingStoreAdapter.load(loader, "failing", executor).get(10, TimeUnit.SECONDS);
+         fail("The load should have failed");
+      } catch (ExecutionException e) {
+         assertTrue(e.getCause() instanceof PersistenceException);
+      }
+   }
+
+   private static MarshalledEntry entry(Object key, Object value) {
+      return new MarshalledEntryImpl<Object, Object>(key, value, (InternalMetadata) null, null);
+   }
+
+   private static class BlockingLoader implements CacheLoader {
+      final CountDownLatch release = new CountDownLatch(1);
+      volatile Thread loadingThread;
+
+      @Override
+      public MarshalledEntry load(Object key) {
+         loadingThread = Thread.currentThread();
+         try {
+            if (!release.await(10, TimeUnit.SECONDS)) {
+               throw new PersistenceException("Timed out waiting to load " + key);
+            }
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PersistenceException(e);
+         }
+         if ("failing".equals(key)) {
+            throw new PersistenceException("Failed loading " + key);
+         }
+         return "k1".equals(key) ? entry(key, "v1") : null;
+      }
+
+      @Override
+      public boolean contains(Object key) {
+         return load(key) != null;
+      }
+
+      @Override
+      public void init(InitializationContext ctx) {
+      }
+
+      @Override
+      public void start() {
+      }
+
+      @Override
+      public void stop() {
+      }
+   }
+
+   private static class NonBlockingLoader extends BlockingLoader implements NonBlockingCacheLoader {
+      private final NotifyingFuture<MarshalledEntry> loaded;
+
+      NonBlockingLoader(NotifyingFuture<MarshalledEntry> loaded) {
+         this.loaded = loaded;
+      }
+
+      @Override
+      public NotifyingFuture<MarshalledEntry> loadAsync(Object key) {
+         return loaded;
+      }
+   }
+}
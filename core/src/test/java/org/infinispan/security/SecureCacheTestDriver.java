@@ -363,6 +363,11 @@ public void testGetCacheEntry_Object(SecureCache<String, String> cache) {
       cache.getCacheEntry("a");
    }
 
+   @TestCachePermission(AuthorizationPermission.READ)
+   public void testGetAll_Set(SecureCache<String, String> cache) {
+      cache.getAll(Collections.singleton("a"));
+   }
+
    @TestCachePermission(AuthorizationPermission.NONE)
    public void testGetTransactionManager(SecureCache<String, String> cache) {
       cache.getTransactionManager();
@@ -52,6 +52,7 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -229,7 +230,8 @@ public Iterator<InternalCacheEntry> answer(InvocationOnMock invocation) {
 
       // check that all segments have been requested
       Set<Integer> oldSegments = ch2.getSegmentsForOwner(addresses[0]);
-      final Set<Integer> newSegments = ch3.getSegmentsForOwner(addresses[0]);
+      // the consistent hash returns an immutable set
+      final Set<Integer> newSegments = new HashSet<Integer>(ch3.getSegmentsForOwner(addresses[0]));
       newSegments.removeAll(oldSegments);
       log.debugf("Rebalancing. Added segments=%s, old segments=%s", newSegments, oldSegments);
       assertEquals(flatRequestedSegments, newSegments);
@@ -16,13 +16,16 @@
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.read.DistributedExecuteCommand;
 import org.infinispan.commands.read.EntrySetCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
 import org.infinispan.commands.read.MapCombineCommand;
 import org.infinispan.commands.read.ReduceCommand;
+import org.infinispan.commands.read.ShuffleCommand;
 import org.infinispan.commands.read.SizeCommand;
 import org.infinispan.commands.read.ValuesCommand;
+import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.remote.MultipleRpcCommand;
 import org.infinispan.commands.remote.SingleRpcCommand;
@@ -53,6 +56,7 @@
 import org.infinispan.util.concurrent.ReclosableLatch;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
+import org.infinispan.xsite.BatchXSiteRpcCommand;
 import org.infinispan.xsite.SingleXSiteRpcCommand;
 import org.infinispan.xsite.XSiteAdminCommand;
 import org.infinispan.xsite.statetransfer.XSiteState;
@@ -304,6 +308,11 @@ public <KOut, VOut> ReduceCommand<KOut, VOut> buildReduceCommand(String taskId,
       return actual.buildReduceCommand(taskId, destinationCache, r, keys);
    }
 
+   @Override
+   public <KOut, VOut> ShuffleCommand<KOut, VOut> buildShuffleCommand(String taskId, Map<KOut, List<VOut>> values, int maxBufferedValues) {
+      return actual.buildShuffleCommand(taskId, values, maxBufferedValues);
+   }
+
    @Override
    public GetInDoubtTxInfoCommand buildGetInDoubtTxInfoCommand() {
       return actual.buildGetInDoubtTxInfoCommand();
@@ -361,6 +370,11 @@ public SingleXSiteRpcCommand buildSingleXSiteRpcCommand(VisitableCommand command
       return actual.buildSingleXSiteRpcCommand(command);
    }
 
+   @Override
+   public BatchXSiteRpcCommand buildBatchXSiteRpcCommand(WriteCommand[] modifications) {
+      return actual.buildBatchXSiteRpcCommand(modifications);
+   }
+
    @Override
    public <K, V, C> EntryRequestCommand<K, V, C> buildEntryRequestCommand(UUID identifier, Set<Integer> segments, Set<K> keysToFilter, KeyValueFilter<? super K, ? super V> filter, Converter<? super K, ? super V, C> converter, Set<Flag> flags) {
       return actual.buildEntryRequestCommand(identifier, segments, keysToFilter, filter, converter, flags);
@@ -383,4 +397,14 @@ public GetCacheEntryCommand buildGetCacheEntryCommand(Object key, Set<Flag> expl
       return actual.buildGetCacheEntryCommand(key, explicitFlags);
    }
 
+   @Override
+   public GetAllCommand buildGetAllCommand(Collection<?> keys, Set<Flag> flags, boolean returnEntries) {
+      return actual.buildGetAllCommand(keys, flags, returnEntries);
+   }
+
+   @Override
+   public ClusteredGetAllCommand buildClusteredGetAllCommand(List<?> keys, Set<Flag> flags, GlobalTransaction gtx) {
+      return actual.buildClusteredGetAllCommand(keys, flags, gtx);
+   }
+
 }
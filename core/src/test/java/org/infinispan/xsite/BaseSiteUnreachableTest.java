@@ -1,6 +1,7 @@
 package org.infinispan.xsite;
 
 import org.infinispan.configuration.cache.BackupConfiguration;
+import org.infinispan.configuration.cache.BackupConfigurationBuilder;
 import org.infinispan.configuration.cache.BackupFailurePolicy;
 import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
@@ -23,7 +24,8 @@ protected void createSites() {
       lonGc
             .site().localSite("LON");
       ConfigurationBuilder lon = getLonActiveConfig();
-      lon.sites().addBackup()
+      BackupConfigurationBuilder lonBackupConfigurationBuilder = lon.sites().addBackup();
+      lonBackupConfigurationBuilder
                .site("NYC")
                .backupFailurePolicy(lonBackupFailurePolicy)
                .replicationTimeout(100) //keep it small so that the test doesn't take long to run
@@ -32,6 +34,7 @@ protected void createSites() {
                .strategy(lonBackupStrategy)
                .failurePolicyClass(lonCustomFailurePolicyClass);
       lon.sites().addInUseBackupSite("NYC");
+      adaptLONConfiguration(lonBackupConfigurationBuilder);
 
       createSite("LON", 2, lonGc, lon);
    }
@@ -39,4 +42,8 @@ protected void createSites() {
    protected ConfigurationBuilder getLonActiveConfig() {
       return getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, true);
    }
+
+   protected void adaptLONConfiguration(BackupConfigurationBuilder builder) {
+      //no-op
+   }
 }
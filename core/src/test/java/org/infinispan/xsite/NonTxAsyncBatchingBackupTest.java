@@ -0,0 +1,109 @@
+package org.infinispan.xsite;
+
+import org.infinispan.configuration.cache.BackupConfiguration;
+import org.infinispan.configuration.cache.BackupConfigurationBuilder;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests the asynchronous backups sent in batches, with compression.
+ *
+ * @since 7.2
+ */
+@Test(groups = "xsite", testName = "xsite.NonTxAsyncBatchingBackupTest")
+public class NonTxAsyncBatchingBackupTest extends AbstractTwoSitesTest {
+
+   public NonTxAsyncBatchingBackupTest() {
+      super.lonBackupStrategy = BackupConfiguration.BackupStrategy.ASYNC;
+      // all the writes are backed up by the same node
+      super.initialClusterSize = 1;
+   }
+
+   @Override
+   protected void adaptLONConfiguration(BackupConfigurationBuilder builder) {
+      // a long delay, so that the batches are sent when they're full
+      builder.asyncBatching().enable().maxBatchSize(10).maxDelay(60000).compression(true);
+   }
+
+   @Override
+   protected ConfigurationBuilder getNycActiveConfig() {
+      return getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+   }
+
+   @Override
+   protected ConfigurationBuilder getLonActiveConfig() {
+      return getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+   }
+
+   public void testCoalescedWrites() throws Exception {
+      AsyncBackupQueue queue = queue();
+      long coalesced = queue.getCoalescedCount();
+      for (int i = 0; i < 5; i++) {
+         cache(LON, 0).put("k", "v" + i);
+      }
+      assertEquals(coalesced + 4, queue.getCoalescedCount());
+      assertTrue(queue.getQueueSize() > 0);
+
+      queue.flush();
+      assertEquals(0, queue.getQueueSize());
+      eventually(new Condition() {
+         @Override
+         public boolean isSatisfied() throws Exception {
+            return "v4".equals(backup(LON).get("k"));
+         }
+      });
+   }
+
+   public void testFullBatchIsSent() throws Exception {
+      Map<String, String> values = new HashMap<String, String>();
+      for (int i = 0; i < 25; i++) {
+         values.put("key" + i, "value" + i);
+      }
+      cache(LON, 0).putAll(values);
+      cache(LON, 0).replace("key0", "value0", "new");
+      queue().flush();
+
+      eventually(new Condition() {
+         @Override
+         public boolean isSatisfied() throws Exception {
+            return "new".equals(backup(LON).get("key0")) && "value24".equals(backup(LON).get("key24"));
+         }
+      });
+      assertTrue(queue().getBatchesSent() >= 3);
+      assertTrue(queue().getAverageBatchSize() <= 10);
+   }
+
+   public void testClear() throws Exception {
+      cache(LON, 0).put("k", "v");
+      queue().flush();
+      eventually(new Condition() {
+         @Override
+         public boolean isSatisfied() throws Exception {
+            return "v".equals(backup(LON).get("k"));
+         }
+      });
+
+      cache(LON, 0).put("k", "v2");
+      cache(LON, 0).clear();
+      cache(LON, 0).put("k3", "v3");
+      queue().flush();
+      eventually(new Condition() {
+         @Override
+         public boolean isSatisfied() throws Exception {
+            return "v3".equals(backup(LON).get("k3")) && backup(LON).get("k") == null;
+         }
+      });
+   }
+
+   private AsyncBackupQueue queue() {
+      BackupSender backupSender = cache(LON, 0).getAdvancedCache().getComponentRegistry().getComponent(BackupSender.class);
+      return backupSender.getAsyncBackupQueue(NYC);
+   }
+}
@@ -0,0 +1,69 @@
+package org.infinispan.xsite.offline;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.BackupConfiguration;
+import org.infinispan.configuration.cache.BackupConfigurationBuilder;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.distribution.MagicKey;
+import org.infinispan.xsite.AsyncBackupQueue;
+import org.infinispan.xsite.BackupSender;
+import org.infinispan.xsite.BackupSenderImpl;
+import org.infinispan.xsite.BaseSiteUnreachableTest;
+import org.infinispan.xsite.OfflineStatus;
+import org.testng.annotations.Test;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests that the batches of asynchronous backups which can't be delivered take the site offline.
+ *
+ * @since 7.2
+ */
+@Test(groups = "xsite", testName = "xsite.offline.AsyncBatchingOfflineTest")
+public class AsyncBatchingOfflineTest extends BaseSiteUnreachableTest {
+
+   private static final int FAILURES = 3;
+
+   public AsyncBatchingOfflineTest() {
+      failures = FAILURES;
+      lonBackupStrategy = BackupConfiguration.BackupStrategy.ASYNC;
+   }
+
+   @Override
+   protected void adaptLONConfiguration(BackupConfigurationBuilder builder) {
+      // a long delay, so that the batches are only sent when flushed
+      builder.asyncBatching().enable().maxDelay(60000);
+   }
+
+   @Override
+   protected ConfigurationBuilder getLonActiveConfig() {
+      return getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+   }
+
+   public void testFailedBatchesTakeSiteOffline() {
+      Cache<Object, Object> cache = cache("LON", 0);
+      BackupSenderImpl bs = (BackupSenderImpl) cache.getAdvancedCache().getComponentRegistry().getComponent(BackupSender.class);
+      OfflineStatus nycStatus = bs.getOfflineStatus("NYC");
+      AsyncBackupQueue queue = bs.getAsyncBackupQueue("NYC");
+
+      for (int i = 0; i < FAILURES; i++) {
+         assertFalse(nycStatus.isOffline());
+         // the writes are backed up by their primary owner
+         cache.put(new MagicKey("k" + i, cache), "v" + i);
+         assertEquals(1, queue.getQueueSize());
+         queue.flush();
+         assertEquals(i + 1, nycStatus.getFailureCount());
+      }
+      assertTrue(nycStatus.isOffline());
+
+      // the writes aren't queued for an offline site
+      cache.put(new MagicKey("k", cache), "v");
+      assertEquals(0, queue.getQueueSize());
+
+      assertEquals(BackupSender.BringSiteOnlineResponse.BROUGHT_ONLINE, bs.bringSiteOnline("NYC"));
+      assertEquals(0, nycStatus.getFailureCount());
+   }
+}
@@ -203,19 +203,28 @@ public Map<K, V> getAll(Set<? extends K> keys) {
          return InfinispanCollections.emptyMap();
       }
 
-      /**
-       * TODO: Just an idea here to consider down the line: if keys.size() is big (TBD...), each of
-       * this get calls could maybe be swapped by getAsync() in order to paralelise the retrieval of
-       * entries. It'd be interesting to do a small performance test to see after which number of
-       * elements doing it in paralel becomes more efficient than sequential :)
-       */
-      Map<K, V> result = new HashMap<K, V>(keys.size());
       for (K key : keys) {
-         V value = get(key);
-         if (value != null) {
-            result.put(key, value);
+         if (lockRequired(key)) {
+            // An entry processor holds the lock on one of the keys, so honour
+            // the per-key locking and retrieve the entries one by one
+            Map<K, V> result = new HashMap<K, V>(keys.size());
+            for (K k : keys) {
+               V value = get(k);
+               if (value != null) {
+                  result.put(k, value);
+               }
+            }
+            return result;
          }
       }
+
+      // A single bulk read, which in a distributed cache issues at most one
+      // remote call per owner instead of one remote call per key
+      Map<K, V> found = configuration.isReadThrough() ? cache.getAll(keys) : skipCacheLoadCache.getAll(keys);
+      Map<K, V> result = new HashMap<K, V>(found);
+      for (Map.Entry<K, V> entry : result.entrySet()) {
+         updateTTLForAccessed(cache, entry.getKey(), entry.getValue());
+      }
       return result;
    }
 
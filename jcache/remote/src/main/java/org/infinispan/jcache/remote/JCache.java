@@ -73,18 +73,9 @@ public Map<K, V> getAll(Set<? extends K> keys) {
          return InfinispanCollections.emptyMap();
       }
 
-      /**
-       * TODO: Just an idea here to consider down the line: if keys.size() is big (TBD...), each of
-       * this get calls could maybe be swapped by getAsync() in order to paralelise the retrieval of
-       * entries. It'd be interesting to do a small performance test to see after which number of
-       * elements doing it in paralel becomes more efficient than sequential :)
-       */
-      Map<K, V> result = new HashMap<K, V>(keys.size());
-      for (K key : keys) {
-         V value = get(key);
-         if (value != null) {
-            result.put(key, value);
-         }
+      Map<K, V> result = new HashMap<K, V>(cacheWithCacheStore.getAll(keys));
+      for (Map.Entry<K, V> entry : result.entrySet()) {
+         updateTTLForAccessed(cache, entry.getKey(), entry.getValue());
       }
       return result;
    }
@@ -72,4 +72,36 @@ public interface BuildContext {
     */
    BuildContext deleteOperationsExecutor(Executor executor);
 
+   /**
+    * Enables the read-ahead of chunks: while an IndexInput reads a segment sequentially, the following chunks are
+    * fetched in the background, with a single multi-key get, and kept in a bounded local cache until they are read.
+    * This avoids a round trip per chunk when scanning segments stored in a distributed cache.
+    * Disabled by default.
+    *
+    * @param chunks the number of chunks to read ahead of the current one; 0 disables the read-ahead
+    * @return the same building context to eventually create the Directory instance
+    */
+   BuildContext readAheadChunks(int chunks);
+
+   /**
+    * Sets the maximum number of chunks kept in the local cache used by the read-ahead; the least recently used chunks
+    * are discarded first. Defaults to twice the number of chunks read ahead. Note that each chunk takes up to
+    * {@link #chunkSize(int)} bytes.
+    *
+    * @param chunks the maximum number of chunks kept locally
+    * @return the same building context to eventually create the Directory instance
+    * @see #readAheadChunks(int)
+    */
+   BuildContext localChunkCacheSize(int chunks);
+
+   /**
+    * Provides an Executor to fetch the chunks read ahead in a background thread. Defaults to the asynchronous
+    * transport executor of the chunks cache.
+    *
+    * @param executor
+    * @return the same building context to eventually create the Directory instance
+    * @see #readAheadChunks(int)
+    */
+   BuildContext readAheadExecutor(Executor executor);
+
 }
@@ -0,0 +1,159 @@
+package org.infinispan.lucene.impl;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.lucene.ChunkCacheKey;
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Reads the chunks of the files of a Directory ahead of the readers.
+ * <p/>
+ * When an {@link InfinispanIndexInput} reads a file sequentially it asks for the following chunks to be prefetched:
+ * they are fetched in the background with a single multi-key get and kept in a bounded, LRU local cache, from which
+ * the chunks are read whenever possible. Lucene never modifies a file once it's written, so the local copies only need
+ * to be discarded when the file is deleted or renamed.
+ *
+ * @since 7.2
+ */
+final class ChunkPrefetcher {
+
+   private static final Log log = LogFactory.getLog(ChunkPrefetcher.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final AdvancedCache<ChunkCacheKey, Object> chunksCache;
+   private final int readAheadChunks;
+   private final Executor executor;
+   private final Map<ChunkCacheKey, byte[]> localChunks;
+   private final ConcurrentMap<ChunkCacheKey, ChunkFetch> pendingFetches = CollectionFactory.makeConcurrentMap();
+
+   ChunkPrefetcher(AdvancedCache<ChunkCacheKey, Object> chunksCache, int readAheadChunks, int localChunkCacheSize,
+                   Executor executor) {
+      this.chunksCache = chunksCache;
+      this.readAheadChunks = readAheadChunks;
+      this.executor = executor;
+      this.localChunks = new BoundedConcurrentHashMap<ChunkCacheKey, byte[]>(localChunkCacheSize,
+            AnyEquivalence.<ChunkCacheKey>getInstance(), AnyEquivalence.<byte[]>getInstance());
+   }
+
+   /**
+    * @return the number of chunks to read ahead of the current one
+    */
+   int getReadAheadChunks() {
+      return readAheadChunks;
+   }
+
+   /**
+    * Returns a chunk, from the local cache if it was already fetched.
+    *
+    * @return the chunk, or {@code null} if it doesn't exist
+    */
+   byte[] getChunk(ChunkCacheKey key) {
+      byte[] chunk = localChunks.get(key);
+      if (chunk != null) {
+         return chunk;
+      }
+      ChunkFetch fetch = pendingFetches.get(key);
+      // waiting for a fetch still in the executor queue could take longer than reading the chunk now
+      if (fetch != null && fetch.started && fetch.await()) {
+         chunk = localChunks.get(key);
+         if (chunk != null) {
+            return chunk;
+         }
+      }
+      chunk = (byte[]) chunksCache.get(key);
+      if (chunk != null) {
+         localChunks.put(key, chunk);
+      }
+      return chunk;
+   }
+
+   /**
+    * Starts fetching the chunks between {@code firstChunk} and {@code lastChunk} (both inclusive) of a file, skipping
+    * those already available locally or being fetched.
+    */
+   void prefetch(String indexName, String fileName, int chunkSize, int firstChunk, int lastChunk) {
+      ChunkFetch fetch = new ChunkFetch();
+      for (int i = firstChunk; i <= lastChunk; i++) {
+         ChunkCacheKey key = new ChunkCacheKey(indexName, fileName, i, chunkSize);
+         if (!localChunks.containsKey(key) && pendingFetches.putIfAbsent(key, fetch) == null) {
+            fetch.keys.add(key);
+         }
+      }
+      if (fetch.keys.isEmpty()) {
+         return;
+      }
+      if (trace) {
+         log.tracef("Prefetching chunks %d to %d of file %s in index %s", firstChunk, lastChunk, fileName, indexName);
+      }
+      try {
+         executor.execute(fetch);
+      } catch (RejectedExecutionException e) {
+         log.debugf(e, "Unable to prefetch chunks of file %s in index %s", fileName, indexName);
+         fetch.release();
+      }
+   }
+
+   /**
+    * Discards the local copies of the chunks of a file.
+    */
+   void invalidate(String fileName) {
+      Iterator<ChunkCacheKey> it = localChunks.keySet().iterator();
+      while (it.hasNext()) {
+         if (it.next().getFileName().equals(fileName)) {
+            it.remove();
+         }
+      }
+   }
+
+   private final class ChunkFetch implements Runnable {
+      final Set<ChunkCacheKey> keys = new HashSet<ChunkCacheKey>();
+      private final CountDownLatch done = new CountDownLatch(1);
+      volatile boolean started;
+
+      @Override
+      public void run() {
+         started = true;
+         try {
+            for (Map.Entry<ChunkCacheKey, Object> chunk : chunksCache.getAll(keys).entrySet()) {
+               if (chunk.getValue() != null) {
+                  localChunks.put(chunk.getKey(), (byte[]) chunk.getValue());
+               }
+            }
+         } catch (Throwable t) {
+            // the readers will fetch the chunks themselves, and report the error if it persists
+            log.debugf(t, "Unable to prefetch chunks %s", keys);
+         } finally {
+            release();
+         }
+      }
+
+      void release() {
+         for (ChunkCacheKey key : keys) {
+            pendingFetches.remove(key, this);
+         }
+         done.countDown();
+      }
+
+      boolean await() {
+         try {
+            done.await();
+            return true;
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+         }
+      }
+   }
+}
@@ -5,6 +5,7 @@
 import org.infinispan.Cache;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.Configurations;
+import org.infinispan.factories.KnownComponentNames;
 import org.infinispan.lucene.directory.BuildContext;
 import org.infinispan.lucene.locking.BaseLockFactory;
 import org.infinispan.lucene.logging.Log;
@@ -14,6 +15,7 @@
 import org.infinispan.util.logging.LogFactory;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 public class DirectoryBuilderImpl implements BuildContext {
 
@@ -43,6 +45,9 @@ public class DirectoryBuilderImpl implements BuildContext {
    private LockFactory lockFactory = null;
    private boolean writeFileListAsync = false;
    private Executor deleteExecutor = null;
+   private int readAheadChunks = 0;
+   private int localChunkCacheSize = -1;
+   private Executor readAheadExecutor = null;
 
    public DirectoryBuilderImpl(Cache<?, ?> metadataCache, Cache<?, ?> chunksCache, Cache<?, ?> distLocksCache, String indexName) {
       this.metadataCache = checkValidConfiguration(checkNotNull(metadataCache, "metadataCache"), indexName);
@@ -63,7 +68,17 @@ public Directory create() {
       if (deleteExecutor == null) {
          deleteExecutor = new WithinThreadExecutor();
       }
-      return new DirectoryLuceneV4(metadataCache, chunksCache, indexName, lockFactory, chunkSize, srl, writeFileListAsync, deleteExecutor);
+      if (readAheadChunks > 0) {
+         if (localChunkCacheSize < 0) {
+            localChunkCacheSize = 2 * readAheadChunks;
+         }
+         if (readAheadExecutor == null) {
+            readAheadExecutor = chunksCache.getAdvancedCache().getComponentRegistry()
+                  .getComponent(ExecutorService.class, KnownComponentNames.ASYNC_TRANSPORT_EXECUTOR);
+         }
+      }
+      return new DirectoryLuceneV4(metadataCache, chunksCache, indexName, lockFactory, chunkSize, srl, writeFileListAsync, deleteExecutor,
+                                   readAheadChunks, localChunkCacheSize, readAheadExecutor);
    }
 
    @Override
@@ -94,6 +109,29 @@ public BuildContext deleteOperationsExecutor(Executor executor) {
       return this;
    }
 
+   @Override
+   public BuildContext readAheadChunks(int chunks) {
+      if (chunks < 0)
+         throw new IllegalArgumentException("readAheadChunks must not be negative");
+      this.readAheadChunks = chunks;
+      return this;
+   }
+
+   @Override
+   public BuildContext localChunkCacheSize(int chunks) {
+      if (chunks <= 0)
+         throw new IllegalArgumentException("localChunkCacheSize must be a positive integer");
+      this.localChunkCacheSize = chunks;
+      return this;
+   }
+
+   @Override
+   public BuildContext readAheadExecutor(Executor executor) {
+      checkNotNull(executor, "executor");
+      this.readAheadExecutor = executor;
+      return this;
+   }
+
    @Override
    public BuildContext overrideWriteLocker(LockFactory lockFactory) {
       checkNotNull(lockFactory, "lockFactory");
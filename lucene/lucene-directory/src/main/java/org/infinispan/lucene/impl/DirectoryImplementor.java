@@ -2,6 +2,7 @@
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.concurrent.Executor;
 
 import org.apache.lucene.index.IndexFileNames;
 import org.apache.lucene.store.IndexOutput;
@@ -39,8 +40,11 @@ class DirectoryImplementor {
     protected final FileListOperations fileOps;
     private final SegmentReadLocker readLocks;
     private final FileCacheKey segmentsGenFileKey;
+    // null if the read-ahead is disabled
+    private final ChunkPrefetcher chunkPrefetcher;
 
-    public DirectoryImplementor(Cache<?, ?> metadataCache, Cache<?, ?> chunksCache, String indexName, int chunkSize, SegmentReadLocker readLocker, boolean fileListUpdatedAsync) {
+    public DirectoryImplementor(Cache<?, ?> metadataCache, Cache<?, ?> chunksCache, String indexName, int chunkSize, SegmentReadLocker readLocker, boolean fileListUpdatedAsync,
+                                int readAheadChunks, int localChunkCacheSize, Executor readAheadExecutor) {
         if (chunkSize <= 0)
            throw new IllegalArgumentException("chunkSize must be a positive integer");
         this.metadataCache = (AdvancedCache<FileCacheKey, FileMetadata>) metadataCache.getAdvancedCache().withFlags(Flag.SKIP_INDEXING);
@@ -50,6 +54,8 @@ public DirectoryImplementor(Cache<?, ?> metadataCache, Cache<?, ?> chunksCache,
         this.fileOps = new FileListOperations(this.metadataCache, indexName, fileListUpdatedAsync);
         segmentsGenFileKey = new FileCacheKey(indexName, IndexFileNames.SEGMENTS_GEN);
         this.readLocks = readLocker;
+        this.chunkPrefetcher = readAheadChunks > 0 ?
+              new ChunkPrefetcher(this.chunksCache, readAheadChunks, localChunkCacheSize, readAheadExecutor) : null;
      }
 
     String[] list() {
@@ -63,6 +69,9 @@ boolean fileExists(final String name) {
     void deleteFile(final String name) {
        fileOps.deleteFileName(name);
        readLocks.deleteOrReleaseReadLock(name);
+       if (chunkPrefetcher != null) {
+          chunkPrefetcher.invalidate(name);
+       }
        if (log.isDebugEnabled()) {
           log.debugf("Removed file: %s from index: %s", name, indexName);
        }
@@ -92,6 +101,10 @@ void renameFile(final String from, final String to) {
 
        // now trigger deletion of old file chunks:
        readLocks.deleteOrReleaseReadLock(from);
+       if (chunkPrefetcher != null) {
+          chunkPrefetcher.invalidate(from);
+          chunkPrefetcher.invalidate(to);
+       }
        if (log.isTraceEnabled()) {
           log.tracef("Renamed file from: %s to: %s in index %s", from, to, indexName);
        }
@@ -143,7 +156,7 @@ else if (!fileMetadata.isMultiChunked()) {
              // safest reaction is to tell this file doesn't exist anymore.
              throw new FileNotFoundException("Error loading metadata for index file: " + fileKey);
           }
-          return new IndexInputContext(chunksCache, fileKey, fileMetadata, readLocks);
+          return new IndexInputContext(chunksCache, fileKey, fileMetadata, readLocks, chunkPrefetcher);
        }
     }
 
@@ -41,10 +41,14 @@ class DirectoryLuceneV4 extends Directory implements DirectoryExtensions {
     * @param readLocker @see org.infinispan.lucene.readlocks for some implementations; you might be able to provide more efficient implementations by controlling the IndexReader's lifecycle.
     * @param fileListUpdatedAsync When true, the writes to the list of currently existing files in the Directory will use the putAsync method rather than put.
     * @param deleteExecutor The Executor to run file deletes in the background
+    * @param readAheadChunks the number of chunks to read ahead of sequential readers, or 0 to disable the read-ahead
+    * @param localChunkCacheSize the maximum number of chunks kept locally for the read-ahead
+    * @param readAheadExecutor The Executor to fetch the chunks read ahead in the background
     */
-   public DirectoryLuceneV4(Cache<?, ?> metadataCache, Cache<?, ?> chunksCache, String indexName, LockFactory lf, int chunkSize, SegmentReadLocker readLocker, boolean fileListUpdatedAsync, Executor deleteExecutor) {
+   public DirectoryLuceneV4(Cache<?, ?> metadataCache, Cache<?, ?> chunksCache, String indexName, LockFactory lf, int chunkSize, SegmentReadLocker readLocker, boolean fileListUpdatedAsync, Executor deleteExecutor,
+                            int readAheadChunks, int localChunkCacheSize, Executor readAheadExecutor) {
       this.deleteExecutor = deleteExecutor;
-      this.impl = new DirectoryImplementor(metadataCache, chunksCache, indexName, chunkSize, readLocker, fileListUpdatedAsync);
+      this.impl = new DirectoryImplementor(metadataCache, chunksCache, indexName, chunkSize, readLocker, fileListUpdatedAsync, readAheadChunks, localChunkCacheSize, readAheadExecutor);
       this.indexName = indexName;
       this.lockFactory = lf;
       this.lockFactory.setLockPrefix(this.getLockID());
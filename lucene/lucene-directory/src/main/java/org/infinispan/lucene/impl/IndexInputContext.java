@@ -12,13 +12,20 @@ public final class IndexInputContext {
    final FileCacheKey fileKey;
    final FileMetadata fileMetadata;
    final SegmentReadLocker readLocks;
+   final ChunkPrefetcher chunkPrefetcher;
 
    public IndexInputContext(AdvancedCache<ChunkCacheKey, Object> chunksCache, FileCacheKey fileKey, FileMetadata fileMetadata,
          SegmentReadLocker readLocks) {
+      this(chunksCache, fileKey, fileMetadata, readLocks, null);
+   }
+
+   IndexInputContext(AdvancedCache<ChunkCacheKey, Object> chunksCache, FileCacheKey fileKey, FileMetadata fileMetadata,
+         SegmentReadLocker readLocks, ChunkPrefetcher chunkPrefetcher) {
             this.chunksCache = chunksCache;
             this.fileKey = fileKey;
             this.fileMetadata = fileMetadata;
             this.readLocks = readLocks;
+            this.chunkPrefetcher = chunkPrefetcher;
    }
 
 }
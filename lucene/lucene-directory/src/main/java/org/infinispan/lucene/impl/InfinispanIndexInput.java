@@ -33,11 +33,17 @@ public class InfinispanIndexInput extends IndexInput {
    private final SegmentReadLocker readLocks;
    private final String filename;
    private final long fileLength;
+   // null if the read-ahead is disabled
+   private final ChunkPrefetcher chunkPrefetcher;
 
    private int currentBufferSize;
    private byte[] buffer;
    private int bufferPosition;
    private int currentLoadedChunk = -1;
+   // the last chunk read, to detect sequential reads
+   private int lastFetchedChunk = -1;
+   // the last chunk already requested to the prefetcher
+   private int lastPrefetchedChunk = -1;
 
    public InfinispanIndexInput(final IndexInputContext ctx) {
       super(ctx.fileKey.getFileName());
@@ -46,15 +52,17 @@ public InfinispanIndexInput(final IndexInputContext ctx) {
       this.chunkSize = ctx.fileMetadata.getBufferSize();
       this.fileLength = ctx.fileMetadata.getSize();
       this.readLocks = ctx.readLocks;
+      this.chunkPrefetcher = ctx.chunkPrefetcher;
       this.filename = fileKey.getFileName();
       if (trace) {
          log.tracef("Opened new IndexInput for file:%s in index: %s", filename, fileKey.getIndexName());
       }
    }
 
-   private InfinispanIndexInput(final String resourceDescription, final Cache<ChunkCacheKey, Object> chunksCache, FileCacheKey fileKey, int chunkSize, String filename, long fileLength) {
+   private InfinispanIndexInput(final String resourceDescription, final Cache<ChunkCacheKey, Object> chunksCache, FileCacheKey fileKey, int chunkSize, String filename, long fileLength, ChunkPrefetcher chunkPrefetcher) {
       super(resourceDescription);
       this.chunksCache = chunksCache;
+      this.chunkPrefetcher = chunkPrefetcher;
       this.fileKey = fileKey;
       this.chunkSize = chunkSize;
       this.filename = filename;
@@ -125,7 +133,7 @@ private void nextChunk() throws IOException {
 
    private void setBufferToCurrentChunk() throws IOException {
       ChunkCacheKey key = new ChunkCacheKey(fileKey.getIndexName(), filename, currentLoadedChunk, chunkSize);
-      buffer = (byte[]) chunksCache.get(key);
+      buffer = fetchChunk(key);
       if (buffer == null) {
          throw new IOException("Read past EOF: Chunk value could not be found for key " + key);
       }
@@ -136,7 +144,7 @@ private void setBufferToCurrentChunk() throws IOException {
    // RAMDirectory teaches to position the cursor to the end of previous chunk in this case
    private void setBufferToCurrentChunkIfPossible() {
       ChunkCacheKey key = new ChunkCacheKey(fileKey.getIndexName(), filename, currentLoadedChunk, chunkSize);
-      buffer = (byte[]) chunksCache.get(key);
+      buffer = fetchChunk(key);
       if (buffer == null) {
          currentLoadedChunk--;
          bufferPosition = chunkSize;
@@ -146,6 +154,30 @@ private void setBufferToCurrentChunkIfPossible() {
       }
    }
 
+   private byte[] fetchChunk(ChunkCacheKey key) {
+      if (chunkPrefetcher == null) {
+         return (byte[]) chunksCache.get(key);
+      }
+      int chunkId = key.getChunkId();
+      if (chunkId == lastFetchedChunk + 1) {
+         // sequential read: keep readAheadChunks chunks ahead, requesting them in batches of at least half of them
+         int readAhead = chunkPrefetcher.getReadAheadChunks();
+         int lastChunk = (int) ((fileLength - 1) / chunkSize);
+         if (lastPrefetchedChunk < chunkId + (readAhead + 1) / 2 && lastPrefetchedChunk < lastChunk) {
+            int from = Math.max(chunkId + 1, lastPrefetchedChunk + 1);
+            int to = Math.min(chunkId + readAhead, lastChunk);
+            if (from <= to) {
+               chunkPrefetcher.prefetch(fileKey.getIndexName(), filename, chunkSize, from, to);
+            }
+            lastPrefetchedChunk = to;
+         }
+      } else {
+         lastPrefetchedChunk = chunkId;
+      }
+      lastFetchedChunk = chunkId;
+      return chunkPrefetcher.getChunk(key);
+   }
+
    @Override
    public long length() {
       return this.fileLength;
@@ -166,7 +198,7 @@ public IndexInput slice(String sliceDescription, long offset, long length) throw
    }
 
    InfinispanIndexInput copyAndReset() {
-      return new InfinispanIndexInput(filename, chunksCache, fileKey, chunkSize, filename, fileLength);
+      return new InfinispanIndexInput(filename, chunksCache, fileKey, chunkSize, filename, fileLength, chunkPrefetcher);
    }
 
 }
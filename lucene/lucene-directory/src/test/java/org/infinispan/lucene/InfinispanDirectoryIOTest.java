@@ -23,6 +23,7 @@
 import org.infinispan.lucene.impl.InfinispanIndexOutput;
 import org.infinispan.manager.CacheContainer;
 import org.infinispan.test.TestingUtil;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.testng.AssertJUnit;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.AfterTest;
@@ -157,6 +158,28 @@ public void testReadWholeFile() throws IOException {
       DirectoryIntegrityCheck.verifyDirectoryStructure(cache, INDEXNAME);
    }
 
+   @Test
+   public void testReadWholeFileWithReadAhead() throws IOException {
+      final int BUFFER_SIZE = 64;
+
+      Cache cache = cacheManager.getCache();
+      // the chunks are prefetched in the reading thread, and some are discarded before being read
+      Directory dir = DirectoryBuilder.newDirectoryInstance(cache, cache, cache, INDEXNAME)
+         .chunkSize(BUFFER_SIZE)
+         .overrideSegmentReadLocker(makeTestableReadLocker(cache, INDEXNAME))
+         .readAheadChunks(4)
+         .localChunkCacheSize(3)
+         .readAheadExecutor(new WithinThreadExecutor())
+         .create();
+
+      verifyOnBuffer("MultipleChunks.txt", 10000, BUFFER_SIZE, cache, dir, 33);
+      verifyOnBuffer("LonelyByteInLastChunk.txt", 257, BUFFER_SIZE, cache, dir, 12);
+      assertHasNChunks(5, cache, INDEXNAME, "LonelyByteInLastChunk.txt.bak", BUFFER_SIZE);
+
+      dir.close();
+      DirectoryIntegrityCheck.verifyDirectoryStructure(cache, INDEXNAME);
+   }
+
    private SegmentReadLocker makeTestableReadLocker(Cache cache, String indexName) {
       return new DistributedSegmentReadLocker(cache, cache, cache, indexName, true);
    }
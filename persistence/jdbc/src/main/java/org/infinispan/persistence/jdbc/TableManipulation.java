@@ -40,6 +40,8 @@ public class TableManipulation implements Cloneable {
    /* Cache the sql for managing data */
    private String insertRowSql;
    private String updateRowSql;
+   private String upsertRowSql;
+   private boolean upsertRowSqlInitialized;
    private String selectRowSql;
    private String selectIdRowSql;
    private String deleteRowSql;
@@ -190,6 +192,39 @@ public String getUpdateRowSql() {
       return updateRowSql;
    }
 
+   /**
+    * Returns a statement which inserts a row, or updates it if it already exists, in a single operation. The
+    * parameters are the same as the ones of {@link #getInsertRowSql()}.
+    *
+    * @return the statement, or {@code null} if the database doesn't support it
+    */
+   public String getUpsertRowSql() {
+      if (!upsertRowSqlInitialized) {
+         String columns = " (" + config.dataColumnName() + ", " + config.timestampColumnName() + ", " + config.idColumnName() + ")";
+         switch (getDialect()) {
+            case MYSQL:
+               upsertRowSql = getInsertRowSql() + " ON DUPLICATE KEY UPDATE " + config.dataColumnName() + " = VALUES(" + config.dataColumnName() + "), " + config.timestampColumnName() + " = VALUES(" + config.timestampColumnName() + ")";
+               break;
+            case H2:
+               upsertRowSql = "MERGE INTO " + getTableName() + columns + " KEY(" + config.idColumnName() + ") VALUES(?,?,?)";
+               break;
+            case SQLITE:
+               upsertRowSql = "INSERT OR REPLACE INTO " + getTableName() + columns + " VALUES(?,?,?)";
+               break;
+            case SQL_SERVER:
+               upsertRowSql = "MERGE " + getTableName() + " WITH (HOLDLOCK) AS t USING (VALUES(?,?,?)) AS tmp" + columns + " ON t." + config.idColumnName() + " = tmp." + config.idColumnName() +
+                     " WHEN MATCHED THEN UPDATE SET " + config.dataColumnName() + " = tmp." + config.dataColumnName() + ", " + config.timestampColumnName() + " = tmp." + config.timestampColumnName() +
+                     " WHEN NOT MATCHED THEN INSERT" + columns + " VALUES(tmp." + config.dataColumnName() + ", tmp." + config.timestampColumnName() + ", tmp." + config.idColumnName() + ");";
+               break;
+            default:
+               upsertRowSql = null;
+               break;
+         }
+         upsertRowSqlInitialized = true;
+      }
+      return upsertRowSql;
+   }
+
    public String getSelectRowSql() {
       if (selectRowSql == null) {
          switch(getDialect()) {
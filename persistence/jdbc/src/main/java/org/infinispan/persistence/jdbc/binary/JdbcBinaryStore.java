@@ -8,6 +8,7 @@
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
@@ -35,6 +36,7 @@
 import org.infinispan.persistence.jdbc.connectionfactory.ManagedConnectionFactory;
 import org.infinispan.persistence.jdbc.logging.Log;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.BatchingCacheWriter;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.persistence.support.Bucket;
@@ -59,7 +61,7 @@
  * @see org.infinispan.persistence.jdbc.stringbased.JdbcStringBasedStore
  */
 @ConfiguredBy(JdbcBinaryStoreConfiguration.class)
-public class JdbcBinaryStore implements AdvancedLoadWriteStore {
+public class JdbcBinaryStore implements AdvancedLoadWriteStore, BatchingCacheWriter {
 
    private static final Log log = LogFactory.getLog(JdbcBinaryStore.class, Log.class);
 
@@ -134,6 +136,78 @@ public final void write(MarshalledEntry entry) {
       }
    }
 
+   /**
+    * Groups the entries by bucket, so that each bucket is read and written only once.
+    */
+   @Override
+   public final void writeBatch(Iterable entries) {
+      long now = ctx.getTimeService().wallClockTime();
+      List<Object> expiredKeys = new ArrayList<Object>();
+      Map<Integer, List<MarshalledEntry>> entriesByBucket = new LinkedHashMap<Integer, List<MarshalledEntry>>();
+      for (Object o : entries) {
+         MarshalledEntry entry = (MarshalledEntry) o;
+         InternalMetadata m = entry.getMetadata();
+         if (m != null && m.isExpired(now)) {
+            expiredKeys.add(entry.getKey());
+            continue;
+         }
+         Integer bucketId = getBuckedId(entry.getKey());
+         List<MarshalledEntry> bucketEntries = entriesByBucket.get(bucketId);
+         if (bucketEntries == null) {
+            bucketEntries = new ArrayList<MarshalledEntry>();
+            entriesByBucket.put(bucketId, bucketEntries);
+         }
+         bucketEntries.add(entry);
+      }
+      if (!expiredKeys.isEmpty()) {
+         deleteBatch(expiredKeys);
+      }
+      for (Map.Entry<Integer, List<MarshalledEntry>> e : entriesByBucket.entrySet()) {
+         Integer bucketId = e.getKey();
+         lockBucketForWriting(bucketId);
+         try {
+            storeInBucket(e.getValue(), bucketId);
+         } finally {
+            unlock(bucketId);
+         }
+      }
+   }
+
+   /**
+    * Groups the keys by bucket, so that each bucket is read and written only once.
+    */
+   @Override
+   public final void deleteBatch(Iterable keys) {
+      Map<Integer, List<Object>> keysByBucket = new LinkedHashMap<Integer, List<Object>>();
+      for (Object key : keys) {
+         Integer bucketId = getBuckedId(key);
+         List<Object> bucketKeys = keysByBucket.get(bucketId);
+         if (bucketKeys == null) {
+            bucketKeys = new ArrayList<Object>();
+            keysByBucket.put(bucketId, bucketKeys);
+         }
+         bucketKeys.add(key);
+      }
+      for (Map.Entry<Integer, List<Object>> e : keysByBucket.entrySet()) {
+         Integer bucketId = e.getKey();
+         lockBucketForWriting(bucketId);
+         try {
+            Bucket bucket = loadBucket(bucketId);
+            if (bucket != null) {
+               boolean removed = false;
+               for (Object key : e.getValue()) {
+                  removed |= bucket.removeEntry(key);
+               }
+               if (removed) {
+                  updateBucket(bucket);
+               }
+            }
+         } finally {
+            unlock(bucketId);
+         }
+      }
+   }
+
    @Override
    public final MarshalledEntry load(Object key) {
       Integer bucketId = getBuckedId(key);
@@ -588,6 +662,23 @@ protected void storeInBucket(MarshalledEntry me, Integer bucketId) {
       }
    }
 
+   protected void storeInBucket(List<MarshalledEntry> entries, Integer bucketId) {
+      Bucket bucket = loadBucket(bucketId);
+      boolean exists = bucket != null;
+      if (!exists) {
+         bucket = new Bucket(keyEquivalence);
+         bucket.setBucketId(bucketId);
+      }
+      for (MarshalledEntry me : entries) {
+         bucket.addEntry(me.getKey(), me);
+      }
+      if (exists) {
+         updateBucket(bucket);
+      } else {
+         insertBucket(bucket);
+      }
+   }
+
    protected boolean removeKeyFromBucket(Object key, Integer bucketId) {
       Bucket bucket = loadBucket(bucketId);
       if (bucket == null) {
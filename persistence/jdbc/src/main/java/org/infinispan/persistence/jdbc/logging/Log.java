@@ -144,4 +144,8 @@ public interface Log extends org.infinispan.util.logging.Log {
 
    @Message(value = "Cannot specify a ConnectionFactory and manageConnectionFactory at the same time", id = 8030)
    CacheConfigurationException unmanagedConnectionFactory();
+
+   @LogMessage(level = ERROR)
+   @Message(value = "Error while storing a batch of %d string keys to database", id = 8031)
+   void sqlFailureStoringKeys(int count, @Cause SQLException e);
 }
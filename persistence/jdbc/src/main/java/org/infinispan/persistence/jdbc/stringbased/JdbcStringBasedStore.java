@@ -8,6 +8,9 @@
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
@@ -31,6 +34,7 @@
 import org.infinispan.persistence.keymappers.TwoWayKey2StringMapper;
 import org.infinispan.persistence.keymappers.UnsupportedKeyTypeException;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.BatchingCacheWriter;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.util.KeyValuePair;
@@ -71,7 +75,7 @@
  * @see org.infinispan.persistence.keymappers.DefaultTwoWayKey2StringMapper
  */
 @ConfiguredBy(JdbcStringBasedStoreConfiguration.class)
-public class JdbcStringBasedStore implements AdvancedLoadWriteStore {
+public class JdbcStringBasedStore implements AdvancedLoadWriteStore, BatchingCacheWriter {
 
    private static final Log log = LogFactory.getLog(JdbcStringBasedStore.class, Log.class);
 
@@ -186,6 +190,84 @@ public void write(MarshalledEntry entry) {
       }
    }
 
+   /**
+    * Writes the entries with JDBC batches of {@link TableManipulation#getBatchSize()} statements. If the database
+    * supports it, each entry is upserted, otherwise the entries are first updated and the ones which don't exist yet
+    * are inserted afterwards.
+    */
+   @Override
+   public void writeBatch(Iterable entries) {
+      List<MarshalledEntry> batch = new ArrayList<MarshalledEntry>();
+      int batchSize = tableManipulation.getBatchSize();
+      for (Object entry : entries) {
+         batch.add((MarshalledEntry) entry);
+         if (batch.size() == batchSize) {
+            writeChunk(batch);
+            batch.clear();
+         }
+      }
+      if (!batch.isEmpty()) {
+         writeChunk(batch);
+      }
+   }
+
+   private void writeChunk(List<MarshalledEntry> batch) {
+      Connection connection = null;
+      PreparedStatement ps = null;
+      try {
+         connection = connectionFactory.getConnection();
+         String sql = tableManipulation.getUpsertRowSql();
+         boolean upsert = sql != null;
+         if (!upsert) {
+            sql = tableManipulation.getUpdateRowSql();
+         }
+         if (log.isTraceEnabled()) {
+            log.tracef("Running sql '%s' for a batch of %d keys", sql, batch.size());
+         }
+         ps = connection.prepareStatement(sql);
+         for (MarshalledEntry entry : batch) {
+            updateStatement(entry, key2Str(entry.getKey()), ps);
+            ps.addBatch();
+         }
+         int[] updatedRows = ps.executeBatch();
+         if (!upsert) {
+            List<MarshalledEntry> missing = new ArrayList<MarshalledEntry>();
+            for (int i = 0; i < updatedRows.length; i++) {
+               // some drivers don't tell whether a row was updated, so it has to be checked
+               if (updatedRows[i] == 0 ||
+                     (updatedRows[i] == Statement.SUCCESS_NO_INFO && !rowExists(connection, key2Str(batch.get(i).getKey())))) {
+                  missing.add(batch.get(i));
+               }
+            }
+            JdbcUtil.safeClose(ps);
+            ps = null;
+            if (!missing.isEmpty()) {
+               sql = tableManipulation.getInsertRowSql();
+               if (log.isTraceEnabled()) {
+                  log.tracef("Running sql '%s' for a batch of %d keys", sql, missing.size());
+               }
+               ps = connection.prepareStatement(sql);
+               for (MarshalledEntry entry : missing) {
+                  updateStatement(entry, key2Str(entry.getKey()), ps);
+                  ps.addBatch();
+               }
+               ps.executeBatch();
+            }
+         }
+      } catch (SQLException ex) {
+         log.sqlFailureStoringKeys(batch.size(), ex);
+         throw new PersistenceException(String.format("Error while storing a batch of %d string keys to database", batch.size()), ex);
+      } catch (InterruptedException e) {
+         if (log.isTraceEnabled()) {
+            log.trace("Interrupted while marshalling to store");
+         }
+         Thread.currentThread().interrupt();
+      } finally {
+         JdbcUtil.safeClose(ps);
+         connectionFactory.releaseConnection(connection);
+      }
+   }
+
    @Override
    public MarshalledEntry load(Object key) {
       String lockingKey = key2Str(key);
@@ -244,6 +326,41 @@ public boolean delete(Object key) {
       }
    }
 
+   @Override
+   public void deleteBatch(Iterable keys) {
+      Connection connection = null;
+      PreparedStatement ps = null;
+      try {
+         String sql = tableManipulation.getDeleteRowSql();
+         connection = connectionFactory.getConnection();
+         ps = connection.prepareStatement(sql);
+         int batchSize = tableManipulation.getBatchSize();
+         int statements = 0;
+         for (Object key : keys) {
+            ps.setString(1, key2Str(key));
+            ps.addBatch();
+            if (++statements % batchSize == 0) {
+               if (log.isTraceEnabled()) {
+                  log.tracef("Running sql '%s' for a batch of %d keys", sql, batchSize);
+               }
+               ps.executeBatch();
+            }
+         }
+         if (statements % batchSize != 0) {
+            if (log.isTraceEnabled()) {
+               log.tracef("Running sql '%s' for a batch of %d keys", sql, statements % batchSize);
+            }
+            ps.executeBatch();
+         }
+      } catch (SQLException ex) {
+         log.sqlFailureRemovingKeys(ex);
+         throw new PersistenceException("Error while removing string keys from database", ex);
+      } finally {
+         JdbcUtil.safeClose(ps);
+         connectionFactory.releaseConnection(connection);
+      }
+   }
+
    @Override
    public void clear() throws PersistenceException {
       Connection conn = null;
@@ -399,6 +516,20 @@ private void updateStatement(MarshalledEntry entry, String key, PreparedStatemen
       ps.setString(3, key);
    }
 
+   private boolean rowExists(Connection connection, String keyStr) throws SQLException {
+      PreparedStatement ps = null;
+      ResultSet rs = null;
+      try {
+         ps = connection.prepareStatement(tableManipulation.getSelectIdRowSql());
+         ps.setString(1, keyStr);
+         rs = ps.executeQuery();
+         return rs.next();
+      } finally {
+         JdbcUtil.safeClose(rs);
+         JdbcUtil.safeClose(ps);
+      }
+   }
+
    private String key2Str(Object key) throws PersistenceException {
       if (!key2StringMapper.isSupportedType(key.getClass())) {
          throw new UnsupportedKeyTypeException(key);
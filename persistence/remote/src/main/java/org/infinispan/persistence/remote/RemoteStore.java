@@ -14,8 +14,12 @@
 import org.infinispan.commons.marshall.Marshaller;
 import org.infinispan.commons.marshall.jboss.GenericJBossMarshaller;
 import org.infinispan.commons.util.Util;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.commons.util.concurrent.FutureListener;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.container.InternalEntryFactory;
 import org.infinispan.container.versioning.NumericVersion;
+import org.infinispan.factories.KnownComponentNames;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.persistence.TaskContextImpl;
@@ -26,6 +30,8 @@
 import org.infinispan.persistence.remote.wrapper.HotRodEntryMarshaller;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
 import org.infinispan.persistence.spi.InitializationContext;
+import org.infinispan.persistence.spi.NonBlockingCacheLoader;
+import org.infinispan.persistence.spi.NonBlockingCacheWriter;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.metadata.EmbeddedMetadata;
 import org.infinispan.metadata.InternalMetadata;
@@ -33,7 +39,12 @@
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -53,7 +64,7 @@
  */
 @ThreadSafe
 @ConfiguredBy(RemoteStoreConfiguration.class)
-public class RemoteStore implements AdvancedLoadWriteStore {
+public class RemoteStore implements AdvancedLoadWriteStore, NonBlockingCacheLoader, NonBlockingCacheWriter {
 
    private static final Log log = LogFactory.getLog(RemoteStore.class, Log.class);
 
@@ -66,6 +77,7 @@ public class RemoteStore implements AdvancedLoadWriteStore {
    private static final String LIFESPAN = "lifespan";
    private static final String MAXIDLE = "maxidle";
    protected InitializationContext ctx;
+   private Executor executor;
 
    @Override
    public void init(InitializationContext ctx) {
@@ -95,6 +107,8 @@ public void start() throws PersistenceException {
       if (configuration.rawValues() && iceFactory == null) {
          iceFactory = ctx.getCache().getAdvancedCache().getComponentRegistry().getComponent(InternalEntryFactory.class);
       }
+      executor = ctx.getCache().getAdvancedCache().getComponentRegistry().getComponent(ExecutorService.class,
+                                                                                     KnownComponentNames.PERSISTENCE_EXECUTOR);
    }
 
    @Override
@@ -123,6 +137,31 @@ public MarshalledEntry load(Object key) throws PersistenceException {
       }
    }
 
+   @Override
+   public NotifyingFuture<MarshalledEntry> loadAsync(final Object key) {
+      if (configuration.rawValues()) {
+         // the metadata of raw values can only be read synchronously
+         return invokeInExecutor(new Callable<MarshalledEntry>() {
+            @Override
+            public MarshalledEntry call() {
+               return load(key);
+            }
+         });
+      }
+      final CompletableNotifyingFuture<MarshalledEntry> result = new CompletableNotifyingFuture<MarshalledEntry>();
+      remoteCache.getAsync(key).attachListener(new FutureListener<Object>() {
+         @Override
+         public void futureDone(Future<Object> future) {
+            try {
+               result.complete((MarshalledEntry) future.get());
+            } catch (Throwable t) {
+               result.completeExceptionally(toPersistenceException(t));
+            }
+         }
+      });
+      return result;
+   }
+
    @Override
    public boolean contains(Object key) throws PersistenceException {
       return remoteCache.containsKey(key);
@@ -169,6 +208,30 @@ public void write(MarshalledEntry entry) throws PersistenceException {
       remoteCache.put(entry.getKey(), configuration.rawValues() ? entry.getValue() : entry, toSeconds(lifespan, entry.getKey(), LIFESPAN), TimeUnit.SECONDS, toSeconds(maxIdle, entry.getKey(), MAXIDLE), TimeUnit.SECONDS);
    }
 
+   @Override
+   public NotifyingFuture<Void> writeAsync(MarshalledEntry entry) {
+      if (log.isTraceEnabled()) {
+         log.tracef("Adding entry asynchronously: %s", entry);
+      }
+      InternalMetadata metadata = entry.getMetadata();
+      long lifespan = metadata != null ? metadata.lifespan() : -1;
+      long maxIdle = metadata != null ? metadata.maxIdle() : -1;
+      final CompletableNotifyingFuture<Void> result = new CompletableNotifyingFuture<Void>();
+      remoteCache.putAsync(entry.getKey(), configuration.rawValues() ? entry.getValue() : entry, toSeconds(lifespan, entry.getKey(), LIFESPAN), TimeUnit.SECONDS, toSeconds(maxIdle, entry.getKey(), MAXIDLE), TimeUnit.SECONDS)
+            .attachListener(new FutureListener<Object>() {
+               @Override
+               public void futureDone(Future<Object> future) {
+                  try {
+                     future.get();
+                     result.complete(null);
+                  } catch (Throwable t) {
+                     result.completeExceptionally(toPersistenceException(t));
+                  }
+               }
+            });
+      return result;
+   }
+
    @Override
    public void clear() throws PersistenceException {
       remoteCache.clear();
@@ -182,6 +245,46 @@ public boolean delete(Object key) throws PersistenceException {
       return remoteCache.withFlags(Flag.FORCE_RETURN_VALUE).remove(key) != null;
    }
 
+   @Override
+   public NotifyingFuture<Boolean> deleteAsync(final Object key) {
+      // the flags of the remote cache only apply to the operations of the invoking thread
+      return invokeInExecutor(new Callable<Boolean>() {
+         @Override
+         public Boolean call() {
+            return delete(key);
+         }
+      });
+   }
+
+   private <T> NotifyingFuture<T> invokeInExecutor(final Callable<T> operation) {
+      final CompletableNotifyingFuture<T> result = new CompletableNotifyingFuture<T>();
+      Runnable task = new Runnable() {
+         @Override
+         public void run() {
+            try {
+               result.complete(operation.call());
+            } catch (Throwable t) {
+               result.completeExceptionally(toPersistenceException(t));
+            }
+         }
+      };
+      if (executor == null) {
+         task.run();
+         return result;
+      }
+      try {
+         executor.execute(task);
+      } catch (RejectedExecutionException e) {
+         task.run();
+      }
+      return result;
+   }
+
+   private static PersistenceException toPersistenceException(Throwable t) {
+      Throwable cause = t instanceof ExecutionException ? t.getCause() : t;
+      return cause instanceof PersistenceException ? (PersistenceException) cause : new PersistenceException(cause);
+   }
+
    private long toSeconds(long millis, Object key, String desc) {
       if (millis > 0 && millis < 1000) {
          if (log.isTraceEnabled()) {
@@ -1,6 +1,8 @@
 package org.infinispan.persistence.remote;
 
 import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertNull;
 import static org.testng.AssertJUnit.assertTrue;
 
@@ -21,6 +23,8 @@
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.Test;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author Mircea.Markus@jboss.com
  * @since 4.1
@@ -94,6 +98,13 @@ public void testReplaceExpiredEntry() throws Exception {
       cl.write(marshalledEntry(internalCacheEntry("k1", "v2", 100l)));
       assertTrue(cl.load("k1").getValue().equals("v2") || TestingUtil.moreThanDurationElapsed(start, 100));
    }
-}
-
 
+   public void testNonBlockingOperations() throws Exception {
+      RemoteStore store = (RemoteStore) cl;
+      store.writeAsync(marshalledEntry(internalCacheEntry("k1", "v1", -1))).get(10, TimeUnit.SECONDS);
+      assertEquals("v1", store.loadAsync("k1").get(10, TimeUnit.SECONDS).getValue());
+      assertTrue((Boolean) store.deleteAsync("k1").get(10, TimeUnit.SECONDS));
+      assertFalse((Boolean) store.deleteAsync("k1").get(10, TimeUnit.SECONDS));
+      assertNull(store.loadAsync("k1").get(10, TimeUnit.SECONDS));
+   }
+}
@@ -23,8 +23,11 @@
 import org.apache.http.util.EntityUtils;
 import org.infinispan.commons.configuration.ConfiguredBy;
 import org.infinispan.commons.util.Util;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.container.InternalEntryFactory;
 import org.infinispan.executors.ExecutorAllCompletionService;
+import org.infinispan.factories.threads.DefaultThreadFactory;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.metadata.InternalMetadata;
@@ -38,6 +41,8 @@
 import org.infinispan.persistence.rest.metadata.MetadataHelper;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
 import org.infinispan.persistence.spi.InitializationContext;
+import org.infinispan.persistence.spi.NonBlockingCacheLoader;
+import org.infinispan.persistence.spi.NonBlockingCacheWriter;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.util.logging.LogFactory;
 
@@ -52,6 +57,9 @@
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -62,7 +70,7 @@
  */
 @ThreadSafe
 @ConfiguredBy(RestStoreConfiguration.class)
-public class RestStore implements AdvancedLoadWriteStore {
+public class RestStore implements AdvancedLoadWriteStore, NonBlockingCacheLoader, NonBlockingCacheWriter {
    private static final String MAX_IDLE_TIME_SECONDS = "maxIdleTimeSeconds";
    private static final String TIME_TO_LIVE_SECONDS = "timeToLiveSeconds";
    private static final Log log = LogFactory.getLog(RestStore.class, Log.class);
@@ -77,6 +85,7 @@ public class RestStore implements AdvancedLoadWriteStore {
    private final URLCodec urlCodec = new URLCodec();
    private InitializationContext ctx;
    private HttpHost httpHost;
+   private ThreadPoolExecutor requestExecutor;
 
 
    @Override
@@ -116,10 +125,16 @@ public void start()   {
       } catch (EncoderException e) {
       }
       this.metadataHelper = Util.getInstance(configuration.metadataHelper(), ctx.getCache().getAdvancedCache().getClassLoader());
+      // the asynchronous requests can't use more threads than there are connections
+      requestExecutor = new ThreadPoolExecutor(pool.maxTotalConnections(), pool.maxTotalConnections(), 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(), new DefaultThreadFactory(null, Thread.NORM_PRIORITY, "%c-t%t", null,
+                                                                          "RestStore-" + ctx.getCache().getName()));
+      requestExecutor.allowCoreThreadTimeOut(true);
    }
 
    @Override
    public void stop()   {
+      requestExecutor.shutdown();
       connectionManager.shutdown();
    }
 
@@ -248,6 +263,57 @@ public MarshalledEntry load(Object key) {
       }
    }
 
+   @Override
+   public NotifyingFuture<MarshalledEntry> loadAsync(final Object key) {
+      return invokeAsync(new Callable<MarshalledEntry>() {
+         @Override
+         public MarshalledEntry call() {
+            return load(key);
+         }
+      });
+   }
+
+   @Override
+   public NotifyingFuture<Void> writeAsync(final MarshalledEntry entry) {
+      return invokeAsync(new Callable<Void>() {
+         @Override
+         public Void call() {
+            write(entry);
+            return null;
+         }
+      });
+   }
+
+   @Override
+   public NotifyingFuture<Boolean> deleteAsync(final Object key) {
+      return invokeAsync(new Callable<Boolean>() {
+         @Override
+         public Boolean call() {
+            return delete(key);
+         }
+      });
+   }
+
+   private <T> NotifyingFuture<T> invokeAsync(final Callable<T> request) {
+      final CompletableNotifyingFuture<T> result = new CompletableNotifyingFuture<T>();
+      Runnable task = new Runnable() {
+         @Override
+         public void run() {
+            try {
+               result.complete(request.call());
+            } catch (Throwable t) {
+               result.completeExceptionally(t);
+            }
+         }
+      };
+      try {
+         requestExecutor.execute(task);
+      } catch (RejectedExecutionException e) {
+         task.run();
+      }
+      return result;
+   }
+
    private long timeoutToSeconds(long timeout) {
       if (timeout < 0)
          return -1;
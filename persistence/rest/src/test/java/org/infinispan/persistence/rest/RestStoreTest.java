@@ -1,11 +1,14 @@
 package org.infinispan.persistence.rest;
 
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.global.GlobalConfigurationBuilder;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.factories.GlobalComponentRegistry;
 import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.BaseStoreTest;
 import org.infinispan.persistence.rest.configuration.RestStoreConfigurationBuilder;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
@@ -17,8 +20,14 @@
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
 
 /**
  * @author Tristan Tarrant
@@ -87,4 +96,29 @@ public void testReplaceExpiredEntry() throws Exception {
       assertEquals("v2", cl.load("k1").getValue());
    }
 
+   public void testNonBlockingOperations() throws Exception {
+      RestStore store = (RestStore) cl;
+      store.writeAsync(marshalledEntry(internalCacheEntry("k1", "v1", -1))).get(10, TimeUnit.SECONDS);
+      assertEquals("v1", store.loadAsync("k1").get(10, TimeUnit.SECONDS).getValue());
+      assertTrue(store.deleteAsync("k1").get(10, TimeUnit.SECONDS));
+      assertFalse(store.deleteAsync("k1").get(10, TimeUnit.SECONDS));
+      assertNull(store.loadAsync("k1").get(10, TimeUnit.SECONDS));
+   }
+
+   public void testConcurrentNonBlockingLoads() throws Exception {
+      RestStore store = (RestStore) cl;
+      int numKeys = 20;
+      for (int i = 0; i < numKeys; i++) {
+         cl.write(marshalledEntry(internalCacheEntry("k" + i, "v" + i, -1)));
+      }
+      // more loads than pooled connections, the extra ones wait for a request thread
+      List<NotifyingFuture<MarshalledEntry>> loads = new ArrayList<NotifyingFuture<MarshalledEntry>>();
+      for (int i = 0; i < numKeys; i++) {
+         loads.add(store.loadAsync("k" + i));
+      }
+      CompletableNotifyingFuture.allOf(loads).get(10, TimeUnit.SECONDS);
+      for (int i = 0; i < numKeys; i++) {
+         assertEquals("v" + i, loads.get(i).get().getValue());
+      }
+   }
 }
@@ -9,6 +9,7 @@ import javax.management.{ObjectName, MBeanServer}
 import org.infinispan.server.core.transport.TimeoutEnabledChannelInitializer
 import org.infinispan.server.core.transport.NettyChannelInitializer
 import io.netty.channel.{Channel, ChannelInitializer}
+import io.netty.util.concurrent.EventExecutorGroup
 
 /**
  * A common protocol server dealing with common property parameter validation and assignment and transport lifecycle.
@@ -21,6 +22,7 @@ abstract class AbstractProtocolServer(protocolName: String) extends ProtocolServ
    protected var cacheManager: EmbeddedCacheManager = _
    protected var configuration: SuitableConfiguration = null.asInstanceOf[SuitableConfiguration]
    private var transportObjName: ObjectName = _
+   private var jmxGroupPrefix: String = _
    private var mbeanServer: MBeanServer = _
    private var isGlobalStatsEnabled: Boolean = _
 
@@ -67,11 +69,15 @@ abstract class AbstractProtocolServer(protocolName: String) extends ProtocolServ
          new NettyChannelInitializer(this, getEncoder)
    }
 
+   override def getRequestExecutor: EventExecutorGroup =
+      if (transport != null) transport.requestGroup else null
+
    protected def registerTransportMBean() {
       val globalCfg = cacheManager.getCacheManagerConfiguration
       mbeanServer = JmxUtil.lookupMBeanServer(globalCfg)
       val groupName = "type=Server,name=%s".format(getQualifiedName())
       val jmxDomain = JmxUtil.buildJmxDomain(globalCfg, mbeanServer, groupName)
+      jmxGroupPrefix = "%s:%s".format(jmxDomain, groupName)
 
       // Pick up metadata from the component metadata repository
       val meta = LifecycleCallbacks.componentMetadataRepo
@@ -84,6 +90,22 @@ abstract class AbstractProtocolServer(protocolName: String) extends ProtocolServ
       JmxUtil.registerMBean(dynamicMBean, transportObjName, mbeanServer)
    }
 
+   /**
+    * Registers an additional MBean of the server, e.g. a JMX MXBean, under the given component name and properties.
+    * Returns null if the statistics of the server are not exposed through JMX.
+    */
+   private[server] def registerComponentMBean(mbean: AnyRef, component: String): ObjectName = {
+      if (mbeanServer == null) return null
+      val objName = new ObjectName("%s,component=%s".format(jmxGroupPrefix, component))
+      JmxUtil.registerMBean(mbean, objName, mbeanServer)
+      objName
+   }
+
+   private[server] def unregisterComponentMBean(objName: ObjectName) {
+      if (mbeanServer != null)
+         JmxUtil.unregisterMBean(objName, mbeanServer)
+   }
+
    protected def unregisterTransportMBean() {
       if (mbeanServer != null && transportObjName != null) {
          // Unregister mbean(s)
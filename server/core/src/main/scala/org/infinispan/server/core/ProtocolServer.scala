@@ -3,6 +3,7 @@ package org.infinispan.server.core
 import org.infinispan.manager.EmbeddedCacheManager
 import org.infinispan.server.core.configuration.ProtocolServerConfiguration
 import io.netty.channel.{Channel, ChannelInitializer, ChannelInboundHandler, ChannelOutboundHandler}
+import io.netty.util.concurrent.EventExecutorGroup
 
 /**
  * Represents a protocol compliant server.
@@ -45,4 +46,10 @@ trait ProtocolServer {
     * Returns a pipeline factory
     */
    def getInitializer: ChannelInitializer[Channel]
+
+   /**
+    * Returns the executor group in which the decoder executes the requests, or null if they are executed by the I/O
+    * worker threads.
+    */
+   def getRequestExecutor: EventExecutorGroup
 }
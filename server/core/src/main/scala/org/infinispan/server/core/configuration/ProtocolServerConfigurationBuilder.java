@@ -18,6 +18,7 @@
    protected final SslConfigurationBuilder ssl;
    protected boolean tcpNoDelay = true;
    protected int workerThreads = 2 * Runtime.getRuntime().availableProcessors();
+   protected int requestThreads = 0;
 
    protected ProtocolServerConfigurationBuilder(int port) {
       this.port = port;
@@ -83,6 +84,12 @@ public S workerThreads(int workerThreads) {
       return this.self();
    }
 
+   @Override
+   public S requestThreads(int requestThreads) {
+      this.requestThreads = requestThreads;
+      return this.self();
+   }
+
    @Override
    public void validate() {
       ssl.validate();
@@ -98,6 +105,9 @@ public void validate() {
       if (workerThreads < 0) {
          throw log.illegalWorkerThreads(workerThreads);
       }
+      if (requestThreads < 0) {
+         throw log.illegalRequestThreads(requestThreads);
+      }
    }
 
    @Override
@@ -111,6 +121,7 @@ public Builder<?> read(T template) {
       this.sendBufSize = template.sendBufSize();
       this.tcpNoDelay = template.tcpNoDelay();
       this.workerThreads = template.workerThreads();
+      this.requestThreads = template.requestThreads();
       this.ssl.read(template.ssl());
       return this;
    }
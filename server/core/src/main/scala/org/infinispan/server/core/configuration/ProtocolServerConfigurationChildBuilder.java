@@ -58,6 +58,17 @@
     */
    S workerThreads(int workerThreads);
 
+   /**
+    * Sets the number of threads executing the requests, outside of the worker threads, so that requests blocking on
+    * remote nodes, locks or cache stores don't stop the worker threads from reading and writing the other connections.
+    * <p>
+    * Each connection is bound to one of the request threads, and its requests are executed one at a time, in order.
+    * Since there are usually more connections than request threads, a blocked request also delays the requests of all
+    * the other connections bound to the same thread; more request threads spread the connections over more threads.
+    * Defaults to 0, i.e. the requests are executed by the worker threads.
+    */
+   S requestThreads(int requestThreads);
+
    /**
     * Builds a configuration object
     */
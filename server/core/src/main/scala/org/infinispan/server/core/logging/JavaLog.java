@@ -96,4 +96,7 @@ public interface JavaLog extends org.infinispan.util.logging.Log {
    @LogMessage(level = WARN)
    @Message(value = "Server endpoint topology is empty, and cluster members are %s", id = 5021)
    void serverEndpointTopologyEmpty(String clusterMembers);
+
+   @Message(value = "Illegal number of requestThreads: %d", id = 5022)
+   IllegalArgumentException illegalRequestThreads(int requestThreads);
 }
@@ -24,7 +24,11 @@ class NettyChannelInitializer(server: ProtocolServer,
       val ssl = server.getConfiguration.ssl
       if (ssl.enabled())
          pipeline.addLast("ssl", new SslHandler(createSslEngine(ssl)))
-      pipeline.addLast("decoder", server.getDecoder)
+      val requestExecutor = server.getRequestExecutor
+      if (requestExecutor != null)
+         pipeline.addLast(requestExecutor, "decoder", server.getDecoder)
+      else
+         pipeline.addLast("decoder", server.getDecoder)
       if (encoder != null)
          pipeline.addLast("encoder", encoder)
    }
@@ -15,7 +15,7 @@ import org.infinispan.jmx.JmxUtil
 import javax.management.ObjectName
 import java.util.concurrent.{ThreadFactory, TimeUnit}
 import org.infinispan.server.core.configuration.ProtocolServerConfiguration
-import io.netty.util.concurrent.{DefaultThreadFactory, ImmediateEventExecutor}
+import io.netty.util.concurrent.{DefaultEventExecutorGroup, DefaultThreadFactory, ImmediateEventExecutor}
 import io.netty.util.internal.logging.{Log4JLoggerFactory, InternalLoggerFactory}
 import io.netty.bootstrap.ServerBootstrap
 import io.netty.channel.{Channel, ChannelInitializer, ChannelOption}
@@ -38,8 +38,16 @@ class NettyTransport(server: ProtocolServer, handler: ChannelInitializer[Channel
 
    private val masterGroup = new NioEventLoopGroup(1, new DefaultThreadFactory(threadNamePrefix + "ServerMaster"))
    private val workerGroup = new NioEventLoopGroup(configuration.workerThreads, new DefaultThreadFactory(threadNamePrefix + "ServerWorker"))
+   // Runs the decoders when enabled, so that requests blocking on remote nodes, locks or stores don't stall the I/O of
+   // the other channels of the same worker. Each channel is bound to one of its executors, keeping requests in order,
+   // so a blocked request still delays the requests of the other channels bound to the same executor.
+   private[server] val requestGroup =
+      if (configuration.requestThreads > 0)
+         new DefaultEventExecutorGroup(configuration.requestThreads, new DefaultThreadFactory(threadNamePrefix + "ServerRequest"))
+      else null
 
    private val totalBytesWritten, totalBytesRead = new AtomicLong
+   private val totalFlushes, totalWritesFlushed = new AtomicLong
    private val isGlobalStatsEnabled =
       cacheManager.getCacheManagerConfiguration.globalJmxStatistics().enabled()
 
@@ -99,18 +107,29 @@ class NettyTransport(server: ProtocolServer, handler: ChannelInitializer[Channel
          debug("Channel group completely closed, release external resources")
       masterGroup.shutdownGracefully()
       workerGroup.shutdownGracefully()
+      if (requestGroup != null)
+         requestGroup.shutdownGracefully()
    }
 
    override def getTotalBytesWritten: String = totalBytesWritten.toString
 
    override def getTotalBytesRead: String = totalBytesRead.toString
 
+   override def getTotalFlushes: String = totalFlushes.toString
+
+   override def getAverageWritesPerFlush: String = {
+      val flushes = totalFlushes.get
+      (if (flushes == 0) 0.0 else totalWritesFlushed.get.toDouble / flushes).toString
+   }
+
    override def getHostName = address.getHostName
 
    override def getPort = address.getPort.toString
 
    override def getNumberWorkerThreads = configuration.workerThreads.toString
 
+   override def getNumberRequestThreads = configuration.requestThreads.toString
+
    override def getIdleTimeout = configuration.idleTimeout.toString
 
    override def getTcpNoDelay = configuration.tcpNoDelay.toString
@@ -144,6 +163,13 @@ class NettyTransport(server: ProtocolServer, handler: ChannelInitializer[Channel
          incrementTotalBytesRead(totalBytesRead, bytes)
    }
 
+   private[server] def updateFlushes(writes: Int) {
+      if (isGlobalStatsEnabled && writes > 0) {
+         totalFlushes.incrementAndGet()
+         totalWritesFlushed.addAndGet(writes)
+      }
+   }
+
    private def incrementTotalBytesRead(base: AtomicLong, bytes: Int) {
       if (isGlobalStatsEnabled)
          base.addAndGet(bytes)
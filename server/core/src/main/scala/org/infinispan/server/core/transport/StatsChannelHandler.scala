@@ -1,12 +1,19 @@
 package org.infinispan.server.core.transport
 
 import java.net.SocketAddress
+import java.util.concurrent.TimeUnit
 
 import io.netty.buffer.ByteBuf
 import io.netty.channel._
 
 /**
- * Input/Output ChannelHandler to keep statistics
+ * Input/Output ChannelHandler to keep statistics.
+ *
+ * It also batches the flushes requested while handling a read: they are deferred until the read completes, so the
+ * responses to the requests pipelined in the same read are written with a single syscall. To bound the latency, the
+ * writes are flushed anyway once there are MaxWritesPerFlush of them, or once the first of them has waited for
+ * MaxFlushDelayNanos. The delay is checked whenever another response is flushed or more data is read, since the
+ * handler's executor is busy with the read until then.
  *
  * @author gustavonalle
  * @since 7.1
@@ -15,6 +22,13 @@ trait StatsChannelHandler extends ChannelInboundHandlerAdapter with ChannelOutbo
 
    val transport: NettyTransport
 
+   // Only accessed by the executor of the handler
+   private var reading = false
+   private var flushPending = false
+   private var writesSinceFlush = 0
+   // When the first deferred flush was requested
+   private var flushDeferredAt = 0L
+
    def bind(ctx: ChannelHandlerContext, localAddress: SocketAddress, promise: ChannelPromise): Unit = ctx.bind(localAddress, promise)
 
    def connect(ctx: ChannelHandlerContext, remoteAddress: SocketAddress, localAddress: SocketAddress, promise: ChannelPromise): Unit = ctx.connect(remoteAddress, localAddress, promise)
@@ -29,9 +43,19 @@ trait StatsChannelHandler extends ChannelInboundHandlerAdapter with ChannelOutbo
 
    override def channelRead(ctx: ChannelHandlerContext, msg: scala.Any): Unit = {
       transport.updateTotalBytesRead(msg.asInstanceOf[ByteBuf].readableBytes())
+      reading = true
+      if (flushPending && flushDelayExpired)
+         flushWrites(ctx)
       super.channelRead(ctx, msg)
    }
 
+   override def channelReadComplete(ctx: ChannelHandlerContext): Unit = {
+      reading = false
+      if (flushPending)
+         flushWrites(ctx)
+      super.channelReadComplete(ctx)
+   }
+
    override def channelActive(ctx: ChannelHandlerContext) {
       transport.acceptedChannels.add(ctx.channel)
       super.channelActive(ctx)
@@ -39,6 +63,7 @@ trait StatsChannelHandler extends ChannelInboundHandlerAdapter with ChannelOutbo
 
    override def write(ctx: ChannelHandlerContext, msg: scala.Any, promise: ChannelPromise): Unit = {
       val readable = msg.asInstanceOf[ByteBuf].readableBytes()
+      writesSinceFlush += 1
       ctx.write(msg, promise.addListener(new ChannelFutureListener {
          def operationComplete(future: ChannelFuture): Unit = {
             if (future.isSuccess) {
@@ -48,6 +73,37 @@ trait StatsChannelHandler extends ChannelInboundHandlerAdapter with ChannelOutbo
       }))
    }
 
-   def flush(ctx: ChannelHandlerContext): Unit = ctx.flush()
+   def flush(ctx: ChannelHandlerContext): Unit = {
+      if (!reading || writesSinceFlush >= StatsChannelHandler.MaxWritesPerFlush) {
+         flushWrites(ctx)
+      } else if (!flushPending) {
+         flushPending = true
+         flushDeferredAt = System.nanoTime()
+      } else if (flushDelayExpired) {
+         flushWrites(ctx)
+      }
+   }
+
+   private def flushDelayExpired: Boolean =
+      System.nanoTime() - flushDeferredAt >= StatsChannelHandler.MaxFlushDelayNanos
+
+   private def flushWrites(ctx: ChannelHandlerContext): Unit = {
+      transport.updateFlushes(writesSinceFlush)
+      flushPending = false
+      writesSinceFlush = 0
+      ctx.flush()
+   }
+
+}
+
+object StatsChannelHandler {
+   /**
+    * Maximum number of writes whose flush is deferred until the end of the read
+    */
+   val MaxWritesPerFlush = 64
 
+   /**
+    * Maximum time a response waits for the end of the read before being flushed
+    */
+   val MaxFlushDelayNanos = TimeUnit.MILLISECONDS.toNanos(1)
 }
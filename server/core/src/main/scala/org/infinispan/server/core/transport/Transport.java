@@ -40,6 +40,21 @@ public interface Transport {
    )
    String getTotalBytesRead();
 
+   @ManagedAttribute(
+         description = "Returns the total number of flushes of the responses written to clients.",
+         displayName = "Number of flushes",
+         measurementType = MeasurementType.TRENDSUP,
+         displayType = DisplayType.SUMMARY
+   )
+   String getTotalFlushes();
+
+   @ManagedAttribute(
+         description = "Returns the average number of responses written to clients per flush.",
+         displayName = "Average writes per flush",
+         displayType = DisplayType.SUMMARY
+   )
+   String getAverageWritesPerFlush();
+
    @ManagedAttribute(
          description = "Returns the host to which the transport binds.",
          displayName = "Host name",
@@ -63,6 +78,14 @@ public interface Transport {
    )
    String getNumberWorkerThreads();
 
+   @ManagedAttribute(
+         description = "Returns the number of threads executing the requests, or 0 if the worker threads execute them.",
+         displayName = "Number of request threads",
+         dataType = DataType.TRAIT,
+         displayType = DisplayType.SUMMARY
+   )
+   String getNumberRequestThreads();
+
    @ManagedAttribute(
          description = "Returns the idle timeout.",
          displayName = "Idle timeout",
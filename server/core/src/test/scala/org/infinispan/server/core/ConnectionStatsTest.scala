@@ -22,6 +22,10 @@ object ConnectionStatsTest {
          "TotalBytesRead").toString.toInt > 0)
       assertTrue(mbeanServer.getAttribute(on,
          "TotalBytesWritten").toString.toInt > 0)
+      assertTrue(mbeanServer.getAttribute(on,
+         "TotalFlushes").toString.toInt > 0)
+      assertTrue(mbeanServer.getAttribute(on,
+         "AverageWritesPerFlush").toString.toDouble >= 1)
       assertEquals(mbeanServer.getAttribute(on,
          "NumberOfLocalConnections").asInstanceOf[java.lang.Integer], 1)
    }
@@ -30,6 +30,6 @@ public MockServerConfiguration build(boolean validate) {
 
    @Override
    public MockServerConfiguration create() {
-      return new MockServerConfiguration(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads);
+      return new MockServerConfiguration(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads, requestThreads);
    }
 }
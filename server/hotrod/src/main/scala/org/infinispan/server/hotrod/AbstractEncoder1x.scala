@@ -9,7 +9,6 @@ import OperationStatus._
 import org.infinispan.configuration.cache.Configuration
 import org.infinispan.distribution.ch.impl.DefaultConsistentHash
 import collection.mutable.ArrayBuffer
-import org.infinispan.server.hotrod.util.BulkUtil
 import io.netty.buffer.ByteBuf
 import org.infinispan.server.hotrod.Events.Event
 
@@ -104,19 +103,8 @@ abstract class AbstractEncoder1x extends AbstractVersionedEncoder with Constants
                buf.writeByte(0) // Done
             }
          }
-         case g: BulkGetKeysResponse => {
-            log.trace("About to respond to bulk get keys request")
-            if (g.status == Success) {
-               val cache: Cache = server.getCacheInstance(g.cacheName, cacheManager, false)
-               val keys = BulkUtil.getAllKeys(cache, g.scope)
-               val iterator = asScalaIterator(keys.iterator)
-               for (key <- iterator) {
-                  buf.writeByte(1) // Not done
-                  writeRangedBytes(key, buf)
-               }
-               buf.writeByte(0) // Done
-            }
-         }
+         case g: BulkGetKeysResponse =>
+            // HotRodEncoder streams the keys after the header, so that they are never held in a single buffer
          case g: GetResponse =>
             if (g.status == Success) writeRangedBytes(g.data.get, buf)
          case q: QueryResponse =>
@@ -21,6 +21,7 @@ import org.infinispan.server.hotrod.OperationStatus._
 import org.infinispan.server.hotrod.configuration.HotRodServerConfiguration
 import org.infinispan.server.hotrod.logging.Log
 import java.util.Map
+import java.util.Set
 
 /**
  * Invokes operations against the cache based on the state kept during decoding process
@@ -41,13 +42,17 @@ class CacheDecodeContext(server: HotRodServer) extends ServerConstants with Log
    var defaultMaxIdleTime: Long = _
    var key: Bytes = _
    var rawValue: Bytes = _
+   var rawValueOffset: Int = _
    var params: RequestParameters = _
    var putAllMap: Map[Bytes, Bytes] = _
+   var getAllSet: Set[Bytes] = _
 
    def resetParams(): Unit = {
       params = null
       rawValue = null
+      rawValueOffset = 0
       putAllMap = null
+      getAllSet = null
    }
 
    def createErrorResponse(t: Throwable): AnyRef = {
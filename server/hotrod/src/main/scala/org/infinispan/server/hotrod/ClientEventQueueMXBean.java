@@ -0,0 +1,29 @@
+package org.infinispan.server.hotrod;
+
+/**
+ * Management interface of the queue of events waiting to be sent to a client listener.
+ *
+ * @since 7.2
+ */
+public interface ClientEventQueueMXBean {
+
+   /**
+    * @return the number of events waiting to be sent to the client
+    */
+   int getQueuedEvents();
+
+   /**
+    * @return the maximum number of events waiting to be sent to the client
+    */
+   int getQueueCapacity();
+
+   /**
+    * @return the number of events sent to the client
+    */
+   long getSentEvents();
+
+   /**
+    * @return the number of events dropped because the queue was full
+    */
+   long getDroppedEvents();
+}
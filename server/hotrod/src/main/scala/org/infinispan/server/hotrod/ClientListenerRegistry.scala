@@ -1,14 +1,16 @@
 package org.infinispan.server.hotrod
 
 import java.io.{ObjectInput, ObjectOutput}
-import java.util.concurrent.ConcurrentMap
-import java.util.concurrent.atomic.AtomicLong
+import java.util.NoSuchElementException
+import java.util.concurrent.{ConcurrentMap, LinkedBlockingQueue}
+import java.util.concurrent.atomic.{AtomicBoolean, AtomicLong}
+import javax.management.ObjectName
 
-import io.netty.channel.Channel
+import io.netty.channel.{Channel, ChannelHandlerContext, ChannelInboundHandlerAdapter}
 import org.infinispan.commons.equivalence.{AnyEquivalence, ByteArrayEquivalence}
 import org.infinispan.commons.marshall.jboss.GenericJBossMarshaller
 import org.infinispan.commons.marshall.{AbstractExternalizer, Marshaller}
-import org.infinispan.commons.util.CollectionFactory
+import org.infinispan.commons.util.{CollectionFactory, Util}
 import org.infinispan.commons.util.concurrent.jdk8backported.EquivalentConcurrentHashMapV8
 import org.infinispan.container.versioning.NumericVersion
 import org.infinispan.metadata.Metadata
@@ -19,7 +21,7 @@ import org.infinispan.notifications.cachelistener.filter._
 import org.infinispan.notifications.cachelistener.event.Event.Type
 import org.infinispan.server.hotrod.Events.{CustomRawEvent, CustomEvent, KeyEvent, KeyWithVersionEvent}
 import org.infinispan.server.hotrod.OperationResponse._
-import org.infinispan.server.hotrod.configuration.HotRodServerConfiguration
+import org.infinispan.server.hotrod.configuration.{EventOverflowPolicy, HotRodServerConfiguration}
 import org.infinispan.server.hotrod.logging.Log
 
 import scala.collection.JavaConversions._
@@ -27,7 +29,7 @@ import scala.collection.JavaConversions._
 /**
  * @author Galder Zamarreño
  */
-class ClientListenerRegistry(configuration: HotRodServerConfiguration) extends Log {
+class ClientListenerRegistry(configuration: HotRodServerConfiguration, server: HotRodServer) extends Log {
    import ClientListenerRegistry._
 
    private val messageId = new AtomicLong()
@@ -84,9 +86,15 @@ class ClientListenerRegistry(configuration: HotRodServerConfiguration) extends L
          }
 
       eventSenders.put(listenerId, clientEventSender)
+      eventQueue(clientEventSender).start()
       cache.addListener(clientEventSender, filter.orNull, converter.orNull)
    }
 
+   private def eventQueue(sender: AnyRef): BaseClientEventSender = sender match {
+      case s: BaseClientEventSender => s
+      case s: BaseCompatibilityClientEventSender => s.delegate
+   }
+
    def findConverterFactory(name: String, compatEnabled: Boolean, factories: ConcurrentMap[String, CacheEventConverterFactory], factoryType: String, useRawData: Boolean): CacheEventConverterFactory = {
       if (name == "___eager-key-value-version-converter") KeyValueVersionConverterFactorySingleton
       else findFactory(name, compatEnabled, factories, factoryType, useRawData)
@@ -123,14 +131,16 @@ class ClientListenerRegistry(configuration: HotRodServerConfiguration) extends L
    }
 
    def removeClientListener(listenerId: Array[Byte], cache: Cache): Boolean = {
-      val sender = eventSenders.get(listenerId)
+      val sender = eventSenders.remove(listenerId)
       if (sender != null) {
          cache.removeListener(sender)
+         eventQueue(sender).stop()
          true
       } else false
    }
 
    def stop(): Unit = {
+      eventSenders.values.foreach(eventQueue(_).stop())
       eventSenders.clear()
       cacheEventFilterFactories.clear()
       cacheEventConverterFactories.clear()
@@ -144,7 +154,35 @@ class ClientListenerRegistry(configuration: HotRodServerConfiguration) extends L
    private class StatelessClientEventSender(ch: Channel, listenerId: Bytes, version: Byte, targetEventType: ClientEventType)
            extends BaseClientEventSender(ch, listenerId, version, targetEventType)
 
-   private abstract class BaseClientEventSender(ch: Channel, listenerId: Bytes, version: Byte, targetEventType: ClientEventType) {
+   /**
+    * Sends the events to the client through a bounded queue, drained by the event loop of the channel while the
+    * channel is writable, so that a slow client can't make the outbound buffer of the server grow without bounds. The
+    * events drained together are flushed together. Once the channel isn't writable anymore, the queue is drained again
+    * when it becomes writable.
+    * <p>
+    * The events are generated by the threads modifying the cache, which may be the event loops of other channels, so
+    * they are never blocked: the overflow policy applies as soon as the queue is full.
+    */
+   private abstract class BaseClientEventSender(ch: Channel, listenerId: Bytes, version: Byte, targetEventType: ClientEventType)
+           extends ClientEventQueueMXBean {
+      private val eventQueue = new LinkedBlockingQueue[AnyRef](configuration.eventQueueSize)
+      private val draining = new AtomicBoolean()
+      private val overflowing = new AtomicBoolean()
+      private val sentEvents, droppedEvents = new AtomicLong
+      @volatile private var objectName: ObjectName = _
+
+      private val drainTask = new Runnable {
+         override def run(): Unit = drain()
+      }
+
+      private val writabilityHandler = new ChannelInboundHandlerAdapter {
+         override def channelWritabilityChanged(ctx: ChannelHandlerContext): Unit = {
+            if (ctx.channel.isWritable && !eventQueue.isEmpty)
+               scheduleDrain()
+            ctx.fireChannelWritabilityChanged()
+         }
+      }
+
       @CacheEntryCreated
       @CacheEntryModified
       @CacheEntryRemoved
@@ -159,6 +197,7 @@ class ClientListenerRegistry(configuration: HotRodServerConfiguration) extends L
          if (isChannelDisconnected()) {
             log.debug("Channel disconnected, remove event sender listener")
             event.getCache.removeListener(this)
+            stop()
             false
          } else {
             event.getType match {
@@ -179,9 +218,92 @@ class ClientListenerRegistry(configuration: HotRodServerConfiguration) extends L
          if (isTraceEnabled)
             log.tracef("Send %s to remote clients", remoteEvent)
 
-         ch.writeAndFlush(remoteEvent)
+         if (eventQueue.offer(remoteEvent)) {
+            if (overflowing.get) overflowing.set(false)
+            scheduleDrain()
+         } else {
+            droppedEvents.incrementAndGet()
+            // Only report the first event dropped since the queue had room
+            if (!overflowing.getAndSet(true)) {
+               configuration.eventOverflowPolicy match {
+                  case EventOverflowPolicy.DROP =>
+                     log.eventsDropped(Util.printArray(listenerId), ch)
+                  case EventOverflowPolicy.FAILOVER =>
+                     if (ch.isOpen) {
+                        log.eventQueueFull(Util.printArray(listenerId), ch)
+                        ch.close()
+                     }
+               }
+            }
+         }
+      }
+
+      private def scheduleDrain(): Unit = {
+         if (draining.compareAndSet(false, true))
+            ch.eventLoop.execute(drainTask)
+      }
+
+      private def drain(): Unit = {
+         var written = false
+         var event = if (ch.isWritable) eventQueue.poll() else null
+         while (event != null) {
+            ch.write(event)
+            written = true
+            sentEvents.incrementAndGet()
+            event = if (ch.isWritable) eventQueue.poll() else null
+         }
+         if (written)
+            ch.flush()
+         draining.set(false)
+
+         // Otherwise the writability handler drains the queue once the channel is writable again
+         if (!eventQueue.isEmpty && ch.isWritable && !isChannelDisconnected())
+            scheduleDrain()
       }
 
+      def start(): Unit = {
+         ch.pipeline.addLast(writabilityHandler)
+         registerMBean()
+      }
+
+      def stop(): Unit = {
+         try {
+            ch.pipeline.remove(writabilityHandler)
+         } catch {
+            case e: NoSuchElementException => // Already removed when the channel was closed
+         }
+         unregisterMBean()
+      }
+
+      private def registerMBean(): Unit = {
+         try {
+            objectName = server.registerComponentMBean(this,
+               "ClientEventQueue,listener=" + Util.toHexString(listenerId))
+         } catch {
+            case e: Exception => log.debugf(e, "Unable to register the event queue of listener %s", Util.printArray(listenerId))
+         }
+      }
+
+      private def unregisterMBean(): Unit = {
+         val name = objectName
+         if (name != null) {
+            objectName = null
+            try {
+               server.unregisterComponentMBean(name)
+            } catch {
+               case e: Exception => log.debugf(e, "Unable to unregister %s", name)
+            }
+         }
+      }
+
+      override def getQueuedEvents: Int = eventQueue.size
+
+      override def getQueueCapacity: Int = configuration.eventQueueSize
+
+      override def getSentEvents: Long = sentEvents.get
+
+      override def getDroppedEvents: Long = droppedEvents.get
+
       private def createRemoteEvent(key: Bytes, value: Bytes, dataVersion: Long, event: CacheEntryEvent[_, _]): AnyRef = {
          messageId.incrementAndGet() // increment message id
          // Embedded listener event implementation implements all interfaces,
@@ -255,7 +377,7 @@ class ClientListenerRegistry(configuration: HotRodServerConfiguration) extends L
            extends BaseCompatibilityClientEventSender(delegate, converter)
 
    private abstract class BaseCompatibilityClientEventSender(
-           delegate: BaseClientEventSender, converter: HotRodTypeConverter) {
+           val delegate: BaseClientEventSender, converter: HotRodTypeConverter) {
       @CacheEntryCreated
       @CacheEntryModified
       @CacheEntryRemoved
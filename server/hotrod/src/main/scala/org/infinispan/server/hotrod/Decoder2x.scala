@@ -33,6 +33,8 @@ import org.infinispan.server.core.security.InetAddressPrincipal
 import java.net.InetSocketAddress
 import org.infinispan.server.core.security.simple.SimpleUserPrincipal
 import java.util.HashMap
+import java.util.HashSet
+import java.util.BitSet
 import scala.collection.immutable
 import scala.collection.mutable
 import scala.collection.mutable.ListBuffer
@@ -89,9 +91,19 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
          case 0x29 => (SizeRequest, true)
          case 0x2B => (ExecRequest, true)
          case 0x2D => (PutAllRequest, false)
+         case 0x2F => (GetAllRequest, false)
+         case 0x31 => (IterationStartRequest, true)
+         case 0x33 => (IterationNextRequest, true)
+         case 0x35 => (IterationEndRequest, true)
          case _ => throw new HotRodUnknownOperationException(
             "Unknown operation: " + streamOp, version, messageId)
       }
+      op match {
+         // Iteration operations were added in version 2.2
+         case IterationStartRequest | IterationNextRequest | IterationEndRequest if version < VERSION_22 =>
+            throw new HotRodUnknownOperationException("Unknown operation: " + streamOp, version, messageId)
+         case _ =>
+      }
       if (isTrace) trace("Operation code: %d has been matched to %s", streamOp, op)
 
       val cacheName = readString(buffer)
@@ -136,6 +148,10 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
             val maxIdle = readLifespanOrMaxIdle(buffer, hasFlag(header, ProtocolFlag.DefaultMaxIdle))
             val valueLength = readUnsignedInt(buffer)
             (new RequestParameters(valueLength, lifespan, maxIdle, -1), true)
+         case GetAllRequest =>
+            // The number of keys is passed as value length, the keys are read one by one in customReadValue
+            val count = readUnsignedInt(buffer)
+            (new RequestParameters(count, -1, -1, -1), true)
          case _ =>
             val lifespan = readLifespanOrMaxIdle(buffer, hasFlag(header, ProtocolFlag.DefaultLifespan))
             val maxIdle = readLifespanOrMaxIdle(buffer, hasFlag(header, ProtocolFlag.DefaultMaxIdle))
@@ -302,6 +318,30 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
             val scriptingManager = SecurityActions.getCacheGlobalComponentRegistry(cache).getComponent(classOf[ScriptingManager]);
             val result: Any = scriptingManager.runScript(name, cache, new SimpleBindings(params)).get
             new ExecResponse(h.version, h.messageId, h.cacheName, h.clientIntel, h.topologyId, marshaller.objectToByteBuffer(result))
+         case IterationStartRequest =>
+            // An empty segment set means all the segments
+            val segments = readRangedBytes(buffer)
+            val batchSize = readUnsignedInt(buffer)
+            val keysOnly = buffer.readByte() == 1
+            val iterationId = server.getIterationManager.start(cache,
+               if (segments.isEmpty) None else Some(BitSet.valueOf(segments)), batchSize, keysOnly, ctx.channel)
+            new IterationStartResponse(h.version, h.messageId, h.cacheName, h.clientIntel, h.topologyId, iterationId)
+         case IterationNextRequest =>
+            val iterationId = readString(buffer)
+            val iterationManager = server.getIterationManager
+            val keysOnly = iterationManager.isKeysOnly(iterationId, ctx.channel)
+            iterationManager.next(iterationId, ctx.channel) match {
+               case Some(entries) =>
+                  new IterationNextResponse(h.version, h.messageId, h.cacheName, h.clientIntel, h.topologyId,
+                     keysOnly, entries)
+               case None => createInvalidIterationErrorResponse(h, iterationId)
+            }
+         case IterationEndRequest =>
+            val iterationId = readString(buffer)
+            if (server.getIterationManager.end(iterationId, ctx.channel))
+               new Response(h.version, h.messageId, h.cacheName, h.clientIntel, IterationEndResponse, Success, h.topologyId)
+            else
+               createInvalidIterationErrorResponse(h, iterationId)
       }
    }
 
@@ -360,7 +400,7 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
             val filterFactoryInfo = readNamedFactory(buffer)
             val converterFactoryInfo = readNamedFactory(buffer)
             val useRawData = h.version match {
-               case VERSION_21 => buffer.readByte() == 1
+               case v if v >= VERSION_21 => buffer.readByte() == 1
                case _ => false
             }
             val reg = server.getClientListenerRegistry
@@ -374,7 +414,7 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
                createSuccessResponse(h, null)
             else
                createNotExecutedResponse(h, null)
-         case PutAllRequest =>
+         case PutAllRequest | GetAllRequest =>
             decoder.checkpointTo(HotRodDecoderState.DECODE_PARAMETERS)
          case _ => null
       }
@@ -437,6 +477,19 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
             cache.putAll(map, hrCtx.buildMetadata)
             new Response(h.version, h.messageId, h.cacheName, h.clientIntel,
                PutAllResponse, Success, h.topologyId)
+         case GetAllRequest =>
+            var set = hrCtx.getAllSet
+            if (set == null) {
+              set = new HashSet[Bytes]
+              hrCtx.getAllSet = set
+            }
+            for (i <- set.size until hrCtx.params.valueLength) {
+              set.add(readRangedBytes(buffer))
+              // We check point after each read key
+              decoder.checkpoint
+            }
+            new GetAllResponse(h.version, h.messageId, h.cacheName, h.clientIntel,
+               h.topologyId, cache.getAll(set))
         case _ => null
      }
    }
@@ -488,6 +541,11 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
          IllegalLifecycleState, h.topologyId, t.toString)
    }
 
+   private def createInvalidIterationErrorResponse(h: HotRodHeader, iterationId: String): ErrorResponse = {
+      new ErrorResponse(h.version, h.messageId, h.cacheName, h.clientIntel,
+         InvalidIteration, h.topologyId, log.unknownIteration(iterationId))
+   }
+
    private def createServerErrorResponse(h: HotRodHeader, t: Throwable): ErrorResponse = {
       new ErrorResponse(h.version, h.messageId, h.cacheName, h.clientIntel,
          ServerError, h.topologyId, t.toString)
@@ -515,7 +573,9 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
                  | ContainsKeyRequest
                  | BulkGetRequest
                  | GetWithMetadataRequest
-                 | BulkGetKeysRequest =>
+                 | BulkGetKeysRequest
+                 | GetAllRequest
+                 | IterationStartRequest =>
                optCache = optCache.withFlags(SKIP_CACHE_LOAD)
             case _ =>
          }
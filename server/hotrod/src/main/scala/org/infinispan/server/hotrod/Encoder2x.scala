@@ -7,7 +7,6 @@ import org.infinispan.server.core.transport.ExtendedByteBuf._
 import org.infinispan.server.hotrod.HotRodServer._
 import org.infinispan.server.hotrod.OperationStatus._
 import org.infinispan.server.hotrod.logging.Log
-import org.infinispan.server.hotrod.util.BulkUtil
 import scala.collection.JavaConversions._
 import scala.collection.mutable
 import org.infinispan.server.hotrod.Events._
@@ -268,17 +267,7 @@ object Encoder2x extends AbstractVersionedEncoder with Constants with Log {
                buf.writeByte(0) // Done
             }
          case g: BulkGetKeysResponse =>
-            log.trace("About to respond to bulk get keys request")
-            if (g.status == Success) {
-               val cache: Cache = server.getCacheInstance(g.cacheName, cacheManager, false)
-               val keys = BulkUtil.getAllKeys(cache, g.scope)
-               val iterator = asScalaIterator(keys.iterator)
-               for (key <- iterator) {
-                  buf.writeByte(1) // Not done
-                  writeRangedBytes(key, buf)
-               }
-               buf.writeByte(0) // Done
-            }
+            // HotRodEncoder streams the keys after the header, so that they are never held in a single buffer
          case g: GetResponse =>
             if (g.status == Success) writeRangedBytes(g.data.get, buf)
          case q: QueryResponse =>
@@ -299,8 +288,23 @@ object Encoder2x extends AbstractVersionedEncoder with Constants with Log {
             }
          }
          case s: SizeResponse => writeUnsignedLong(s.size, buf)
+         case g: GetAllResponse =>
+            writeUnsignedInt(g.entries.size, buf)
+            for (entry <- asScalaIterator(g.entries.entrySet.iterator)) {
+               writeRangedBytes(entry.getKey, buf)
+               writeRangedBytes(entry.getValue, buf)
+            }
          case e: ExecResponse =>
             writeRangedBytes(e.result, buf)
+         case i: IterationStartResponse =>
+            writeString(i.iterationId, buf)
+         case i: IterationNextResponse =>
+            // An empty batch means that the iteration is finished
+            writeUnsignedInt(i.entries.size, buf)
+            for ((key, value) <- i.entries) {
+               writeRangedBytes(key, buf)
+               if (!i.keysOnly) writeRangedBytes(value, buf)
+            }
          case e: ErrorResponse => writeString(e.msg, buf)
          case _ => if (buf == null)
             throw new IllegalArgumentException("Response received is unknown: " + r)
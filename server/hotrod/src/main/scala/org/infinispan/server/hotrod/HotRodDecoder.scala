@@ -127,7 +127,8 @@ extends ReplayingDecoder[HotRodDecoderState](DECODE_HEADER) with StatsChannelHan
       val ch = ctx.channel
       val ret = decodeCtx.header.op match {
          case PutRequest | PutIfAbsentRequest | ReplaceRequest | ReplaceIfUnmodifiedRequest =>
-            buffer.readBytes(decodeCtx.rawValue)
+            if (!readValue(buffer))
+               return null // Wait for the rest of the value
             decodeCtx.header.op match {
                case PutRequest => decodeCtx.put
                case PutIfAbsentRequest => decodeCtx.putIfAbsent
@@ -140,6 +141,28 @@ extends ReplayingDecoder[HotRodDecoderState](DECODE_HEADER) with StatsChannelHan
       writeResponse(ch, ret)
    }
 
+   /**
+    * Reads the bytes of the value received so far straight into the value array, and checkpoints after them. Unlike
+    * reading the whole value at once, a value spanning many packets is neither replayed on each packet nor
+    * accumulated in the decoder's buffer before being copied: each byte is copied once and the buffer is released as
+    * soon as its bytes are consumed.
+    *
+    * @return true once the whole value is read
+    */
+   private def readValue(buffer: ByteBuf): Boolean = {
+      val value = decodeCtx.rawValue
+      // The replaying buffer doesn't tell how many bytes were actually received
+      val length = math.min(internalBuffer.readableBytes, value.length - decodeCtx.rawValueOffset)
+      buffer.readBytes(value, decodeCtx.rawValueOffset, length)
+      decodeCtx.rawValueOffset += length
+      if (decodeCtx.rawValueOffset < value.length) {
+         checkpoint()
+         false
+      } else {
+         true
+      }
+   }
+
    def readHeader(buffer: ByteBuf, header: HotRodHeader): Option[Boolean] = {
       try {
          val magic = buffer.readUnsignedByte
@@ -163,7 +186,7 @@ extends ReplayingDecoder[HotRodDecoderState](DECODE_HEADER) with StatsChannelHan
       try {
          val decoder = version match {
             case VERSION_10 | VERSION_11 | VERSION_12 | VERSION_13 => Decoder10
-            case VERSION_20 | VERSION_21 => Decoder2x
+            case VERSION_20 | VERSION_21 | VERSION_22 => Decoder2x
             case _ => throw new UnknownVersionException("Unknown version:" + version, version, messageId)
          }
          val endOfOp = decoder.readHeader(buffer, version, messageId, header)
@@ -4,9 +4,15 @@ import logging.Log
 import org.infinispan.manager.EmbeddedCacheManager
 import org.infinispan.commons.util.Util
 import io.netty.handler.codec.MessageToMessageEncoder
+import io.netty.handler.stream.ChunkedInput
+import io.netty.buffer.ByteBuf
 import io.netty.channel.ChannelHandlerContext
 import io.netty.channel.ChannelHandler.Sharable
+import org.infinispan.commons.util.CloseableIterator
+import org.infinispan.server.core.transport.ExtendedByteBuf._
 import org.infinispan.server.hotrod.Events.Event
+import org.infinispan.server.hotrod.OperationStatus._
+import org.infinispan.server.hotrod.util.BulkUtil
 
 /**
  * Hot Rod specific encoder.
@@ -31,7 +37,7 @@ class HotRodEncoder(cacheManager: EmbeddedCacheManager, server: HotRodServer)
          case r: Response =>
             val encoder = getEncoder(r.version)
             r.version match {
-               case VERSION_10 | VERSION_11 | VERSION_12 | VERSION_13 | VERSION_20 | VERSION_21 =>
+               case VERSION_10 | VERSION_11 | VERSION_12 | VERSION_13 | VERSION_20 | VERSION_21 | VERSION_22 =>
                   encoder.writeHeader(r, buf, addressCache, server)
                // if error before reading version, don't send any topology changes
                // cos the encoding might vary from one version to the other
@@ -49,6 +55,14 @@ class HotRodEncoder(cacheManager: EmbeddedCacheManager, server: HotRodServer)
             Util.hexDump(buf.nioBuffer), ctx.channel)
 
       out.add(buf)
+
+      msg match {
+         // The keys are written after the header by the chunked writer, a chunk at a time
+         case g: BulkGetKeysResponse if g.status == Success =>
+            val cache = server.getCacheInstance(g.cacheName, cacheManager, false)
+            out.add(new BulkGetKeysInput(BulkUtil.getAllKeys(cache, g.scope)))
+         case _ =>
+      }
    }
 
    private def getEncoder(version: Byte): AbstractVersionedEncoder = {
@@ -57,9 +71,41 @@ class HotRodEncoder(cacheManager: EmbeddedCacheManager, server: HotRodServer)
          case VERSION_11 => Encoders.Encoder11
          case VERSION_12 => Encoders.Encoder12
          case VERSION_13 => Encoders.Encoder13
-         case VERSION_20 | VERSION_21 => Encoder2x
+         case VERSION_20 | VERSION_21 | VERSION_22 => Encoder2x
          case 0 => Encoder2x
       }
    }
 
 }
+
+/**
+ * Writes the keys of a bulk get keys response in chunks of roughly {@link BulkGetKeysInput#ChunkSize} bytes, so that
+ * the keys of a big cache are never held in a single buffer. The iterator is closed once all the keys are written, or
+ * when the channel is closed before.
+ */
+private class BulkGetKeysInput(keys: CloseableIterator[Bytes]) extends ChunkedInput[ByteBuf] {
+
+   private var ended = false
+
+   override def isEndOfInput: Boolean = ended
+
+   override def readChunk(ctx: ChannelHandlerContext): ByteBuf = {
+      if (ended) return null
+      val chunk = ctx.alloc.buffer(BulkGetKeysInput.ChunkSize)
+      while (chunk.writerIndex < BulkGetKeysInput.ChunkSize && keys.hasNext) {
+         chunk.writeByte(1) // Not done
+         writeRangedBytes(keys.next, chunk)
+      }
+      if (!keys.hasNext) {
+         chunk.writeByte(0) // Done
+         ended = true
+      }
+      chunk
+   }
+
+   override def close(): Unit = keys.close()
+}
+
+private object BulkGetKeysInput {
+   val ChunkSize = 8192
+}
@@ -25,4 +25,8 @@ object HotRodOperation extends Enumeration(20) {
    val SizeRequest = Value
    val ExecRequest = Value
    val PutAllRequest = Value
+   val GetAllRequest = Value
+   val IterationStartRequest = Value
+   val IterationNextRequest = Value
+   val IterationEndRequest = Value
 }
@@ -19,6 +19,9 @@ import org.infinispan.util.concurrent.IsolationLevel
 import javax.security.sasl.SaslServerFactory
 import org.infinispan.server.core.security.SaslUtils
 import org.infinispan.factories.ComponentRegistry
+import org.infinispan.server.core.transport.NettyChannelInitializer
+import io.netty.channel.{Channel, ChannelInitializer}
+import io.netty.handler.stream.ChunkedWriteHandler
 
 /**
  * Hot Rod server, in charge of defining its encoder/decoder and, if clustered, update the topology information
@@ -44,6 +47,7 @@ class HotRodServer extends AbstractProtocolServer("HotRod") with Log {
    private var queryFacades: Seq[QueryFacade] = _
    private val saslMechFactories = CollectionFactory.makeConcurrentMap[String, SaslServerFactory](4, 0.9f, 16)
    private var clientListenerRegistry: ClientListenerRegistry = _
+   private val iterationManager = new IterationManager
 
    def getAddress: ServerAddress = address
 
@@ -51,11 +55,16 @@ class HotRodServer extends AbstractProtocolServer("HotRod") with Log {
 
    def getClientListenerRegistry: ClientListenerRegistry = clientListenerRegistry
 
+   def getIterationManager: IterationManager = iterationManager
+
    override def getEncoder = new HotRodEncoder(getCacheManager, this)
 
    override def getDecoder : HotRodDecoder =
       new HotRodDecoder(getCacheManager, transport, this)
 
+   override def getInitializer: ChannelInitializer[Channel] =
+      new HotRodChannelInitializer(super.getInitializer.asInstanceOf[NettyChannelInitializer], this)
+
    override def startInternal(configuration: HotRodServerConfiguration, cacheManager: EmbeddedCacheManager) {
       this.configuration = configuration
 
@@ -77,7 +86,7 @@ class HotRodServer extends AbstractProtocolServer("HotRod") with Log {
       }
 
       queryFacades = loadQueryFacades()
-      clientListenerRegistry = new ClientListenerRegistry(configuration)
+      clientListenerRegistry = new ClientListenerRegistry(configuration, this)
    }
 
    private def loadQueryFacades(): Seq[QueryFacade] =
@@ -249,6 +258,7 @@ class HotRodServer extends AbstractProtocolServer("HotRod") with Log {
 
    override def stop: Unit = {
       if (clientListenerRegistry != null) clientListenerRegistry.stop()
+      iterationManager.stop()
       super.stop
    }
 }
@@ -256,3 +266,17 @@ class HotRodServer extends AbstractProtocolServer("HotRod") with Log {
 object HotRodServer {
    val DEFAULT_TOPOLOGY_ID = -1
 }
+
+/**
+ * Adds a chunked writer in front of the encoder of the pipeline initialized by the given initializer, which writes the
+ * keys of the bulk get keys responses as they are read from the cache. It runs in the request executor if any, so that
+ * reading the keys doesn't block the I/O threads.
+ */
+private class HotRodChannelInitializer(initializer: NettyChannelInitializer, server: HotRodServer)
+      extends ChannelInitializer[Channel] {
+
+   override def initChannel(ch: Channel): Unit = {
+      initializer.initChannel(ch)
+      ch.pipeline.addBefore(server.getRequestExecutor, "encoder", "chunkedWriter", new ChunkedWriteHandler)
+   }
+}
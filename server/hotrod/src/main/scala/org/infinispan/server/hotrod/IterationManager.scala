@@ -0,0 +1,111 @@
+package org.infinispan.server.hotrod
+
+import java.util.{BitSet, UUID}
+
+import io.netty.channel.{Channel, ChannelFuture, ChannelFutureListener}
+import org.infinispan.commons.util.{CloseableIterator, CollectionFactory}
+import org.infinispan.container.entries.CacheEntry
+import org.infinispan.filter.{AcceptAllKeyValueFilter, KeyValueFilter, NullValueConverter, SegmentKeyValueFilter}
+import org.infinispan.server.hotrod.logging.Log
+
+import scala.collection.JavaConversions._
+import scala.collection.mutable.ListBuffer
+
+/**
+ * Keeps track of the iterations started by the Hot Rod clients, which retrieve the entries of a cache a batch at a
+ * time instead of all at once. Each iteration holds a lazy iterator over the entries of the cache, bound to the
+ * channel which started it, and it is closed once exhausted, on request, or when the channel is closed.
+ *
+ * @since 7.2
+ */
+class IterationManager extends Log {
+
+   private val iterations = CollectionFactory.makeConcurrentMap[String, Iteration](4, 0.9f, 16)
+
+   def start(cache: Cache, segments: Option[BitSet], batchSize: Int, keysOnly: Boolean, ch: Channel): String = {
+      if (batchSize <= 0) throw log.illegalIterationBatchSize(batchSize)
+
+      val filter = segments match {
+         case Some(s) => new SegmentKeyValueFilter(s)
+         case None => AcceptAllKeyValueFilter.getInstance
+      }
+      val entries = cache.filterEntries(filter.asInstanceOf[KeyValueFilter[Bytes, Bytes]])
+      val iterator =
+         if (keysOnly) entries.converter(NullValueConverter.getInstance).iterator
+         else entries.iterator
+      val iterationId = UUID.randomUUID.toString
+      val iteration = new Iteration(iterationId, iterator.asInstanceOf[CloseableIterator[CacheEntry[AnyRef, AnyRef]]],
+         batchSize, keysOnly, compatibilityConverter(cache), ch)
+      iterations.put(iterationId, iteration)
+      ch.closeFuture.addListener(iteration)
+      iterationId
+   }
+
+   /**
+    * Returns the next batch of entries of the iteration, the values being null for key only iterations, or None if the
+    * iteration is unknown or was started by another channel. The iteration is closed once there are no more entries
+    * to return.
+    */
+   def next(iterationId: String, ch: Channel): Option[Seq[(Bytes, Bytes)]] = {
+      find(iterationId, ch).map { iteration =>
+         val batch = iteration.nextBatch
+         if (batch.isEmpty) remove(iterationId)
+         batch
+      }
+   }
+
+   def isKeysOnly(iterationId: String, ch: Channel): Boolean = find(iterationId, ch).exists(_.keysOnly)
+
+   /**
+    * Closes the iteration, and returns false if it is unknown or was started by another channel.
+    */
+   def end(iterationId: String, ch: Channel): Boolean = find(iterationId, ch).isDefined && remove(iterationId)
+
+   private def remove(iterationId: String): Boolean = {
+      val iteration = iterations.remove(iterationId)
+      if (iteration != null) {
+         iteration.close()
+         true
+      } else false
+   }
+
+   // The iteration ids aren't secret, so a channel can only use the iterations it started
+   private def find(iterationId: String, ch: Channel): Option[Iteration] =
+      Option(iterations.get(iterationId)).filter(_.ch == ch)
+
+   def activeIterations: Int = iterations.size
+
+   def stop(): Unit = iterations.keySet.foreach(remove)
+
+   private def compatibilityConverter(cache: Cache): Option[HotRodTypeConverter] = {
+      val compatibility = cache.getCacheConfiguration.compatibility
+      if (compatibility.enabled) Some(HotRodTypeConverter(compatibility.marshaller)) else None
+   }
+
+   private class Iteration(val id: String, iterator: CloseableIterator[CacheEntry[AnyRef, AnyRef]], batchSize: Int,
+         val keysOnly: Boolean, converter: Option[HotRodTypeConverter], val ch: Channel) extends ChannelFutureListener {
+
+      // Batches of the same iteration are requested one after the other, but they might be decoded by different threads
+      def nextBatch: Seq[(Bytes, Bytes)] = synchronized {
+         val batch = new ListBuffer[(Bytes, Bytes)]
+         while (batch.size < batchSize && iterator.hasNext) {
+            val entry = iterator.next
+            val value = if (keysOnly) null else unbox(entry.getValue)
+            batch += ((unbox(entry.getKey), value))
+         }
+         batch
+      }
+
+      private def unbox(o: AnyRef): Bytes = converter match {
+         case Some(c) => c.unboxValue(o).asInstanceOf[Bytes]
+         case None => o.asInstanceOf[Bytes]
+      }
+
+      def close(): Unit = synchronized {
+         iterator.close()
+         ch.closeFuture.removeListener(this)
+      }
+
+      override def operationComplete(future: ChannelFuture): Unit = remove(id)
+   }
+}
@@ -38,12 +38,16 @@ object OperationResponse extends Enumeration {
    val RemoveClientListenerResponse = Value(0x28)
    val SizeResponse = Value(0x2A)
    val PutAllResponse = Value(0x2E)
+   val GetAllResponse = Value(0x30)
    val CacheEntryCreatedEventResponse = Value(0x60)
    val CacheEntryModifiedEventResponse = Value(0x61)
    val CacheEntryRemovedEventResponse = Value(0x62)
    
    // 2.1
    val ExecResponse = Value(0x2C)
+   val IterationStartResponse = Value(0x32)
+   val IterationNextResponse = Value(0x34)
+   val IterationEndResponse = Value(0x36)
 
    def toResponse(request: Enumeration#Value): OperationResponse = {
       request match {
@@ -68,6 +72,9 @@ object OperationResponse extends Enumeration {
          case AddClientListenerRequest => AddClientListenerResponse
          case RemoveClientListenerRequest => RemoveClientListenerResponse
          case ExecRequest => ExecResponse
+         case IterationStartRequest => IterationStartResponse
+         case IterationNextRequest => IterationNextResponse
+         case IterationEndRequest => IterationEndResponse
       }
    }
 
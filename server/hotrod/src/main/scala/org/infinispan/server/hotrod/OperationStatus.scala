@@ -23,5 +23,6 @@ object OperationStatus extends Enumeration {
    val OperationTimedOut = Value(0x86) // todo: test
    val NodeSuspected = Value(0x87)
    val IllegalLifecycleState = Value(0x88)
+   val InvalidIteration = Value(0x89)
 
 }
@@ -5,6 +5,7 @@ import OperationResponse._
 import org.infinispan.commons.util.Util
 import org.infinispan.remoting.transport.Address
 import java.lang.StringBuilder
+import java.util.Map
 
 /**
  * A basic responses. The rest of this file contains other response types.
@@ -207,6 +208,18 @@ class SizeResponse(override val version: Byte, override val messageId: Long, ove
    }
 }
 
+class GetAllResponse(override val version: Byte, override val messageId: Long, override val cacheName: String,
+        override val clientIntel: Short, override val topologyId: Int, val entries: Map[Bytes, Bytes])
+      extends Response(version, messageId, cacheName, clientIntel, GetAllResponse, Success, topologyId) {
+   override def toString: String = {
+      new StringBuilder().append("GetAllResponse").append("{")
+              .append("version=").append(version)
+              .append(", messageId=").append(messageId)
+              .append(", entries=").append(entries.size)
+              .append("}").toString
+   }
+}
+
 class ExecResponse(override val version: Byte, override val messageId: Long, override val cacheName: String,
         override val clientIntel: Short, override val topologyId: Int, val result: Array[Byte])
       extends Response(version, messageId, cacheName, clientIntel, ExecResponse, Success, topologyId) {
@@ -220,6 +233,33 @@ class ExecResponse(override val version: Byte, override val messageId: Long, ove
 }
 
 
+class IterationStartResponse(override val version: Byte, override val messageId: Long, override val cacheName: String,
+        override val clientIntel: Short, override val topologyId: Int, val iterationId: String)
+      extends Response(version, messageId, cacheName, clientIntel, IterationStartResponse, Success, topologyId) {
+   override def toString: String = {
+      new StringBuilder().append("IterationStartResponse").append("{")
+              .append("version=").append(version)
+              .append(", messageId=").append(messageId)
+              .append(", iterationId=").append(iterationId)
+              .append("}").toString
+   }
+}
+
+class IterationNextResponse(override val version: Byte, override val messageId: Long, override val cacheName: String,
+        override val clientIntel: Short, override val topologyId: Int, val keysOnly: Boolean,
+        val entries: Seq[(Bytes, Bytes)])
+      extends Response(version, messageId, cacheName, clientIntel, IterationNextResponse, Success, topologyId) {
+   override def toString: String = {
+      new StringBuilder().append("IterationNextResponse").append("{")
+              .append("version=").append(version)
+              .append(", messageId=").append(messageId)
+              .append(", keysOnly=").append(keysOnly)
+              .append(", entries=").append(entries.size)
+              .append("}").toString
+   }
+}
+
+
 abstract class AbstractTopologyResponse(val topologyId: Int, val serverEndpointsMap : Map[Address, ServerAddress])
 
 abstract class AbstractHashDistAwareResponse(override val topologyId: Int,
@@ -0,0 +1,20 @@
+package org.infinispan.server.hotrod.configuration;
+
+/**
+ * What the server does when a client listener doesn't consume its events as fast as they are generated, and its queue
+ * of events waiting to be sent is full.
+ *
+ * @since 7.2
+ */
+public enum EventOverflowPolicy {
+   /**
+    * The event is dropped and never received by the client. The following events are sent again once the queue has
+    * room for them. The number of dropped events is reported by the {@code ClientEventQueue} component of the server.
+    */
+   DROP,
+   /**
+    * The event is dropped and the connection of the listener is closed, so that the client fails the listener over to
+    * another server.
+    */
+   FAILOVER
+}
@@ -45,4 +45,16 @@ public interface HotRodServerChildConfigurationBuilder {
     */
    HotRodServerChildConfigurationBuilder topologyStateTransfer(boolean topologyStateTransfer);
 
+   /**
+    * Configures the maximum number of events queued for each client listener, waiting for the client to consume them.
+    * Defaults to 10000.
+    */
+   HotRodServerChildConfigurationBuilder eventQueueSize(int eventQueueSize);
+
+   /**
+    * Configures what happens to the events of a client listener whose queue is full. The threads modifying the cache
+    * never wait for room in the queue. Defaults to {@link EventOverflowPolicy#FAILOVER}.
+    */
+   HotRodServerChildConfigurationBuilder eventOverflowPolicy(EventOverflowPolicy eventOverflowPolicy);
+
 }
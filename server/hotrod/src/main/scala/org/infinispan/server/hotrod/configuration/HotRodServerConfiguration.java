@@ -14,11 +14,14 @@ public class HotRodServerConfiguration extends ProtocolServerConfiguration {
    private final long topologyReplTimeout;
    private final boolean topologyAwaitInitialTransfer;
    private final boolean topologyStateTransfer;
+   private final int eventQueueSize;
+   private final EventOverflowPolicy eventOverflowPolicy;
    private final AuthenticationConfiguration authentication;
 
    HotRodServerConfiguration(String defaultCacheName, String proxyHost, int proxyPort, long topologyLockTimeout, long topologyReplTimeout, boolean topologyAwaitInitialTransfer, boolean topologyStateTransfer,
-         String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads, AuthenticationConfiguration authentication) {
-      super(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl, tcpNoDelay, workerThreads);
+         int eventQueueSize, EventOverflowPolicy eventOverflowPolicy,
+         String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads, int requestThreads, AuthenticationConfiguration authentication) {
+      super(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl, tcpNoDelay, workerThreads, requestThreads);
       this.proxyHost = proxyHost;
       this.proxyPort = proxyPort;
       this.topologyCacheName = TOPOLOGY_CACHE_NAME_PREFIX + (name.length() > 0 ? "_" + name : name);
@@ -26,6 +29,8 @@ public class HotRodServerConfiguration extends ProtocolServerConfiguration {
       this.topologyReplTimeout = topologyReplTimeout;
       this.topologyStateTransfer = topologyStateTransfer;
       this.topologyAwaitInitialTransfer = topologyAwaitInitialTransfer;
+      this.eventQueueSize = eventQueueSize;
+      this.eventOverflowPolicy = eventOverflowPolicy;
       this.authentication = authentication;
    }
 
@@ -57,6 +62,14 @@ public boolean topologyStateTransfer() {
       return topologyStateTransfer;
    }
 
+   public int eventQueueSize() {
+      return eventQueueSize;
+   }
+
+   public EventOverflowPolicy eventOverflowPolicy() {
+      return eventOverflowPolicy;
+   }
+
    public AuthenticationConfiguration authentication() {
       return authentication;
    }
@@ -66,7 +79,8 @@ public String toString() {
       return "HotRodServerConfiguration [proxyHost=" + proxyHost + ", proxyPort=" + proxyPort + ", topologyCacheName="
             + topologyCacheName + ", topologyLockTimeout=" + topologyLockTimeout + ", topologyReplTimeout="
             + topologyReplTimeout + ", topologyAwaitInitialTransfer=" + topologyAwaitInitialTransfer
-            + ", topologyStateTransfer=" + topologyStateTransfer + ", authentication=" + authentication
+            + ", topologyStateTransfer=" + topologyStateTransfer + ", eventQueueSize=" + eventQueueSize
+            + ", eventOverflowPolicy=" + eventOverflowPolicy + ", authentication=" + authentication
             + ", " + super.toString() + "]";
    }
 }
@@ -1,10 +1,12 @@
 package org.infinispan.server.hotrod.configuration;
 
 import org.infinispan.commons.configuration.Builder;
+import org.infinispan.commons.logging.LogFactory;
 import org.infinispan.configuration.cache.LockingConfigurationBuilder;
 import org.infinispan.configuration.cache.StateTransferConfigurationBuilder;
 import org.infinispan.configuration.cache.SyncConfigurationBuilder;
 import org.infinispan.server.core.configuration.ProtocolServerConfigurationBuilder;
+import org.infinispan.server.hotrod.logging.JavaLog;
 
 /**
  * HotRodServerConfigurationBuilder.
@@ -14,6 +16,7 @@
  */
 public class HotRodServerConfigurationBuilder extends ProtocolServerConfigurationBuilder<HotRodServerConfiguration, HotRodServerConfigurationBuilder> implements
       Builder<HotRodServerConfiguration>, HotRodServerChildConfigurationBuilder {
+   private static final JavaLog log = LogFactory.getLog(HotRodServerConfigurationBuilder.class, JavaLog.class);
    private final AuthenticationConfigurationBuilder authentication = new AuthenticationConfigurationBuilder(this);
    private String proxyHost;
    private int proxyPort = -1;
@@ -21,6 +24,8 @@ public class HotRodServerConfigurationBuilder extends ProtocolServerConfiguratio
    private long topologyReplTimeout = 10000L;
    private boolean topologyAwaitInitialTransfer = true;
    private boolean topologyStateTransfer = true;
+   private int eventQueueSize = 10000;
+   private EventOverflowPolicy eventOverflowPolicy = EventOverflowPolicy.FAILOVER;
 
    public HotRodServerConfigurationBuilder() {
       super(11222);
@@ -91,10 +96,22 @@ public HotRodServerConfigurationBuilder topologyStateTransfer(boolean topologySt
       return this;
    }
 
+   @Override
+   public HotRodServerConfigurationBuilder eventQueueSize(int eventQueueSize) {
+      this.eventQueueSize = eventQueueSize;
+      return this;
+   }
+
+   @Override
+   public HotRodServerConfigurationBuilder eventOverflowPolicy(EventOverflowPolicy eventOverflowPolicy) {
+      this.eventOverflowPolicy = eventOverflowPolicy;
+      return this;
+   }
+
    @Override
    public HotRodServerConfiguration create() {
-      return new HotRodServerConfiguration(defaultCacheName, proxyHost, proxyPort, topologyLockTimeout, topologyReplTimeout, topologyAwaitInitialTransfer, topologyStateTransfer, name, host, port, idleTimeout,
-            recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads, authentication.create());
+      return new HotRodServerConfiguration(defaultCacheName, proxyHost, proxyPort, topologyLockTimeout, topologyReplTimeout, topologyAwaitInitialTransfer, topologyStateTransfer, eventQueueSize, eventOverflowPolicy, name, host, port, idleTimeout,
+            recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads, requestThreads, authentication.create());
    }
 
    @Override
@@ -106,6 +123,8 @@ public HotRodServerConfigurationBuilder read(HotRodServerConfiguration template)
       this.topologyReplTimeout = template.topologyReplTimeout();
       this.topologyAwaitInitialTransfer = template.topologyAwaitInitialTransfer();
       this.topologyStateTransfer = template.topologyStateTransfer();
+      this.eventQueueSize = template.eventQueueSize();
+      this.eventOverflowPolicy = template.eventOverflowPolicy();
       return this;
    }
 
@@ -118,6 +137,9 @@ public void validate() {
       if (proxyPort < 0) {
          proxyPort = port;
       }
+      if (eventQueueSize < 1) {
+         throw log.illegalEventQueueSize(eventQueueSize);
+      }
       authentication.validate();
    }
 
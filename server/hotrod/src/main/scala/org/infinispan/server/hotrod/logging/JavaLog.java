@@ -68,4 +68,21 @@ public interface JavaLog extends org.infinispan.util.logging.Log {
    @Message(value = "Marshaller already set to '%s', ignoring passed '%s'", id = 6012)
    void warnMarshallerAlreadySet(Marshaller existingMarshaller, Marshaller newMarshaller);
 
+   @Message(value = "The size of the event queues must be greater than 0: %d", id = 6013)
+   CacheConfigurationException illegalEventQueueSize(int eventQueueSize);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Event queue of client listener '%s' is full, closing channel %s so that the client fails over", id = 6014)
+   void eventQueueFull(String listenerId, Object channel);
+
+   @Message(value = "Unknown iteration '%s', it has either finished or was never started", id = 6015)
+   String unknownIteration(String iterationId);
+
+   @Message(value = "The size of the iteration batches must be greater than 0: %d", id = 6016)
+   IllegalArgumentException illegalIterationBatchSize(int batchSize);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Event queue of client listener '%s' is full, dropping its events until channel %s catches up", id = 6017)
+   void eventsDropped(String listenerId, Object channel);
+
 }
@@ -1,20 +1,11 @@
 package org.infinispan.server.hotrod.util;
 
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.Set;
-
 import org.infinispan.Cache;
 import org.infinispan.commons.marshall.Marshaller;
-import org.infinispan.commons.util.Immutables;
+import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.CompatibilityModeConfiguration;
-import org.infinispan.distexec.mapreduce.Collator;
-import org.infinispan.distexec.mapreduce.Collector;
-import org.infinispan.distexec.mapreduce.MapReduceTask;
-import org.infinispan.distexec.mapreduce.Mapper;
-import org.infinispan.distexec.mapreduce.Reducer;
+import org.infinispan.context.Flag;
 import org.infinispan.server.hotrod.HotRodTypeConverter;
 
 /**
@@ -29,72 +20,49 @@ public final class BulkUtil {
    public static final int GLOBAL_SCOPE = 1;
    public static final int LOCAL_SCOPE = 2;
 
-   public static Set<byte[]> getAllKeys(Cache<byte[], ?> cache, int scope) {
+   /**
+    * Returns an iterator over the keys of the cache in the given scope. The keys are retrieved lazily, a batch of them
+    * at a time from each node, so the whole key set is never held in memory. The iterator must be closed once done.
+    */
+   public static CloseableIterator<byte[]> getAllKeys(Cache<byte[], ?> cache, int scope) {
       CacheMode cacheMode = cache.getAdvancedCache().getCacheConfiguration().clustering().cacheMode();
       boolean keysAreLocal = !cacheMode.isClustered() || cacheMode.isReplicated();
-      if (keysAreLocal || scope == LOCAL_SCOPE) {
-         return cache.keySet();
-      } else {
-         MapReduceTask<byte[], Object, byte[], Object> task =
-               new MapReduceTask<byte[], Object, byte[], Object>((Cache<byte[], Object>) cache)
-                     .mappedWith(new KeyMapper<byte[]>())
-                     .reducedWith(new KeyReducer<byte[]>());
-         return task.execute(createCollator(cache));
-      }
-   }
-
-   private static Collator<byte[], Object, Set<byte[]>> createCollator(Cache<byte[], ?> cache) {
+      Cache<byte[], ?> scopedCache = keysAreLocal || scope == LOCAL_SCOPE ?
+            cache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL) : cache;
+      CloseableIterator<byte[]> keys = scopedCache.keySet().iterator();
       CompatibilityModeConfiguration compatibility = cache.getCacheConfiguration().compatibility();
-      boolean enabled = compatibility.enabled();
-      return enabled ? new CompatibilityCollator<byte[]>(compatibility.marshaller())
-            : new KeysCollator<byte[]>();
+      return compatibility.enabled() ? new CompatibilityKeyIterator(keys, compatibility.marshaller()) : keys;
    }
 
-   private static class KeyMapper<K> implements Mapper<K, Object, K, Object> {
+   private static class CompatibilityKeyIterator implements CloseableIterator<byte[]> {
 
-      private static final long serialVersionUID = -5054573988280497412L;
+      private final HotRodTypeConverter converter = new HotRodTypeConverter();
+      private final CloseableIterator<byte[]> keys;
 
-      @Override
-      public void map(K key, Object value, Collector<K, Object> collector) {
-         collector.emit(key, null);
+      private CompatibilityKeyIterator(CloseableIterator<byte[]> keys, Marshaller compatibilityMarshaller) {
+         this.keys = keys;
+         if (compatibilityMarshaller != null)
+            converter.setMarshaller(compatibilityMarshaller);
       }
-   }
-
-   private static class KeyReducer<K> implements Reducer<K, Object> {
-
-      private static final long serialVersionUID = -8199097945001793869L;
 
       @Override
-      public Object reduce(K reducedKey, Iterator<Object> iter) {
-         return null;  // the value is not actually used, we can output null
+      public boolean hasNext() {
+         return keys.hasNext();
       }
-   }
-
-   private static class KeysCollator<K> implements Collator<K, Object, Set<K>> {
 
       @Override
-      public Set<K> collate(Map<K, Object> reducedResults) {
-         return reducedResults.keySet();
+      public byte[] next() {
+         return (byte[]) converter.unboxKey(keys.next());
       }
-   }
-
-   private static class CompatibilityCollator<K> implements Collator<K, Object, Set<K>> {
-
-      private final HotRodTypeConverter converter = new HotRodTypeConverter();
 
-      private CompatibilityCollator(Marshaller compatibilityMarshaller) {
-         if (compatibilityMarshaller != null)
-            converter.setMarshaller(compatibilityMarshaller);
+      @Override
+      public void remove() {
+         throw new UnsupportedOperationException();
       }
 
       @Override
-      public Set<K> collate(Map<K, Object> reducedResults) {
-         Set<K> keySet = reducedResults.keySet();
-         Set<K> backingSet = new HashSet<K>(keySet.size());
-         for (K key : keySet)
-            backingSet.add((K) converter.unboxKey(key));
-
-         return Immutables.immutableSetWrap(backingSet);
+      public void close() {
+         keys.close();
       }
    }
 
@@ -10,6 +10,7 @@ import org.infinispan.configuration.cache.{ConfigurationBuilder, Configuration}
 import org.infinispan.server.hotrod.configuration.HotRodServerConfigurationBuilder
 import org.infinispan.configuration.cache.ClusterLoaderConfiguration
 import org.infinispan.server.hotrod.configuration.HotRodServerConfiguration
+import org.infinispan.server.hotrod.configuration.EventOverflowPolicy
 import org.infinispan.util.concurrent.IsolationLevel
 import org.infinispan.commons.CacheConfigurationException
 
@@ -56,6 +57,19 @@ class HotRodConfigurationTest {
       validateIsolationLevel(IsolationLevel.SERIALIZABLE)
    }
 
+   @Test(expectedExceptions = Array(classOf[CacheConfigurationException]))
+   def testEventQueueSizeValidation() {
+      new HotRodServerConfigurationBuilder().eventQueueSize(0).build()
+   }
+
+   def testEventQueueConfiguration() {
+      assertEquals(new HotRodServerConfigurationBuilder().build().eventOverflowPolicy(), EventOverflowPolicy.FAILOVER)
+      val cfg = new HotRodServerConfigurationBuilder()
+         .eventQueueSize(100).eventOverflowPolicy(EventOverflowPolicy.DROP).build()
+      assertEquals(cfg.eventQueueSize(), 100)
+      assertEquals(cfg.eventOverflowPolicy(), EventOverflowPolicy.DROP)
+   }
+
    private def withClusteredServer(builder: HotRodServerConfigurationBuilder) (assert: (Configuration, Long) => Unit) {
       Stoppable.useCacheManager(TestCacheManagerFactory.createClusteredCacheManager(hotRodCacheConfiguration())) { cm =>
          Stoppable.useServer(startHotRodServer(cm, UniquePortThreadLocal.get.intValue, builder)) { server =>
@@ -14,6 +14,7 @@ import org.infinispan.server.hotrod.configuration.HotRodServerConfiguration
 import org.infinispan.test.fwk.TestCacheManagerFactory
 import org.infinispan.server.core.QueryFacade
 import org.infinispan.AdvancedCache
+import scala.collection.mutable.ListBuffer
 
 /**
  * Hot Rod server functional test.
@@ -449,6 +450,17 @@ class HotRodFunctionalTest extends HotRodSingleNodeTest {
       }
    }
 
+   def testBulkGetKeysInChunks(m: Method) {
+      // The keys are written in chunks of 8KB
+      val size = 2000
+      for (i <- 0 until size) assertStatus(client.put(k(m, i + "k-"), 0, 0, v(m)), Success)
+      val resp = client.bulkGetKeys
+      assertStatus(resp, Success)
+      assertEquals(size, resp.bulkData.size)
+      // The following responses are read as usual
+      assertSuccess(client.get(k(m, "0k-"), 0), v(m))
+   }
+
    def testPutBigSizeKey(m: Method) {
       val key = generateRandomString(1024 * 1024).getBytes
       assertStatus(client.put(key, 0, 0, v(m)), Success)
@@ -459,6 +471,15 @@ class HotRodFunctionalTest extends HotRodSingleNodeTest {
       assertStatus(client.put(k(m), 0, 0, value), Success)
    }
 
+   def testPutBigSizeValueSpanningPackets(m: Method) {
+      val value = generateRandomString(8 * 1024 * 1024).getBytes
+      assertStatus(client.put(k(m), 0, 0, value), Success)
+      assertSuccess(client.get(k(m), 0), value)
+      // The decoder is back to reading headers once the value is read
+      client.assertPut(m, "k2-", "v2-")
+      assertSuccess(client.get(k(m, "k2-"), 0), v(m, "v2-"))
+   }
+
    def testStoreAsBinaryOverrideOnNamedCache(m: Method) {
       Stoppable.useCacheManager(createTestCacheManager) { cm =>
          Stoppable.useServer(startHotRodServer(cm, server.getPort + 33)) { server =>
@@ -490,6 +511,77 @@ class HotRodFunctionalTest extends HotRodSingleNodeTest {
       assertEquals(20, sizeEnd.size)
    }
 
+   def testIteration(m: Method): Unit = {
+      for (i <- 0 until 25) client.assertPut(m, s"k-$i", s"v-$i")
+      withIterationClient { iterationClient =>
+         val start = iterationClient.iterationStart(Array.empty, 10, false).asInstanceOf[TestIterationStartResponse]
+         assertStatus(start, Success)
+         val entries = ListBuffer[(Bytes, Option[Bytes])]()
+         var batch = iterationClient.iterationNext(start.iterationId, false).asInstanceOf[TestIterationNextResponse]
+         while (!batch.entries.isEmpty) {
+            assertTrue(batch.entries.size <= 10)
+            entries ++= batch.entries
+            batch = iterationClient.iterationNext(start.iterationId, false).asInstanceOf[TestIterationNextResponse]
+         }
+         assertEquals(25, entries.size)
+         for (i <- 0 until 25) {
+            val entry = entries.find(e => Arrays.equals(e._1, k(m, s"k-$i")))
+            assertTrue(entry.isDefined)
+            assertTrue(Arrays.equals(v(m, s"v-$i"), entry.get._2.get))
+         }
+         // The iteration is closed once exhausted
+         assertStatus(iterationClient.iterationNext(start.iterationId, false), InvalidIteration)
+         assertEquals(0, server.getIterationManager.activeIterations)
+      }
+   }
+
+   def testIterationKeysOnly(m: Method): Unit = {
+      for (i <- 0 until 5) client.assertPut(m, s"k-$i", s"v-$i")
+      withIterationClient { iterationClient =>
+         val start = iterationClient.iterationStart(Array.empty, 100, true).asInstanceOf[TestIterationStartResponse]
+         val batch = iterationClient.iterationNext(start.iterationId, true).asInstanceOf[TestIterationNextResponse]
+         assertEquals(5, batch.entries.size)
+         assertTrue(batch.entries.forall(_._2.isEmpty))
+         assertStatus(iterationClient.iterationEnd(start.iterationId), Success)
+         assertStatus(iterationClient.iterationEnd(start.iterationId), InvalidIteration)
+      }
+   }
+
+   def testIterationOfAnotherChannel(m: Method): Unit = {
+      client.assertPut(m)
+      withIterationClient { iterationClient =>
+         val start = iterationClient.iterationStart(Array.empty, 10, false).asInstanceOf[TestIterationStartResponse]
+         withIterationClient { otherClient =>
+            assertStatus(otherClient.iterationNext(start.iterationId, false), InvalidIteration)
+            assertStatus(otherClient.iterationEnd(start.iterationId), InvalidIteration)
+         }
+         // The iteration is still usable by the channel which started it
+         val batch = iterationClient.iterationNext(start.iterationId, false).asInstanceOf[TestIterationNextResponse]
+         assertEquals(1, batch.entries.size)
+         assertStatus(iterationClient.iterationEnd(start.iterationId), Success)
+      }
+   }
+
+   def testIterationUnknownBeforeVersion22(m: Method): Unit = {
+      // Use a separate client, since the decoder skips the rest of an unknown operation
+      val oldClient = new HotRodClient("127.0.0.1", hotRodServer.getPort, cacheName, 60, 21)
+      try {
+         assertStatus(oldClient.iterationStart(Array.empty, 10, false), UnknownOperation)
+      } finally {
+         killClient(oldClient)
+      }
+   }
+
+   private def withIterationClient(fn: HotRodClient => Unit): Unit = {
+      // Iteration operations were added in version 2.2
+      val iterationClient = new HotRodClient("127.0.0.1", hotRodServer.getPort, cacheName, 60, 22)
+      try {
+         fn(iterationClient)
+      } finally {
+         killClient(iterationClient)
+      }
+   }
+
    protected def assertSuccessPrevious(resp: TestResponseWithPrevious, expected: Array[Byte]): Boolean = {
       if (expected == null) assertEquals(None, resp.previous)
       else assertTrue(java.util.Arrays.equals(expected, resp.previous.get))
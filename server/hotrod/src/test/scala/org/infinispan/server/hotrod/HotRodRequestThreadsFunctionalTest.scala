@@ -0,0 +1,22 @@
+package org.infinispan.server.hotrod
+
+import org.testng.annotations.Test
+import test.HotRodTestingUtil._
+import org.infinispan.server.hotrod.test._
+import org.infinispan.manager.EmbeddedCacheManager
+import org.infinispan.server.hotrod.configuration.HotRodServerConfigurationBuilder
+
+/**
+ * Hot Rod server functional test with the requests executed outside of the I/O worker threads.
+ *
+ * @since 7.2
+ */
+@Test(groups = Array("functional"), testName = "server.hotrod.HotRodRequestThreadsFunctionalTest")
+class HotRodRequestThreadsFunctionalTest extends HotRodFunctionalTest {
+
+   override protected def createStartHotRodServer(cacheManager: EmbeddedCacheManager) = {
+      val builder = new HotRodServerConfigurationBuilder
+      builder.proxyHost(host).proxyPort(UniquePortThreadLocal.get.intValue).idleTimeout(0).requestThreads(2)
+      startHotRodServer(cacheManager, UniquePortThreadLocal.get.intValue, builder)
+   }
+}
@@ -0,0 +1,156 @@
+package org.infinispan.server.hotrod.event
+
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import javax.management.ObjectName
+
+import org.infinispan.jmx.PerThreadMBeanServerLookup
+import org.infinispan.manager.EmbeddedCacheManager
+import org.infinispan.server.core.test.ServerTestingUtil._
+import org.infinispan.server.hotrod.OperationStatus._
+import org.infinispan.server.hotrod.configuration.EventOverflowPolicy
+import org.infinispan.server.hotrod.test.HotRodTestingUtil._
+import org.infinispan.server.hotrod.test.{HotRodClient, TestClientListener, TestKeyWithVersionEvent}
+import org.infinispan.server.hotrod.Bytes
+import org.infinispan.test.SingleCacheManagerTest
+import org.infinispan.test.fwk.TestCacheManagerFactory
+import org.testng.AssertJUnit._
+import org.testng.annotations.Test
+
+import scala.collection.JavaConversions._
+
+/**
+ * Tests that the events of a client listener which doesn't read them are queued without blocking the threads
+ * modifying the cache, and what happens once the queue is full.
+ *
+ * @since 7.2
+ */
+@Test(groups = Array("functional"), testName = "server.hotrod.event.HotRodEventQueueTest")
+class HotRodEventQueueTest extends SingleCacheManagerTest {
+
+   private val cacheName = "HotRodCache"
+   private val jmxDomain = classOf[HotRodEventQueueTest].getSimpleName
+   // Big keys fill the socket buffers with few events
+   private val key = new Array[Byte](64 * 1024)
+
+   override def createCacheManager: EmbeddedCacheManager = {
+      val cm = TestCacheManagerFactory.createClusteredCacheManagerEnforceJmxDomain(jmxDomain, hotRodCacheConfiguration())
+      cm.getCache(cacheName)
+      cm
+   }
+
+   def testEventsQueuedWhileClientNotReading() {
+      withServer(EventOverflowPolicy.FAILOVER, 10000) { (listenerClient, client) =>
+         val listener = new CountingListener
+         withClientListener(listenerClient, listener, false, None, None, true) { () =>
+            listenerClient.setAutoRead(false)
+            val modifications = modifyUntil(client, queueStat("QueuedEvents") > 10)
+            assertEquals(10000, queueStat("QueueCapacity"))
+            assertEquals(0, queueStat("DroppedEvents"))
+
+            // The queue is drained once the channel is writable again
+            listenerClient.setAutoRead(true)
+            waitUntil(listener.received.get == modifications)
+            assertEquals(0, queueStat("QueuedEvents"))
+            assertEquals(modifications, queueStat("SentEvents"))
+         }
+      }
+   }
+
+   def testOverflowFailover() {
+      withServer(EventOverflowPolicy.FAILOVER, 10) { (listenerClient, client) =>
+         val listener = new CountingListener
+         assertStatus(listenerClient.addClientListener(listener, false, None, None, true), Success)
+         listenerClient.setAutoRead(false)
+         modifyUntil(client, queueStat("DroppedEvents") > 0)
+
+         // Reading again lets the client notice that the server closed the channel
+         listenerClient.setAutoRead(true)
+         waitUntil(!listenerClient.isConnected)
+
+         // The listener is removed with the next event
+         assertStatus(client.put(key, 0, 0, Array[Byte](1)), Success)
+         assertTrue(queueNames.isEmpty)
+      }
+   }
+
+   def testOverflowDrop() {
+      withServer(EventOverflowPolicy.DROP, 10) { (listenerClient, client) =>
+         val listener = new CountingListener
+         withClientListener(listenerClient, listener, false, None, None, true) { () =>
+            listenerClient.setAutoRead(false)
+            val modifications = modifyUntil(client, queueStat("DroppedEvents") > 0)
+
+            // The dropped events are never received, but the channel is kept open
+            listenerClient.setAutoRead(true)
+            waitUntil(queueStat("QueuedEvents") == 0)
+            val sent = queueStat("SentEvents")
+            assertEquals(modifications, sent + queueStat("DroppedEvents"))
+            waitUntil(listener.received.get == sent)
+            assertTrue(listenerClient.isConnected)
+
+            // The following events are sent again
+            assertStatus(client.put(key, 0, 0, Array[Byte](1)), Success)
+            waitUntil(listener.received.get == sent + 1)
+         }
+      }
+   }
+
+   private def withServer(policy: EventOverflowPolicy, queueSize: Int)(fn: (HotRodClient, HotRodClient) => Unit) {
+      val builder = getDefaultHotRodConfiguration()
+      builder.eventQueueSize(queueSize).eventOverflowPolicy(policy).sendBufSize(8 * 1024)
+      val server = startHotRodServer(cacheManager, builder)
+      val listenerClient = new HotRodClient("127.0.0.1", server.getPort, cacheName, 60, 21)
+      val client = new HotRodClient("127.0.0.1", server.getPort, cacheName, 60, 21)
+      try {
+         fn(listenerClient, client)
+      } finally {
+         killClient(client)
+         killClient(listenerClient)
+         killServer(server)
+         cacheManager.getCache(cacheName).clear()
+      }
+   }
+
+   /**
+    * Modifies the same entry until the condition is satisfied, and returns the number of modifications.
+    */
+   private def modifyUntil(client: HotRodClient, condition: => Boolean): Long = {
+      var modifications = 0
+      while (!condition) {
+         assertTrue("The event queue never filled up", modifications < 10000)
+         assertStatus(client.put(key, 0, 0, Array[Byte](modifications.toByte)), Success)
+         modifications += 1
+      }
+      modifications
+   }
+
+   private def queueNames: Iterable[ObjectName] =
+      PerThreadMBeanServerLookup.getThreadMBeanServer.queryNames(
+         new ObjectName(s"$jmxDomain:type=Server,component=ClientEventQueue,*"), null)
+
+   private def queueStat(attribute: String): Long = {
+      val names = queueNames
+      assertEquals(1, names.size)
+      PerThreadMBeanServerLookup.getThreadMBeanServer.getAttribute(names.head, attribute)
+         .asInstanceOf[Number].longValue
+   }
+
+   private def waitUntil(condition: => Boolean) {
+      val deadline = System.nanoTime + TimeUnit.SECONDS.toNanos(10)
+      while (!condition) {
+         assertTrue("Timed out waiting for the condition", System.nanoTime - deadline < 0)
+         Thread.sleep(10)
+      }
+   }
+
+   private class CountingListener extends TestClientListener {
+      val received = new AtomicInteger
+
+      override def onCreated(event: TestKeyWithVersionEvent): Unit = received.incrementAndGet()
+
+      override def onModified(event: TestKeyWithVersionEvent): Unit = received.incrementAndGet()
+
+      override def getId: Bytes = Array[Byte](4, 5, 6)
+   }
+}
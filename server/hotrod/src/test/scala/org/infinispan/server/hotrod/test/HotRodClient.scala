@@ -63,6 +63,13 @@ class HotRodClient(host: String, port: Int, val defaultCacheName: String, rspTim
 
    def stop = ch.disconnect
 
+   def isConnected: Boolean = ch.isActive
+
+   /**
+    * Stops or resumes reading from the server, e.g. to simulate a client listener which doesn't keep up with its events.
+    */
+   def setAutoRead(autoRead: Boolean): Unit = ch.config.setAutoRead(autoRead)
+
    def put(k: Array[Byte], lifespan: Int, maxIdle: Int, v: Array[Byte]): TestResponse =
       execute(0xA0, 0x01, defaultCacheName, k, lifespan, maxIdle, v, 0, 1 ,0)
 
@@ -291,6 +298,27 @@ class HotRodClient(host: String, port: Int, val defaultCacheName: String, rspTim
       handler.getResponse(op.id).asInstanceOf[TestSizeResponse]
    }
 
+   def iterationStart(segments: Bytes, batchSize: Int, keysOnly: Boolean): TestResponse = {
+      val op = new IterationStartOp(0xA0, protocolVersion, defaultCacheName, 1, 0, segments, batchSize, keysOnly)
+      writeOp(op)
+      val handler = ch.pipeline.last.asInstanceOf[ClientHandler]
+      handler.getResponse(op.id)
+   }
+
+   def iterationNext(iterationId: String, keysOnly: Boolean): TestResponse = {
+      val op = new IterationNextOp(0xA0, protocolVersion, defaultCacheName, 1, 0, iterationId, keysOnly)
+      writeOp(op)
+      val handler = ch.pipeline.last.asInstanceOf[ClientHandler]
+      handler.getResponse(op.id)
+   }
+
+   def iterationEnd(iterationId: String): TestResponse = {
+      val op = new IterationEndOp(0xA0, protocolVersion, defaultCacheName, 1, 0, iterationId)
+      writeOp(op)
+      val handler = ch.pipeline.last.asInstanceOf[ClientHandler]
+      handler.getResponse(op.id)
+   }
+
 }
 
 private class ClientChannelInitializer(client: HotRodClient, rspTimeoutSeconds: Int, sslEngine: SSLEngine, protocolVersion: Byte) extends ChannelInitializer[Channel] {
@@ -327,6 +355,17 @@ private class Encoder(protocolVersion: Byte) extends MessageToByteEncoder[Object
          case op: RemoveClientListenerOp =>
             writeHeader(op, buffer)
             writeRangedBytes(op.listenerId, buffer)
+         case op: IterationStartOp =>
+            writeHeader(op, buffer)
+            writeRangedBytes(op.segments, buffer)
+            writeUnsignedInt(op.batchSize, buffer)
+            buffer.writeByte(if (op.keysOnly) 1 else 0)
+         case op: IterationNextOp =>
+            writeHeader(op, buffer)
+            writeString(op.iterationId, buffer)
+         case op: IterationEndOp =>
+            writeHeader(op, buffer)
+            writeString(op.iterationId, buffer)
          case op: Op => {
             writeHeader(op, buffer)
             if (protocolVersion < 20)
@@ -467,7 +506,8 @@ private class Decoder(client: HotRodClient) extends ReplayingDecoder[Void] with
             } else new TestResponse(op.version, id, op.cacheName, op.clientIntel,
                      opCode, status, op.topologyId, topologyChangeResponse)
          }
-         case ContainsKeyResponse | ClearResponse | PingResponse | AddClientListenerResponse | RemoveClientListenerResponse =>
+         case ContainsKeyResponse | ClearResponse | PingResponse | AddClientListenerResponse | RemoveClientListenerResponse
+              | IterationEndResponse =>
             new TestResponse(op.version, id, op.cacheName, op.clientIntel, opCode,
                   status, op.topologyId, topologyChangeResponse)
          case GetWithVersionResponse  => {
@@ -582,6 +622,19 @@ private class Decoder(client: HotRodClient) extends ReplayingDecoder[Void] with
             val size = readUnsignedLong(buf)
             new TestSizeResponse(op.version, id, op.cacheName, op.clientIntel,
                size, op.topologyId, topologyChangeResponse)
+         case IterationStartResponse =>
+            new TestIterationStartResponse(op.version, id, op.cacheName, op.clientIntel,
+               readString(buf), op.topologyId, topologyChangeResponse)
+         case IterationNextResponse =>
+            val keysOnly = op.asInstanceOf[IterationNextOp].keysOnly
+            val count = readUnsignedInt(buf)
+            val entries = ListBuffer[(Bytes, Option[Bytes])]()
+            for (i <- 0 until count) {
+               val key = readRangedBytes(buf)
+               entries += ((key, if (keysOnly) None else Some(readRangedBytes(buf))))
+            }
+            new TestIterationNextResponse(op.version, id, op.cacheName, op.clientIntel,
+               entries.toList, op.topologyId, topologyChangeResponse)
          case ErrorResponse => {
             if (op == null)
                new TestErrorResponse(10, id, "", 0, status, 0,
@@ -875,6 +928,36 @@ class SizeOp(override val magic: Int,
       extends Op(magic, version, 0x29, cacheName, null, 0, 0, null, 0, 0,
          clientIntel, topologyId)
 
+class IterationStartOp(override val magic: Int,
+      override val version: Byte,
+      override val cacheName: String,
+      override val clientIntel: Byte,
+      override val topologyId: Int,
+      val segments: Bytes,
+      val batchSize: Int,
+      val keysOnly: Boolean)
+      extends Op(magic, version, 0x31, cacheName, null, 0, 0, null, 0, 0,
+         clientIntel, topologyId)
+
+class IterationNextOp(override val magic: Int,
+      override val version: Byte,
+      override val cacheName: String,
+      override val clientIntel: Byte,
+      override val topologyId: Int,
+      val iterationId: String,
+      val keysOnly: Boolean)
+      extends Op(magic, version, 0x33, cacheName, null, 0, 0, null, 0, 0,
+         clientIntel, topologyId)
+
+class IterationEndOp(override val magic: Int,
+      override val version: Byte,
+      override val cacheName: String,
+      override val clientIntel: Byte,
+      override val topologyId: Int,
+      val iterationId: String)
+      extends Op(magic, version, 0x35, cacheName, null, 0, 0, null, 0, 0,
+         clientIntel, topologyId)
+
 class TestResponse(override val version: Byte, override val messageId: Long,
                    override val cacheName: String, override val clientIntel: Short,
                    override val operation: OperationResponse,
@@ -1025,3 +1108,15 @@ case class TestHashDistAware20Response(override val topologyId: Int,
         segments: Seq[Iterable[ServerAddress]],
         hashFunction: Byte)
         extends AbstractTestTopologyAwareResponse(topologyId, members)
+
+class TestIterationStartResponse(override val version: Byte, override val messageId: Long,
+      override val cacheName: String, override val clientIntel: Short,
+      val iterationId: String, override val topologyId: Int,
+      override val topologyResponse: Option[AbstractTestTopologyAwareResponse])
+      extends TestResponse(version, messageId, cacheName, clientIntel, IterationStartResponse, Success, topologyId, topologyResponse)
+
+class TestIterationNextResponse(override val version: Byte, override val messageId: Long,
+      override val cacheName: String, override val clientIntel: Short,
+      val entries: List[(Bytes, Option[Bytes])], override val topologyId: Int,
+      override val topologyResponse: Option[AbstractTestTopologyAwareResponse])
+      extends TestResponse(version, messageId, cacheName, clientIntel, IterationNextResponse, Success, topologyId, topologyResponse)
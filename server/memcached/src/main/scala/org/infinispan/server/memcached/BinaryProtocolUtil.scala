@@ -0,0 +1,122 @@
+package org.infinispan.server.memcached
+
+import io.netty.buffer.{ByteBuf, Unpooled}
+
+/**
+ * Memcached binary protocol utilities: the constants of the protocol and the encoding of the responses. Each packet
+ * starts with a 24 byte header, followed by the extras, the key and the value, whose lengths are given in the header.
+ *
+ * @since 7.2
+ */
+object BinaryProtocolUtil {
+
+   val REQUEST_MAGIC = 0x80
+   val RESPONSE_MAGIC = 0x81
+   val HEADER_SIZE = 24
+
+   // Opcodes
+   val GET = 0x00
+   val SET = 0x01
+   val ADD = 0x02
+   val REPLACE = 0x03
+   val DELETE = 0x04
+   val INCREMENT = 0x05
+   val DECREMENT = 0x06
+   val QUIT = 0x07
+   val FLUSH = 0x08
+   val GETQ = 0x09
+   val NOOP = 0x0A
+   val VERSION = 0x0B
+   val GETK = 0x0C
+   val GETKQ = 0x0D
+   val APPEND = 0x0E
+   val PREPEND = 0x0F
+   val STAT = 0x10
+   val SETQ = 0x11
+   val ADDQ = 0x12
+   val REPLACEQ = 0x13
+   val DELETEQ = 0x14
+   val INCREMENTQ = 0x15
+   val DECREMENTQ = 0x16
+   val QUITQ = 0x17
+   val FLUSHQ = 0x18
+   val APPENDQ = 0x19
+   val PREPENDQ = 0x1A
+   val VERBOSITY = 0x1B
+
+   // Response statuses
+   val NO_ERROR = 0x0000
+   val KEY_NOT_FOUND = 0x0001
+   val KEY_EXISTS = 0x0002
+   val INVALID_ARGUMENTS = 0x0004
+   val ITEM_NOT_STORED = 0x0005
+   val NON_NUMERIC_VALUE = 0x0006
+   val UNKNOWN_COMMAND = 0x0081
+   val NOT_SUPPORTED = 0x0083
+   val INTERNAL_ERROR = 0x0084
+
+   /**
+    * Expiration of increment and decrement requests meaning that the counter must not be created if it does not exist
+    */
+   val NO_INITIAL_VALUE = 0xFFFFFFFFL
+
+   val EMPTY = Array.empty[Byte]
+   private val NO_EXTRAS = Unpooled.EMPTY_BUFFER
+
+   /**
+    * Whether the given opcode is the quiet version of an operation, which only gets a response in case of an error,
+    * except for the quiet gets, which only get a response on hits.
+    */
+   def isQuiet(opcode: Int): Boolean = opcode match {
+      case GETQ | GETKQ | SETQ | ADDQ | REPLACEQ | DELETEQ | INCREMENTQ | DECREMENTQ | QUITQ | FLUSHQ | APPENDQ
+           | PREPENDQ => true
+      case _ => false
+   }
+
+   def response(opcode: Int, status: Int, opaque: Int, cas: Long): ByteBuf =
+      response(opcode, status, opaque, cas, NO_EXTRAS, EMPTY, EMPTY)
+
+   def response(opcode: Int, status: Int, opaque: Int, cas: Long, value: Array[Byte]): ByteBuf =
+      response(opcode, status, opaque, cas, NO_EXTRAS, EMPTY, value)
+
+   /**
+    * The textual description of a response status, sent as the value of the error responses.
+    */
+   def statusMessage(status: Int): String = status match {
+      case KEY_NOT_FOUND => "Not found"
+      case KEY_EXISTS => "Data exists for key"
+      case INVALID_ARGUMENTS => "Invalid arguments"
+      case ITEM_NOT_STORED => "Not stored"
+      case NON_NUMERIC_VALUE => "Incr/Decr on non-numeric value"
+      case UNKNOWN_COMMAND => "Unknown command"
+      case NOT_SUPPORTED => "Not supported"
+      case INTERNAL_ERROR => "Internal error"
+      case _ => ""
+   }
+
+   def errorResponse(opcode: Int, status: Int, opaque: Int): ByteBuf =
+      errorResponse(opcode, status, opaque, statusMessage(status))
+
+   def errorResponse(opcode: Int, status: Int, opaque: Int, message: String): ByteBuf =
+      response(opcode, status, opaque, 0, NO_EXTRAS, EMPTY, message.getBytes(TextProtocolUtil.CHARSET))
+
+   def response(opcode: Int, status: Int, opaque: Int, cas: Long, extras: ByteBuf, key: Array[Byte],
+                value: Array[Byte]): ByteBuf = {
+      val extrasLength = extras.readableBytes
+      val buf = Unpooled.buffer(HEADER_SIZE + extrasLength + key.length + value.length)
+      buf.writeByte(RESPONSE_MAGIC)
+      buf.writeByte(opcode)
+      buf.writeShort(key.length)
+      buf.writeByte(extrasLength)
+      buf.writeByte(0) // Raw bytes data type
+      buf.writeShort(status)
+      buf.writeInt(extrasLength + key.length + value.length)
+      buf.writeInt(opaque)
+      buf.writeLong(cas)
+      buf.writeBytes(extras, extras.readerIndex, extrasLength)
+      buf.writeBytes(key)
+      buf.writeBytes(value)
+      buf
+   }
+
+}
@@ -27,6 +27,7 @@ import org.infinispan.server.core.transport.ExtendedByteBuf._
 import org.infinispan.server.core.transport.{NettyTransport, StatsChannelHandler}
 import org.infinispan.server.memcached.MemcachedDecoderState._
 import org.infinispan.server.memcached.MemcachedOperation._
+import org.infinispan.server.memcached.BinaryProtocolUtil._
 import org.infinispan.server.memcached.TextProtocolUtil._
 import org.infinispan.server.memcached.logging.Log
 
@@ -70,10 +71,17 @@ extends ReplayingDecoder[MemcachedDecoderState](DECODE_HEADER) with StatsChannel
    private val isTrace = isTraceEnabled
    private val byteBuffer = new ByteArrayOutputStream()
    protected var header: RequestHeader = _
+   // The protocol of the connection, detected from the first byte sent by the client
+   private var binary: Option[Boolean] = None
 
    override def decode(ctx: ChannelHandlerContext, in: ByteBuf, out: util.List[AnyRef]): Unit = {
       try {
-         decodeDispatch(ctx, in, out)
+         if (binary.isEmpty)
+            binary = Some(in.getUnsignedByte(in.readerIndex) == REQUEST_MAGIC)
+         if (binary.get)
+            decodeBinary(ctx, in)
+         else
+            decodeDispatch(ctx, in, out)
       } finally {
          // reset in all cases
          byteBuffer.reset()
@@ -138,6 +146,237 @@ extends ReplayingDecoder[MemcachedDecoderState](DECODE_HEADER) with StatsChannel
       }
    }
 
+   /**
+    * Decodes and handles a binary protocol request. The whole request is replayed from its first byte until its body
+    * is fully available, which is cheap since the body is sliced rather than copied until then.
+    */
+   private def decodeBinary(ctx: ChannelHandlerContext, buffer: ByteBuf): AnyRef = {
+      val ch = ctx.channel
+      val magic = buffer.readUnsignedByte
+      if (magic != REQUEST_MAGIC)
+         throw new StreamCorruptedException("Unexpected binary request magic: " + magic)
+      val opcode = buffer.readUnsignedByte
+      val keyLength = buffer.readUnsignedShort
+      val extrasLength = buffer.readUnsignedByte
+      buffer.skipBytes(3) // Data type and reserved bytes
+      val bodyLength = buffer.readInt
+      val opaque = buffer.readInt
+      val cas = buffer.readLong
+      if (bodyLength < 0 || keyLength + extrasLength > bodyLength)
+         throw new StreamCorruptedException("Invalid binary request body length: " + bodyLength)
+      val body = buffer.readSlice(bodyLength)
+      val extras = body.readSlice(extrasLength)
+      val key = new Array[Byte](keyLength)
+      body.readBytes(key)
+      val value = new Array[Byte](body.readableBytes)
+      body.readBytes(value)
+      val request = new BinaryRequest(opcode, opaque, cas, extras, key, value)
+      if (isTrace) trace("Binary request %s", request)
+
+      val result =
+         try {
+            handleBinary(ch, request)
+         } catch {
+            case i: IllegalArgumentException => errorResponse(opcode, INVALID_ARGUMENTS, opaque, i.getMessage)
+            case e: Exception =>
+               logExceptionReported(e)
+               errorResponse(opcode, INTERNAL_ERROR, opaque, e.toString)
+         }
+      writeResponse(ch, result)
+   }
+
+   private def handleBinary(ch: Channel, r: BinaryRequest): AnyRef = {
+      r.opcode match {
+         // Get and set are the most typical operations, so they're first
+         case GET | GETQ | GETK | GETKQ => binaryGet(r)
+         case SET | SETQ | ADD | ADDQ | REPLACE | REPLACEQ => binaryStore(r)
+         case DELETE | DELETEQ => binaryDelete(r)
+         case INCREMENT | INCREMENTQ | DECREMENT | DECREMENTQ => binaryIncrDecr(r)
+         case APPEND | APPENDQ | PREPEND | PREPENDQ => binaryConcat(r)
+         case NOOP => response(NOOP, NO_ERROR, r.opaque, 0)
+         case VERSION => response(VERSION, NO_ERROR, r.opaque, 0, Version.getVersion.getBytes(CHARSET))
+         case FLUSH | FLUSHQ =>
+            flushAll(if (r.extras.readableBytes >= 4) r.extras.readInt else 0)
+            binarySuccess(r, 0)
+         case STAT =>
+            if (r.key.length != 0) {
+               errorResponse(STAT, KEY_NOT_FOUND, r.opaque)
+            } else {
+               val stats = statsValues.map { case (stat, value) =>
+                  response(STAT, NO_ERROR, r.opaque, 0, Unpooled.EMPTY_BUFFER, stat.getBytes(CHARSET),
+                     String.valueOf(value).getBytes(CHARSET))
+               }
+               (stats :+ response(STAT, NO_ERROR, r.opaque, 0)).toArray
+            }
+         case QUIT =>
+            ch.writeAndFlush(response(QUIT, NO_ERROR, r.opaque, 0)).addListener(ChannelFutureListener.CLOSE)
+            null
+         case QUITQ => closeChannel(ch)
+         case VERBOSITY => errorResponse(VERBOSITY, NOT_SUPPORTED, r.opaque)
+         case _ => errorResponse(r.opcode, UNKNOWN_COMMAND, r.opaque)
+      }
+   }
+
+   private def binaryGet(r: BinaryRequest): AnyRef = {
+      val entry = cache.getCacheEntry(r.stringKey)
+      val withKey = r.opcode == GETK || r.opcode == GETKQ
+      if (entry != null) {
+         val extras = Unpooled.buffer(4).writeInt(flagsOf(entry).toInt)
+         response(r.opcode, NO_ERROR, r.opaque, casOf(entry), extras, if (withKey) r.key else EMPTY, entry.getValue)
+      } else if (isQuiet(r.opcode)) {
+         null // Quiet gets only get a response on hits
+      } else {
+         response(r.opcode, KEY_NOT_FOUND, r.opaque, 0, Unpooled.EMPTY_BUFFER, if (withKey) r.key else EMPTY,
+            statusMessage(KEY_NOT_FOUND).getBytes(CHARSET))
+      }
+   }
+
+   private def binaryStore(r: BinaryRequest): AnyRef = {
+      r.checkExtras(8)
+      val k = r.stringKey
+      val flags = r.extras.readUnsignedInt
+      val expiration = r.extras.readInt
+      val lifespan = if (expiration > 0) toMillis(expiration) else -1
+      val status = r.opcode match {
+         case SET | SETQ if r.cas == 0 =>
+            cache.put(k, r.value, buildMetadata(flags, lifespan))
+            NO_ERROR
+         case ADD | ADDQ =>
+            // Generate new version only if key not present
+            if (cache.get(k) == null && cache.putIfAbsent(k, r.value, buildMetadata(flags, lifespan)) == null)
+               NO_ERROR
+            else
+               KEY_EXISTS
+         case REPLACE | REPLACEQ if r.cas == 0 =>
+            // Generate new version only if key present
+            if (cache.get(k) != null && cache.replace(k, r.value, buildMetadata(flags, lifespan)) != null)
+               NO_ERROR
+            else
+               KEY_NOT_FOUND
+         case _ =>
+            // Set or replace only if the version has not changed, as the text protocol cas operation
+            val entry = cache.withFlags(Flag.SKIP_LISTENER_NOTIFICATION).getCacheEntry(k)
+            if (entry == null) {
+               if (isStatsEnabled) replaceIfUnmodifiedMisses.incrementAndGet
+               KEY_NOT_FOUND
+            } else if (casOf(entry) != r.cas
+                  || !cache.replace(k, entry.getValue, r.value, buildMetadata(flags, lifespan))) {
+               if (isStatsEnabled) replaceIfUnmodifiedBadval.incrementAndGet
+               KEY_EXISTS
+            } else {
+               if (isStatsEnabled) replaceIfUnmodifiedHits.incrementAndGet
+               NO_ERROR
+            }
+      }
+      if (status == NO_ERROR) binarySuccess(r, casOf(cache.getCacheEntry(k)))
+      else errorResponse(r.opcode, status, r.opaque)
+   }
+
+   private def binaryDelete(r: BinaryRequest): AnyRef = {
+      val k = r.stringKey
+      val status =
+         if (r.cas == 0) {
+            if (cache.remove(k) != null) NO_ERROR else KEY_NOT_FOUND
+         } else {
+            val entry = cache.getCacheEntry(k)
+            if (entry == null) KEY_NOT_FOUND
+            else if (casOf(entry) != r.cas || !cache.remove(k, entry.getValue)) KEY_EXISTS
+            else NO_ERROR
+         }
+      if (status == NO_ERROR) binarySuccess(r, 0)
+      else errorResponse(r.opcode, status, r.opaque)
+   }
+
+   private def binaryIncrDecr(r: BinaryRequest): AnyRef = {
+      r.checkExtras(20)
+      val k = r.stringKey
+      val delta = toUnsigned(r.extras.readLong)
+      val initial = toUnsigned(r.extras.readLong)
+      val expiration = r.extras.readUnsignedInt
+      val isIncrement = r.opcode == INCREMENT || r.opcode == INCREMENTQ
+      val entry = cache.getCacheEntry(k)
+      if (entry == null) {
+         if (isStatsEnabled) if (isIncrement) incrMisses.incrementAndGet() else decrMisses.incrementAndGet
+         if (expiration == NO_INITIAL_VALUE) {
+            errorResponse(r.opcode, KEY_NOT_FOUND, r.opaque)
+         } else {
+            val lifespan = if (expiration > 0) toMillis(expiration.toInt) else -1
+            if (cache.putIfAbsent(k, initial.toString.getBytes, buildMetadata(0, lifespan)) != null)
+               throw new CacheException("Value created since we retrieved from the cache")
+            counterResponse(r, initial, k)
+         }
+      } else {
+         val prevCounter =
+            try BigInt(new String(entry.getValue)) catch { case e: NumberFormatException => BigInt(-1) }
+         if (prevCounter < MIN_UNSIGNED || prevCounter > MAX_UNSIGNED_LONG) {
+            errorResponse(r.opcode, NON_NUMERIC_VALUE, r.opaque)
+         } else {
+            // Unlike the text protocol, the binary protocol wraps the increments around 64 bits
+            val newCounter =
+               if (isIncrement) (prevCounter + delta) & MAX_UNSIGNED_LONG
+               else (prevCounter - delta).max(MIN_UNSIGNED)
+            val lifespan = if (entry.getLifespan > 0) entry.getLifespan else -1
+            val replaced = cache.replace(k, entry.getValue, newCounter.toString.getBytes,
+               buildMetadata(flagsOf(entry), lifespan))
+            if (!replaced)
+               // If there's a concurrent modification on this key, the spec does not say what to do, so treat it as exceptional
+               throw new CacheException("Value modified since we retrieved from the cache, old value was " + prevCounter)
+            if (isStatsEnabled) if (isIncrement) incrHits.incrementAndGet() else decrHits.incrementAndGet
+            counterResponse(r, newCounter, k)
+         }
+      }
+   }
+
+   private def counterResponse(r: BinaryRequest, counter: BigInt, k: String): AnyRef = {
+      if (isQuiet(r.opcode)) {
+         null
+      } else {
+         val value = Unpooled.buffer(8).writeLong(counter.longValue).array
+         response(r.opcode, NO_ERROR, r.opaque, casOf(cache.getCacheEntry(k)), value)
+      }
+   }
+
+   private def binaryConcat(r: BinaryRequest): AnyRef = {
+      val k = r.stringKey
+      val entry = cache.getCacheEntry(k)
+      val status =
+         if (entry == null) {
+            ITEM_NOT_STORED
+         } else if (r.cas != 0 && casOf(entry) != r.cas) {
+            KEY_EXISTS
+         } else {
+            val prev = entry.getValue
+            val concatenated = r.opcode match {
+               case APPEND | APPENDQ => concat(prev, r.value)
+               case PREPEND | PREPENDQ => concat(r.value, prev)
+            }
+            val lifespan = if (entry.getLifespan > 0) entry.getLifespan else -1
+            // If there's a concurrent modification on this key, treat it as we couldn't replace it
+            if (cache.replace(k, prev, concatenated, buildMetadata(flagsOf(entry), lifespan))) NO_ERROR
+            else ITEM_NOT_STORED
+         }
+      if (status == NO_ERROR) binarySuccess(r, casOf(cache.getCacheEntry(k)))
+      else errorResponse(r.opcode, status, r.opaque)
+   }
+
+   private def binarySuccess(r: BinaryRequest, cas: Long): AnyRef =
+      if (isQuiet(r.opcode)) null else response(r.opcode, NO_ERROR, r.opaque, cas)
+
+   private def flagsOf(entry: CacheEntry[String, Array[Byte]]): Long = entry.getMetadata match {
+      case meta: MemcachedMetadata => meta.flags
+      case _ => 0
+   }
+
+   private def casOf(entry: CacheEntry[String, Array[Byte]]): Long = {
+      if (entry == null) 0
+      else entry.getMetadata.version() match {
+         case v: NumericVersion => v.getVersion
+         case _ => 0
+      }
+   }
+
+   private def toUnsigned(l: Long): BigInt = if (l >= 0) BigInt(l) else BigInt(l) + MAX_UNSIGNED_LONG + 1
+
    def decodeHeader(ctx: ChannelHandlerContext, buffer: ByteBuf, state: MemcachedDecoderState, out: util.List[AnyRef]): AnyRef = {
       header = createHeader
       val endOfOp = readHeader(buffer, header)
@@ -268,6 +507,12 @@ extends ReplayingDecoder[MemcachedDecoderState](DECODE_HEADER) with StatsChannel
       val ch = ctx.channel
       // Log it just in case the channel is closed or similar
       debug(cause, "Exception caught")
+      if (binary == Some(true)) {
+         // The errors of the binary requests are reported in their responses, this one left the stream in an
+         // unknown position, so the following requests can't be decoded
+         ch.close()
+         return
+      }
       if (!cause.isInstanceOf[IOException]) {
          val errorResponse = createErrorResponse(cause)
          if (errorResponse != null) {
@@ -404,17 +649,6 @@ extends ReplayingDecoder[MemcachedDecoderState](DECODE_HEADER) with StatsChannel
       skipLine(b) // read the rest of line to clear CRLF after value Byte[]
    }
 
-   override def write(ctx: ChannelHandlerContext, msg: scala.Any, promise: ChannelPromise): Unit = {
-      val readable = msg.asInstanceOf[ByteBuf].readableBytes()
-      ctx.write(msg, promise.addListener(new ChannelFutureListener {
-         def operationComplete(future: ChannelFuture): Unit = {
-            if (future.isSuccess) {
-               transport.updateTotalBytesWritten(readable)
-            }
-         }
-      }))
-   }
-
    def createValue(): Array[Byte] = rawValue
 
    private def getFlags(flags: String): Long = {
@@ -552,14 +786,17 @@ extends ReplayingDecoder[MemcachedDecoderState](DECODE_HEADER) with StatsChannel
 
    private def flushAll(b: ByteBuf, ch: Channel, isReadParams: Boolean): AnyRef = {
       if (isReadParams) readParameters(ch, b)
+      flushAll(if (params == null) 0 else params.flushDelay)
+      val ret = if (params == null || !params.noReply) OK else null
+      writeResponse(ch, ret)
+   }
+
+   private def flushAll(flushDelay: Int): Unit = {
       val flushFunction = (cache: AdvancedCache[String, Array[Byte]]) => cache.clear()
-      val flushDelay = if (params == null) 0 else params.flushDelay
       if (flushDelay == 0)
          flushFunction(cache)
       else
          scheduler.schedule(new DelayedFlushAll(cache, flushFunction), toMillis(flushDelay), MILLIS)
-      val ret = if (params == null || !params.noReply) OK else null
-      writeResponse(ch, ret)
    }
 
    private def validateDelta(delta: String): BigInt = {
@@ -705,12 +942,15 @@ extends ReplayingDecoder[MemcachedDecoderState](DECODE_HEADER) with StatsChannel
       }
    }
 
-   protected def buildMetadata(): Metadata = {
+   protected def buildMetadata(): Metadata =
+      buildMetadata(params.flags, if (params.lifespan > 0) toMillis(params.lifespan) else -1)
+
+   private def buildMetadata(flags: Long, lifespanMillis: Long): Metadata = {
       val metadata = new MemcachedMetadataBuilder
       metadata.version(generateVersion(cache))
-      metadata.flags(params.flags)
-      if (params.lifespan > 0)
-         metadata.lifespan(toMillis(params.lifespan))
+      metadata.flags(flags)
+      if (lifespanMillis >= 0)
+         metadata.lifespan(lifespanMillis)
 
       metadata.build()
    }
@@ -776,47 +1016,50 @@ extends ReplayingDecoder[MemcachedDecoderState](DECODE_HEADER) with StatsChannel
    }
 
    def createStatsResponse: AnyRef = {
-      val stats = cache.getAdvancedCache.getStats
       val sb = new StringBuilder
-      Array[ByteBuf](
-         buildStat("pid", 0, sb),
-         buildStat("uptime", stats.getTimeSinceStart, sb),
-         buildStat("uptime", stats.getTimeSinceStart, sb),
-         buildStat("time", MILLIS.toSeconds(System.currentTimeMillis), sb),
-         buildStat("version", cache.getVersion, sb),
-         buildStat("pointer_size", 0, sb), // Unsupported
-         buildStat("rusage_user", 0, sb), // Unsupported
-         buildStat("rusage_system", 0, sb), // Unsupported
-         buildStat("curr_items", stats.getCurrentNumberOfEntries, sb),
-         buildStat("total_items", stats.getTotalNumberOfEntries, sb),
-         buildStat("bytes", 0, sb), // Unsupported
-         buildStat("curr_connections", 0, sb), // TODO: Through netty?
-         buildStat("total_connections", 0, sb), // TODO: Through netty?
-         buildStat("connection_structures", 0, sb), // Unsupported
-         buildStat("cmd_get", stats.getRetrievals, sb),
-         buildStat("cmd_set", stats.getStores, sb),
-         buildStat("get_hits", stats.getHits, sb),
-         buildStat("get_misses", stats.getMisses, sb),
-         buildStat("delete_misses", stats.getRemoveMisses, sb),
-         buildStat("delete_hits", stats.getRemoveHits, sb),
-         buildStat("incr_misses", incrMisses, sb),
-         buildStat("incr_hits", incrHits, sb),
-         buildStat("decr_misses", decrMisses, sb),
-         buildStat("decr_hits", decrHits, sb),
-         buildStat("cas_misses", replaceIfUnmodifiedMisses, sb),
-         buildStat("cas_hits", replaceIfUnmodifiedHits, sb),
-         buildStat("cas_badval", replaceIfUnmodifiedBadval, sb),
-         buildStat("auth_cmds", 0, sb), // Unsupported
-         buildStat("auth_errors", 0, sb), // Unsupported
+      (statsValues.map { case (stat, value) => buildStat(stat, value, sb) } :+ wrappedBuffer(END)).toArray
+   }
+
+   private def statsValues: Seq[(String, Any)] = {
+      val stats = cache.getAdvancedCache.getStats
+      Seq[(String, Any)](
+         "pid" -> 0,
+         "uptime" -> stats.getTimeSinceStart,
+         "uptime" -> stats.getTimeSinceStart,
+         "time" -> MILLIS.toSeconds(System.currentTimeMillis),
+         "version" -> cache.getVersion,
+         "pointer_size" -> 0, // Unsupported
+         "rusage_user" -> 0, // Unsupported
+         "rusage_system" -> 0, // Unsupported
+         "curr_items" -> stats.getCurrentNumberOfEntries,
+         "total_items" -> stats.getTotalNumberOfEntries,
+         "bytes" -> 0, // Unsupported
+         "curr_connections" -> 0, // TODO: Through netty?
+         "total_connections" -> 0, // TODO: Through netty?
+         "connection_structures" -> 0, // Unsupported
+         "cmd_get" -> stats.getRetrievals,
+         "cmd_set" -> stats.getStores,
+         "get_hits" -> stats.getHits,
+         "get_misses" -> stats.getMisses,
+         "delete_misses" -> stats.getRemoveMisses,
+         "delete_hits" -> stats.getRemoveHits,
+         "incr_misses" -> incrMisses,
+         "incr_hits" -> incrHits,
+         "decr_misses" -> decrMisses,
+         "decr_hits" -> decrHits,
+         "cas_misses" -> replaceIfUnmodifiedMisses,
+         "cas_hits" -> replaceIfUnmodifiedHits,
+         "cas_badval" -> replaceIfUnmodifiedBadval,
+         "auth_cmds" -> 0, // Unsupported
+         "auth_errors" -> 0, // Unsupported
          //TODO: Evictions are measure by evict calls, but not by nodes are that are expired after the entry's lifespan has expired.
-         buildStat("evictions", stats.getEvictions, sb),
-         buildStat("bytes_read", transport.getTotalBytesRead, sb),
-         buildStat("bytes_written", transport.getTotalBytesWritten, sb),
-         buildStat("limit_maxbytes", 0, sb), // Unsupported
-         buildStat("threads", 0, sb), // TODO: Through netty?
-         buildStat("conn_yields", 0, sb), // Unsupported
-         buildStat("reclaimed", 0, sb), // Unsupported
-         wrappedBuffer(END)
+         "evictions" -> stats.getEvictions,
+         "bytes_read" -> transport.getTotalBytesRead,
+         "bytes_written" -> transport.getTotalBytesWritten,
+         "limit_maxbytes" -> 0, // Unsupported
+         "threads" -> 0, // TODO: Through netty?
+         "conn_yields" -> 0, // Unsupported
+         "reclaimed" -> 0 // Unsupported
       )
    }
 
@@ -978,4 +1221,32 @@ class RequestHeader {
 
 class UnknownOperationException(reason: String) extends StreamCorruptedException(reason)
 
+/**
+ * A binary protocol request, whose extras, key and value are read from the body of the packet.
+ */
+private class BinaryRequest(val opcode: Int, val opaque: Int, val cas: Long, val extras: ByteBuf,
+                            val key: Array[Byte], val value: Array[Byte]) {
+
+   def stringKey: String = {
+      if (key.length == 0 || key.length > 250)
+         throw new IllegalArgumentException("Key length must be between 1 and 250 bytes: " + key.length)
+      new String(key, TextProtocolUtil.CHARSET)
+   }
+
+   def checkExtras(length: Int): Unit = {
+      if (extras.readableBytes != length)
+         throw new IllegalArgumentException("Expected " + length + " bytes of extras: " + extras.readableBytes)
+   }
+
+   override def toString = {
+      new StringBuilder().append("BinaryRequest").append("{")
+      .append("opcode=").append(opcode)
+      .append(", opaque=").append(opaque)
+      .append(", cas=").append(cas)
+      .append(", key=").append(new String(key, TextProtocolUtil.CHARSET))
+      .append(", valueLength=").append(value.length)
+      .append("}").toString
+   }
+}
+
 class PartialResponse(val buffer: Option[ByteBuf])
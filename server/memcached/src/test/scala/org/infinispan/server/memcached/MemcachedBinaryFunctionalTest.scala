@@ -0,0 +1,184 @@
+package org.infinispan.server.memcached
+
+import java.io.DataInputStream
+import java.lang.reflect.Method
+import java.net.Socket
+import java.nio.ByteBuffer
+import java.util.concurrent.TimeUnit
+
+import net.spy.memcached.{CASResponse, MemcachedClient}
+import org.infinispan.Version
+import org.infinispan.server.memcached.BinaryProtocolUtil._
+import org.infinispan.server.memcached.test.MemcachedTestingUtil._
+import org.infinispan.test.TestingUtil._
+import org.testng.Assert._
+import org.testng.annotations.Test
+
+/**
+ * Tests the Memcached binary protocol against Infinispan Memcached server.
+ *
+ * @since 7.2
+ */
+@Test(groups = Array("functional"), testName = "server.memcached.MemcachedBinaryFunctionalTest")
+class MemcachedBinaryFunctionalTest extends MemcachedSingleNodeTest {
+
+   override protected def createClient(port: Int): MemcachedClient = createMemcachedBinaryClient(60000, port)
+
+   def testSetBasic(m: Method) {
+      val f = client.set(k(m), 0, v(m))
+      assertTrue(f.get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertEquals(client.get(k(m)), v(m))
+   }
+
+   def testSetWithExpirySeconds(m: Method) {
+      val f = client.set(k(m), 1, v(m))
+      assertTrue(f.get(timeout, TimeUnit.SECONDS).booleanValue)
+      sleepThread(1100)
+      assertNull(client.get(k(m)))
+   }
+
+   def testGetNotFound(m: Method) {
+      assertNull(client.get(k(m)))
+   }
+
+   def testGetMultipleKeys(m: Method) {
+      val f1 = client.set(k(m, "k1-"), 0, v(m, "v1-"))
+      val f2 = client.set(k(m, "k2-"), 0, v(m, "v2-"))
+      assertTrue(f1.get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertTrue(f2.get(timeout, TimeUnit.SECONDS).booleanValue)
+      // Quiet gets, so the missing key does not get any response
+      val ret = client.getBulk(k(m, "k1-"), k(m, "k2-"), k(m, "k3-"))
+      assertEquals(ret.size, 2)
+      assertEquals(ret.get(k(m, "k1-")), v(m, "v1-"))
+      assertEquals(ret.get(k(m, "k2-")), v(m, "v2-"))
+   }
+
+   def testAdd(m: Method) {
+      var f = client.add(k(m), 0, v(m))
+      assertTrue(f.get(timeout, TimeUnit.SECONDS).booleanValue)
+      f = client.add(k(m), 0, v(m, "v1-"))
+      assertFalse(f.get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertEquals(client.get(k(m)), v(m))
+   }
+
+   def testReplace(m: Method) {
+      var f = client.replace(k(m), 0, v(m))
+      assertFalse(f.get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertNull(client.get(k(m)))
+      f = client.set(k(m), 0, v(m))
+      assertTrue(f.get(timeout, TimeUnit.SECONDS).booleanValue)
+      f = client.replace(k(m), 0, v(m, "v1-"))
+      assertTrue(f.get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertEquals(client.get(k(m)), v(m, "v1-"))
+   }
+
+   def testAppendPrepend(m: Method) {
+      var f = client.append(0, k(m), v(m, "v1-"))
+      assertFalse(f.get(timeout, TimeUnit.SECONDS).booleanValue)
+      f = client.set(k(m), 0, v(m))
+      assertTrue(f.get(timeout, TimeUnit.SECONDS).booleanValue)
+      f = client.append(0, k(m), v(m, "v1-"))
+      assertTrue(f.get(timeout, TimeUnit.SECONDS).booleanValue)
+      f = client.prepend(0, k(m), v(m, "v2-"))
+      assertTrue(f.get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertEquals(client.get(k(m)), v(m, "v2-") + v(m) + v(m, "v1-"))
+   }
+
+   def testCas(m: Method) {
+      val f = client.set(k(m), 0, v(m))
+      assertTrue(f.get(timeout, TimeUnit.SECONDS).booleanValue)
+      val value = client.gets(k(m))
+      assertEquals(value.getValue, v(m))
+      assertTrue(value.getCas != 0)
+      assertEquals(client.cas(k(m), value.getCas, v(m, "v1-")), CASResponse.OK)
+      assertEquals(client.cas(k(m), value.getCas, v(m, "v2-")), CASResponse.EXISTS)
+      assertEquals(client.cas(k(m, "k1-"), value.getCas, v(m, "v2-")), CASResponse.NOT_FOUND)
+      assertEquals(client.get(k(m)), v(m, "v1-"))
+   }
+
+   def testDelete(m: Method) {
+      var f = client.set(k(m), 0, v(m))
+      assertTrue(f.get(timeout, TimeUnit.SECONDS).booleanValue)
+      f = client.delete(k(m))
+      assertTrue(f.get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertNull(client.get(k(m)))
+      f = client.delete(k(m))
+      assertFalse(f.get(timeout, TimeUnit.SECONDS).booleanValue)
+   }
+
+   def testIncrementDecrement(m: Method) {
+      assertEquals(client.incr(k(m), 1), -1)
+      assertEquals(client.incr(k(m), 1, 5), 5)
+      assertEquals(client.incr(k(m), 3), 8)
+      assertEquals(client.decr(k(m), 2), 6)
+      assertEquals(client.decr(k(m), 10), 0)
+      // Counters are stored as text, so they are shared with the text protocol
+      assertEquals(client.get(k(m)), "0")
+   }
+
+   def testIncrementNonNumeric(m: Method) {
+      val f = client.set(k(m), 0, v(m))
+      assertTrue(f.get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertEquals(client.incr(k(m), 1), -1)
+      assertEquals(client.get(k(m)), v(m))
+   }
+
+   def testFlush(m: Method) {
+      for (i <- 1 to 5) {
+         val f = client.set(k(m, "k" + i + "-"), 0, v(m, "v" + i + "-"))
+         assertTrue(f.get(timeout, TimeUnit.SECONDS).booleanValue)
+      }
+      val f = client.flush()
+      assertTrue(f.get(timeout, TimeUnit.SECONDS).booleanValue)
+      for (i <- 1 to 5)
+         assertNull(client.get(k(m, "k" + i + "-")))
+   }
+
+   def testVersion {
+      val versions = client.getVersions
+      assertEquals(versions.size(), 1)
+      assertEquals(versions.values.iterator.next, Version.getVersion)
+   }
+
+   def testStats {
+      val stats = client.getStats
+      assertEquals(stats.size(), 1)
+      val nodeStats = stats.values.iterator.next
+      assertEquals(nodeStats.get("version"), Version.getVersion)
+      assertTrue(nodeStats.containsKey("cmd_get"))
+   }
+
+   def testTextAndBinaryClients(m: Method) {
+      val textClient = createMemcachedClient(60000, server.getPort)
+      try {
+         val f = textClient.set(k(m), 0, v(m))
+         assertTrue(f.get(timeout, TimeUnit.SECONDS).booleanValue)
+         assertEquals(client.get(k(m)), v(m))
+         assertEquals(client.cas(k(m), textClient.gets(k(m)).getCas, v(m, "v1-")), CASResponse.OK)
+         assertEquals(textClient.get(k(m)), v(m, "v1-"))
+      } finally {
+         killMemcachedClient(textClient)
+      }
+   }
+
+   def testUnknownOpcode {
+      val socket = new Socket(server.getHost, server.getPort)
+      try {
+         val request = ByteBuffer.allocate(HEADER_SIZE)
+         request.put(REQUEST_MAGIC.toByte).put(0x60.toByte)
+         request.putInt(12, 0).putInt(16, 0xCAFE)
+         socket.getOutputStream.write(request.array)
+         val in = new DataInputStream(socket.getInputStream)
+         val header = new Array[Byte](HEADER_SIZE)
+         in.readFully(header)
+         val response = ByteBuffer.wrap(header)
+         assertEquals(response.get(0) & 0xFF, RESPONSE_MAGIC)
+         assertEquals(response.get(1) & 0xFF, 0x60)
+         assertEquals(response.getShort(6) & 0xFFFF, UNKNOWN_COMMAND)
+         assertEquals(response.getInt(16), 0xCAFE)
+      } finally {
+         socket.close()
+      }
+   }
+
+}
@@ -26,13 +26,15 @@ abstract class MemcachedSingleNodeTest extends SingleCacheManagerTest {
    override def createCacheManager: EmbeddedCacheManager = {
       cacheManager = createTestCacheManager
       memcachedServer = startMemcachedTextServer(cacheManager)
-      memcachedClient = createMemcachedClient(60000, server.getPort)
+      memcachedClient = createClient(server.getPort)
       cache = cacheManager.getCache[AnyRef, AnyRef](memcachedServer.getConfiguration.cache)
       cacheManager
    }
 
    protected def createTestCacheManager: EmbeddedCacheManager = TestCacheManagerFactory.createCacheManager(false)
 
+   protected def createClient(port: Int): MemcachedClient = createMemcachedClient(60000, port)
+
    @AfterClass(alwaysRun = true)
    override def destroyAfterClass() {
       super.destroyAfterClass()
@@ -12,6 +12,8 @@ import org.infinispan.manager.EmbeddedCacheManager
 import net.spy.memcached.MemcachedClient
 import annotation.tailrec
 import org.infinispan.server.core.ConnectionStatsTest._
+import org.infinispan.jmx.PerThreadMBeanServerLookup
+import javax.management.ObjectName
 
 /**
  * Tests stats command for Infinispan Memcached server.
@@ -209,6 +211,22 @@ class MemcachedStatsTest extends MemcachedSingleNodeTest {
       }
    }
 
+   def testPipelinedRequestsShareFlushes(m: Method) {
+      val mbeanServer = PerThreadMBeanServerLookup.getThreadMBeanServer
+      val on = new ObjectName("%s:type=Server,name=%s,component=Transport".format(jmxDomain, "Memcached"))
+      def totalFlushes = mbeanServer.getAttribute(on, "TotalFlushes").toString.toLong
+
+      val requests = 10
+      val flushesBefore = totalFlushes
+      // all the requests are written at once, so the server reads them together
+      val req = (0 until requests).map(i => "set %s-%d 0 0 1\r\na\r\n".format(m.getName, i)).mkString
+      val responses = sendMulti(req, requests, wait = true)
+      assertEquals(responses.size, requests)
+      responses.foreach(assertStored)
+      val flushes = totalFlushes - flushesBefore
+      assertTrue(flushes < requests, "Expected fewer flushes than responses, but got " + flushes)
+   }
+
    def testStatsWithArgs() {
       var resp = send("stats\r\n")
       assertExpectedResponse(resp, "STAT", strictComparison = false)
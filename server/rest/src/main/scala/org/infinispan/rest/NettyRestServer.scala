@@ -0,0 +1,68 @@
+package org.infinispan.rest
+
+import io.netty.channel.{Channel, ChannelInitializer}
+import io.netty.handler.codec.http.{HttpObjectAggregator, HttpServerCodec}
+import io.netty.handler.stream.ChunkedWriteHandler
+import org.infinispan.manager.EmbeddedCacheManager
+import org.infinispan.rest.configuration.NettyRestServerConfiguration
+import org.infinispan.rest.logging.Log
+import org.infinispan.server.core.{AbstractProtocolServer, ProtocolServer}
+import org.infinispan.server.core.transport.NettyChannelInitializer
+
+import scala.collection.JavaConversions._
+
+/**
+ * REST server running directly on the Netty transport of the protocol servers, without a servlet container. It
+ * exposes the caches with the same URLs, headers and metadata as the RESTEasy based {@link Server}, supporting HTTP
+ * keep-alive and pipelined requests.
+ *
+ * @since 7.2
+ */
+class NettyRestServer extends AbstractProtocolServer("REST") with Log {
+
+   type SuitableConfiguration = NettyRestServerConfiguration
+
+   private var manager: ManagerInstance = _
+
+   override def startInternal(configuration: NettyRestServerConfiguration, cacheManager: EmbeddedCacheManager) {
+      this.manager = new ManagerInstance(cacheManager)
+      super.startInternal(configuration, cacheManager)
+   }
+
+   override def startTransport() {
+      // Start defined caches to avoid issues with lazily started caches
+      for (cacheName <- asScalaIterator(cacheManager.getCacheNames.iterator))
+         cacheManager.getCache(cacheName)
+
+      super.startTransport()
+   }
+
+   override def getEncoder = null
+
+   override def getDecoder: RestRequestHandler = new RestRequestHandler(manager, configuration, transport)
+
+   override def getInitializer: ChannelInitializer[Channel] =
+      new RestChannelInitializer(super.getInitializer.asInstanceOf[NettyChannelInitializer], configuration, this)
+
+   def getManagerInstance: ManagerInstance = manager
+
+}
+
+/**
+ * Adds the HTTP codec in front of the decoder of the pipeline initialized by the given initializer, aggregating the
+ * chunks of each request so that the decoder gets full requests. The chunked responses, which retrieve their content
+ * lazily from the caches, are written in the request executor if any, so that they don't block the I/O threads.
+ */
+private class RestChannelInitializer(initializer: NettyChannelInitializer, configuration: NettyRestServerConfiguration,
+                                     server: ProtocolServer)
+      extends ChannelInitializer[Channel] {
+
+   override def initChannel(ch: Channel): Unit = {
+      initializer.initChannel(ch)
+      val pipeline = ch.pipeline
+      pipeline.addBefore("decoder", "httpCodec", new HttpServerCodec)
+      pipeline.addBefore("decoder", "httpAggregator", new HttpObjectAggregator(configuration.maxContentLength))
+      // The request executor is only known once the transport is started, after this initializer is created
+      pipeline.addBefore(server.getRequestExecutor, "decoder", "chunkedWriter", new ChunkedWriteHandler)
+   }
+}
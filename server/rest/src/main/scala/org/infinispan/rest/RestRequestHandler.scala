@@ -0,0 +1,521 @@
+package org.infinispan.rest
+
+import java.io.{ObjectOutputStream, Serializable}
+import java.nio.charset.Charset
+import java.util.Date
+import java.util.concurrent.TimeUnit.{MILLISECONDS => MILLIS, SECONDS => SECS}
+
+import com.thoughtworks.xstream.XStream
+import io.netty.buffer.{ByteBuf, ByteBufOutputStream, Unpooled}
+import io.netty.channel.{ChannelFutureListener, ChannelHandlerContext, SimpleChannelInboundHandler}
+import io.netty.handler.codec.http.HttpHeaders.Names._
+import io.netty.handler.codec.http.HttpResponseStatus._
+import io.netty.handler.codec.http._
+import io.netty.handler.stream.ChunkedInput
+import io.netty.util.CharsetUtil
+import org.codehaus.jackson.map.ObjectMapper
+import org.infinispan.commons.hash.MurmurHash3
+import org.infinispan.commons.util.CloseableIterator
+import org.infinispan.configuration.cache.Configuration
+import org.infinispan.container.entries.InternalCacheEntry
+import org.infinispan.metadata.Metadata
+import org.infinispan.rest.configuration.{ExtendedHeaders, NettyRestServerConfiguration}
+import org.infinispan.rest.logging.JavaLog
+import org.infinispan.server.core.transport.NettyTransport
+import org.infinispan.util.logging.LogFactory
+
+import scala.collection.JavaConverters._
+
+/**
+ * Handles the full HTTP requests of a channel of the {@link NettyRestServer}, with the same semantics as the
+ * RESTEasy based {@link Server}. The responses are written as soon as each request is handled, in the order of the
+ * requests, and flushed together once all the pipelined requests read are handled.
+ *
+ * @since 7.2
+ */
+class RestRequestHandler(manager: ManagerInstance, configuration: NettyRestServerConfiguration, transport: NettyTransport)
+      extends SimpleChannelInboundHandler[FullHttpRequest] {
+
+   import RestRequestHandler._
+
+   private lazy val jsonMapper = new ObjectMapper
+   private lazy val xstream = new XStream
+
+   override def channelActive(ctx: ChannelHandlerContext) {
+      transport.acceptedChannels.add(ctx.channel)
+      super.channelActive(ctx)
+   }
+
+   override def channelRead0(ctx: ChannelHandlerContext, request: FullHttpRequest): Unit = {
+      val response =
+         try {
+            if (request.getDecoderResult.isSuccess) handle(request)
+            else status(request, BAD_REQUEST)
+         } catch {
+            case e: CacheNotFoundException => status(request, NOT_FOUND)
+            case e: Exception =>
+               log.errorProcessingRequest(e, request.getMethod, request.getUri)
+               text(request, INTERNAL_SERVER_ERROR, String.valueOf(e.getMessage), CharsetUtil.UTF_8)
+         }
+
+      val keepAlive = response match {
+         case chunked: ChunkedHttpResponse =>
+            // HTTP/1.0 has no chunked transfer encoding, the end of the content is marked by closing the connection
+            if (request.getProtocolVersion == HttpVersion.HTTP_1_0) {
+               false
+            } else {
+               HttpHeaders.setTransferEncodingChunked(chunked)
+               HttpHeaders.isKeepAlive(request)
+            }
+         case full: FullHttpResponse =>
+            // The responses to HEAD requests have no body, their headers are those of the GET responses
+            if (request.getMethod != HttpMethod.HEAD)
+               HttpHeaders.setContentLength(full, full.content.readableBytes)
+            HttpHeaders.isKeepAlive(request)
+      }
+      if (keepAlive && request.getProtocolVersion == HttpVersion.HTTP_1_0)
+         response.headers.set(CONNECTION, HttpHeaders.Values.KEEP_ALIVE)
+      val lastWrite = response match {
+         case chunked: ChunkedHttpResponse =>
+            ctx.write(chunked)
+            ctx.write(chunked.content)
+         case _ => ctx.write(response)
+      }
+      if (!keepAlive)
+         lastWrite.addListener(ChannelFutureListener.CLOSE)
+   }
+
+   override def channelReadComplete(ctx: ChannelHandlerContext): Unit = {
+      ctx.flush()
+      super.channelReadComplete(ctx)
+   }
+
+   override def exceptionCaught(ctx: ChannelHandlerContext, cause: Throwable): Unit = {
+      log.debugf(cause, "Closing channel %s", ctx.channel)
+      ctx.close()
+   }
+
+   private def handle(request: FullHttpRequest): HttpResponse = {
+      val uri = request.getUri
+      val queryStart = uri.indexOf('?')
+      val path = if (queryStart < 0) uri else uri.substring(0, queryStart)
+      val prefix = configuration.contextPath + "/"
+      if (!path.startsWith(prefix))
+         return status(request, NOT_FOUND)
+
+      val segments = path.substring(prefix.length).split("/", -1)
+      if (segments.length > 2 || segments(0).isEmpty)
+         return status(request, NOT_FOUND)
+
+      val cacheName = decodePathSegment(segments(0))
+      val key = if (segments.length == 2 && !segments(1).isEmpty) Some(decodePathSegment(segments(1))) else None
+      val params = new QueryStringDecoder(uri).parameters
+      val useAsync = java.lang.Boolean.parseBoolean(request.headers.get("performAsync"))
+      (request.getMethod, key) match {
+         case (HttpMethod.GET, None) => getKeys(request, cacheName, params.containsKey("global"))
+         case (HttpMethod.GET, Some(k)) => getEntry(request, cacheName, k, params.containsKey("extended"))
+         case (HttpMethod.HEAD, Some(k)) => headEntry(request, cacheName, k, params.containsKey("extended"))
+         case (HttpMethod.PUT | HttpMethod.POST, Some(k)) => putEntry(request, cacheName, k, useAsync)
+         case (HttpMethod.DELETE, Some(k)) => removeEntry(request, cacheName, k, useAsync)
+         case (HttpMethod.DELETE, None) => killCache(request, cacheName)
+         case _ => status(request, METHOD_NOT_ALLOWED)
+      }
+   }
+
+   private def getKeys(request: FullHttpRequest, cacheName: String, globalKeySet: Boolean): HttpResponse = {
+      // The key set spans the whole cluster and is retrieved lazily while the response is written, a chunk at a time,
+      // so the global parameter is accepted for compatibility only
+      val cache = manager.getCache(cacheName)
+      def keys = cache.keySet.iterator
+      selectMediaType(request, CollectionMediaTypes) match {
+         case TextHtml =>
+            streamed(request, TextHtml, new KeyChunkedInput(keys, Charset.defaultCharset, "<html><body>", "", "</body></html>")({ key =>
+               val hkey = Escaper.escapeHtml(key)
+               "<a href=\"%s/%s\">%s</a><br/>".format(cacheName, hkey, hkey)
+            }))
+         case ApplicationXml =>
+            streamed(request, ApplicationXml, new KeyChunkedInput(keys, Charset.defaultCharset,
+               "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n\n<keys>", "", "</keys>")(key => "<key>%s</key>".format(Escaper.escapeXml(key))))
+         case ApplicationJson =>
+            streamed(request, ApplicationJson, new KeyChunkedInput(keys, Charset.defaultCharset, "keys=[", ",", "]")(
+               key => "\"%s\"".format(Escaper.escapeJson(key))))
+         case TextPlain =>
+            streamed(request, TextPlain, new KeyChunkedInput(keys, Charset.defaultCharset, "", "", "")(_ + System.lineSeparator))
+         case TextPlainUtf8 =>
+            streamed(request, TextPlainUtf8, new KeyChunkedInput(keys, CharsetUtil.UTF_8, "", "", "")(_ + System.lineSeparator))
+         case null => status(request, NOT_ACCEPTABLE)
+      }
+   }
+
+   private def getEntry(request: FullHttpRequest, cacheName: String, key: String, extended: Boolean): FullHttpResponse =
+      withFreshEntry(request, cacheName, key) { (ice, lastMod, expires) =>
+         ice.getMetadata match {
+            case meta: MimeMetadata =>
+               evaluatePreconditions(request, lastMod, calcETag(ice, meta)).getOrElse {
+                  val response = entity(request, Unpooled.wrappedBuffer(ice.getValue.asInstanceOf[Array[Byte]]), meta.contentType)
+                  entryHeaders(response, lastMod, expires, meta)
+                  response.headers.set(ETAG, calcETag(ice, meta))
+                  extendedHeaders(response, cacheName, key, extended)
+               }
+            case meta: Metadata =>
+               getAnyEntry(request, ice.getValue, meta, lastMod, expires, cacheName, key, extended)
+         }
+      }
+
+   private def getAnyEntry(request: FullHttpRequest, value: AnyRef, meta: Metadata, lastMod: Date, expires: Date,
+                           cacheName: String, key: String, extended: Boolean): FullHttpResponse = value match {
+      case s: String =>
+         entryHeaders(text(request, OK, s, CharsetUtil.UTF_8, TextPlain), lastMod, expires, meta)
+      case ba: Array[Byte] =>
+         val response = entity(request, Unpooled.wrappedBuffer(ba), ApplicationOctetStream)
+         extendedHeaders(entryHeaders(response, lastMod, expires, meta), cacheName, key, extended)
+      case obj =>
+         // For objects other than String or byte arrays, accept only JSON, XML and X_JAVA_SERIALIZABLE_OBJECT
+         val selectedMediaType = selectMediaType(request, ObjectMediaTypes)
+         val content = Unpooled.buffer()
+         val out = new ByteBufOutputStream(content)
+         selectedMediaType match {
+            case ApplicationJson => jsonMapper.writeValue(out, obj)
+            case ApplicationXml => xstream.toXML(obj, out)
+            case ApplicationXJavaSerializedObject if obj.isInstanceOf[Serializable] =>
+               val oos = new ObjectOutputStream(out)
+               oos.writeObject(obj)
+               oos.flush()
+            case _ =>
+               content.release()
+               return status(request, NOT_ACCEPTABLE)
+         }
+         val response = entity(request, content, selectedMediaType)
+         extendedHeaders(entryHeaders(response, lastMod, expires, meta), cacheName, key, extended)
+   }
+
+   private def headEntry(request: FullHttpRequest, cacheName: String, key: String, extended: Boolean): FullHttpResponse =
+      withFreshEntry(request, cacheName, key) { (ice, lastMod, expires) =>
+         ice.getMetadata match {
+            case meta: MimeMetadata =>
+               evaluatePreconditions(request, lastMod, calcETag(ice, meta)).getOrElse {
+                  val response = status(request, OK)
+                  response.headers.set(CONTENT_TYPE, meta.contentType)
+                  entryHeaders(response, lastMod, expires, meta)
+                  response.headers.set(ETAG, calcETag(ice, meta))
+                  extendedHeaders(response, cacheName, key, extended)
+               }
+            case meta: Metadata =>
+               extendedHeaders(entryHeaders(status(request, OK), lastMod, expires, meta), cacheName, key, extended)
+         }
+      }
+
+   private def withFreshEntry(request: FullHttpRequest, cacheName: String, key: String)
+         (op: (InternalCacheEntry[String, AnyRef], Date, Date) => FullHttpResponse): FullHttpResponse = {
+      manager.getInternalEntry[AnyRef](cacheName, key) match {
+         case ice: InternalCacheEntry[String, AnyRef] =>
+            val lastMod = lastModified(ice)
+            val expires = if (ice.canExpire) new Date(ice.getExpiryTime) else null
+            if (entryFreshEnough(expires, minFresh(request.headers.get(CACHE_CONTROL))))
+               op(ice, lastMod, expires)
+            else
+               status(request, NOT_FOUND)
+         case _ => status(request, NOT_FOUND)
+      }
+   }
+
+   private def putEntry(request: FullHttpRequest, cacheName: String, key: String, useAsync: Boolean): FullHttpResponse = {
+      val cache = manager.getCache(cacheName)
+      if (request.getMethod == HttpMethod.POST && cache.containsKey(key)) {
+         status(request, CONFLICT)
+      } else {
+         val data = new Array[Byte](request.content.readableBytes)
+         request.content.readBytes(data)
+         val mediaType = request.headers.get(CONTENT_TYPE)
+         val ttl = longHeader(request, TimeToLiveHeader)
+         val idleTime = longHeader(request, MaxIdleTimeHeader)
+         val prevCond = manager.getInternalEntry[AnyRef](cacheName, key, skipListener = true) match {
+            case ice: InternalCacheEntry[String, AnyRef] =>
+               ice.getMetadata match {
+                  case mime: MimeMetadata =>
+                     // The item already exists in the cache, evaluate preconditions based on its attributes and the headers
+                     evaluatePreconditions(request, lastModified(ice), calcETag(ice, mime)) match {
+                        case Some(failed) => return failed
+                        case None => Some(ice.getValue.asInstanceOf[Array[Byte]])
+                     }
+                  case _ => None
+               }
+            case _ => None
+         }
+         val metadata = createMetadata(cache.getCacheConfiguration, mediaType, ttl, idleTime)
+         if (useAsync) {
+            cache.putAsync(key, data, metadata)
+            status(request, OK)
+         } else prevCond match {
+            case None =>
+               cache.put(key, data, metadata)
+               status(request, OK)
+            case Some(prev) =>
+               // If not replaced, simply send back that the precondition failed
+               if (cache.replace(key, prev, data, metadata)) status(request, OK)
+               else status(request, PRECONDITION_FAILED)
+         }
+      }
+   }
+
+   private def removeEntry(request: FullHttpRequest, cacheName: String, key: String, useAsync: Boolean): FullHttpResponse = {
+      manager.getInternalEntry[AnyRef](cacheName, key) match {
+         case ice: InternalCacheEntry[String, AnyRef] =>
+            val preconditionFailed = ice.getMetadata match {
+               case meta: MimeMetadata => evaluatePreconditions(request, lastModified(ice), calcETag(ice, meta))
+               case _ => None
+            }
+            preconditionFailed.getOrElse {
+               if (useAsync) manager.getCache(cacheName).removeAsync(key)
+               else manager.getCache(cacheName).remove(key)
+               status(request, OK)
+            }
+         case _ => status(request, NOT_FOUND)
+      }
+   }
+
+   private def killCache(request: FullHttpRequest, cacheName: String): FullHttpResponse = {
+      val headers = request.headers
+      if (headers.contains(IF_MATCH) || headers.contains(IF_NONE_MATCH)
+            || headers.contains(IF_MODIFIED_SINCE) || headers.contains(IF_UNMODIFIED_SINCE)) {
+         text(request, NOT_IMPLEMENTED,
+            "Preconditions were not implemented yet for PUT, POST, and DELETE methods.", CharsetUtil.UTF_8, TextPlain)
+      } else {
+         manager.getCache(cacheName).clear()
+         status(request, OK)
+      }
+   }
+
+   /**
+    * Evaluates the conditional headers of the request against the entity tag and then the last modification date of
+    * the entry, returning the response to send if one of them fails.
+    */
+   private def evaluatePreconditions(request: FullHttpRequest, lastMod: Date, etag: String): Option[FullHttpResponse] = {
+      val headers = request.headers
+      val isRead = request.getMethod == HttpMethod.GET || request.getMethod == HttpMethod.HEAD
+      val ifMatch = headers.get(IF_MATCH)
+      if (ifMatch != null && !matchesETag(ifMatch, etag))
+         return Some(status(request, PRECONDITION_FAILED))
+
+      val ifNoneMatch = headers.get(IF_NONE_MATCH)
+      if (ifNoneMatch != null && matchesETag(ifNoneMatch, etag)) {
+         if (!isRead)
+            return Some(status(request, PRECONDITION_FAILED))
+         val notModified = status(request, NOT_MODIFIED)
+         notModified.headers.set(ETAG, etag)
+         return Some(notModified)
+      }
+
+      val ifUnmodifiedSince = HttpHeaders.getDateHeader(request, IF_UNMODIFIED_SINCE, null)
+      if (ifUnmodifiedSince != null && lastMod.getTime > ifUnmodifiedSince.getTime)
+         return Some(status(request, PRECONDITION_FAILED))
+
+      val ifModifiedSince = HttpHeaders.getDateHeader(request, IF_MODIFIED_SINCE, null)
+      if (isRead && ifModifiedSince != null && lastMod.getTime <= ifModifiedSince.getTime)
+         return Some(status(request, NOT_MODIFIED))
+
+      None
+   }
+
+   private def matchesETag(header: String, etag: String): Boolean =
+      header.split(",").map(_.trim).exists(tag => tag == "*" || unquote(tag) == unquote(etag))
+
+   private def unquote(tag: String): String = {
+      val strong = if (tag.startsWith("W/")) tag.substring(2) else tag
+      if (strong.length > 1 && strong.startsWith("\"") && strong.endsWith("\"")) strong.substring(1, strong.length - 1)
+      else strong
+   }
+
+   private def entryHeaders(response: FullHttpResponse, lastMod: Date, expires: Date, meta: Metadata): FullHttpResponse = {
+      val headers = response.headers
+      HttpHeaders.setDateHeader(response, LAST_MODIFIED, lastMod)
+      if (expires != null) {
+         HttpHeaders.setDateHeader(response, EXPIRES, expires)
+         val maxAgeSeconds = calcFreshness(expires)
+         headers.set(CACHE_CONTROL, if (maxAgeSeconds > 0) "max-age=" + maxAgeSeconds else HttpHeaders.Values.NO_CACHE)
+      }
+      if (meta.lifespan() > -1)
+         headers.set(TimeToLiveHeader, MILLIS.toSeconds(meta.lifespan()).toString)
+      if (meta.maxIdle() > -1)
+         headers.set(MaxIdleTimeHeader, MILLIS.toSeconds(meta.maxIdle()).toString)
+      response
+   }
+
+   private def extendedHeaders(response: FullHttpResponse, cacheName: String, key: String, extended: Boolean): FullHttpResponse = {
+      val wanted = configuration.extendedHeaders() match {
+         case ExtendedHeaders.NEVER => false
+         case ExtendedHeaders.ON_DEMAND => extended
+      }
+      if (wanted) {
+         setIfNotNull(response, "Cluster-Primary-Owner", manager.getPrimaryOwner(cacheName, key))
+         setIfNotNull(response, "Cluster-Node-Name", manager.getNodeName)
+         setIfNotNull(response, "Cluster-Server-Address", manager.getServerAddress)
+      }
+      response
+   }
+
+   private def setIfNotNull(response: FullHttpResponse, name: String, value: Any): Unit =
+      if (value != null) response.headers.set(name, value.toString)
+
+   /**
+    * Selects the first of the given media types accepted by the client, in the order of preference of the client, or
+    * null if none of them is acceptable.
+    */
+   private def selectMediaType(request: FullHttpRequest, mediaTypes: Seq[String]): String = {
+      val accept = request.headers.getAll(ACCEPT).asScala.flatMap(_.split(",")).map(_.trim).filter(!_.isEmpty)
+      if (accept.isEmpty)
+         return mediaTypes.head
+
+      val ranges = accept.map(parseMediaType).filter(_.quality > 0).sortBy(-_.quality)
+      ranges.view.flatMap(range => mediaTypes.find(mediaType => range.includes(parseMediaType(mediaType)))).headOption.orNull
+   }
+
+   private def decodePathSegment(segment: String): String =
+      // Unlike in the query string, a '+' is not an encoded space in the path
+      QueryStringDecoder.decodeComponent(segment.replace("+", "%2B"), CharsetUtil.UTF_8)
+
+   private def longHeader(request: FullHttpRequest, name: String): Long = {
+      val value = request.headers.get(name)
+      if (value == null) -1 else value.trim.toLong
+   }
+
+   private def entity(request: FullHttpRequest, content: ByteBuf, contentType: String): FullHttpResponse = {
+      val response = new DefaultFullHttpResponse(request.getProtocolVersion, OK, content)
+      if (contentType != null)
+         response.headers.set(CONTENT_TYPE, contentType)
+      response
+   }
+
+   private def text(request: FullHttpRequest, status: HttpResponseStatus, text: String, charset: Charset,
+                    contentType: String = null): FullHttpResponse = {
+      val response = new DefaultFullHttpResponse(request.getProtocolVersion, status, Unpooled.copiedBuffer(text, charset))
+      if (contentType != null)
+         response.headers.set(CONTENT_TYPE, contentType)
+      response
+   }
+
+   private def streamed(request: FullHttpRequest, contentType: String, content: ChunkedInput[ByteBuf]): HttpResponse = {
+      val response = new ChunkedHttpResponse(request.getProtocolVersion, new HttpChunkedInput(content))
+      response.headers.set(CONTENT_TYPE, contentType)
+      response
+   }
+
+   private def status(request: FullHttpRequest, status: HttpResponseStatus): FullHttpResponse =
+      new DefaultFullHttpResponse(request.getProtocolVersion, status)
+
+}
+
+object RestRequestHandler {
+   private val log = LogFactory.getLog(classOf[RestRequestHandler], classOf[JavaLog])
+
+   val TimeToLiveHeader = "timeToLiveSeconds"
+   val MaxIdleTimeHeader = "maxIdleTimeSeconds"
+
+   val TextHtml = "text/html"
+   val TextPlain = "text/plain"
+   val TextPlainUtf8 = "text/plain;charset=UTF-8"
+   val ApplicationXml = "application/xml"
+   val ApplicationJson = "application/json"
+   val ApplicationOctetStream = "application/octet-stream"
+   val ApplicationXJavaSerializedObject = "application/x-java-serialized-object"
+
+   private val CollectionMediaTypes = Seq(TextHtml, ApplicationXml, ApplicationJson, TextPlain, TextPlainUtf8)
+   private val ObjectMediaTypes = Seq(ApplicationXml, ApplicationXJavaSerializedObject, ApplicationJson)
+
+   private val hashFunc = MurmurHash3.getInstance
+
+   private case class MediaRange(mainType: String, subType: String, charset: Option[String], quality: Double) {
+      def includes(mediaType: MediaRange): Boolean =
+         (mainType == "*" || mainType == mediaType.mainType) &&
+               (subType == "*" || subType == mediaType.subType) &&
+               charset.forall(c => mediaType.charset.exists(_.equalsIgnoreCase(c)))
+   }
+
+   private def parseMediaType(value: String): MediaRange = {
+      val parts = value.split(";").map(_.trim)
+      val types = parts(0).toLowerCase.split("/", 2)
+      val params = parts.drop(1).map(_.split("=", 2)).collect {
+         case Array(name, paramValue) => name.trim.toLowerCase -> paramValue.trim
+      }.toMap
+      val quality = params.get("q").map(q => try q.toDouble catch { case e: NumberFormatException => 0.0 }).getOrElse(1.0)
+      MediaRange(types(0), if (types.length > 1) types(1) else "*", params.get("charset"), quality)
+   }
+
+   private def calcETag[K, V](entry: InternalCacheEntry[K, V], meta: MimeMetadata): String =
+      "\"" + meta.contentType + hashFunc.hash(entry.getValue) + "\""
+
+   private def lastModified[K, V](ice: InternalCacheEntry[K, V]): Date = new Date(ice.getCreated / 1000 * 1000)
+
+   private def minFresh(cacheControl: String): Option[Int] =
+      if (cacheControl == null) None
+      else cacheControl.split(",").find(_.contains("min-fresh")).map(_.split("=").last.trim.toInt)
+
+   private def entryFreshEnough(entryExpires: Date, minFresh: Option[Int]): Boolean =
+      minFresh.forall(_ < calcFreshness(entryExpires))
+
+   private def calcFreshness(expires: Date): Int =
+      if (expires == null) Int.MaxValue
+      else ((expires.getTime - new Date().getTime) / 1000).toInt
+
+   private def createMetadata(cfg: Configuration, dataType: String, ttl: Long, idleTime: Long): Metadata = {
+      val metadata = new MimeMetadataBuilder
+      metadata.contentType(dataType)
+      (ttl, idleTime) match {
+         case (0, 0) =>
+            metadata.lifespan(cfg.expiration().lifespan(), MILLIS)
+                  .maxIdle(cfg.expiration().maxIdle(), MILLIS)
+         case (0, maxIdle) =>
+            metadata.lifespan(cfg.expiration().lifespan(), MILLIS)
+                  .maxIdle(maxIdle, SECS)
+         case (lifespan, 0) =>
+            metadata.lifespan(lifespan, SECS)
+                  .maxIdle(cfg.expiration().maxIdle(), MILLIS)
+         case (lifespan, maxIdle) =>
+            metadata.lifespan(lifespan, SECS)
+                  .maxIdle(maxIdle, SECS)
+      }
+      metadata.build()
+   }
+}
+
+/**
+ * A response whose content is written after it, as the chunks read from the given input.
+ */
+private class ChunkedHttpResponse(version: HttpVersion, val content: HttpChunkedInput)
+      extends DefaultHttpResponse(version, HttpResponseStatus.OK)
+
+/**
+ * Reads the keys of a cache as they are retrieved by the given iterator, formatting each of them with the given
+ * function, and returns them in chunks of roughly {@link KeyChunkedInput#ChunkSize} characters. The iterator is closed
+ * once the content is written, or if the channel is closed before.
+ */
+private class KeyChunkedInput(keys: CloseableIterator[String], charset: Charset, header: String, separator: String,
+                              footer: String)(format: String => String) extends ChunkedInput[ByteBuf] {
+
+   private var first = true
+   private var ended = false
+
+   override def isEndOfInput: Boolean = ended
+
+   override def readChunk(ctx: ChannelHandlerContext): ByteBuf = {
+      if (ended) return null
+      val chunk = new java.lang.StringBuilder
+      if (first) chunk.append(header)
+      while (chunk.length < KeyChunkedInput.ChunkSize && keys.hasNext) {
+         if (!first) chunk.append(separator)
+         chunk.append(format(keys.next))
+         first = false
+      }
+      if (!keys.hasNext) {
+         chunk.append(footer)
+         ended = true
+      }
+      Unpooled.copiedBuffer(chunk, charset)
+   }
+
+   override def close(): Unit = keys.close()
+}
+
+private object KeyChunkedInput {
+   val ChunkSize = 8192
+}
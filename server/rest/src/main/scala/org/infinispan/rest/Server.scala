@@ -19,7 +19,6 @@ import javax.servlet.http.HttpServletResponse
 import javax.servlet.ServletContext
 import scala.collection.JavaConverters._
 import scala.xml.Utility
-import org.infinispan.tasks.GlobalKeySetTask
 import org.infinispan.commons.util.CollectionFactory
 import org.infinispan.container.entries.CacheEntry
 import org.infinispan.container.entries.InternalCacheEntry
@@ -75,12 +74,13 @@ class Server(@Context request: Request, @Context servletContext: ServletContext,
    @Path("/{cacheName}")
    def getKeys(@PathParam("cacheName") cacheName: String, @QueryParam("global") globalKeySet: String): Response = {
       protectCacheNotFound(request, useAsync) { (request, useAsync) => {
+         // The key set spans the whole cluster and is retrieved lazily while the response is written, so the
+         // global parameter is accepted for compatibility only
          val cache = manager.getCache(cacheName)
-         val keys = (if (globalKeySet !=null) GlobalKeySetTask.getGlobalKeySet(cache) else cache.keySet()).asScala
          val variant = request.selectVariant(collectionVariantList)
          val selectedMediaType = if (variant != null) variant.getMediaType.toString else null
          selectedMediaType match {
-            case MediaType.TEXT_HTML => Response.ok.`type`(MediaType.TEXT_HTML).entity(printIt( pw => {
+            case MediaType.TEXT_HTML => Response.ok.`type`(MediaType.TEXT_HTML).entity(printIt( pw => withKeys(cache) { keys =>
                pw.print("<html><body>")
                keys.foreach(key => {
                   val hkey = Escaper.escapeHtml(key)
@@ -88,14 +88,13 @@ class Server(@Context request: Request, @Context servletContext: ServletContext,
                })
                pw.print("</body></html>")
             })).build
-            case MediaType.APPLICATION_XML => Response.ok.`type`(MediaType.APPLICATION_XML).entity(printIt( pw => {
+            case MediaType.APPLICATION_XML => Response.ok.`type`(MediaType.APPLICATION_XML).entity(printIt( pw => withKeys(cache) { keys =>
                pw.print("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n\n<keys>")
                keys.foreach(key => pw.printf("<key>%s</key>", Escaper.escapeXml(key)))
                pw.print("</keys>")
             })).build
-            case MediaType.APPLICATION_JSON => Response.ok.`type`(MediaType.APPLICATION_JSON).entity(printIt( pw => {
+            case MediaType.APPLICATION_JSON => Response.ok.`type`(MediaType.APPLICATION_JSON).entity(printIt( pw => withKeys(cache) { it =>
                pw.print("keys=[")
-               val it = keys.iterator
                while (it.hasNext) {
                   pw.printf("\"%s\"", Escaper.escapeJson(it.next()))
                   if (it.hasNext) pw.print(",")
@@ -103,8 +102,8 @@ class Server(@Context request: Request, @Context servletContext: ServletContext,
                }
                pw.print("]")
             })).build
-            case MediaType.TEXT_PLAIN => Response.ok.`type`(MediaType.TEXT_PLAIN).entity(printIt( pw => keys.foreach(pw.println(_)) )).build
-            case TEXT_PLAIN_UTF8 => Response.ok.`type`(TEXT_PLAIN_UTF8_TYPE).entity(printItUTF8( writer => {
+            case MediaType.TEXT_PLAIN => Response.ok.`type`(MediaType.TEXT_PLAIN).entity(printIt( pw => withKeys(cache)(_.foreach(pw.println(_))) )).build
+            case TEXT_PLAIN_UTF8 => Response.ok.`type`(TEXT_PLAIN_UTF8_TYPE).entity(printItUTF8( writer => withKeys(cache) { keys =>
                keys.foreach(key => {
                   writer.write(key)
                   writer.write(System.lineSeparator());
@@ -116,6 +115,11 @@ class Server(@Context request: Request, @Context servletContext: ServletContext,
       }
    }
 
+   private def withKeys(cache: AdvancedCache[String, Array[Byte]])(action: Iterator[String] => Unit): Unit = {
+      val keys = cache.keySet.iterator
+      try action(keys.asScala) finally keys.close()
+   }
+
    @GET
    @Path("/{cacheName}/{cacheKey}")
    def getEntry[V](@PathParam("cacheName") cacheName: String,
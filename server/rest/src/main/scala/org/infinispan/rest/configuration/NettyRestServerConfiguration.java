@@ -0,0 +1,50 @@
+package org.infinispan.rest.configuration;
+
+import org.infinispan.commons.configuration.BuiltBy;
+import org.infinispan.server.core.configuration.ProtocolServerConfiguration;
+import org.infinispan.server.core.configuration.SslConfiguration;
+
+/**
+ * Configuration of the Netty based REST server, {@link org.infinispan.rest.NettyRestServer}.
+ *
+ * @since 7.2
+ */
+@BuiltBy(NettyRestServerConfigurationBuilder.class)
+public class NettyRestServerConfiguration extends ProtocolServerConfiguration {
+   private final ExtendedHeaders extendedHeaders;
+   private final String contextPath;
+   private final int maxContentLength;
+
+   NettyRestServerConfiguration(String defaultCacheName, String name, String host, int port, int idleTimeout, int recvBufSize,
+         int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads, int requestThreads,
+         ExtendedHeaders extendedHeaders, String contextPath, int maxContentLength) {
+      super(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl, tcpNoDelay, workerThreads, requestThreads);
+      this.extendedHeaders = extendedHeaders;
+      this.contextPath = contextPath;
+      this.maxContentLength = maxContentLength;
+   }
+
+   public ExtendedHeaders extendedHeaders() {
+      return extendedHeaders;
+   }
+
+   /**
+    * The path under which the caches are exposed, e.g. {@code /rest} for {@code /rest/<cacheName>/<cacheKey>}
+    */
+   public String contextPath() {
+      return contextPath;
+   }
+
+   /**
+    * The maximum size in bytes of the body of a request
+    */
+   public int maxContentLength() {
+      return maxContentLength;
+   }
+
+   @Override
+   public String toString() {
+      return "NettyRestServerConfiguration [extendedHeaders=" + extendedHeaders + ", contextPath=" + contextPath
+            + ", maxContentLength=" + maxContentLength + ", " + super.toString() + "]";
+   }
+}
@@ -0,0 +1,85 @@
+package org.infinispan.rest.configuration;
+
+import org.infinispan.commons.configuration.Builder;
+import org.infinispan.rest.logging.JavaLog;
+import org.infinispan.server.core.configuration.ProtocolServerConfigurationBuilder;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * NettyRestServerConfigurationBuilder.
+ *
+ * @since 7.2
+ */
+public class NettyRestServerConfigurationBuilder extends ProtocolServerConfigurationBuilder<NettyRestServerConfiguration, NettyRestServerConfigurationBuilder> implements
+      Builder<NettyRestServerConfiguration> {
+   private static final JavaLog log = LogFactory.getLog(NettyRestServerConfigurationBuilder.class, JavaLog.class);
+
+   private ExtendedHeaders extendedHeaders = ExtendedHeaders.ON_DEMAND;
+   private String contextPath = "/rest";
+   private int maxContentLength = 10 * 1024 * 1024;
+
+   public NettyRestServerConfigurationBuilder() {
+      super(8080);
+   }
+
+   @Override
+   public NettyRestServerConfigurationBuilder self() {
+      return this;
+   }
+
+   public NettyRestServerConfigurationBuilder extendedHeaders(ExtendedHeaders extendedHeaders) {
+      this.extendedHeaders = extendedHeaders;
+      return this;
+   }
+
+   public NettyRestServerConfigurationBuilder contextPath(String contextPath) {
+      this.contextPath = contextPath;
+      return this;
+   }
+
+   public NettyRestServerConfigurationBuilder maxContentLength(int maxContentLength) {
+      this.maxContentLength = maxContentLength;
+      return this;
+   }
+
+   @Override
+   public void validate() {
+      super.validate();
+      if (contextPath == null || !contextPath.startsWith("/")) {
+         throw log.illegalContextPath(contextPath);
+      }
+      if (maxContentLength < 1) {
+         throw log.illegalMaxContentLength(maxContentLength);
+      }
+   }
+
+   @Override
+   public NettyRestServerConfiguration create() {
+      // Without the trailing slash, so that the paths are always <contextPath>/<cacheName>
+      String path = contextPath.endsWith("/") ? contextPath.substring(0, contextPath.length() - 1) : contextPath;
+      return new NettyRestServerConfiguration(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize,
+            ssl.create(), tcpNoDelay, workerThreads, requestThreads, extendedHeaders, path, maxContentLength);
+   }
+
+   @Override
+   public NettyRestServerConfigurationBuilder read(NettyRestServerConfiguration template) {
+      super.read(template);
+      this.extendedHeaders = template.extendedHeaders();
+      this.contextPath = template.contextPath();
+      this.maxContentLength = template.maxContentLength();
+      return this;
+   }
+
+   public NettyRestServerConfiguration build(boolean validate) {
+      if (validate) {
+         validate();
+      }
+      return create();
+   }
+
+   @Override
+   public NettyRestServerConfiguration build() {
+      return build(true);
+   }
+
+}
@@ -1,7 +1,9 @@
 package org.infinispan.rest.logging;
 
 import static org.jboss.logging.Logger.Level.ERROR;
+import static org.jboss.logging.Logger.Level.WARN;
 
+import org.infinispan.commons.CacheConfigurationException;
 import org.jboss.logging.annotations.Cause;
 import org.jboss.logging.annotations.LogMessage;
 import org.jboss.logging.annotations.Message;
@@ -24,4 +26,14 @@ public interface JavaLog extends org.infinispan.util.logging.Log {
    @LogMessage(level = ERROR)
    @Message(value = "Error while retrieving cache manager from JBoss Microcontainer", id = 12002)
    void errorRetrievingCacheManagerFromMC(@Cause Throwable t);
+
+   @Message(value = "Illegal context path %s, it must start with '/'", id = 12003)
+   CacheConfigurationException illegalContextPath(String contextPath);
+
+   @Message(value = "Illegal maximum content length %d, it must be greater than 0", id = 12004)
+   CacheConfigurationException illegalMaxContentLength(int maxContentLength);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Unexpected error processing REST request %s %s", id = 12005)
+   void errorProcessingRequest(@Cause Throwable t, Object method, String uri);
 }
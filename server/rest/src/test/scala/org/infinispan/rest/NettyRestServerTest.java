@@ -0,0 +1,175 @@
+package org.infinispan.rest;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.HttpMethodBase;
+import org.apache.commons.httpclient.SimpleHttpConnectionManager;
+import org.apache.commons.httpclient.methods.ByteArrayRequestEntity;
+import org.apache.commons.httpclient.methods.DeleteMethod;
+import org.apache.commons.httpclient.methods.GetMethod;
+import org.apache.commons.httpclient.methods.HeadMethod;
+import org.apache.commons.httpclient.methods.PostMethod;
+import org.apache.commons.httpclient.methods.PutMethod;
+import org.infinispan.Cache;
+import org.infinispan.commons.api.BasicCacheContainer;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.rest.configuration.NettyRestServerConfigurationBuilder;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the {@link NettyRestServer}, without a servlet container.
+ *
+ * @since 7.2
+ */
+@Test(groups = "functional", testName = "rest.NettyRestServerTest")
+public class NettyRestServerTest extends AbstractInfinispanTest {
+
+   private EmbeddedCacheManager cacheManager;
+   private NettyRestServer server;
+   private HttpClient client;
+   private String cachePath;
+
+   @BeforeClass
+   protected void setUp() {
+      cacheManager = TestCacheManagerFactory.createCacheManager();
+      server = new NettyRestServer();
+      int port = RestTestingUtil.UniquePortThreadLocal.get();
+      server.start(new NettyRestServerConfigurationBuilder().host("localhost").port(port).build(), cacheManager);
+      cachePath = "http://localhost:" + port + "/rest/" + BasicCacheContainer.DEFAULT_CACHE_NAME;
+      client = new HttpClient();
+   }
+
+   @AfterClass(alwaysRun = true)
+   protected void tearDown() {
+      ((SimpleHttpConnectionManager) client.getHttpConnectionManager()).shutdown();
+      if (server != null)
+         server.stop();
+      TestingUtil.killCacheManagers(cacheManager);
+   }
+
+   public void testPutGetRemove() throws Exception {
+      PutMethod put = new PutMethod(cachePath + "/k1");
+      put.setRequestEntity(new ByteArrayRequestEntity("v1".getBytes(), "text/plain"));
+      assertEquals(HttpServletResponse.SC_OK, call(put).getStatusCode());
+
+      GetMethod get = (GetMethod) call(new GetMethod(cachePath + "/k1"));
+      assertEquals(HttpServletResponse.SC_OK, get.getStatusCode());
+      assertEquals("v1", get.getResponseBodyAsString());
+      assertEquals("text/plain", get.getResponseHeader("Content-Type").getValue());
+      assertNotNull(get.getResponseHeader("ETag"));
+      assertNotNull(get.getResponseHeader("Last-Modified"));
+
+      HeadMethod head = (HeadMethod) call(new HeadMethod(cachePath + "/k1"));
+      assertEquals(HttpServletResponse.SC_OK, head.getStatusCode());
+      assertEquals(get.getResponseHeader("ETag").getValue(), head.getResponseHeader("ETag").getValue());
+
+      assertEquals(HttpServletResponse.SC_OK, call(new DeleteMethod(cachePath + "/k1")).getStatusCode());
+      assertEquals(HttpServletResponse.SC_NOT_FOUND, call(new GetMethod(cachePath + "/k1")).getStatusCode());
+   }
+
+   public void testConditionalRequests() throws Exception {
+      PutMethod put = new PutMethod(cachePath + "/k2");
+      put.setRequestEntity(new ByteArrayRequestEntity("v2".getBytes(), "text/plain"));
+      call(put);
+      String etag = call(new GetMethod(cachePath + "/k2")).getResponseHeader("ETag").getValue();
+
+      GetMethod get = new GetMethod(cachePath + "/k2");
+      get.setRequestHeader("If-None-Match", etag);
+      assertEquals(HttpServletResponse.SC_NOT_MODIFIED, call(get).getStatusCode());
+
+      PutMethod conditionalPut = new PutMethod(cachePath + "/k2");
+      conditionalPut.setRequestHeader("If-Match", "\"no-match\"");
+      conditionalPut.setRequestEntity(new ByteArrayRequestEntity("v3".getBytes(), "text/plain"));
+      assertEquals(HttpServletResponse.SC_PRECONDITION_FAILED, call(conditionalPut).getStatusCode());
+
+      PostMethod post = new PostMethod(cachePath + "/k2");
+      post.setRequestEntity(new ByteArrayRequestEntity("v4".getBytes(), "text/plain"));
+      assertEquals(HttpServletResponse.SC_CONFLICT, call(post).getStatusCode());
+   }
+
+   public void testGetKeys() throws Exception {
+      PutMethod put = new PutMethod(cachePath + "/k%2F3");
+      put.setRequestEntity(new ByteArrayRequestEntity("v".getBytes(), "text/plain"));
+      call(put);
+
+      GetMethod get = new GetMethod(cachePath);
+      get.setRequestHeader("Accept", "text/plain");
+      call(get);
+      assertEquals(HttpServletResponse.SC_OK, get.getStatusCode());
+      assertTrue(get.getResponseBodyAsString().contains("k/3"));
+   }
+
+   public void testGetKeysInChunks() throws Exception {
+      // Enough keys for the listing to span several chunks
+      Cache<String, byte[]> cache = cacheManager.getCache(BasicCacheContainer.DEFAULT_CACHE_NAME);
+      for (int i = 0; i < 2000; i++) {
+         cache.put("chunked-key-" + i, "v".getBytes());
+      }
+
+      GetMethod get = new GetMethod(cachePath);
+      get.setRequestHeader("Accept", "application/json");
+      call(get);
+      assertEquals(HttpServletResponse.SC_OK, get.getStatusCode());
+      assertEquals("chunked", get.getResponseHeader("Transfer-Encoding").getValue());
+      String body = get.getResponseBodyAsString();
+      assertTrue(body.startsWith("keys=["));
+      assertTrue(body.endsWith("]"));
+      for (int i = 0; i < 2000; i++) {
+         assertTrue(body.contains("\"chunked-key-" + i + "\""));
+      }
+   }
+
+   public void testUnknownCache() throws Exception {
+      assertEquals(HttpServletResponse.SC_NOT_FOUND, call(new GetMethod(cachePath + "-unknown/k")).getStatusCode());
+   }
+
+   public void testPipelinedRequests() throws Exception {
+      String request = "GET /rest/" + BasicCacheContainer.DEFAULT_CACHE_NAME + " HTTP/1.1\r\nHost: localhost\r\n\r\n";
+      String lastRequest = "GET /rest/" + BasicCacheContainer.DEFAULT_CACHE_NAME
+            + " HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n";
+      Socket socket = new Socket(server.getHost(), server.getPort());
+      try {
+         OutputStream out = socket.getOutputStream();
+         out.write((request + request + lastRequest).getBytes("US-ASCII"));
+         out.flush();
+
+         // The server closes the connection after the last response
+         InputStream in = socket.getInputStream();
+         ByteArrayOutputStream responses = new ByteArrayOutputStream();
+         byte[] buffer = new byte[1024];
+         int read;
+         while ((read = in.read(buffer)) != -1) {
+            responses.write(buffer, 0, read);
+         }
+         assertEquals(3, responses.toString("US-ASCII").split("HTTP/1.1 200 OK", -1).length - 1);
+      } finally {
+         socket.close();
+      }
+   }
+
+   private HttpMethodBase call(HttpMethodBase method) throws Exception {
+      try {
+         client.executeMethod(method);
+         // Buffer the body so that it can be read after releasing the connection
+         method.getResponseBody();
+         return method;
+      } finally {
+         method.releaseConnection();
+      }
+   }
+}
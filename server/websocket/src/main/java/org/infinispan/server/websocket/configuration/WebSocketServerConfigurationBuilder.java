@@ -23,7 +23,7 @@ public WebSocketServerConfigurationBuilder self() {
 
    @Override
    public WebSocketServerConfiguration create() {
-      return new WebSocketServerConfiguration(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads);
+      return new WebSocketServerConfiguration(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads, requestThreads);
    }
 
    public WebSocketServerConfiguration build(boolean validate) {